@@ -24,6 +24,7 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
@@ -72,7 +73,30 @@ public interface API {
 
     void loadSource(Container.Entry entry, LoadSourceListener listener);
 
+    /**
+     * Searches the source of 'entry' locally, waiting at most the latency budget set in the preferences.
+     *
+     * @return the source, or null if not found within the budget
+     */
+    default String probeSource(Container.Entry entry) {
+        return null;
+    }
+
     File loadSourceFile(Container.Entry entry);
 
+    /**
+     * Starts the resolution of the sources of 'archive' and of its nested archives in background.
+     *
+     * @return a future to cancel the resolution
+     */
+    default Future<?> prefetchSources(Container.Entry archive) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Releases the sources resolved for 'archive' and for its nested archives.
+     */
+    default void evictSources(Container.Entry archive) {}
+
     void repaint();
 }
@@ -15,5 +15,10 @@ import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
 public interface ContentIndexable {
+    /**
+     * Name of the property fired by the components whose indexes have been updated in place after the first indexing.
+     */
+    String INDEXES_CHANGED_PROPERTY = "indexesChanged";
+
     Indexes index(API api, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction);
 }
@@ -7,9 +7,20 @@
 
 package org.jd.gui.api.feature;
 
+import java.util.function.Consumer;
+
 public interface ContentSearchable {
     boolean highlightText(String text, boolean caseSensitive);
 
+    /**
+     * Highlights 'text' without blocking the event dispatch thread.
+     *
+     * @param resultCallback called on the event dispatch thread, with true if 'text' has been found
+     */
+    default void highlightText(String text, boolean caseSensitive, Consumer<Boolean> resultCallback) {
+        resultCallback.accept(highlightText(text, caseSensitive));
+    }
+
     void findNext(String text, boolean caseSensitive);
 
     void findPrevious(String text, boolean caseSensitive);
@@ -0,0 +1,24 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.api.feature;
+
+import org.jd.gui.api.model.Container;
+
+/**
+ * Panel whose decompiled sources can be indexed and searched.
+ */
+public interface SourcesSearchable {
+    /**
+     * @return the root entry of the searched container
+     */
+    Container.Entry getSearchableEntry();
+
+    /**
+     * @return true once the container is closed: its index is not kept
+     */
+    boolean isSearchableClosed();
+}
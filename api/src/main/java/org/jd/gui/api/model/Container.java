@@ -34,6 +34,11 @@ public interface Container {
 
         long compressedLength();
 
+        /**
+         * @return the CRC-32 of the content recorded in the central directory of the archive, -1 if unknown
+         */
+        default long crc() { return -1L; }
+
         InputStream getInputStream();
 
         Map<EntryPath, Entry> getChildren();
@@ -7,6 +7,8 @@
 
 package org.jd.gui.api.model;
 
+import org.jd.gui.spi.Indexer;
+
 import java.util.Collection;
 import java.util.Map;
 
@@ -66,4 +68,11 @@ import java.util.Map;
 public interface Indexes {
     @SuppressWarnings("rawtypes")
     Map<String, Collection> getIndex(String name);
+
+    /**
+     * Defers the indexation of an entry by a resource indexer, after the indexation of the types.
+     *
+     * @return false if these indexes do not defer: the entry has to be indexed now
+     */
+    default boolean defer(Indexer indexer, Container.Entry entry) { return false; }
 }
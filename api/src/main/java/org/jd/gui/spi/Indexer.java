@@ -22,4 +22,10 @@ public interface Indexer {
     Pattern getPathPattern();
 
     void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction);
+
+    /**
+     * @return true if this indexer indexes resources, whose indexation may be deferred, see
+     *         {@link Indexes#defer(Indexer, Container.Entry)}. Resource indexers are called in parallel.
+     */
+    default boolean isResourceIndexer() { return false; }
 }
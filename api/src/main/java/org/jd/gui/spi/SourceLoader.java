@@ -11,6 +11,7 @@ import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 
 import java.io.File;
+import java.util.function.BooleanSupplier;
 
 public interface SourceLoader {
     String getSource(API api, Container.Entry entry);
@@ -18,4 +19,23 @@ public interface SourceLoader {
     String loadSource(API api, Container.Entry entry);
 
     File loadSourceFile(API api, Container.Entry entry);
+
+    /**
+     * Resolves the sources of the classes of 'archive' in advance, so that {@link #getSource(API, Container.Entry)}
+     * returns them without waiting. Called on a background thread once the archive is indexed.
+     */
+    default void prefetch(API api, Container.Entry archive, BooleanSupplier isCancelledFunction) {}
+
+    /**
+     * Releases the sources resolved for 'archive'. Called when the archive is closed.
+     */
+    default void evict(Container.Entry archive) {}
+
+    /**
+     * Searches the source of 'entry' without network access, in the sources already resolved and in the local
+     * repositories. Called on a background thread before decompiling 'entry', within a short latency budget.
+     */
+    default String probeSource(API api, Container.Entry entry) {
+        return null;
+    }
 }
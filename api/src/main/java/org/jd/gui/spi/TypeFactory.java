@@ -30,4 +30,9 @@ public interface TypeFactory {
      *         otherwise, return the type or sub-type matching with 'fragment'
      */
     Type make(API api, Container.Entry entry, String fragment);
+
+    /**
+     * Forget the types cached for 'entry', after its content has changed.
+     */
+    default void invalidate(Container.Entry entry) {}
 }
@@ -12,6 +12,8 @@ import org.jd.gui.controller.MainController;
 import org.jd.gui.model.configuration.Configuration;
 import org.jd.gui.service.configuration.ConfigurationPersister;
 import org.jd.gui.service.configuration.ConfigurationPersisterService;
+import org.jd.gui.util.StartupTimer;
+import org.jd.gui.util.index.SpilledIndexes;
 import org.jd.gui.util.net.InterProcessCommunicationUtil;
 
 import java.io.File;
@@ -33,7 +35,7 @@ public class App {
         } else {
             // Load preferences
             ConfigurationPersister persister = ConfigurationPersisterService.getInstance().get();
-            Configuration configuration = persister.load();
+            Configuration configuration = StartupTimer.measure("configuration", persister::load);
             Runtime.getRuntime().addShutdownHook(new Thread(() -> persister.save(configuration)));
 
             if ("true".equals(configuration.getPreferences().get(SINGLE_INSTANCE))) {
@@ -42,23 +44,20 @@ public class App {
                 } catch (Exception notTheFirstInstanceException) {
                     assert ExceptionUtil.printStackTrace(notTheFirstInstanceException);
                     // Send args to main windows and exit
-                    InterProcessCommunicationUtil.send(args);
-                    System.exit(0);
+                    if (InterProcessCommunicationUtil.send(args)) {
+                        System.exit(0);
+                    }
+                    // No instance acknowledged the arguments: the listener could not be opened, start as the first instance
                 }
             }
 
+            // Delete the indexes spilled by the instances which did not exit normally
+            Thread staleIndexesCleaner = new Thread(SpilledIndexes::deleteStaleFiles, "jd-gui-stale-indexes-cleaner");
+            staleIndexesCleaner.setDaemon(true);
+            staleIndexesCleaner.start();
+
             // Create SwingBuilder, set look and feel
-            try {
-                UIManager.setLookAndFeel(configuration.getLookAndFeel());
-            } catch (Exception e) {
-                assert ExceptionUtil.printStackTrace(e);
-                configuration.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-                try {
-                    UIManager.setLookAndFeel(configuration.getLookAndFeel());
-                } catch (Exception ee) {
-                    assert ExceptionUtil.printStackTrace(ee);
-                }
-           }
+            StartupTimer.measure("lookAndFeel", () -> setLookAndFeel(configuration));
 
             // Create main controller and show main frame
             controller = new MainController(configuration);
@@ -66,6 +65,20 @@ public class App {
         }
     }
 
+    protected static void setLookAndFeel(Configuration configuration) {
+        try {
+            UIManager.setLookAndFeel(configuration.getLookAndFeel());
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+            configuration.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            try {
+                UIManager.setLookAndFeel(configuration.getLookAndFeel());
+            } catch (Exception ee) {
+                assert ExceptionUtil.printStackTrace(ee);
+            }
+        }
+    }
+
     protected static boolean checkHelpFlag(String[] args) {
         if (args != null) {
             for (String arg : args) {
@@ -0,0 +1,153 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+package org.jd.gui.controller;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.feature.IndexesChangeListener;
+import org.jd.gui.api.model.Indexes;
+import org.jd.gui.util.index.IndexesUtil;
+import org.jd.gui.util.index.UsageFinder;
+import org.jd.gui.view.FindUsagesView;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.swing.JFrame;
+
+public class FindUsagesController implements IndexesChangeListener {
+    protected static final int MAX_USAGES = 5000;
+    protected static final int BATCH_SIZE = 200;
+    protected static final long BATCH_DELAY = 50_000_000L;
+
+    private final ScheduledExecutorService executor;
+    private final FindUsagesView findUsagesView;
+    // Incremented by each query: the previous searches stop
+    private final AtomicInteger searchCount = new AtomicInteger();
+    private Collection<Future<Indexes>> collectionOfFutureIndexes;
+    private Consumer<URI> openCallback;
+
+    public FindUsagesController(ScheduledExecutorService executor, JFrame mainFrame) {
+        this.executor = executor;
+        // Create UI
+        this.findUsagesView = new FindUsagesView(mainFrame, this::search, this::onUsageSelected);
+    }
+
+    /**
+     * @param typeName internal name of the focused type, null if none
+     */
+    public void show(Collection<Future<Indexes>> collectionOfFutureIndexes, String typeName, Consumer<URI> openCallback) {
+        // Init attributes
+        this.collectionOfFutureIndexes = collectionOfFutureIndexes;
+        this.openCallback = openCallback;
+        // Show, searching the usages of the focused type if the field is empty
+        if (typeName != null && findUsagesView.getMember().isEmpty()) {
+            findUsagesView.show(typeName.replace('/', '.'));
+        } else {
+            search(findUsagesView.getMember());
+            findUsagesView.show(null);
+        }
+    }
+
+    protected void search(String text) {
+        int id = searchCount.incrementAndGet();
+        Collection<Future<Indexes>> indexes = collectionOfFutureIndexes;
+        UsageFinder.Member member = parseMember(indexes, text.trim());
+
+        findUsagesView.clearUsages("Usages:");
+
+        if (member == null) {
+            return;
+        }
+
+        executor.execute(() -> {
+            if (id != searchCount.get()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            List<UsageFinder.Usage> batch = new ArrayList<>();
+            long[] lastFlush = { start };
+            int[] count = { 0 };
+
+            // Stream the usages by batches
+            UsageFinder.find(indexes, member, usage -> {
+                if (count[0]++ < MAX_USAGES) {
+                    batch.add(usage);
+
+                    long now = System.nanoTime();
+
+                    if (batch.size() >= BATCH_SIZE || now - lastFlush[0] > BATCH_DELAY) {
+                        findUsagesView.addUsages(new ArrayList<>(batch), count[0] + " usages...");
+                        batch.clear();
+                        lastFlush[0] = now;
+                    }
+                }
+            }, () -> id != searchCount.get() || count[0] >= MAX_USAGES);
+
+            if (id == searchCount.get()) {
+                long time = (System.nanoTime() - start) / 1_000_000;
+                String more = (count[0] >= MAX_USAGES) ? "+" : "";
+
+                findUsagesView.addUsages(batch, Math.min(count[0], MAX_USAGES) + more + " usages (" + time + " ms):");
+            }
+        });
+    }
+
+    /**
+     * Parses "type", "type.member" or "type.member(descriptor)", types in internal or qualified format.
+     *
+     * @return null if 'text' is empty
+     */
+    protected static UsageFinder.Member parseMember(Collection<Future<Indexes>> collectionOfFutureIndexes, String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        int index = text.indexOf('(');
+        String descriptor = (index == -1) ? null : text.substring(index);
+        String name = ((index == -1) ? text : text.substring(0, index)).replace('.', '/');
+
+        if (descriptor == null && IndexesUtil.containsInternalTypeName(collectionOfFutureIndexes, name)) {
+            return new UsageFinder.Member(name, null, null);
+        }
+
+        index = name.lastIndexOf('/');
+
+        if (index == -1) {
+            return new UsageFinder.Member(name, null, null);
+        }
+
+        return new UsageFinder.Member(name.substring(0, index), name.substring(index + 1), descriptor);
+    }
+
+    protected void onUsageSelected(UsageFinder.Usage usage) {
+        URI u = usage.entry().getUri();
+        String query = (usage.lineNumber() == 0) ? null : "lineNumber=" + usage.lineNumber();
+
+        try {
+            openCallback.accept(new URI(u.getScheme(), u.getHost(), u.getPath(), query, null));
+        } catch (URISyntaxException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    @Override
+    public void indexesChanged(Collection<Future<Indexes>> collectionOfFutureIndexes) {
+        if (findUsagesView.isVisible()) {
+            // Update the list of containers
+            this.collectionOfFutureIndexes = collectionOfFutureIndexes;
+            // And refresh
+            search(findUsagesView.getMember());
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.jd.gui.api.feature.IndexesChangeListener;
 import org.jd.gui.api.feature.LineNumberNavigable;
 import org.jd.gui.api.feature.PreferencesChangeListener;
 import org.jd.gui.api.feature.SourcesSavable;
+import org.jd.gui.api.feature.SourcesSearchable;
 import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
@@ -31,6 +32,8 @@ import org.jd.gui.service.fileloader.FileLoaderService;
 import org.jd.gui.service.indexer.IndexerService;
 import org.jd.gui.service.mainpanel.PanelFactoryService;
 import org.jd.gui.service.pastehandler.PasteHandlerService;
+import org.jd.gui.service.preferencespanel.ClassFileDecompilerPreferencesProvider;
+import org.jd.gui.service.preferencespanel.MavenOrgSourceLoaderPreferencesProvider;
 import org.jd.gui.service.preferencespanel.PreferencesPanelService;
 import org.jd.gui.service.sourceloader.Artifact;
 import org.jd.gui.service.sourceloader.MavenOrgSourceLoaderProvider;
@@ -48,14 +51,17 @@ import org.jd.gui.spi.SourceSaver;
 import org.jd.gui.spi.TreeNodeFactory;
 import org.jd.gui.spi.TypeFactory;
 import org.jd.gui.spi.UriLoader;
+import org.jd.gui.util.StartupTimer;
 import org.jd.gui.util.TempFile;
 import org.jd.gui.util.ZOutputStream;
 import org.jd.gui.util.container.JarContainerEntryUtil;
+import org.jd.gui.util.index.IndexingScheduler;
 import org.jd.gui.util.matcher.ArtifactVersionMatcher;
 import org.jd.gui.util.net.UriUtil;
 import org.jd.gui.util.swing.AbstractSwingWorker;
 import org.jd.gui.util.swing.SwingUtil;
 import org.jd.gui.view.MainView;
+import org.jd.gui.view.component.IndexingStateIcon;
 import org.jd.util.SHA1Util;
 
 import java.awt.Component;
@@ -77,6 +83,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -84,6 +91,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -124,22 +133,34 @@ public class MainController implements API {
     private OpenTypeHierarchyController openTypeHierarchyController;
     private PreferencesController preferencesController;
     private SearchInConstantPoolsController searchInConstantPoolsController;
+    private SearchInDecompiledSourcesController searchInDecompiledSourcesController;
+    private FindUsagesController findUsagesController;
     private SaveAllSourcesController saveAllSourcesController;
     private SelectLocationController selectLocationController;
     private AboutController aboutController;
     private SourceLoaderService sourceLoaderService;
 
-    private final History history = new History();
+    private final History history;
     private JComponent currentPage;
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+    // Creation of the containers of several files
+    private final ExecutorService loaderExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+        Thread thread = new Thread(runnable, "FileLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
     private final List<IndexesChangeListener> containerChangeListeners = new ArrayList<>();
+    private final Future<?> servicesInitialization;
 
     public MainController(Configuration configuration) {
         this.configuration = configuration;
+        this.history = new History(getHistoryCapacity(configuration));
 
-        SwingUtil.invokeLater(() ->
+        // Service initialization, in parallel with the construction of the main frame
+        servicesInitialization = executor.submit(MainController::initializeServices);
 
-        // Create main frame
+        SwingUtil.invokeLater(() -> StartupTimer.measure("mainFrame", () -> {
+            // Create main frame
             mainView = new MainView<>(
                 configuration, this, history,
                 e -> onOpen(),
@@ -162,6 +183,8 @@ public class MainController implements API {
                 e -> openURI(history.backward()),
                 e -> openURI(history.forward()),
                 e -> onSearch(),
+                e -> onSearchInDecompiledSources(),
+                e -> onFindUsages(),
                 e -> onJdWebSite(),
                 e -> onJdGuiIssues(),
                 e -> onJdCoreIssues(),
@@ -169,8 +192,39 @@ public class MainController implements API {
                 e -> onAbout(),
                 this::panelClosed,
                 this::onCurrentPageChanged,
-                this::openFile)
-        );
+                this::openFile);
+        }));
+    }
+
+    protected static int getHistoryCapacity(Configuration configuration) {
+        String capacity = configuration.getPreferences().get(History.CAPACITY_KEY);
+
+        if (capacity != null) {
+            try {
+                return Math.max(1, Integer.parseInt(capacity));
+            } catch (NumberFormatException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        return History.DEFAULT_CAPACITY;
+    }
+
+    protected static void initializeServices() {
+        StartupTimer.measure("services", () -> {
+            UriLoaderService.getInstance();
+            FileLoaderService.getInstance();
+            ContainerFactoryService.getInstance();
+            IndexerService.getInstance();
+            TreeNodeFactoryService.getInstance();
+            TypeFactoryService.getInstance();
+            PanelFactoryService.getInstance();
+            PasteHandlerService.getInstance();
+            PreferencesPanelService.getInstance();
+            ClassFileDecompilerPreferencesProvider.registerEngineKeys();
+            ContextualActionsFactoryService.getInstance();
+            SourceSaverService.getInstance();
+        });
     }
 
     // --- Show GUI --- //
@@ -179,6 +233,7 @@ public class MainController implements API {
         SwingUtil.invokeLater(() -> {
             // Show main frame
             mainView.show(configuration.getMainWindowLocation(), configuration.getMainWindowSize(), configuration.isMainWindowMaximize());
+            StartupTimer.mark("mainFrameShown");
             if (!files.isEmpty()) {
                 openFiles(files);
             }
@@ -186,13 +241,15 @@ public class MainController implements API {
 
         // Background initializations
         executor.schedule(() -> {
-            // Background service initialization
-            UriLoaderService.getInstance();
-            FileLoaderService.getInstance();
-            ContainerFactoryService.getInstance();
-            IndexerService.getInstance();
-            TreeNodeFactoryService.getInstance();
-            TypeFactoryService.getInstance();
+            // Wait for the background service initialization
+            try {
+                servicesInitialization.get();
+            } catch (InterruptedException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
 
             SwingUtil.invokeLater(() -> {
                 // Populate recent files menu
@@ -207,6 +264,9 @@ public class MainController implements API {
                 goToController = new GoToController(configuration, mainFrame);
                 searchInConstantPoolsController = new SearchInConstantPoolsController(MainController.this, executor, mainFrame);
                 containerChangeListeners.add(searchInConstantPoolsController);
+                searchInDecompiledSourcesController = new SearchInDecompiledSourcesController(MainController.this, executor, mainFrame);
+                findUsagesController = new FindUsagesController(executor, mainFrame);
+                containerChangeListeners.add(findUsagesController);
                 preferencesController = new PreferencesController(configuration, mainFrame, PreferencesPanelService.getInstance().getProviders());
                 selectLocationController = new SelectLocationController(MainController.this, mainFrame);
                 aboutController = new AboutController(mainFrame);
@@ -220,13 +280,10 @@ public class MainController implements API {
                 FileSystemView.getFileSystemView().isFileSystemRoot(new File("dummy"));
                 @SuppressWarnings({ "rawtypes", "unused" })
                 JLayer layer = new JLayer();
+                StartupTimer.mark("controllersCreated");
+                StartupTimer.print();
             });
         }, 400, TimeUnit.MILLISECONDS);
-
-        PasteHandlerService.getInstance();
-        PreferencesPanelService.getInstance();
-        ContextualActionsFactoryService.getInstance();
-        SourceSaverService.getInstance();
     }
 
     // --- Actions --- //
@@ -380,7 +437,7 @@ public class MainController implements API {
     protected void onFindCriteriaChanged() {
         if (currentPage instanceof ContentSearchable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
             ContentSearchable cs = (ContentSearchable) currentPage;
-            mainView.setFindBackgroundColor(cs.highlightText(mainView.getFindText(), mainView.getFindCaseSensitive()));
+            cs.highlightText(mainView.getFindText(), mainView.getFindCaseSensitive(), mainView::setFindBackgroundColor);
         }
     }
 
@@ -413,6 +470,23 @@ public class MainController implements API {
         searchInConstantPoolsController.show(getCollectionOfFutureIndexes(), this::openURI);
     }
 
+    protected void onSearchInDecompiledSources() {
+        JComponent currentPanel = mainView.getSelectedMainPanel();
+        if (currentPanel instanceof SourcesSearchable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+            SourcesSearchable sourcesSearchable = (SourcesSearchable) currentPanel;
+            searchInDecompiledSourcesController.show(sourcesSearchable, this::openURI);
+        }
+    }
+
+    protected void onFindUsages() {
+        String typeName = null;
+        if (currentPage instanceof FocusedTypeGettable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+            FocusedTypeGettable ftg = (FocusedTypeGettable) currentPage;
+            typeName = ftg.getFocusedTypeName();
+        }
+        findUsagesController.show(getCollectionOfFutureIndexes(), typeName, this::openURI);
+    }
+
     protected void onFindPrevious() {
         if (currentPage instanceof ContentSearchable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
             ContentSearchable cs = (ContentSearchable) currentPage;
@@ -481,11 +555,11 @@ public class MainController implements API {
         if (page instanceof PreferencesChangeListener) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
             PreferencesChangeListener pcl = (PreferencesChangeListener) page;
             Map<String, String> preferences = configuration.getPreferences();
-            Integer currentHashcode = preferences.hashCode();
-            Integer lastHashcode = (Integer) page.getClientProperty("preferences-hashCode");
-            if (!currentHashcode.equals(lastHashcode)) {
+            // Compare the values: the page decides which work the changed keys require
+            Object lastPreferences = page.getClientProperty("preferences");
+            if (!preferences.equals(lastPreferences)) {
                 pcl.preferencesChanged(preferences);
-                page.putClientProperty("preferences-hashCode", currentHashcode);
+                page.putClientProperty("preferences", new HashMap<>(preferences));
             }
         }
     }
@@ -742,10 +816,30 @@ public class MainController implements API {
         }
 
         if (errors.isEmpty()) {
-            for (File file : files) {
-                if (openURI(file.toURI())) {
-                    configuration.addRecentFile(file);
-                    mainView.updateRecentFilesMenu(configuration.getRecentFiles());
+            boolean concurrent = files.size() > 1;
+            List<File> sortedFiles = new ArrayList<>(files);
+
+            // Smallest files first: most of the tabs become searchable early
+            sortedFiles.sort(Comparator.comparingLong(File::length));
+
+            for (File file : sortedFiles) {
+                URI uri = file.toURI();
+
+                if (concurrent && !mainView.openUri(uri)) {
+                    UriLoader uriLoader = getUriLoader(uri);
+                    if (uriLoader != null) {
+                        // Panel added as soon as its container is created
+                        loaderExecutor.execute(() -> {
+                            if (uriLoader.load(this, uri)) {
+                                SwingUtil.invokeLater(() -> {
+                                    addURI(uri);
+                                    addRecentFile(file);
+                                });
+                            }
+                        });
+                    }
+                } else if (openURI(uri)) {
+                    addRecentFile(file);
                 }
             }
         } else {
@@ -768,6 +862,11 @@ public class MainController implements API {
         }
     }
 
+    protected void addRecentFile(File file) {
+        configuration.addRecentFile(file);
+        mainView.updateRecentFilesMenu(configuration.getRecentFiles());
+    }
+
     private final class IndexerWorker extends AbstractSwingWorker<Indexes, Void> {
         private final ContentIndexable ci;
 
@@ -895,17 +994,19 @@ public class MainController implements API {
     }
 
     protected void panelClosed() {
-        SwingUtil.invokeLater(() -> {
-            // Fire 'indexesChanged' event
-            Collection<Future<Indexes>> collectionOfFutureIndexes = getCollectionOfFutureIndexes();
-            for (IndexesChangeListener listener : containerChangeListeners) {
-                listener.indexesChanged(collectionOfFutureIndexes);
-            }
-            if (currentPage instanceof IndexesChangeListener) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
-                IndexesChangeListener icl = (IndexesChangeListener) currentPage;
-                icl.indexesChanged(collectionOfFutureIndexes);
-            }
-        });
+        SwingUtil.invokeLater(this::fireIndexesChanged);
+    }
+
+    protected void fireIndexesChanged() {
+        // Fire 'indexesChanged' event
+        Collection<Future<Indexes>> collectionOfFutureIndexes = getCollectionOfFutureIndexes();
+        for (IndexesChangeListener listener : containerChangeListeners) {
+            listener.indexesChanged(collectionOfFutureIndexes);
+        }
+        if (currentPage instanceof IndexesChangeListener) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+            IndexesChangeListener icl = (IndexesChangeListener) currentPage;
+            icl.indexesChanged(collectionOfFutureIndexes);
+        }
     }
 
     // --- API --- //
@@ -961,17 +1062,33 @@ public class MainController implements API {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends JComponent & UriGettable> void addPanel(File file, String title, Supplier<Icon> iconSupplier, String tip, T component) {
-        mainView.addMainPanel(title, iconSupplier, tip, component);
-
-        if (component instanceof ContentIndexable && file != null) {
-            // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
-            ContentIndexable ci = (ContentIndexable) component;
-            UIManager.put("ProgressMonitor.progressText", title);
-            SwingWorker<Indexes, Void> worker = new IndexerWorker(component, ci);
-            worker.execute();
+        SwingUtil.invokeLater(() -> {
+            if (component instanceof ContentIndexable && file != null) {
+                // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                ContentIndexable ci = (ContentIndexable) component;
+                UIManager.put("ProgressMonitor.progressText", title);
+                SwingWorker<Indexes, Void> worker = new IndexerWorker(component, ci);
+
+                // Badge of the tab, until the types are indexed
+                mainView.addMainPanel(title, IndexingStateIcon.supplier(iconSupplier, () -> getIndexingState(worker)), tip, component);
+                // Queued behind the smaller archives
+                IndexingScheduler.getInstance().execute(worker, file.isFile() ? file.length() : -1);
+
+                component.putClientProperty(INDEXES, worker);
+                // Indexes updated in place, after a change on disk
+                component.addPropertyChangeListener(ContentIndexable.INDEXES_CHANGED_PROPERTY, e -> fireIndexesChanged());
+            } else {
+                mainView.addMainPanel(title, iconSupplier, tip, component);
+            }
+        });
+    }
 
-            component.putClientProperty(INDEXES, worker);
-        }
+    protected static IndexingStateIcon.State getIndexingState(SwingWorker<?, ?> worker) {
+        return switch (worker.getState()) {
+            case PENDING -> IndexingStateIcon.State.QUEUED;
+            case STARTED -> IndexingStateIcon.State.INDEXING;
+            default -> IndexingStateIcon.State.INDEXED;
+        };
     }
 
     @Override
@@ -1111,11 +1228,37 @@ public class MainController implements API {
         });
     }
 
+    @Override
+    public String probeSource(Container.Entry entry) {
+        String probeTimeout = getPreferences().get(MavenOrgSourceLoaderPreferencesProvider.PROBE_TIMEOUT);
+        long timeoutMillis = MavenOrgSourceLoaderPreferencesProvider.DEFAULT_PROBE_TIMEOUT_VALUE;
+
+        if (probeTimeout != null && !probeTimeout.isEmpty()) {
+            try {
+                timeoutMillis = Long.parseLong(probeTimeout);
+            } catch (NumberFormatException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        return sourceLoaderService.probeSource(this, entry, timeoutMillis);
+    }
+
     @Override
     public File loadSourceFile(Container.Entry entry) {
         return sourceLoaderService.getSourceFile(this, entry);
     }
 
+    @Override
+    public Future<?> prefetchSources(Container.Entry archive) {
+        return sourceLoaderService.prefetch(this, archive);
+    }
+
+    @Override
+    public void evictSources(Container.Entry archive) {
+        sourceLoaderService.evict(archive);
+    }
+
     @Override
     public void repaint() {
         mainView.repaint();
@@ -11,6 +11,7 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
+import org.jd.gui.util.index.SummarizedIndex;
 import org.jd.gui.util.net.UriUtil;
 import org.jd.gui.view.OpenTypeView;
 import org.jd.util.LRUCache;
@@ -18,10 +19,12 @@ import org.jd.gui.api.feature.IndexesChangeListener;
 
 import java.awt.Point;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -101,7 +104,7 @@ public class OpenTypeController implements IndexesChangeListener {
                                 // Waiting the end of indexation...
                                 Map<String, Collection> index = indexes.getIndex("typeDeclarations");
 
-                                if (index != null && !index.isEmpty()) {
+                                if (index != null && !index.isEmpty() && mightMatch(pattern, index)) {
                                     matchingEntries = new HashMap<>();
 
                                     // Filter
@@ -186,6 +189,45 @@ public class OpenTypeController implements IndexesChangeListener {
         }
     }
 
+    /**
+     * @return false if the summary of a spilled index tells that no simple type name matches 'pattern'
+     */
+    @SuppressWarnings("rawtypes")
+    protected static boolean mightMatch(String pattern, Map<String, Collection> index) {
+        if (index instanceof SummarizedIndex) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+            SummarizedIndex summarizedIndex = (SummarizedIndex) index;
+            List<String> prefixes = List.of("");
+
+            // Characters matched as is, lower case characters matching both cases
+            for (int i = 0; i < Math.min(2, pattern.length()); i++) {
+                char c = pattern.charAt(i);
+
+                if (!Character.isLetterOrDigit(c) && c != '_') {
+                    break;
+                }
+
+                List<String> longerPrefixes = new ArrayList<>();
+
+                for (String prefix : prefixes) {
+                    longerPrefixes.add(prefix + c);
+                    if (Character.isLowerCase(c)) {
+                        longerPrefixes.add(prefix + Character.toUpperCase(c));
+                    }
+                }
+
+                prefixes = longerPrefixes;
+            }
+
+            for (String prefix : prefixes) {
+                if (summarizedIndex.mightHaveSimpleNameStartingWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Create a regular expression to match package, type and inner type name.
      *
@@ -18,12 +18,14 @@ import org.jd.gui.model.container.entry.path.FileEntryPath;
 import org.jd.gui.service.type.TypeFactoryService;
 import org.jd.gui.spi.TypeFactory;
 import org.jd.gui.util.function.TriConsumer;
+import org.jd.gui.util.index.SummarizedIndex;
 import org.jd.gui.view.SearchInConstantPoolsView;
 import org.jd.util.LRUCache;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -293,6 +295,9 @@ public class SearchInConstantPoolsController implements IndexesChangeListener {
             Map<String, Collection> matchedEntries = cache.computeIfAbsent(key, k -> {
                 Map<String, Collection> index = indexes.getIndex(indexName);
                 if (index != null) {
+                    if (!mightMatch(indexName, pattern, index)) {
+                        return Collections.emptyMap();
+                    }
                     if (patternLength == 1) {
                         return matchWithCharFunction.apply(pattern.charAt(0), index);
                     }
@@ -312,6 +317,32 @@ public class SearchInConstantPoolsController implements IndexesChangeListener {
         }
     }
 
+    /**
+     * @return false if the summary of a spilled index tells that no key matches 'pattern': the index is not read
+     */
+    @SuppressWarnings("rawtypes")
+    protected static boolean mightMatch(String indexName, String pattern, Map<String, Collection> index) {
+        if (index instanceof SummarizedIndex) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+            SummarizedIndex summarizedIndex = (SummarizedIndex) index;
+            int patternLength = pattern.length();
+            int prefixLength = 0;
+
+            // Characters matched as is
+            while (prefixLength < Math.min(2, patternLength) && (Character.isLetterOrDigit(pattern.charAt(prefixLength)) || pattern.charAt(prefixLength) == '_')) {
+                prefixLength++;
+            }
+
+            String prefix = pattern.substring(0, prefixLength);
+
+            // The types and the constructors are matched by simple name
+            if (indexName.startsWith("type") || indexName.startsWith("constructor")) {
+                return summarizedIndex.mightHaveSimpleNameStartingWith(prefix);
+            }
+            return summarizedIndex.mightHaveKeyStartingWith(prefix);
+        }
+        return true;
+    }
+
     @SuppressWarnings("rawtypes")
     protected static Map<String, Collection> matchTypeEntriesWithChar(char c, Map<String, Collection> index) {
         if (c == '*' || c == '?') {
@@ -0,0 +1,218 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+package org.jd.gui.controller;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.API;
+import org.jd.gui.api.feature.SourcesSearchable;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.decompiler.PreferenceScope;
+import org.jd.gui.util.index.FullTextIndex;
+import org.jd.gui.util.index.FullTextIndexer;
+import org.jd.gui.util.index.FullTextIndexes;
+import org.jd.gui.view.SearchInDecompiledSourcesView;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.PatternSyntaxException;
+
+import javax.swing.JFrame;
+import javax.swing.SwingWorker;
+
+public class SearchInDecompiledSourcesController {
+    private final API api;
+    private final ScheduledExecutorService executor;
+    private final SearchInDecompiledSourcesView searchInDecompiledSourcesView;
+    // Incremented by each query: the previous searches stop
+    private final AtomicInteger searchCount = new AtomicInteger();
+    private SourcesSearchable sourcesSearchable;
+    private Container.Entry entry;
+    private Consumer<URI> openCallback;
+    private IndexWorker indexWorker;
+
+    public SearchInDecompiledSourcesController(API api, ScheduledExecutorService executor, JFrame mainFrame) {
+        this.api = api;
+        this.executor = executor;
+        // Create UI
+        this.searchInDecompiledSourcesView = new SearchInDecompiledSourcesView(mainFrame, this::search, this::onIndex, this::onHitSelected);
+    }
+
+    public void show(SourcesSearchable sourcesSearchable, Consumer<URI> openCallback) {
+        // Init attributes
+        this.sourcesSearchable = sourcesSearchable;
+        this.entry = sourcesSearchable.getSearchableEntry();
+        this.openCallback = openCallback;
+        // Refresh view
+        updateIndexStatus();
+        search(searchInDecompiledSourcesView.getQuery());
+        // Show
+        String path = entry.getUri().getPath();
+        searchInDecompiledSourcesView.show(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    protected void onIndex() {
+        if (indexWorker != null) {
+            // Button "Cancel"
+            indexWorker.cancel(false);
+        } else {
+            indexWorker = new IndexWorker(sourcesSearchable, new HashMap<>(api.getPreferences()));
+            indexWorker.execute();
+            searchInDecompiledSourcesView.updateIndexStatus("Indexing decompiled sources...", 0, "Cancel");
+        }
+    }
+
+    protected void updateIndexStatus() {
+        if (indexWorker != null) {
+            if (indexWorker.entry != entry) {
+                // One indexation at a time
+                searchInDecompiledSourcesView.updateIndexStatus("Indexing the decompiled sources of another container...", -1, "Cancel");
+            }
+            return;
+        }
+
+        FullTextIndex index = FullTextIndexes.get(entry.getUri());
+
+        if (index == null) {
+            searchInDecompiledSourcesView.updateIndexStatus("Decompiled sources not indexed", -1, "Index");
+        } else if (!index.getPreferences().equals(PreferenceScope.getDecompilationPreferences(api.getPreferences()))) {
+            searchInDecompiledSourcesView.updateIndexStatus("Decompiler preferences changed since indexing", -1, "Rebuild");
+        } else {
+            searchInDecompiledSourcesView.updateIndexStatus(index.getDocumentCount() + " classes indexed", -1, "Rebuild");
+        }
+    }
+
+    protected void search(FullTextIndex.Query query) {
+        int id = searchCount.incrementAndGet();
+        FullTextIndex index = FullTextIndexes.get(entry.getUri());
+
+        if (index == null) {
+            searchInDecompiledSourcesView.updateHits(Collections.emptyList(), "Matching lines:");
+            return;
+        }
+
+        executor.execute(() -> {
+            if (id != searchCount.get()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                List<FullTextIndex.Hit> hits = index.search(query, FullTextIndex.DEFAULT_MAX_HITS, () -> id != searchCount.get());
+
+                if (id == searchCount.get()) {
+                    long time = (System.nanoTime() - start) / 1_000_000;
+                    String more = (hits.size() >= FullTextIndex.DEFAULT_MAX_HITS) ? "+" : "";
+
+                    searchInDecompiledSourcesView.updateHits(hits, hits.size() + more + " matching lines (" + time + " ms):");
+                }
+            } catch (PatternSyntaxException e) {
+                searchInDecompiledSourcesView.updateHits(Collections.emptyList(), "Invalid regular expression: " + e.getDescription());
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                searchInDecompiledSourcesView.updateHits(Collections.emptyList(), "Search failed: " + e.getMessage());
+            }
+        });
+    }
+
+    protected void onHitSelected(FullTextIndex.Hit hit) {
+        URI u = URI.create(hit.uri());
+
+        try {
+            // Position of the match in the decompiled source
+            openCallback.accept(new URI(u.getScheme(), u.getHost(), u.getPath(), "position=" + hit.position(), null));
+        } catch (URISyntaxException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    private class IndexWorker extends SwingWorker<FullTextIndex, Void> {
+        private final SourcesSearchable sourcesSearchable;
+        private final Container.Entry entry;
+        private final Map<String, String> preferences;
+        // Index built but not registered yet: closed if the worker is cancelled once built
+        private final AtomicReference<FullTextIndex> unpublished = new AtomicReference<>();
+
+        public IndexWorker(SourcesSearchable sourcesSearchable, Map<String, String> preferences) {
+            this.sourcesSearchable = sourcesSearchable;
+            this.entry = sourcesSearchable.getSearchableEntry();
+            this.preferences = preferences;
+        }
+
+        @Override
+        protected FullTextIndex doInBackground() throws Exception {
+            FullTextIndexer indexer = new FullTextIndexer(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+            FullTextIndex index = indexer.index(entry, preferences, this::updateProgress, this::isCancelled);
+
+            unpublished.set(index);
+
+            if (isCancelled()) {
+                // done() may have run already
+                closeUnpublished();
+                return null;
+            }
+
+            return index;
+        }
+
+        private void closeUnpublished() {
+            FullTextIndex index = unpublished.getAndSet(null);
+
+            if (index != null) {
+                try {
+                    index.close();
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+        }
+
+        private void updateProgress(double progress) {
+            if (SearchInDecompiledSourcesController.this.entry == entry) {
+                searchInDecompiledSourcesView.updateIndexStatus("Indexing decompiled sources...", (int) progress, "Cancel");
+            }
+        }
+
+        @Override
+        protected void done() {
+            indexWorker = null;
+
+            if (!isCancelled()) {
+                try {
+                    FullTextIndex index = get();
+
+                    // Not registered once the container is closed: the index would never be evicted
+                    if (index != null && !sourcesSearchable.isSearchableClosed() && unpublished.compareAndSet(index, null)) {
+                        FullTextIndexes.put(entry.getUri(), index);
+                    }
+                } catch (InterruptedException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    // Restore interrupted state...
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+            // Cancelled, failed or container closed
+            closeUnpublished();
+
+            updateIndexStatus();
+            if (SearchInDecompiledSourcesController.this.entry == entry) {
+                search(searchInDecompiledSourcesView.getQuery());
+            }
+        }
+    }
+}
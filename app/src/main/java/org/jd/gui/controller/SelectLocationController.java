@@ -19,11 +19,11 @@ import org.jd.gui.service.type.TypeFactoryService;
 import org.jd.gui.spi.TypeFactory;
 import org.jd.gui.util.ImageUtil;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationSupervisor;
 import org.jd.gui.util.loader.LoaderUtils;
 import org.jd.gui.view.SelectLocationView;
 import org.netbeans.modules.editor.java.JavaKit;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.TransformationException;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
@@ -58,7 +58,6 @@ import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
 
 import de.cismet.custom.visualdiff.DiffPanel;
 import jd.core.ClassUtil;
-import jd.core.DecompilationResult;
 import jd.core.preferences.Preferences;
 
 public class SelectLocationController {
@@ -141,8 +140,7 @@ public class SelectLocationController {
             String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, containerLoader, entry);
             String entryInternalName = ClassUtil.getInternalName(entry.getPath());
-            DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
-            return decompilationResult.getDecompiledOutput();
+            return DecompilationSupervisor.decompileSource(apiLoader, entryInternalName, preferences, decompileEngine, entry, true);
         }
         try (InputStream in = entry.getInputStream()) {
             return IOUtils.toString(in, StandardCharsets.UTF_8);
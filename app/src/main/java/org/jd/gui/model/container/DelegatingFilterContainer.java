@@ -84,6 +84,8 @@ public class DelegatingFilterContainer implements Container {
         @Override
         public long compressedLength() { return entry.compressedLength(); }
         @Override
+        public long crc() { return entry.crc(); }
+        @Override
         public InputStream getInputStream() { return entry.getInputStream(); }
 
         @Override
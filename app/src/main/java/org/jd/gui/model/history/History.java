@@ -9,18 +9,53 @@ package org.jd.gui.model.history;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Navigation history, stored in a ring buffer of 'capacity' entries: the oldest entries are dropped.<br>
+ * <br>
+ * Each entry stores the index of its prefix, the URI of its container, and the rest of the URI. The prefixes are
+ * interned and reference counted. Consecutive positions in the same page replace each other.
+ */
 public class History {
-    private URI            current;
-    private final List<URI> backward = new ArrayList<>();
-    private final List<URI> forward = new ArrayList<>();
+    public static final String CAPACITY_KEY = "History.capacity";
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final int capacity;
+    // Ring buffer: entry i is at (start + i) % capacity
+    private final int[] prefixIndexes;
+    private final String[] suffixes;
+    private int start;
+    private int size;
+    // Index of the current entry, -1 if empty
+    private int cursor = -1;
+    private URI current;
+
+    // Interned prefixes
+    private final Map<String, Integer> prefixIndexMap = new HashMap<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Integer> prefixReferenceCounts = new ArrayList<>();
+    private final List<Integer> freePrefixIndexes = new ArrayList<>();
+
+    public History() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public History(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.prefixIndexes = new int[capacity];
+        this.suffixes = new String[capacity];
+    }
 
     public void add(URI uri) {
         if (current == null) {
             // Init history
-            forward.clear();
-            current = uri;
+            push(uri);
             return;
         }
 
@@ -32,21 +67,19 @@ public class History {
         if (uri.getPath().equals(current.getPath())) {
             if (uri.getFragment() == null && uri.getQuery() == null) {
                 // Ignore
+            } else if ((current.getFragment() != null || current.getQuery() != null) && !(isPosition(current) && isPosition(uri))) {
+                // Store URI
+                push(uri);
             } else {
-                if (current.getFragment() != null || current.getQuery() != null) {
-                    // Store URI
-                    forward.clear();
-                    backward.add(current);
-                }
                 // Replace current URI
-                current = uri;
+                replace(uri);
             }
             return;
         }
 
         if (uri.toString().startsWith(current.toString())) {
             // Replace current URI
-            current = uri;
+            replace(uri);
             return;
         }
 
@@ -56,29 +89,127 @@ public class History {
         }
 
         // Store URI
-        forward.clear();
-        backward.add(current);
-        current = uri;
+        push(uri);
+    }
+
+    protected static boolean isPosition(URI uri) {
+        String query = uri.getQuery();
+        return uri.getFragment() == null && query != null && (query.startsWith("position=") || query.startsWith("lineNumber="));
     }
 
     public URI backward() {
-        if (! backward.isEmpty()) {
-            forward.add(current);
-            int size = backward.size();
-            current = backward.remove(size-1);
+        if (canBackward()) {
+            current = get(--cursor);
         }
         return current;
     }
 
     public URI forward() {
-        if (! forward.isEmpty()) {
-            backward.add(current);
-            int size = forward.size();
-            current = forward.remove(size-1);
+        if (canForward()) {
+            current = get(++cursor);
         }
         return current;
     }
 
-    public boolean canBackward() { return !backward.isEmpty(); }
-    public boolean canForward() { return !forward.isEmpty(); }
+    public boolean canBackward() { return cursor > 0; }
+    public boolean canForward() { return cursor + 1 < size; }
+
+    public int getCapacity() { return capacity; }
+
+    /**
+     * @return the number of entries, backward, current and forward
+     */
+    public int size() { return size; }
+
+    public int getInternedPrefixCount() { return prefixIndexMap.size(); }
+
+    private void push(URI uri) {
+        // Clear forward entries
+        while (size > cursor + 1) {
+            release(--size);
+        }
+
+        if (size == capacity) {
+            // Drop the oldest entry
+            release(0);
+            start = (start + 1) % capacity;
+            size--;
+            cursor--;
+        }
+
+        cursor = size++;
+        set(cursor, uri);
+    }
+
+    private void replace(URI uri) {
+        release(cursor);
+        set(cursor, uri);
+    }
+
+    private void set(int index, URI uri) {
+        String s = uri.toString();
+        int prefixLength = getPrefixLength(s);
+        int position = (start + index) % capacity;
+
+        prefixIndexes[position] = intern(s.substring(0, prefixLength));
+        suffixes[position] = s.substring(prefixLength);
+        current = uri;
+    }
+
+    private URI get(int index) {
+        int position = (start + index) % capacity;
+        return URI.create(prefixes.get(prefixIndexes[position]) + suffixes[position]);
+    }
+
+    private void release(int index) {
+        int position = (start + index) % capacity;
+        int prefixIndex = prefixIndexes[position];
+        int count = prefixReferenceCounts.get(prefixIndex) - 1;
+
+        suffixes[position] = null;
+
+        if (count == 0) {
+            prefixIndexMap.remove(prefixes.get(prefixIndex));
+            prefixes.set(prefixIndex, null);
+            freePrefixIndexes.add(prefixIndex);
+        }
+
+        prefixReferenceCounts.set(prefixIndex, count);
+    }
+
+    private int intern(String prefix) {
+        Integer prefixIndex = prefixIndexMap.get(prefix);
+
+        if (prefixIndex == null) {
+            if (freePrefixIndexes.isEmpty()) {
+                prefixIndex = prefixes.size();
+                prefixes.add(prefix);
+                prefixReferenceCounts.add(0);
+            } else {
+                prefixIndex = freePrefixIndexes.remove(freePrefixIndexes.size() - 1);
+                prefixes.set(prefixIndex, prefix);
+            }
+            prefixIndexMap.put(prefix, prefixIndex);
+        }
+
+        prefixReferenceCounts.set(prefixIndex, prefixReferenceCounts.get(prefixIndex) + 1);
+        return prefixIndex;
+    }
+
+    /**
+     * @return the length of the URI of the container: up to the last '!/', or up to the query or the fragment
+     */
+    protected static int getPrefixLength(String uri) {
+        int end = uri.length();
+
+        for (int i = 0; i < end; i++) {
+            char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                end = i;
+            }
+        }
+
+        int index = uri.lastIndexOf("!/", end - 2);
+        return index == -1 ? end : index + 2;
+    }
 }
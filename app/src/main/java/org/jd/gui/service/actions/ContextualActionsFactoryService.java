@@ -9,6 +9,7 @@ package org.jd.gui.service.actions;
 
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.ContextualActionsFactory;
 
@@ -35,13 +36,13 @@ public class ContextualActionsFactoryService {
         return name;
     }
 
-    private final Collection<ContextualActionsFactory> providers = ExtensionService.getInstance().load(ContextualActionsFactory.class);
+    private final List<Extension<ContextualActionsFactory>> providers = ExtensionService.getInstance().loadExtensions(ContextualActionsFactory.class, null, null);
 
     public Collection<Action> get(API api, Container.Entry entry, String fragment) {
         Map<String, List<Action>> mapActions = new HashMap<>();
 
-        for (ContextualActionsFactory provider : providers) {
-            Collection<Action> actions = provider.make(api, entry, fragment);
+        for (Extension<ContextualActionsFactory> provider : providers) {
+            Collection<Action> actions = provider.get().make(api, entry, fragment);
 
             for (Action action : actions) {
                 String groupName = (String)action.getValue(ContextualActionsFactory.GROUP_NAME);
@@ -9,7 +9,7 @@ package org.jd.gui.service.configuration;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.Constants;
 import org.jd.gui.model.configuration.Configuration;
-import org.jd.gui.service.platform.PlatformService;
+import org.jd.gui.util.ConfigurationDirectoryUtil;
 
 import java.awt.Dimension;
 import java.awt.Point;
@@ -54,32 +54,9 @@ public class ConfigurationXmlPersisterProvider implements ConfigurationPersister
             }
         }
 
-        if (PlatformService.getInstance().isLinux()) {
-            // See: http://standards.freedesktop.org/basedir-spec/basedir-spec-latest.html
-            String xdgConfigHome = System.getenv("XDG_CONFIG_HOME");
-            if (xdgConfigHome != null) {
-                File xdgConfigHomeFile = new File(xdgConfigHome);
-                if (xdgConfigHomeFile.exists()) {
-                    return new File(xdgConfigHomeFile, Constants.CONFIG_FILENAME);
-                }
-            }
-
-            File userConfigFile = new File(System.getProperty("user.home"), ".config");
-            if (userConfigFile.exists()) {
-                return new File(userConfigFile, Constants.CONFIG_FILENAME);
-            }
-        } else if (PlatformService.getInstance().isWindows()) {
-            // See: http://blogs.msdn.com/b/patricka/archive/2010/03/18/where-should-i-store-my-data-and-configuration-files-if-i-target-multiple-os-versions.aspx
-            String roamingConfigHome = System.getenv("APPDATA");
-            if (roamingConfigHome != null) {
-                File roamingConfigHomeFile = new File(roamingConfigHome);
-                if (roamingConfigHomeFile.exists()) {
-                    return new File(roamingConfigHomeFile, Constants.CONFIG_FILENAME);
-                }
-            }
-        }
+        File configDirectory = ConfigurationDirectoryUtil.getConfigurationDirectory();
 
-        return new File(Constants.CONFIG_FILENAME);
+        return (configDirectory == null) ? new File(Constants.CONFIG_FILENAME) : new File(configDirectory, Constants.CONFIG_FILENAME);
     }
 
     @Override
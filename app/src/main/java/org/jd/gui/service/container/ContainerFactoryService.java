@@ -8,21 +8,24 @@
 package org.jd.gui.service.container;
 
 import org.jd.gui.api.API;
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.ContainerFactory;
 
 import java.nio.file.Path;
-import java.util.Collection;
+import java.util.List;
 
 public class ContainerFactoryService {
     protected static final ContainerFactoryService CONTAINER_FACTORY_SERVICE = new ContainerFactoryService();
 
     public static ContainerFactoryService getInstance() { return CONTAINER_FACTORY_SERVICE; }
 
-    private final Collection<ContainerFactory> providers = ExtensionService.getInstance().load(ContainerFactory.class);
+    private final List<Extension<ContainerFactory>> providers = ExtensionService.getInstance().loadExtensions(ContainerFactory.class, null, null);
 
     public ContainerFactory get(API api, Path rootPath) {
-        for (ContainerFactory containerFactory : providers) {
+        for (Extension<ContainerFactory> provider : providers) {
+            ContainerFactory containerFactory = provider.get();
+
             if (containerFactory.accept(api, rootPath)) {
                 return containerFactory;
             }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.service.extension;
+
+import java.util.ServiceConfigurationError;
+import java.util.regex.Pattern;
+
+/**
+ * Provider of a service, instantiated on first call to {@link #get()}.<br>
+ * <br>
+ * The selectors and the path pattern are known without loading the provider class when they come from the discovery
+ * index of the {@link ExtensionService}.
+ */
+public final class Extension<T> {
+    private final Class<T> service;
+    private final ClassLoader classLoader;
+    private final String className;
+    private final String[] selectors;
+    private final String pathRegExp;
+    private final int pathFlags;
+    private volatile Pattern pathPattern;
+    private volatile T provider;
+
+    Extension(Class<T> service, ClassLoader classLoader, String className, String[] selectors, String pathRegExp, int pathFlags) {
+        this.service = service;
+        this.classLoader = classLoader;
+        this.className = className;
+        this.selectors = selectors;
+        this.pathRegExp = pathRegExp;
+        this.pathFlags = pathFlags;
+    }
+
+    Extension(Class<T> service, T provider, String[] selectors, Pattern pathPattern) {
+        this(service, null, provider.getClass().getName(), selectors, pathPattern == null ? null : pathPattern.pattern(), pathPattern == null ? 0 : pathPattern.flags());
+        this.provider = provider;
+        this.pathPattern = pathPattern;
+    }
+
+    public String getClassName() { return className; }
+
+    public String[] getSelectors() { return selectors; }
+
+    public Pattern getPathPattern() {
+        Pattern result = pathPattern;
+
+        if (result == null && pathRegExp != null) {
+            // Benign race: the pattern may be compiled twice
+            pathPattern = result = Pattern.compile(pathRegExp, pathFlags);
+        }
+
+        return result;
+    }
+
+    String getPathRegExp() { return pathRegExp; }
+
+    int getPathFlags() { return pathFlags; }
+
+    public boolean isInstantiated() { return provider != null; }
+
+    public T get() {
+        T result = provider;
+
+        if (result == null) {
+            synchronized (this) {
+                result = provider;
+                if (result == null) {
+                    try {
+                        result = Class.forName(className, true, classLoader).asSubclass(service).getDeclaredConstructor().newInstance();
+                    } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                        throw new ServiceConfigurationError(service.getName() + ": Provider " + className + " could not be instantiated", e);
+                    }
+                    provider = result;
+                }
+            }
+        }
+
+        return result;
+    }
+}
@@ -8,42 +8,110 @@
 package org.jd.gui.service.extension;
 
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.util.ConfigurationDirectoryUtil;
+import org.jd.gui.util.StartupTimer;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 
+/**
+ * Loads the providers of the services from the application and from the jars of the 'ext' directory.<br>
+ * <br>
+ * The class names, selectors and path patterns of the providers are recorded in a discovery index, keyed by the
+ * stamps of the application and of the 'ext' directory, and by the content of the 'META-INF/services' files. When the
+ * index is valid, {@link #loadExtensions(Class, Function, Function)} returns the providers without loading their
+ * classes: each provider is instantiated on first use.
+ */
 public class ExtensionService {
+    public static final String INDEX_FILE_PROPERTY = "jd-gui.extensionIndex";
+
     protected static final ExtensionService EXTENSION_SERVICE = new ExtensionService();
 
+    private static final int MAGIC = 0x4A444558;
+
     private final ClassLoader extensionClassLoader;
+    private final File indexFile;
+    private final String stamp;
+    // Service name -> index of the service
+    private final Map<String, ServiceIndex> index = new HashMap<>();
+    private boolean modified;
 
     public static ExtensionService getInstance() {
         return EXTENSION_SERVICE;
     }
 
     protected ExtensionService() {
-        extensionClassLoader = makeExtensionClassLoader();
+        this(getExtDirectory(), getIndexFile());
     }
 
-    private ClassLoader makeExtensionClassLoader() {
+    /**
+     * @param extDirectory directory of the extension jars, may be null
+     * @param indexFile    file of the discovery index, null to always discover the providers
+     */
+    protected ExtensionService(File extDirectory, File indexFile) {
+        List<File> extFiles = new ArrayList<>();
+
+        this.extensionClassLoader = StartupTimer.measure("extensionClassLoader", () -> makeExtensionClassLoader(extDirectory, extFiles));
+        this.indexFile = indexFile;
+        this.stamp = computeStamp(extFiles);
+
+        if (indexFile != null) {
+            StartupTimer.measure("extensionIndexLoading", this::loadIndex);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::saveIndex, "jd-gui-save-extension-index"));
+        }
+    }
+
+    private static File getExtDirectory() {
         try {
             URI jarUri = ExtensionService.class.getProtectionDomain().getCodeSource().getLocation().toURI();
             File baseDirectory = new File(jarUri).getParentFile();
-            File extDirectory = new File(baseDirectory, "ext");
+            return new File(baseDirectory, "ext");
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return null;
+        }
+    }
+
+    private static File getIndexFile() {
+        String path = System.getProperty(INDEX_FILE_PROPERTY);
 
-            if (extDirectory.exists() && extDirectory.isDirectory()) {
+        if (path != null) {
+            return path.isEmpty() ? null : new File(path);
+        }
+
+        return ConfigurationDirectoryUtil.getConfigurationFile("jd-gui-extensions");
+    }
+
+    private static ClassLoader makeExtensionClassLoader(File extDirectory, List<File> extFiles) {
+        try {
+            if (extDirectory != null && extDirectory.exists() && extDirectory.isDirectory()) {
                 List<URL> urls = new ArrayList<>();
 
-                searchJarAndMetaInf(urls, extDirectory);
+                searchJarAndMetaInf(urls, extFiles, extDirectory);
 
                 if (!urls.isEmpty()) {
                     URL[] array = urls.toArray(new URL[urls.size()]);
@@ -57,23 +125,64 @@ public class ExtensionService {
 
         return ExtensionService.class.getClassLoader();
     }
-    
-    protected void searchJarAndMetaInf(List<URL> urls, File directory) throws Exception {
+
+    protected static void searchJarAndMetaInf(List<URL> urls, List<File> extFiles, File directory) throws Exception {
         File metaInf = new File(directory, "META-INF");
 
         if (metaInf.exists() && metaInf.isDirectory()) {
             urls.add(directory.toURI().toURL());
+            addFiles(extFiles, directory);
         } else {
             for (File child : directory.listFiles()) {
                 if (child.isDirectory()) {
-                    searchJarAndMetaInf(urls, child);
+                    searchJarAndMetaInf(urls, extFiles, child);
                 } else if (child.getName().toLowerCase().endsWith(".jar")) {
                     urls.add(new URL("jar", "", child.toURI().toURL().toString() + "!/"));
+                    extFiles.add(child);
                 }
             }
         }
     }
 
+    private static void addFiles(List<File> files, File directory) {
+        for (File child : directory.listFiles()) {
+            if (child.isDirectory()) {
+                addFiles(files, child);
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Paths, sizes and dates of the application and of the extension files.
+     */
+    private static String computeStamp(List<File> extFiles) {
+        StringBuilder sb = new StringBuilder();
+
+        try {
+            File application = new File(ExtensionService.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            appendStamp(sb, application);
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        sb.append(System.getProperty("java.class.path")).append('\n');
+
+        for (File file : extFiles) {
+            appendStamp(sb, file);
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendStamp(StringBuilder sb, File file) {
+        sb.append(file.getAbsolutePath()).append('|').append(file.length()).append('|').append(file.lastModified()).append('\n');
+    }
+
+    /**
+     * Instantiates all the providers of 'service'.
+     */
     public <T> Collection<T> load(Class<T> service) {
         List<T> list = new ArrayList<>();
         Iterator<T> iterator = ServiceLoader.load(service, extensionClassLoader).iterator();
@@ -85,4 +194,193 @@ public class ExtensionService {
         return list;
     }
 
+    /**
+     * Returns the providers of 'service', in the order of the 'META-INF/services' files, without instantiating them if
+     * the discovery index is valid.
+     *
+     * @param selectors   selectors of a provider, may be null
+     * @param pathPattern path pattern of a provider, may be null
+     */
+    public <T> List<Extension<T>> loadExtensions(Class<T> service, Function<T, String[]> selectors, Function<T, Pattern> pathPattern) {
+        return StartupTimer.measure("extensions:" + service.getSimpleName(), () -> {
+            String serviceName = service.getName();
+            long servicesFilesCrc = computeServicesFilesCrc(serviceName);
+
+            synchronized (index) {
+                ServiceIndex serviceIndex = index.get(serviceName);
+
+                if (serviceIndex != null && serviceIndex.servicesFilesCrc() == servicesFilesCrc) {
+                    List<Extension<T>> extensions = new ArrayList<>(serviceIndex.providers().size());
+
+                    for (ProviderIndex provider : serviceIndex.providers()) {
+                        extensions.add(new Extension<>(service, extensionClassLoader, provider.className(), provider.selectors(), provider.pathRegExp(), provider.pathFlags()));
+                    }
+
+                    return extensions;
+                }
+            }
+
+            // Discovery: instantiate the providers
+            List<Extension<T>> extensions = new ArrayList<>();
+            List<ProviderIndex> providers = new ArrayList<>();
+
+            for (T provider : load(service)) {
+                String[] providerSelectors = selectors == null ? null : selectors.apply(provider);
+                Extension<T> extension = new Extension<>(service, provider, providerSelectors, pathPattern == null ? null : pathPattern.apply(provider));
+
+                extensions.add(extension);
+                providers.add(new ProviderIndex(extension.getClassName(), providerSelectors, extension.getPathRegExp(), extension.getPathFlags()));
+            }
+
+            synchronized (index) {
+                index.put(serviceName, new ServiceIndex(servicesFilesCrc, providers));
+                modified = true;
+            }
+
+            return extensions;
+        });
+    }
+
+    private long computeServicesFilesCrc(String serviceName) {
+        CRC32 crc = new CRC32();
+
+        try {
+            Enumeration<URL> resources = extensionClassLoader.getResources("META-INF/services/" + serviceName);
+
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+
+                crc.update(url.toString().getBytes(StandardCharsets.UTF_8));
+
+                try (InputStream is = url.openStream()) {
+                    crc.update(is.readAllBytes());
+                }
+            }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        return crc.getValue();
+    }
+
+    private void loadIndex() {
+        if (indexFile.isFile()) {
+            Map<String, ServiceIndex> services = new HashMap<>();
+
+            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+                if (dis.readInt() != MAGIC || !stamp.equals(readString(dis))) {
+                    // Outdated index
+                    return;
+                }
+
+                for (int i = dis.readInt(); i > 0; i--) {
+                    String serviceName = dis.readUTF();
+                    long servicesFilesCrc = dis.readLong();
+                    List<ProviderIndex> providers = new ArrayList<>();
+
+                    for (int j = dis.readInt(); j > 0; j--) {
+                        String className = dis.readUTF();
+                        String[] selectors = null;
+                        int selectorCount = dis.readInt();
+
+                        if (selectorCount >= 0) {
+                            selectors = new String[selectorCount];
+                            for (int k = 0; k < selectorCount; k++) {
+                                selectors[k] = dis.readUTF();
+                            }
+                        }
+
+                        String pathRegExp = dis.readBoolean() ? readString(dis) : null;
+                        providers.add(new ProviderIndex(className, selectors, pathRegExp, dis.readInt()));
+                    }
+
+                    services.put(serviceName, new ServiceIndex(servicesFilesCrc, providers));
+                }
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                return;
+            }
+
+            synchronized (index) {
+                index.putAll(services);
+            }
+        }
+    }
+
+    public void saveIndex() {
+        synchronized (index) {
+            if (modified && indexFile != null) {
+                File parent = indexFile.getAbsoluteFile().getParentFile();
+
+                try {
+                    if (parent != null) {
+                        Files.createDirectories(parent.toPath());
+                    }
+                    try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile.toPath())))) {
+                        dos.writeInt(MAGIC);
+                        writeString(dos, stamp);
+                        dos.writeInt(index.size());
+
+                        for (Map.Entry<String, ServiceIndex> entry : index.entrySet()) {
+                            dos.writeUTF(entry.getKey());
+                            dos.writeLong(entry.getValue().servicesFilesCrc());
+                            dos.writeInt(entry.getValue().providers().size());
+
+                            for (ProviderIndex provider : entry.getValue().providers()) {
+                                dos.writeUTF(provider.className());
+
+                                if (provider.selectors() == null) {
+                                    dos.writeInt(-1);
+                                } else {
+                                    dos.writeInt(provider.selectors().length);
+                                    for (String selector : provider.selectors()) {
+                                        dos.writeUTF(selector);
+                                    }
+                                }
+
+                                dos.writeBoolean(provider.pathRegExp() != null);
+                                if (provider.pathRegExp() != null) {
+                                    writeString(dos, provider.pathRegExp());
+                                }
+                                dos.writeInt(provider.pathFlags());
+                            }
+                        }
+                    }
+                    modified = false;
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Strings without the 64 KB limit of 'writeUTF': the stamp lists all the files of the class path.
+     */
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        byte[] bytes = new byte[dis.readInt()];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the names of the services found in the discovery index
+     */
+    public Collection<String> getIndexedServiceNames() {
+        synchronized (index) {
+            return Collections.unmodifiableCollection(new ArrayList<>(index.keySet()));
+        }
+    }
+
+    private record ServiceIndex(long servicesFilesCrc, List<ProviderIndex> providers) {
+    }
+
+    private record ProviderIndex(String className, String[] selectors, String pathRegExp, int pathFlags) {
+    }
 }
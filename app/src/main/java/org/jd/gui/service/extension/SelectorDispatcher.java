@@ -0,0 +1,270 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.service.extension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Providers of a service by selector, compiled once to find the provider of an entry without building strings.<br>
+ * <br>
+ * A selector is 'containerType:file:pattern' or 'containerType:dir:pattern', the container type being '*' for any
+ * container, and the pattern being a path, '*&#47;name', '*.extension' or '*'. For an entry, the providers of its
+ * container type are searched first, then the providers of any container type. For each container type, the providers
+ * of the path are searched first, then the providers of the name, of the extension and of any path. The container types
+ * and the paths are found in hash maps, the names and the extensions in a trie of their reversed characters, walked
+ * from the end of the path.<br>
+ * <br>
+ * The path patterns of the providers of a selector are matched before its default provider, for each entry reaching
+ * the selector. A pattern excluding a literal, as '^((?!module-info\.class).)*$', is compiled to a search of the
+ * literal in the path; the other patterns are matched as regular expressions.
+ */
+public final class SelectorDispatcher<T> {
+    private static final String ANY = "*";
+    // '^((?!literal).)*$', the characters of the literal being escaped by '\' when special
+    private static final Pattern EXCLUSION = Pattern.compile("\\^\\(\\(\\?!((?:[^\\\\()\\[\\]{}.*+?^$|]|\\\\[^a-zA-Z0-9])+)\\)\\.\\)\\*\\$");
+
+    private final Map<String, Selectors<T>> containerTypes = new HashMap<>();
+
+    public SelectorDispatcher(List<Extension<T>> providers) {
+        for (Extension<T> provider : providers) {
+            for (String selector : provider.getSelectors()) {
+                add(selector, provider);
+            }
+        }
+    }
+
+    private void add(String selector, Extension<T> provider) {
+        int firstColon = selector.indexOf(':');
+        int secondColon = selector.indexOf(':', firstColon + 1);
+
+        if (firstColon == -1 || secondColon == -1) {
+            return;
+        }
+
+        String containerType = selector.substring(0, firstColon);
+        String type = selector.substring(firstColon + 1, secondColon);
+        String pattern = selector.substring(secondColon + 1);
+        Selectors<T> selectors = containerTypes.computeIfAbsent(containerType, k -> new Selectors<>());
+        Node<T> node;
+
+        if ("file".equals(type)) {
+            node = selectors.files;
+        } else if ("dir".equals(type)) {
+            node = selectors.directories;
+        } else {
+            return;
+        }
+
+        if (ANY.equals(pattern)) {
+            node.any = add(node.any, provider);
+        } else if (pattern.startsWith("*/") && pattern.indexOf('/', 2) == -1) {
+            Trie<T> trie = node.trie.insert(pattern, 2);
+            trie.names = add(trie.names, provider);
+        } else if (pattern.startsWith("*.") && pattern.indexOf('.', 2) == -1 && pattern.indexOf('/', 2) == -1) {
+            Trie<T> trie = node.trie.insert(pattern, 2);
+            trie.extensions = add(trie.extensions, provider);
+        } else {
+            node.paths.computeIfAbsent(pattern, k -> new Candidates<>()).add(provider);
+        }
+    }
+
+    private static <T> Candidates<T> add(Candidates<T> candidates, Extension<T> provider) {
+        Candidates<T> result = (candidates == null) ? new Candidates<>() : candidates;
+        result.add(provider);
+        return result;
+    }
+
+    /**
+     * @return the provider of the entry, searched for the container type then for any container type
+     */
+    public T get(String containerType, boolean directory, String path) {
+        T provider = find(containerType, directory, path);
+
+        if (provider == null && !ANY.equals(containerType)) {
+            provider = find(ANY, directory, path);
+        }
+
+        return provider;
+    }
+
+    /**
+     * @return the provider of the entry, searched for the container type only
+     */
+    public T find(String containerType, boolean directory, String path) {
+        Selectors<T> selectors = containerTypes.get(containerType);
+        return (selectors == null) ? null : (directory ? selectors.directories : selectors.files).find(path);
+    }
+
+    private static final class Selectors<T> {
+        final Node<T> files = new Node<>();
+        final Node<T> directories = new Node<>();
+    }
+
+    private static final class Node<T> {
+        final Map<String, Candidates<T>> paths = new HashMap<>();
+        final Trie<T> trie = new Trie<>();
+        Candidates<T> any;
+
+        T find(String path) {
+            T provider;
+
+            if (!paths.isEmpty()) {
+                Candidates<T> candidates = paths.get(path);
+                if (candidates != null && (provider = candidates.match(path)) != null) {
+                    return provider;
+                }
+            }
+
+            // Walk the reversed name: the extension is found at the last '.', the name at the last '/'
+            Candidates<T> names = null;
+            Candidates<T> extensions = null;
+            boolean dotFound = false;
+            Trie<T> trie = this.trie;
+
+            for (int i = path.length() - 1; trie != null; i--) {
+                char c = (i < 0) ? '/' : path.charAt(i);
+
+                if (c == '/') {
+                    names = trie.names;
+                    break;
+                }
+                if (c == '.' && !dotFound) {
+                    dotFound = true;
+                    extensions = trie.extensions;
+                }
+
+                trie = trie.child(c);
+            }
+
+            if (names != null && (provider = names.match(path)) != null) {
+                return provider;
+            }
+            if (extensions != null && (provider = extensions.match(path)) != null) {
+                return provider;
+            }
+            return (any == null) ? null : any.match(path);
+        }
+    }
+
+    /**
+     * Trie of the reversed names & extensions.
+     */
+    private static final class Trie<T> {
+        char[] keys = new char[0];
+        List<Trie<T>> children = new ArrayList<>(0);
+        Candidates<T> names;
+        Candidates<T> extensions;
+
+        Trie<T> child(char c) {
+            char[] k = keys;
+
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children.get(i);
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * @return the node of the characters of 'pattern' from 'start', reversed
+         */
+        Trie<T> insert(String pattern, int start) {
+            Trie<T> node = this;
+
+            for (int i = pattern.length() - 1; i >= start; i--) {
+                char c = pattern.charAt(i);
+                Trie<T> child = node.child(c);
+
+                if (child == null) {
+                    child = new Trie<>();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.keys[node.keys.length - 1] = c;
+                    node.children.add(child);
+                }
+
+                node = child;
+            }
+
+            return node;
+        }
+    }
+
+    /**
+     * @return the literal excluded by 'pathRegExp', null if 'pathRegExp' is not an exclusion of a literal
+     */
+    static String getExcludedLiteral(String pathRegExp) {
+        Matcher matcher = EXCLUSION.matcher(pathRegExp);
+
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String escaped = matcher.group(1);
+        StringBuilder literal = new StringBuilder(escaped.length());
+
+        for (int i = 0; i < escaped.length(); i++) {
+            char c = escaped.charAt(i);
+
+            if (c == '\\') {
+                c = escaped.charAt(++i);
+            }
+
+            literal.append(c);
+        }
+
+        return literal.toString();
+    }
+
+    /**
+     * Provider with a path pattern, matched by a search of the excluded literal if not null.
+     */
+    private record Patterned<T>(Extension<T> provider, String excludedLiteral) {
+        boolean matches(String path) {
+            return (excludedLiteral != null) ? !path.contains(excludedLiteral) : provider.getPathPattern().matcher(path).matches();
+        }
+    }
+
+    /**
+     * Providers of a selector: the providers with a path pattern, matched in order, and the default provider.
+     */
+    private static final class Candidates<T> {
+        // Keyed by pattern: a provider replaces the previous provider of the same pattern
+        final Map<String, Patterned<T>> patterned = new LinkedHashMap<>();
+        Extension<T> defaultProvider;
+
+        void add(Extension<T> provider) {
+            String pathRegExp = provider.getPathRegExp();
+
+            if (pathRegExp != null) {
+                patterned.put(pathRegExp, new Patterned<>(provider, getExcludedLiteral(pathRegExp)));
+            } else {
+                defaultProvider = provider;
+            }
+        }
+
+        T match(String path) {
+            if (!patterned.isEmpty()) {
+                for (Patterned<T> candidate : patterned.values()) {
+                    if (candidate.matches(path)) {
+                        return candidate.provider().get();
+                    }
+                }
+            }
+
+            return (defaultProvider == null) ? null : defaultProvider.get();
+        }
+    }
+}
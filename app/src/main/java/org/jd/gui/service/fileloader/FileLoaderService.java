@@ -7,12 +7,13 @@
 
 package org.jd.gui.service.fileloader;
 
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.FileLoader;
 
 import java.io.File;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class FileLoaderService {
@@ -20,13 +21,13 @@ public class FileLoaderService {
 
     public static FileLoaderService getInstance() { return FILE_LOADER_SERVICE; }
 
-    private final Collection<FileLoader> providers = ExtensionService.getInstance().load(FileLoader.class);
-
-    private final Map<String, FileLoader> mapProviders = new HashMap<>();
+    private final Map<String, Extension<FileLoader>> mapProviders = new HashMap<>();
 
     protected FileLoaderService() {
-        for (FileLoader provider : providers) {
-            for (String extension : provider.getExtensions()) {
+        List<Extension<FileLoader>> providers = ExtensionService.getInstance().loadExtensions(FileLoader.class, FileLoader::getExtensions, null);
+
+        for (Extension<FileLoader> provider : providers) {
+            for (String extension : provider.getSelectors()) {
                 mapProviders.put(extension, provider);
             }
         }
@@ -36,10 +37,20 @@ public class FileLoaderService {
         String name = file.getName();
         int lastDot = name.lastIndexOf('.');
         String extension = name.substring(lastDot+1);
-        return mapProviders.get(extension);
+        Extension<FileLoader> provider = mapProviders.get(extension);
+        return provider == null ? null : provider.get();
     }
 
+    /**
+     * Instantiates all the file loaders.
+     */
     public Map<String, FileLoader> getMapProviders() {
-        return mapProviders;
+        Map<String, FileLoader> map = new HashMap<>();
+
+        for (Map.Entry<String, Extension<FileLoader>> entry : mapProviders.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().get());
+        }
+
+        return map;
     }
 }
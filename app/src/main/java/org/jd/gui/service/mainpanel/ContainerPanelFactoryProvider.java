@@ -10,17 +10,29 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil
 import org.jd.gui.api.API;
 import org.jd.gui.api.feature.ContentIndexable;
 import org.jd.gui.api.feature.SourcesSavable;
+import org.jd.gui.api.feature.SourcesSearchable;
 import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
+import org.jd.gui.model.container.GenericContainer;
 import org.jd.gui.spi.Indexer;
 import org.jd.gui.spi.PanelFactory;
 import org.jd.gui.spi.SourceSaver;
 import org.jd.gui.spi.TreeNodeFactory;
+import org.jd.gui.spi.TypeFactory;
+import org.jd.gui.util.container.ClassBytesCache;
+import org.jd.gui.util.index.FullTextIndexes;
+import org.jd.gui.util.index.IndexResidency;
+import org.jd.gui.util.index.SpilledIndexes;
+import org.jd.gui.util.index.SummarizedIndex;
+import org.jd.gui.util.io.DirectoryWatcher;
+import org.jd.gui.util.parser.jdt.ASTParserFactory;
+import org.jd.gui.util.swing.SwingUtil;
 import org.jd.gui.view.component.panel.TreeTabbedPanel;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.AccessDeniedException;
@@ -28,24 +40,50 @@ import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
 import javax.swing.JComponent;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 
+import static org.jd.gui.util.decompiler.GuiPreferences.MAXIMUM_DEPTH_KEY;
+import static org.jd.gui.util.decompiler.GuiPreferences.WATCH_DIRECTORIES_KEY;
+
 public class ContainerPanelFactoryProvider implements PanelFactory {
     protected static final String[] TYPES = { "default" };
+    protected static final int RESOURCE_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    protected static final int MIN_RESOURCE_BATCH_SIZE = 256;
+
+    // Resource phase, at a lower priority than the indexation of the types and the searches
+    private static final ExecutorService RESOURCE_EXECUTOR = Executors.newFixedThreadPool(RESOURCE_PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "ResourceIndexer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
 
     @Override
     public String[] getTypes() { return TYPES; }
@@ -56,11 +94,95 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
         return (T)new ContainerPanel(api, container);
     }
 
+    /**
+     * Indexes 'entries' in a new map of indexes. The missing indexes and postings are created on demand while
+     * indexing, the returned map does not have this behaviour.
+     */
+    @SuppressWarnings("rawtypes")
+    public static Map<String, Map<String, Collection>> indexEntries(API api, Collection<Container.Entry> entries, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
+        return indexEntries(api, entries, null, getProgressFunction, setProgressFunction, isCancelledFunction);
+    }
+
+    /**
+     * @param deferredEntries collects the entries of the resource indexers, to index later with
+     *                        {@link #indexResources}, null to index them now
+     */
+    @SuppressWarnings("rawtypes")
+    public static Map<String, Map<String, Collection>> indexEntries(API api, Collection<Container.Entry> entries, List<DeferredEntry> deferredEntries,
+            DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
+        Map<String, Map<String, Collection>> map = new HashMap<>();
+        DelegatedMapMapWithDefault mapWithDefault = new DelegatedMapMapWithDefault(map);
+
+        // Index populating value automatically
+        Indexes indexesWithDefault = (deferredEntries == null) ? mapWithDefault::get : new Indexes() {
+            @Override
+            public Map<String, Collection> getIndex(String name) { return mapWithDefault.get(name); }
+
+            @Override
+            public boolean defer(Indexer indexer, Container.Entry entry) { return deferredEntries.add(new DeferredEntry(indexer, entry)); }
+        };
+
+        for (Container.Entry entry : entries) {
+            Indexer indexer = api.getIndexer(entry);
+
+            if (indexer != null && !isCancelledFunction.getAsBoolean()) {
+                indexer.index(api, entry, indexesWithDefault, getProgressFunction, setProgressFunction, isCancelledFunction);
+            }
+        }
+
+        return map;
+    }
+
+    /**
+     * Indexes the deferred entries by batches, in parallel, at a low priority.
+     *
+     * @param patchConsumer called with the indexes of each batch, in the thread of the batch
+     * @return the futures of the batches
+     */
+    @SuppressWarnings("rawtypes")
+    public static List<Future<?>> indexResources(API api, List<DeferredEntry> deferredEntries, Consumer<Map<String, Map<String, Collection>>> patchConsumer, BooleanSupplier isCancelledFunction) {
+        List<Future<?>> futures = new ArrayList<>();
+        int size = deferredEntries.size();
+        // A few batches per thread: the results are published progressively, without merging too often
+        int batchSize = Math.max(MIN_RESOURCE_BATCH_SIZE, (size + 4 * RESOURCE_PARALLELISM - 1) / (4 * RESOURCE_PARALLELISM));
+
+        for (int start = 0; start < size; start += batchSize) {
+            List<DeferredEntry> batch = deferredEntries.subList(start, Math.min(start + batchSize, size));
+
+            futures.add(RESOURCE_EXECUTOR.submit(() -> {
+                Map<String, Map<String, Collection>> map = new HashMap<>();
+                DelegatedMapMapWithDefault mapWithDefault = new DelegatedMapMapWithDefault(map);
+                Indexes indexesWithDefault = mapWithDefault::get;
+
+                for (DeferredEntry deferredEntry : batch) {
+                    if (isCancelledFunction.getAsBoolean()) {
+                        return;
+                    }
+                    deferredEntry.indexer().index(api, deferredEntry.entry(), indexesWithDefault, () -> 0, p -> {}, isCancelledFunction);
+                }
+
+                patchConsumer.accept(map);
+            }));
+        }
+
+        return futures;
+    }
+
+    /**
+     * Entry of a resource indexer, indexed after the types.
+     */
+    public record DeferredEntry(Indexer indexer, Container.Entry entry) {}
+
     @SuppressWarnings("rawtypes")
-    protected static class ContainerPanel extends TreeTabbedPanel implements ContentIndexable, SourcesSavable, Closeable {
+    protected static class ContainerPanel extends TreeTabbedPanel implements ContentIndexable, SourcesSavable, SourcesSearchable, Closeable {
         private static final long serialVersionUID = 1L;
         private transient Container.Entry entry;
         private transient Container container;
+        private transient UpdatableIndexes indexes;
+        private transient DirectoryWatcher watcher;
+        private transient Future<?> sourcePrefetch;
+        private transient List<Future<?>> resourceIndexation = Collections.emptyList();
+        private volatile boolean closed;
 
         public ContainerPanel(API api, Container container) {
             super(api, container.getRoot().getParent().getUri());
@@ -68,6 +190,10 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
             this.container = container;
             this.entry = container.getRoot().getParent();
 
+            tree.setModel(new DefaultTreeModel(createTreeRoot()));
+        }
+
+        protected DefaultMutableTreeNode createTreeRoot() {
             DefaultMutableTreeNode root = new DefaultMutableTreeNode();
 
             TreeNodeFactory factory;
@@ -78,27 +204,157 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
                 }
             }
 
-            tree.setModel(new DefaultTreeModel(root));
+            return root;
         }
 
         /** --- ContentIndexable --- */
         @Override
         public Indexes index(API api, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
-            Map<String, Map<String, Collection>> map = new HashMap<>();
-            DelegatedMapMapWithDefault mapWithDefault = new DelegatedMapMapWithDefault(map);
+            List<DeferredEntry> deferredEntries = new ArrayList<>();
+            Map<String, Map<String, Collection>> map = indexEntries(api, Collections.singletonList(entry), deferredEntries, getProgressFunction, setProgressFunction, isCancelledFunction);
 
-            // Index populating value automatically
-            Indexes indexesWithDefault = mapWithDefault::get;
+            // To prevent memory leaks, return an index without the 'populate' behaviour
+            UpdatableIndexes updatableIndexes = new UpdatableIndexes(map);
+
+            indexes = updatableIndexes;
+            IndexResidency.getInstance().register(updatableIndexes);
+
+            if (!isCancelledFunction.getAsBoolean()) {
+                cancelTasks();
+                watch();
+                sourcePrefetch = api.prefetchSources(entry);
+                // The indexes of the types are usable now, the resources are added as they are indexed
+                resourceIndexation = indexResources(api, deferredEntries, patch -> {
+                    if (!closed) {
+                        // Merged in the thread of the batch, the listeners are notified in the EDT
+                        int modificationCount = updatableIndexes.merge(patch);
+
+                        SwingUtil.invokeLater(() -> {
+                            if (!closed) {
+                                firePropertyChange(INDEXES_CHANGED_PROPERTY, modificationCount - 1, modificationCount);
+                            }
+                        });
+                    }
+                }, () -> closed);
+            }
 
-            // Index entry
-            Indexer indexer = api.getIndexer(entry);
+            return updatableIndexes;
+        }
 
-            if (indexer != null && !isCancelledFunction.getAsBoolean()) {
-                indexer.index(api, entry, indexesWithDefault, getProgressFunction, setProgressFunction, isCancelledFunction);
+        /**
+         * Incremental mode for exploded directories: the entries changed on disk are re-indexed and the postings
+         * of the existing indexes are replaced.
+         */
+        protected void watch() {
+            Map<String, String> preferences = api.getPreferences();
+
+            if (container instanceof GenericContainer && "true".equals(preferences.get(WATCH_DIRECTORIES_KEY))) {
+                // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                GenericContainer genericContainer = (GenericContainer) container;
+                int depth = 15;
+
+                try {
+                    depth = Integer.parseInt(preferences.get(MAXIMUM_DEPTH_KEY));
+                } catch (NumberFormatException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+
+                try {
+                    watcher = genericContainer.watch(depth, changes -> filesChanged(genericContainer, changes));
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
             }
+        }
 
-            // To prevent memory leaks, return an index without the 'populate' behaviour
-            return map::get;
+        /**
+         * Stops the watcher, the prefetch of the sources and the indexation of the resources of the previous
+         * indexation.
+         */
+        protected void cancelTasks() {
+            if (watcher != null) {
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+                watcher = null;
+            }
+            if (sourcePrefetch != null) {
+                sourcePrefetch.cancel(false);
+                sourcePrefetch = null;
+            }
+            for (Future<?> future : resourceIndexation) {
+                future.cancel(false);
+            }
+            resourceIndexation = Collections.emptyList();
+        }
+
+        /**
+         * Called on the watcher thread with a batch of changes.
+         */
+        protected void filesChanged(GenericContainer genericContainer, DirectoryWatcher.Changes changes) {
+            AtomicReference<GenericContainer.EntryChanges> reference = new AtomicReference<>();
+
+            try {
+                // Update the loaded entries while the tree is not painted
+                SwingUtilities.invokeAndWait(() -> reference.set(genericContainer.update(changes)));
+            } catch (InterruptedException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                // Restore interrupted state...
+                Thread.currentThread().interrupt();
+                return;
+            } catch (InvocationTargetException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                return;
+            }
+
+            GenericContainer.EntryChanges entryChanges = reference.get();
+
+            if (entryChanges.isEmpty()) {
+                return;
+            }
+
+            for (Container.Entry changedEntry : entryChanges.modified()) {
+                ClassBytesCache.getInstance().invalidate(changedEntry);
+            }
+            for (Container.Entry changedEntry : entryChanges.removed()) {
+                ClassBytesCache.getInstance().invalidate(changedEntry);
+            }
+            // Stale decompiled sources: the full-text index has to be rebuilt
+            FullTextIndexes.evict(entry.getUri());
+
+            // Index the added and modified entries only, in a separate map
+            List<Container.Entry> indexedEntries = new ArrayList<>(entryChanges.added());
+
+            indexedEntries.addAll(entryChanges.modified());
+
+            Map<String, Map<String, Collection>> patch = indexEntries(api, indexedEntries, () -> 0, p -> {}, () -> false);
+            List<Container.Entry> obsoleteEntries = new ArrayList<>(entryChanges.removed());
+
+            obsoleteEntries.addAll(entryChanges.modified());
+
+            // Updated on the watcher thread: the searches keep iterating the previous posting lists
+            int modificationCount = indexes.update(obsoleteEntries, patch);
+
+            SwingUtil.invokeLater(() -> {
+                Set<URI> modifiedUris = new HashSet<>();
+
+                for (Container.Entry obsoleteEntry : obsoleteEntries) {
+                    TypeFactory typeFactory = api.getTypeFactory(obsoleteEntry);
+                    if (typeFactory != null) {
+                        typeFactory.invalidate(obsoleteEntry);
+                    }
+                }
+                for (Container.Entry modifiedEntry : entryChanges.modified()) {
+                    modifiedUris.add(modifiedEntry.getUri());
+                }
+
+                if (!closed) {
+                    reloadTree(createTreeRoot(), modifiedUris);
+                    firePropertyChange(INDEXES_CHANGED_PROPERTY, modificationCount - 1, modificationCount);
+                }
+            });
         }
 
         /** --- SourcesSavable --- */
@@ -145,8 +401,29 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
             }
         }
 
+        /** --- SourcesSearchable --- */
+        @Override
+        public Container.Entry getSearchableEntry() {
+            return entry;
+        }
+
+        @Override
+        public boolean isSearchableClosed() {
+            return closed;
+        }
+
         @Override
         public void close() throws IOException {
+            closed = true;
+            cancelTasks();
+            if (indexes != null) {
+                IndexResidency.getInstance().unregister(indexes);
+                indexes.discard();
+            }
+            ASTParserFactory.evict(container.getRoot().getParent().getUri());
+            FullTextIndexes.evict(entry.getUri());
+            api.evictSources(entry);
+            ClassBytesCache.getInstance().invalidate(container);
             if (container instanceof Closeable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
                 Closeable c = (Closeable) container;
                 c.close();
@@ -154,6 +431,411 @@ public class ContainerPanelFactoryProvider implements PanelFactory {
         }
     }
 
+    /**
+     * Indexes updated by the incremental mode and completed by the resource phase. The hash code changes on each
+     * update, so that the pages comparing the hash code of the collection of indexes are refreshed.<br>
+     * <br>
+     * Spilled to disk by the {@link IndexResidency} when not queried for a while. While spilled, a lookup reads the
+     * block of its key only and requests the read back on the thread of the residency manager, a scan reads the scanned
+     * index only, and the searches skip the indexes whose summary cannot match.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected static class UpdatableIndexes implements Indexes, IndexResidency.Resident {
+        // Estimated heap size of a key & its posting list, without the characters of the key & the postings
+        protected static final int KEY_WEIGHT = 112;
+
+        // Null while spilled, read without lock by the queries
+        private volatile Map<String, Map<String, Collection>> map;
+        private volatile SpilledIndexes spilledIndexes;
+        private volatile long weight;
+        private volatile long lastAccess = System.nanoTime();
+        private final AtomicBoolean readBackPending = new AtomicBoolean();
+        private int modificationCount;
+
+        /**
+         * @param map indexes, copied into concurrent maps
+         */
+        public UpdatableIndexes(Map<String, Map<String, Collection>> map) {
+            Map<String, Map<String, Collection>> concurrentMap = new ConcurrentHashMap<>();
+
+            for (Map.Entry<String, Map<String, Collection>> index : map.entrySet()) {
+                concurrentMap.put(index.getKey(), new ConcurrentHashMap<>(index.getValue()));
+            }
+
+            this.map = concurrentMap;
+            this.weight = weigh(concurrentMap);
+        }
+
+        @Override
+        public Map<String, Collection> getIndex(String name) {
+            lastAccess = System.nanoTime();
+
+            // Without lock: the queries are not blocked by the merges
+            Map<String, Map<String, Collection>> resident = map;
+
+            if (resident != null) {
+                return resident.get(name);
+            }
+
+            SpilledIndexes spilled = spilledIndexes;
+
+            if (spilled == null) {
+                // Read back meanwhile
+                return resident().get(name);
+            }
+
+            return spilled.hasIndex(name) ? new SpilledIndex(name, spilled) : null;
+        }
+
+        /**
+         * Reads back the spilled indexes on the thread of the residency manager.
+         */
+        protected void requestReadBack() {
+            if (readBackPending.compareAndSet(false, true)) {
+                IndexResidency.getInstance().execute(() -> {
+                    readBackPending.set(false);
+                    resident();
+                });
+            }
+        }
+
+        /**
+         * @return the indexes, read back if spilled
+         */
+        protected synchronized Map<String, Map<String, Collection>> resident() {
+            lastAccess = System.nanoTime();
+
+            if (map == null) {
+                try {
+                    map = spilledIndexes.read();
+                    spilledIndexes.delete();
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    if (map == null) {
+                        map = new ConcurrentHashMap<>();
+                    }
+                }
+
+                spilledIndexes = null;
+                weight = weigh(map);
+                IndexResidency.getInstance().requestCheck();
+            }
+
+            return map;
+        }
+
+        /** --- IndexResidency.Resident --- */
+        @Override
+        public long weight() { return weight; }
+
+        @Override
+        public long lastAccess() { return lastAccess; }
+
+        @Override
+        public boolean spill() {
+            Map<String, Map<String, Collection>> snapshot;
+            int snapshotModificationCount;
+
+            synchronized (this) {
+                if (map == null) {
+                    return false;
+                }
+                snapshot = map;
+                snapshotModificationCount = modificationCount;
+            }
+
+            try {
+                // Written without lock: the queries are not blocked
+                SpilledIndexes spilled = SpilledIndexes.write(snapshot);
+
+                synchronized (this) {
+                    if (map == snapshot && modificationCount == snapshotModificationCount) {
+                        map = null;
+                        spilledIndexes = spilled;
+                        weight = 0;
+                        return true;
+                    }
+                }
+
+                // Updated while writing
+                spilled.delete();
+            } catch (IOException | ConcurrentModificationException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+
+            return false;
+        }
+
+        /**
+         * Releases the heap and the file of the indexes, when the container is closed.
+         */
+        public synchronized void discard() {
+            if (spilledIndexes != null) {
+                try {
+                    spilledIndexes.delete();
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+                spilledIndexes = null;
+            }
+            map = new ConcurrentHashMap<>();
+            weight = 0;
+        }
+
+        protected static long weigh(Map<String, Map<String, Collection>> map) {
+            long weight = 0;
+
+            for (Map<String, Collection> index : map.values()) {
+                for (Map.Entry<String, Collection> postings : index.entrySet()) {
+                    weight += KEY_WEIGHT + postings.getKey().length() + 4L * postings.getValue().size();
+                }
+            }
+
+            return weight;
+        }
+
+        /**
+         * Removes the postings of 'obsoleteEntries', then merges the postings of the re-indexed entries. As for
+         * {@link #merge}, the changed posting lists are replaced, not updated in place.
+         *
+         * @return the new modification count
+         */
+        public synchronized int update(Collection<Container.Entry> obsoleteEntries, Map<String, Map<String, Collection>> patch) {
+            Map<String, Map<String, Collection>> map = resident();
+            Set<Container.Entry> obsolete = Collections.newSetFromMap(new IdentityHashMap<>());
+            Set<String> obsoleteTypeNames = new HashSet<>();
+            long delta = 0;
+
+            obsolete.addAll(obsoleteEntries);
+
+            if (obsolete.isEmpty()) {
+                return merge(patch);
+            }
+
+            // Search type names declared by the obsolete entries to clean the index of sub type names
+            Map<String, Collection> typeDeclarations = map.get("typeDeclarations");
+
+            if (typeDeclarations != null) {
+                for (Map.Entry<String, Collection> typeDeclaration : typeDeclarations.entrySet()) {
+                    for (Object declaringEntry : typeDeclaration.getValue()) {
+                        if (obsolete.contains(declaringEntry)) {
+                            obsoleteTypeNames.add(typeDeclaration.getKey());
+                            break;
+                        }
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Map<String, Collection>> index : map.entrySet()) {
+                Set<?> obsoletePostings = "subTypeNames".equals(index.getKey()) ? obsoleteTypeNames : obsolete;
+                Map<String, Collection> target = index.getValue();
+
+                for (Map.Entry<String, Collection> postings : target.entrySet()) {
+                    Collection previous = postings.getValue();
+
+                    if (!containsAny(previous, obsoletePostings)) {
+                        continue;
+                    }
+
+                    String key = postings.getKey();
+                    Collection kept = new ArrayList<>(previous.size());
+
+                    for (Object posting : previous) {
+                        if (!obsoletePostings.contains(posting)) {
+                            kept.add(posting);
+                        }
+                    }
+
+                    delta -= 4L * (previous.size() - kept.size());
+
+                    // Keep the keys without posting out of the index, as for the first indexing
+                    if (kept.isEmpty()) {
+                        target.remove(key);
+                        delta -= KEY_WEIGHT + key.length();
+                    } else {
+                        target.put(key, kept);
+                    }
+                }
+            }
+
+            delta += merge(map, patch);
+            weight += delta;
+            IndexResidency.getInstance().requestCheck();
+            return ++modificationCount;
+        }
+
+        /**
+         * Adds the postings of 'patch'. The changed posting lists are replaced in the concurrent maps of the indexes,
+         * not updated in place, so that the searches running in other threads keep iterating consistent posting
+         * lists. Called outside the EDT: the indexes are not copied and the weight is updated from 'patch' only.
+         *
+         * @return the new modification count
+         */
+        public synchronized int merge(Map<String, Map<String, Collection>> patch) {
+            weight += merge(resident(), patch);
+            IndexResidency.getInstance().requestCheck();
+            return ++modificationCount;
+        }
+
+        /**
+         * @return the weight of the added keys & postings
+         */
+        protected static long merge(Map<String, Map<String, Collection>> map, Map<String, Map<String, Collection>> patch) {
+            long delta = 0;
+
+            for (Map.Entry<String, Map<String, Collection>> index : patch.entrySet()) {
+                Map<String, Collection> target = map.computeIfAbsent(index.getKey(), k -> new ConcurrentHashMap<>());
+
+                for (Map.Entry<String, Collection> postings : index.getValue().entrySet()) {
+                    String key = postings.getKey();
+
+                    if (!target.containsKey(key)) {
+                        delta += KEY_WEIGHT + key.length();
+                    }
+
+                    delta += 4L * postings.getValue().size();
+                    target.merge(key, postings.getValue(), UpdatableIndexes::concat);
+                }
+            }
+
+            return delta;
+        }
+
+        protected static boolean containsAny(Collection postings, Set<?> obsoletePostings) {
+            for (Object posting : postings) {
+                if (obsoletePostings.contains(posting)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        protected static Collection concat(Collection postings1, Collection postings2) {
+            List concatenated = new ArrayList<>(postings1.size() + postings2.size());
+            concatenated.addAll(postings1);
+            concatenated.addAll(postings2);
+            return concatenated;
+        }
+
+        @Override
+        public int hashCode() {
+            // Stable across spills
+            return 31 * System.identityHashCode(this) + modificationCount;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        /**
+         * Index of spilled indexes, read from the file without reading back the other indexes.
+         */
+        protected class SpilledIndex extends AbstractMap<String, Collection> implements SummarizedIndex {
+            private final String name;
+            private final SpilledIndexes spilled;
+
+            public SpilledIndex(String name, SpilledIndexes spilled) {
+                this.name = name;
+                this.spilled = spilled;
+            }
+
+            @Override
+            public Collection get(Object key) {
+                Map<String, Map<String, Collection>> resident = map;
+
+                if (resident == null) {
+                    // The filter ignores the keys merged after the read back: consulted only while spilled
+                    if (!mightContain(key)) {
+                        return null;
+                    }
+                    try {
+                        // The container is in use again: read back in the background
+                        requestReadBack();
+                        return spilled.get(name, (String) key);
+                    } catch (IOException e) {
+                        // Read back meanwhile: the file is deleted
+                        assert ExceptionUtil.printStackTrace(e);
+                    }
+                    resident = resident();
+                }
+
+                Map<String, Collection> index = resident.get(name);
+                return (index == null) ? null : index.get(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public Set<Map.Entry<String, Collection>> entrySet() { return index().entrySet(); }
+
+            @Override
+            public Set<String> keySet() { return index().keySet(); }
+
+            @Override
+            public Collection<Collection> values() { return index().values(); }
+
+            @Override
+            public int size() {
+                Map<String, Map<String, Collection>> resident = map;
+
+                if (resident == null) {
+                    return spilled.size(name);
+                }
+
+                Map<String, Collection> index = resident.get(name);
+                return (index == null) ? 0 : index.size();
+            }
+
+            @Override
+            public boolean isEmpty() { return size() == 0; }
+
+            /** --- SummarizedIndex --- */
+            @Override
+            public boolean mightHaveKeyStartingWith(String prefix) {
+                // The summary ignores the keys merged after the read back
+                return (map != null) || spilled.mightHaveKeyStartingWith(name, prefix);
+            }
+
+            @Override
+            public boolean mightHaveSimpleNameStartingWith(String prefix) {
+                return (map != null) || spilled.mightHaveSimpleNameStartingWith(name, prefix);
+            }
+
+            protected boolean mightContain(Object key) {
+                if (map != null) {
+                    return true;
+                }
+                // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                return (key instanceof String) && spilled.mightContain(name, (String) key);
+            }
+
+            /**
+             * @return the index, read from the file without reading back the other indexes if spilled
+             */
+            protected Map<String, Collection> index() {
+                Map<String, Map<String, Collection>> resident = map;
+
+                if (resident == null) {
+                    try {
+                        Map<String, Collection> index = spilled.read(name);
+                        return (index == null) ? Collections.emptyMap() : index;
+                    } catch (IOException e) {
+                        // Read back meanwhile: the file is deleted
+                        assert ExceptionUtil.printStackTrace(e);
+                    }
+                    resident = resident();
+                }
+
+                Map<String, Collection> index = resident.get(name);
+                return (index == null) ? Collections.emptyMap() : index;
+            }
+        }
+    }
+
     protected static class DelegatedMap<K, V> implements Map<K, V> {
 
         private Map<K, V> map;
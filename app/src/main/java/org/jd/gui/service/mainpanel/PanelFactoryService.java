@@ -8,11 +8,12 @@
 package org.jd.gui.service.mainpanel;
 
 import org.jd.gui.api.model.Container;
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.PanelFactory;
 
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PanelFactoryService {
@@ -20,20 +21,25 @@ public class PanelFactoryService {
 
     public static PanelFactoryService getInstance() { return PANEL_FACTORY_SERVICE; }
 
-    private final Map<String, PanelFactory> mapProviders = new HashMap<>();
+    private final Map<String, Extension<PanelFactory>> mapProviders = new HashMap<>();
 
     protected PanelFactoryService() {
-        Collection<PanelFactory> providers = ExtensionService.getInstance().load(PanelFactory.class);
+        List<Extension<PanelFactory>> providers = ExtensionService.getInstance().loadExtensions(PanelFactory.class, PanelFactory::getTypes, null);
 
-        for (PanelFactory provider : providers) {
-            for (String type : provider.getTypes()) {
+        for (Extension<PanelFactory> provider : providers) {
+            for (String type : provider.getSelectors()) {
                 mapProviders.put(type, provider);
             }
         }
     }
 
     public PanelFactory get(Container container) {
-        PanelFactory factory = mapProviders.get(container.getType());
-        return factory != null ? factory : mapProviders.get("default");
+        Extension<PanelFactory> factory = mapProviders.get(container.getType());
+
+        if (factory == null) {
+            factory = mapProviders.get("default");
+        }
+
+        return factory == null ? null : factory.get();
     }
 }
@@ -7,20 +7,23 @@
 
 package org.jd.gui.service.pastehandler;
 
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.PasteHandler;
 
-import java.util.Collection;
+import java.util.List;
 
 public class PasteHandlerService {
     protected static final PasteHandlerService PASTE_HANDLER_SERVICE = new PasteHandlerService();
 
     public static PasteHandlerService getInstance() { return PASTE_HANDLER_SERVICE; }
 
-    private final Collection<PasteHandler> providers = ExtensionService.getInstance().load(PasteHandler.class);
+    private final List<Extension<PasteHandler>> providers = ExtensionService.getInstance().loadExtensions(PasteHandler.class, null, null);
 
     public PasteHandler get(Object obj) {
-        for (PasteHandler provider : providers) {
+        for (Extension<PasteHandler> extension : providers) {
+            PasteHandler provider = extension.get();
+
             if (provider.accept(obj)) {
                 return provider;
             }
@@ -7,12 +7,13 @@
 
 package org.jd.gui.service.preferencespanel;
 
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.PreferencesPanel;
 
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 public class PreferencesPanelService {
@@ -20,28 +21,31 @@ public class PreferencesPanelService {
 
     public static PreferencesPanelService getInstance() { return PREFERENCES_PANEL_SERVICE; }
 
-    private final Collection<PreferencesPanel> providers;
+    private final List<Extension<PreferencesPanel>> extensions;
+    private Collection<PreferencesPanel> providers;
 
     protected PreferencesPanelService() {
-        Collection<PreferencesPanel> list = ExtensionService.getInstance().load(PreferencesPanel.class);
-        Iterator<PreferencesPanel> iterator = list.iterator();
+        extensions = ExtensionService.getInstance().loadExtensions(PreferencesPanel.class, null, null);
+    }
 
-        while (iterator.hasNext()) {
-            if (!iterator.next().isActivated()) {
-                iterator.remove();
-            }
-        }
+    /**
+     * Instantiates the panels on first call.
+     */
+    public synchronized Collection<PreferencesPanel> getProviders() {
+        if (providers == null) {
+            Map<String, PreferencesPanel> map = new HashMap<>();
 
-        Map<String, PreferencesPanel> map = new HashMap<>();
+            for (Extension<PreferencesPanel> extension : extensions) {
+                PreferencesPanel panel = extension.get();
 
-        for (PreferencesPanel panel : list) {
-            map.put(panel.getPreferencesGroupTitle() + '$' + panel.getPreferencesPanelTitle(), panel);
-        }
+                if (panel.isActivated()) {
+                    map.put(panel.getPreferencesGroupTitle() + '$' + panel.getPreferencesPanelTitle(), panel);
+                }
+            }
 
-        providers = map.values();
-    }
+            providers = map.values();
+        }
 
-    public Collection<PreferencesPanel> getProviders() {
         return providers;
     }
 }
@@ -7,21 +7,59 @@
 
 package org.jd.gui.service.sourceloader;
 
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.SourceLoader;
 
 import java.io.File;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SourceLoaderService {
+    protected static final int PREFETCH_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
 
-    private final Collection<SourceLoader> providers = ExtensionService.getInstance().load(SourceLoader.class);
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newFixedThreadPool(PREFETCH_PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "jd-gui-source-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    protected static final int PROBE_PARALLELISM = 2;
+    protected static final int PROBE_QUEUE_CAPACITY = 16;
+
+    // Bounded: the probes running out of time pile up while the pages of the same slow archive are opened
+    private static final ThreadPoolExecutor PROBE_EXECUTOR = new ThreadPoolExecutor(
+            PROBE_PARALLELISM, PROBE_PARALLELISM, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(PROBE_QUEUE_CAPACITY), runnable -> {
+        Thread thread = new Thread(runnable, "jd-gui-source-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        PROBE_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final List<Extension<SourceLoader>> providers = ExtensionService.getInstance().loadExtensions(SourceLoader.class, null, null);
 
     public String getSource(API api, Container.Entry entry) {
-        for (SourceLoader provider : providers) {
-            String source = provider.getSource(api, entry);
+        for (Extension<SourceLoader> provider : providers) {
+            String source = provider.get().getSource(api, entry);
 
             if (source != null && !source.isEmpty()) {
                 return source;
@@ -32,8 +70,8 @@ public class SourceLoaderService {
     }
 
     public String loadSource(API api, Container.Entry entry) {
-        for (SourceLoader provider : providers) {
-            String source = provider.loadSource(api, entry);
+        for (Extension<SourceLoader> provider : providers) {
+            String source = provider.get().loadSource(api, entry);
 
             if (source != null && !source.isEmpty()) {
                 return source;
@@ -43,9 +81,124 @@ public class SourceLoaderService {
         return null;
     }
 
+    /**
+     * Searches the source of 'entry' locally, waiting at most 'timeoutMillis'. A probe running out of time goes on in
+     * background, so that the next probes of the same archive are answered from the providers' caches. At most
+     * 'PROBE_PARALLELISM' probes run at once, 'PROBE_QUEUE_CAPACITY' more are queued, the others are not started.
+     *
+     * @return the source, or null if not found within 'timeoutMillis'
+     */
+    public String probeSource(API api, Container.Entry entry, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return null;
+        }
+
+        Future<String> future;
+
+        try {
+            future = PROBE_EXECUTOR.submit(() -> {
+                for (Extension<SourceLoader> provider : providers) {
+                    String source = provider.get().probeSource(api, entry);
+
+                    if (source != null && !source.isEmpty()) {
+                        return source;
+                    }
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            // Probes saturated
+            return null;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return null;
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Prefetches the sources of 'archive' and of its nested archives, one task per archive and per provider, on a
+     * pool of 'PREFETCH_PARALLELISM' threads.
+     *
+     * @return a future completed when all the tasks are done, cancelling it cancels the pending and running tasks
+     */
+    public Future<Void> prefetch(API api, Container.Entry archive) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<Container.Entry> archives = new ArrayList<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        archives.add(archive);
+        collectNestedArchives(archive, archives);
+
+        for (Container.Entry a : archives) {
+            for (Extension<SourceLoader> provider : providers) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    if (!cancelled.get()) {
+                        provider.get().prefetch(api, a, cancelled::get);
+                    }
+                }, PREFETCH_EXECUTOR));
+            }
+        }
+
+        PrefetchFuture future = new PrefetchFuture(cancelled);
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()])).whenComplete((v, t) -> future.complete(null));
+        return future;
+    }
+
+    /**
+     * Releases the sources resolved for 'archive' and for its nested archives.
+     */
+    public void evict(Container.Entry archive) {
+        List<Container.Entry> archives = new ArrayList<>();
+
+        archives.add(archive);
+        collectNestedArchives(archive, archives);
+
+        for (Container.Entry a : archives) {
+            for (Extension<SourceLoader> provider : providers) {
+                provider.get().evict(a);
+            }
+        }
+    }
+
+    protected static class PrefetchFuture extends CompletableFuture<Void> {
+        private final AtomicBoolean cancelled;
+
+        public PrefetchFuture(AtomicBoolean cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            // The running tasks poll the flag
+            cancelled.set(true);
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    protected static void collectNestedArchives(Container.Entry entry, List<Container.Entry> archives) {
+        for (Container.Entry child : entry.getChildren().values()) {
+            if (child.isDirectory()) {
+                collectNestedArchives(child, archives);
+            } else if (child.getPath().toLowerCase(Locale.ROOT).endsWith(".jar")) {
+                archives.add(child);
+            }
+        }
+    }
+
     public File getSourceFile(API api, Container.Entry entry) {
-        for (SourceLoader provider : providers) {
-            File file = provider.loadSourceFile(api, entry);
+        for (Extension<SourceLoader> provider : providers) {
+            File file = provider.get().loadSourceFile(api, entry);
 
             if (file != null) {
                 return file;
@@ -8,12 +8,13 @@
 package org.jd.gui.service.uriloader;
 
 import org.jd.gui.api.API;
+import org.jd.gui.service.extension.Extension;
 import org.jd.gui.service.extension.ExtensionService;
 import org.jd.gui.spi.UriLoader;
 
 import java.net.URI;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class UriLoaderService {
@@ -21,23 +22,27 @@ public class UriLoaderService {
 
     public static UriLoaderService getInstance() { return URI_LOADER_SERVICE; }
 
-    private final Map<String, UriLoader> mapProviders = new HashMap<>();
+    private final Map<String, Extension<UriLoader>> mapProviders = new HashMap<>();
 
     protected UriLoaderService() {
-        Collection<UriLoader> providers = ExtensionService.getInstance().load(UriLoader.class);
+        List<Extension<UriLoader>> providers = ExtensionService.getInstance().loadExtensions(UriLoader.class, UriLoader::getSchemes, null);
 
-        for (UriLoader provider : providers) {
-            for (String scheme : provider.getSchemes()) {
+        for (Extension<UriLoader> provider : providers) {
+            for (String scheme : provider.getSelectors()) {
                 mapProviders.put(scheme, provider);
             }
         }
     }
 
     public UriLoader get(API api, URI uri) {
-        UriLoader provider = mapProviders.get(uri.getScheme());
+        Extension<UriLoader> extension = mapProviders.get(uri.getScheme());
 
-        if (provider.accept(api, uri)) {
-            return provider;
+        if (extension != null) {
+            UriLoader provider = extension.get();
+
+            if (provider.accept(api, uri)) {
+                return provider;
+            }
         }
         return null;
     }
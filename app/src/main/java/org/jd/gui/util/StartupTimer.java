@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Durations of the startup phases, in the order they end.<br>
+ * <br>
+ * Phases may run in parallel: their durations do not add up to the startup time. Set the system property
+ * 'jd-gui.startupTimes' to 'true' to print the breakdown once the main frame is shown.
+ */
+public final class StartupTimer {
+    public static final String PRINT_PROPERTY = "jd-gui.startupTimes";
+
+    private static final long START = System.nanoTime();
+    private static final Map<String, Long> PHASES = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private StartupTimer() {
+    }
+
+    public static void measure(String phase, Runnable runnable) {
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static <T> T measure(String phase, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void record(String phase, long nanos) {
+        PHASES.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Records the time elapsed since the class initialization, close to the JVM start.
+     */
+    public static void mark(String phase) {
+        record(phase, System.nanoTime() - START);
+    }
+
+    /**
+     * @return phase -> duration in nanoseconds
+     */
+    public static Map<String, Long> getPhases() {
+        synchronized (PHASES) {
+            return new LinkedHashMap<>(PHASES);
+        }
+    }
+
+    public static void print() {
+        if (Boolean.getBoolean(PRINT_PROPERTY)) {
+            StringBuilder sb = new StringBuilder("Startup times:");
+
+            for (Map.Entry<String, Long> entry : getPhases().entrySet()) {
+                sb.append("\n  ").append(entry.getKey()).append(": ").append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append(" ms");
+            }
+
+            System.out.println(sb);
+        }
+    }
+}
@@ -8,18 +8,52 @@
 package org.jd.gui.util.net;
 
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.util.StartupTimer;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.InetAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+/**
+ * Single instance support.<br>
+ * <br>
+ * The first instance listens on a Unix domain socket in the temporary directory, or on the loopback interface when
+ * Unix domain sockets are not supported or the socket cannot be bound. The arguments are sent as a count followed by
+ * length-prefixed UTF-8 strings, and acknowledged by the listener. The arguments received within 'COALESCING_DELAY'
+ * milliseconds are forwarded in one batch.
+ */
 public final class InterProcessCommunicationUtil {
 
     private static final int PORT = 20156;
+    private static final int MAGIC = 0x4A444749;
+    private static final int MAXIMUM_ARGUMENT_COUNT = 4096;
+    private static final int MAXIMUM_ARGUMENT_LENGTH = 64 * 1024;
+    private static final long COALESCING_DELAY = 150;
+
+    private static final Path SOCKET_PATH = Path.of(System.getProperty("java.io.tmpdir"), "jd-gui-" + System.getProperty("user.name") + ".socket");
 
     private InterProcessCommunicationUtil() {
     }
@@ -30,43 +64,211 @@ public final class InterProcessCommunicationUtil {
      * which hold the file to be opened, will be transmitted to the existing instance,
      * allowing the new instance to shutdown.
      *
-     * @param consumer
-     * @throws IOException
+     * @param consumer called with the arguments received from the other instances, in batches
+     * @throws IOException if another instance is listening
      */
     public static void listen(final Consumer<String[]> consumer) throws IOException {
+        long start = System.nanoTime();
         @SuppressWarnings("all")
-        // Resource leak : The socket cannot be closed until the application is shutdown
-        final ServerSocket listener = new ServerSocket(PORT);
-        new Thread(() -> {
-            synchronized (listener) {
-                while (true) {
-                    try (Socket socket = listener.accept();
-                         ObjectInputStream ois = new ObjectInputStream(socket.getInputStream())) {
-                        // Receive args from another JD-GUI instance
-                        int length = ois.readInt();
-                        String[] args = new String[length];
-                        for (int i = 0; i < args.length; i++) {
-                            args[i] = ois.readUTF();
+        // Resource leak : The channel cannot be closed until the application is shutdown
+        final ServerSocketChannel listener = openServerSocketChannel();
+        StartupTimer.record("ipcListen", System.nanoTime() - start);
+
+        ExecutorService connectionExecutor = Executors.newCachedThreadPool(runnable -> newDaemonThread(runnable, "jd-gui-ipc-connection"));
+        ScheduledExecutorService batchExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> newDaemonThread(runnable, "jd-gui-ipc-batch"));
+        List<String> pendingArgs = new ArrayList<>();
+
+        newDaemonThread(() -> {
+            while (listener.isOpen()) {
+                try {
+                    SocketChannel channel = listener.accept();
+
+                    connectionExecutor.execute(() -> {
+                        try (SocketChannel c = channel) {
+                            String[] args = receive(c);
+
+                            synchronized (pendingArgs) {
+                                if (pendingArgs.isEmpty() && args.length > 0) {
+                                    // First arguments of a burst
+                                    batchExecutor.schedule(() -> consumer.accept(drain(pendingArgs)), COALESCING_DELAY, TimeUnit.MILLISECONDS);
+                                }
+                                for (String arg : args) {
+                                    pendingArgs.add(arg);
+                                }
+                            }
+                        } catch (IOException e) {
+                            assert ExceptionUtil.printStackTrace(e);
                         }
-                        consumer.accept(args);
-                    } catch (IOException e) {
-                        assert ExceptionUtil.printStackTrace(e);
+                    });
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+        }, "jd-gui-ipc-listener").start();
+    }
+
+    private static ServerSocketChannel openServerSocketChannel() throws IOException {
+        ServerSocketChannel channel;
+
+        try {
+            channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } catch (UnsupportedOperationException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return openLoopbackServerSocketChannel();
+        }
+
+        try {
+            bind(channel, SOCKET_PATH);
+        } catch (IOException e) {
+            channel.close();
+            if (isListening(UnixDomainSocketAddress.of(SOCKET_PATH))) {
+                throw e;
+            }
+            // Unwritable temporary directory, too long path, ...
+            assert ExceptionUtil.printStackTrace(e);
+            return openLoopbackServerSocketChannel();
+        }
+
+        SOCKET_PATH.toFile().deleteOnExit();
+        return channel;
+    }
+
+    /**
+     * Loopback TCP fallback.
+     *
+     * @throws IOException if another instance is listening
+     */
+    private static ServerSocketChannel openLoopbackServerSocketChannel() throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+
+        try {
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        return channel;
+    }
+
+    /**
+     * Binds 'channel' to 'socketPath', replacing the socket file of an instance that did not exit normally.<br>
+     * <br>
+     * The instances launched at the same time bind under a lock on a sibling file: a socket file is deleted only
+     * after a failed connection, and never while another instance is binding it.
+     *
+     * @throws IOException if another instance is listening
+     */
+    static void bind(ServerSocketChannel channel, Path socketPath) throws IOException {
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(socketPath);
+        Path lockPath = socketPath.resolveSibling(socketPath.getFileName() + ".lock");
+
+        // File locks are held by the JVM: the threads of a same JVM are serialized first
+        synchronized (InterProcessCommunicationUtil.class) {
+            try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = lockChannel.lock()) {
+                try {
+                    channel.bind(address);
+                } catch (IOException e) {
+                    if (isListening(address)) {
+                        throw new IOException("Another instance is listening on " + socketPath, e);
                     }
+                    // Stale socket file of an instance that did not exit normally
+                    Files.deleteIfExists(socketPath);
+                    channel.bind(address);
                 }
             }
-        }).start();
+        }
+    }
+
+    private static boolean isListening(SocketAddress address) {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
     }
 
-    public static void send(String[] args) {
-        try (Socket socket = new Socket(InetAddress.getLocalHost(), PORT);
-             ObjectOutputStream oos = new ObjectOutputStream(socket.getOutputStream())) {
+    private static String[] receive(SocketChannel channel) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Unexpected message");
+        }
+
+        int count = dis.readInt();
+
+        if (count < 0 || count > MAXIMUM_ARGUMENT_COUNT) {
+            throw new IOException("Invalid argument count: " + count);
+        }
+
+        String[] args = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            int length = dis.readInt();
+
+            if (length < 0 || length > MAXIMUM_ARGUMENT_LENGTH) {
+                throw new IOException("Invalid argument length: " + length);
+            }
+
+            byte[] bytes = new byte[length];
+            dis.readFully(bytes);
+            args[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // Acknowledge
+        DataOutputStream dos = new DataOutputStream(Channels.newOutputStream(channel));
+        dos.writeInt(MAGIC);
+        dos.flush();
+
+        return args;
+    }
+
+    private static String[] drain(List<String> pendingArgs) {
+        synchronized (pendingArgs) {
+            String[] args = pendingArgs.toArray(new String[pendingArgs.size()]);
+            pendingArgs.clear();
+            return args;
+        }
+    }
+
+    /**
+     * @return true if the arguments were acknowledged by the listening instance. The duration of the exchange is
+     *         recorded as the 'ipcHandshake' startup phase.
+     */
+    public static boolean send(String[] args) {
+        long start = System.nanoTime();
+        boolean sent = send(UnixDomainSocketAddress.of(SOCKET_PATH), args) || send(new InetSocketAddress(InetAddress.getLoopbackAddress(), PORT), args);
+
+        StartupTimer.record("ipcHandshake", System.nanoTime() - start);
+        return sent;
+    }
+
+    private static boolean send(SocketAddress address, String[] args) {
+        try (SocketChannel channel = SocketChannel.open(address)) {
             // Send args to the main JD-GUI instance
-            oos.writeInt(args.length);
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            dos.writeInt(MAGIC);
+            dos.writeInt(args.length);
             for (String arg : args) {
-                oos.writeUTF(arg);
+                byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+                dos.writeInt(bytes.length);
+                dos.write(bytes);
             }
-        } catch (IOException e) {
+            dos.flush();
+
+            // Wait for the acknowledgement
+            return new DataInputStream(Channels.newInputStream(channel)).readInt() == MAGIC;
+        } catch (IOException | UnsupportedOperationException e) {
             assert ExceptionUtil.printStackTrace(e);
+            return false;
         }
     }
+
+    private static Thread newDaemonThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
 }
@@ -0,0 +1,231 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+package org.jd.gui.view;
+
+import org.jd.gui.util.index.UsageFinder;
+import org.jd.gui.util.swing.SwingUtil;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JRootPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+public class FindUsagesView {
+    private JDialog findUsagesDialog;
+    private JTextField findUsagesEnterTextField;
+    private JLabel findUsagesLabel;
+    private DefaultListModel<UsageFinder.Usage> findUsagesListModel;
+    private JList<UsageFinder.Usage> findUsagesList;
+
+    public FindUsagesView(JFrame mainFrame, Consumer<String> changedMemberCallback, Consumer<UsageFinder.Usage> selectedUsageCallback) {
+        // Build GUI
+        SwingUtil.invokeLater(() -> {
+            findUsagesDialog = new JDialog(mainFrame, "Find Usages", false);
+
+            JPanel panel = new JPanel();
+            panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+            panel.setLayout(new BorderLayout());
+            findUsagesDialog.add(panel);
+
+            // Box for search criteria
+            Box vbox = Box.createVerticalBox();
+
+            Box hbox = Box.createHorizontalBox();
+            hbox.add(new JLabel("Type or member (java.util.List, java.util.List.add, java.util.List.add(Ljava/lang/Object;)Z):"));
+            hbox.add(Box.createHorizontalGlue());
+            vbox.add(hbox);
+
+            vbox.add(Box.createVerticalStrut(10));
+
+            // Text field
+            findUsagesEnterTextField = new JTextField(30);
+            vbox.add(findUsagesEnterTextField);
+            findUsagesEnterTextField.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_DOWN && findUsagesListModel.getSize() > 0) {
+                        findUsagesList.requestFocus();
+                        if (findUsagesList.isSelectionEmpty()) {
+                            findUsagesList.setSelectedIndex(0);
+                        }
+                        e.consume();
+                    }
+                }
+            });
+            findUsagesEnterTextField.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) { call(); }
+                @Override
+                public void removeUpdate(DocumentEvent e) { call(); }
+                @Override
+                public void changedUpdate(DocumentEvent e) { call(); }
+                protected void call() { changedMemberCallback.accept(findUsagesEnterTextField.getText()); }
+            });
+
+            vbox.add(Box.createVerticalStrut(10));
+
+            hbox = Box.createHorizontalBox();
+            findUsagesLabel = new JLabel("Usages:");
+            hbox.add(findUsagesLabel);
+            hbox.add(Box.createHorizontalGlue());
+            vbox.add(hbox);
+
+            vbox.add(Box.createVerticalStrut(10));
+            panel.add(vbox, BorderLayout.NORTH);
+
+            // Result list
+            findUsagesListModel = new DefaultListModel<>();
+            findUsagesList = new JList<>(findUsagesListModel);
+            findUsagesList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            findUsagesList.setCellRenderer(new DefaultListCellRenderer() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                    UsageFinder.Usage usage = (UsageFinder.Usage) value;
+                    String location = (usage.lineNumber() == 0) ? "" : ":" + usage.lineNumber();
+                    String text = usage.entry().getPath() + location + "   " + usage.typeName().replace('/', '.') + '.' + usage.methodName() + usage.methodDescriptor();
+                    return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+                }
+            });
+            findUsagesList.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_UP && findUsagesList.getSelectedIndex() == 0) {
+                        findUsagesEnterTextField.requestFocus();
+                        e.consume();
+                    }
+                }
+            });
+            findUsagesList.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        UsageFinder.Usage usage = findUsagesList.getSelectedValue();
+                        if (usage != null) {
+                            selectedUsageCallback.accept(usage);
+                        }
+                    }
+                }
+            });
+            JScrollPane scrollPane = new JScrollPane(findUsagesList);
+            scrollPane.setPreferredSize(new Dimension(600, 250));
+            panel.add(scrollPane, BorderLayout.CENTER);
+
+            vbox = Box.createVerticalBox();
+
+            vbox.add(Box.createVerticalStrut(25));
+
+            hbox = Box.createHorizontalBox();
+            hbox.add(Box.createHorizontalGlue());
+            JButton findUsagesOpenButton = new JButton("Open");
+            hbox.add(findUsagesOpenButton);
+            Action findUsagesOpenActionListener = new AbstractAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public void actionPerformed(ActionEvent actionEvent) {
+                    UsageFinder.Usage usage = findUsagesList.getSelectedValue();
+                    if (usage != null) {
+                        selectedUsageCallback.accept(usage);
+                    }
+                }
+            };
+            findUsagesOpenButton.addActionListener(findUsagesOpenActionListener);
+            hbox.add(Box.createHorizontalStrut(5));
+            JButton findUsagesCancelButton = new JButton("Cancel");
+            hbox.add(findUsagesCancelButton);
+            Action findUsagesCancelActionListener = new AbstractAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public void actionPerformed(ActionEvent actionEvent) { findUsagesDialog.setVisible(false); }
+            };
+            findUsagesCancelButton.addActionListener(findUsagesCancelActionListener);
+
+            vbox.add(hbox);
+
+            panel.add(vbox, BorderLayout.SOUTH);
+
+            // Last setup
+            JRootPane rootPane = findUsagesDialog.getRootPane();
+            rootPane.setDefaultButton(findUsagesOpenButton);
+            rootPane.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "FindUsagesView.cancel");
+            rootPane.getActionMap().put("FindUsagesView.cancel", findUsagesCancelActionListener);
+
+            // Prepare to display
+            findUsagesDialog.pack();
+            findUsagesDialog.setMinimumSize(findUsagesDialog.getSize());
+            findUsagesDialog.setLocationRelativeTo(findUsagesDialog.getParent());
+        });
+    }
+
+    /**
+     * @param member initial text, null to keep the previous one
+     */
+    public void show(String member) {
+        SwingUtil.invokeLater(() -> {
+            if (member != null) {
+                findUsagesEnterTextField.setText(member);
+            }
+            findUsagesEnterTextField.selectAll();
+            // Show
+            findUsagesDialog.setVisible(true);
+            findUsagesEnterTextField.requestFocus();
+        });
+    }
+
+    public boolean isVisible() { return findUsagesDialog.isVisible(); }
+
+    public String getMember() { return findUsagesEnterTextField.getText(); }
+
+    /**
+     * Clears the list, before the usages of a new query are streamed.
+     */
+    public void clearUsages(String message) {
+        SwingUtil.invokeLater(() -> {
+            findUsagesListModel.clear();
+            findUsagesLabel.setText(message);
+        });
+    }
+
+    public void addUsages(List<UsageFinder.Usage> usages, String message) {
+        SwingUtil.invokeLater(() -> {
+            findUsagesListModel.addAll(usages);
+            findUsagesLabel.setText(message);
+        });
+    }
+}
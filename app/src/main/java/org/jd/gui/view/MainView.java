@@ -20,6 +20,7 @@ import org.jd.gui.api.feature.PageChangeListener;
 import org.jd.gui.api.feature.PageClosable;
 import org.jd.gui.api.feature.PreferencesChangeListener;
 import org.jd.gui.api.feature.SourcesSavable;
+import org.jd.gui.api.feature.SourcesSearchable;
 import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.feature.UriOpenable;
 import org.jd.gui.model.configuration.Configuration;
@@ -136,6 +137,8 @@ public class MainView<T extends JComponent & UriGettable> implements UriOpenable
             ActionListener backwardActionListener,
             ActionListener forwardActionListener,
             ActionListener searchActionListener,
+            ActionListener searchInDecompiledSourcesActionListener,
+            ActionListener findUsagesActionListener,
             ActionListener jdWebSiteActionListener,
             ActionListener jdGuiIssuesActionListener,
             ActionListener jdCoreIssuesActionListener,
@@ -250,6 +253,8 @@ public class MainView<T extends JComponent & UriGettable> implements UriOpenable
             backwardAction = newAction("Back", newImageIcon("/org/jd/gui/images/backward_nav.png"), false, backwardActionListener);
             forwardAction = newAction("Forward", newImageIcon("/org/jd/gui/images/forward_nav.png"), false, forwardActionListener);
             Action searchAction = newAction("Search...", newImageIcon("/org/jd/gui/images/search_src.png"), false, searchActionListener);
+            Action searchInDecompiledSourcesAction = newAction("Search in Decompiled Sources...", false, searchInDecompiledSourcesActionListener);
+            Action findUsagesAction = newAction("Find Usages...", false, findUsagesActionListener);
             Action jdWebSiteAction = newAction("JD Web site", browser, "Open JD Web site", jdWebSiteActionListener);
             Action jdGuiIssuesActionAction = newAction("JD-GUI issues", browser, "Open JD-GUI issues page", jdGuiIssuesActionListener);
             Action jdCoreIssuesActionAction = newAction("JD-Core issues", browser, "Open JD-Core issues page", jdCoreIssuesActionListener);
@@ -295,6 +300,8 @@ public class MainView<T extends JComponent & UriGettable> implements UriOpenable
             menu = new JMenu("Search");
             menuBar.add(menu);
             menu.add(searchAction).setAccelerator(KeyStroke.getKeyStroke('S', menuShortcutKeyMask | InputEvent.SHIFT_DOWN_MASK));
+            menu.add(searchInDecompiledSourcesAction).setAccelerator(KeyStroke.getKeyStroke('F', menuShortcutKeyMask | InputEvent.SHIFT_DOWN_MASK));
+            menu.add(findUsagesAction).setAccelerator(KeyStroke.getKeyStroke('U', menuShortcutKeyMask | InputEvent.SHIFT_DOWN_MASK));
             menu = new JMenu("Help");
             menuBar.add(menu);
             if (browser) {
@@ -385,7 +392,9 @@ public class MainView<T extends JComponent & UriGettable> implements UriOpenable
                     closeAction.setEnabled(enabled);
                     openTypeAction.setEnabled(enabled);
                     searchAction.setEnabled(enabled);
+                    findUsagesAction.setEnabled(enabled);
                     saveAllSourcesAction.setEnabled(mainTabbedPanel.getTabbedPane().getSelectedComponent() instanceof SourcesSavable);
+                    searchInDecompiledSourcesAction.setEnabled(mainTabbedPanel.getTabbedPane().getSelectedComponent() instanceof SourcesSearchable);
 
                     if (tabCount < lastTabCount) {
                         panelClosedCallback.run();
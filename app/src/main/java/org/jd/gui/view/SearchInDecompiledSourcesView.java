@@ -0,0 +1,315 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+package org.jd.gui.view;
+
+import org.jd.gui.util.index.FullTextIndex;
+import org.jd.gui.util.index.SourceTokenizer;
+import org.jd.gui.util.swing.SwingUtil;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ItemListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.BorderFactory;
+import javax.swing.Box;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JRootPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+public class SearchInDecompiledSourcesView {
+    private JDialog searchInDecompiledSourcesDialog;
+    private JTextField searchInDecompiledSourcesEnterTextField;
+    private JCheckBox searchInDecompiledSourcesCheckBoxRegex;
+    private JCheckBox searchInDecompiledSourcesCheckBoxCaseSensitive;
+    private JCheckBox searchInDecompiledSourcesCheckBoxCode;
+    private JCheckBox searchInDecompiledSourcesCheckBoxLiterals;
+    private JCheckBox searchInDecompiledSourcesCheckBoxComments;
+    private JLabel searchInDecompiledSourcesIndexLabel;
+    private JProgressBar searchInDecompiledSourcesProgressBar;
+    private JButton searchInDecompiledSourcesIndexButton;
+    private JLabel searchInDecompiledSourcesLabel;
+    private DefaultListModel<FullTextIndex.Hit> searchInDecompiledSourcesListModel;
+    private JList<FullTextIndex.Hit> searchInDecompiledSourcesList;
+
+    public SearchInDecompiledSourcesView(
+            JFrame mainFrame,
+            Consumer<FullTextIndex.Query> changedQueryCallback,
+            Runnable indexCallback,
+            Consumer<FullTextIndex.Hit> selectedHitCallback) {
+        // Build GUI
+        SwingUtil.invokeLater(() -> {
+            searchInDecompiledSourcesDialog = new JDialog(mainFrame, "Search in Decompiled Sources", false);
+
+            JPanel panel = new JPanel();
+            panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+            panel.setLayout(new BorderLayout());
+            searchInDecompiledSourcesDialog.add(panel);
+
+            // Box for search criteria
+            Box vbox = Box.createVerticalBox();
+
+            // Index status, progress and button "Index"
+            Box hbox = Box.createHorizontalBox();
+            searchInDecompiledSourcesIndexLabel = new JLabel(" ");
+            hbox.add(searchInDecompiledSourcesIndexLabel);
+            hbox.add(Box.createHorizontalGlue());
+            searchInDecompiledSourcesProgressBar = new JProgressBar(0, 100);
+            searchInDecompiledSourcesProgressBar.setVisible(false);
+            hbox.add(searchInDecompiledSourcesProgressBar);
+            hbox.add(Box.createHorizontalStrut(5));
+            searchInDecompiledSourcesIndexButton = new JButton("Index");
+            searchInDecompiledSourcesIndexButton.addActionListener(e -> indexCallback.run());
+            hbox.add(searchInDecompiledSourcesIndexButton);
+            vbox.add(hbox);
+
+            vbox.add(Box.createVerticalStrut(10));
+
+            hbox = Box.createHorizontalBox();
+            hbox.add(new JLabel("Search text:"));
+            hbox.add(Box.createHorizontalGlue());
+            vbox.add(hbox);
+
+            vbox.add(Box.createVerticalStrut(10));
+
+            // Text field
+            searchInDecompiledSourcesEnterTextField = new JTextField(30);
+            vbox.add(searchInDecompiledSourcesEnterTextField);
+            searchInDecompiledSourcesEnterTextField.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_DOWN && searchInDecompiledSourcesListModel.getSize() > 0) {
+                        searchInDecompiledSourcesList.requestFocus();
+                        if (searchInDecompiledSourcesList.isSelectionEmpty()) {
+                            searchInDecompiledSourcesList.setSelectedIndex(0);
+                        }
+                        e.consume();
+                    }
+                }
+            });
+            searchInDecompiledSourcesEnterTextField.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) { call(); }
+                @Override
+                public void removeUpdate(DocumentEvent e) { call(); }
+                @Override
+                public void changedUpdate(DocumentEvent e) { call(); }
+                protected void call() { changedQueryCallback.accept(getQuery()); }
+            });
+
+            vbox.add(Box.createVerticalStrut(10));
+
+            hbox = Box.createHorizontalBox();
+            vbox.add(hbox);
+
+            ItemListener checkBoxListener = e -> {
+                changedQueryCallback.accept(getQuery());
+                searchInDecompiledSourcesEnterTextField.requestFocus();
+            };
+
+            JPanel subpanel = new JPanel();
+            subpanel.setBorder(BorderFactory.createTitledBorder("Options"));
+            subpanel.setLayout(new BorderLayout());
+            hbox.add(subpanel);
+
+            Box subhbox = Box.createHorizontalBox();
+            subpanel.add(subhbox, BorderLayout.WEST);
+            searchInDecompiledSourcesCheckBoxRegex = new JCheckBox("Regular expression");
+            searchInDecompiledSourcesCheckBoxRegex.addItemListener(checkBoxListener);
+            subhbox.add(searchInDecompiledSourcesCheckBoxRegex);
+            searchInDecompiledSourcesCheckBoxCaseSensitive = new JCheckBox("Case sensitive");
+            searchInDecompiledSourcesCheckBoxCaseSensitive.addItemListener(checkBoxListener);
+            subhbox.add(searchInDecompiledSourcesCheckBoxCaseSensitive);
+
+            subpanel = new JPanel();
+            subpanel.setBorder(BorderFactory.createTitledBorder("Search In"));
+            subpanel.setLayout(new BorderLayout());
+            hbox.add(subpanel);
+
+            subhbox = Box.createHorizontalBox();
+            subpanel.add(subhbox, BorderLayout.WEST);
+            searchInDecompiledSourcesCheckBoxCode = new JCheckBox("Code", true);
+            searchInDecompiledSourcesCheckBoxCode.addItemListener(checkBoxListener);
+            subhbox.add(searchInDecompiledSourcesCheckBoxCode);
+            searchInDecompiledSourcesCheckBoxLiterals = new JCheckBox("Literals", true);
+            searchInDecompiledSourcesCheckBoxLiterals.addItemListener(checkBoxListener);
+            subhbox.add(searchInDecompiledSourcesCheckBoxLiterals);
+            searchInDecompiledSourcesCheckBoxComments = new JCheckBox("Comments", true);
+            searchInDecompiledSourcesCheckBoxComments.addItemListener(checkBoxListener);
+            subhbox.add(searchInDecompiledSourcesCheckBoxComments);
+
+            vbox.add(Box.createVerticalStrut(10));
+
+            hbox = Box.createHorizontalBox();
+            searchInDecompiledSourcesLabel = new JLabel("Matching lines:");
+            hbox.add(searchInDecompiledSourcesLabel);
+            hbox.add(Box.createHorizontalGlue());
+            vbox.add(hbox);
+
+            vbox.add(Box.createVerticalStrut(10));
+            panel.add(vbox, BorderLayout.NORTH);
+
+            // Result list
+            searchInDecompiledSourcesListModel = new DefaultListModel<>();
+            searchInDecompiledSourcesList = new JList<>(searchInDecompiledSourcesListModel);
+            searchInDecompiledSourcesList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+            searchInDecompiledSourcesList.setCellRenderer(new DefaultListCellRenderer() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                    FullTextIndex.Hit hit = (FullTextIndex.Hit) value;
+                    return super.getListCellRendererComponent(list, hit.path() + ':' + hit.lineNumber() + "   " + hit.line(), index, isSelected, cellHasFocus);
+                }
+            });
+            searchInDecompiledSourcesList.addKeyListener(new KeyAdapter() {
+                @Override
+                public void keyPressed(KeyEvent e) {
+                    if (e.getKeyCode() == KeyEvent.VK_UP && searchInDecompiledSourcesList.getSelectedIndex() == 0) {
+                        searchInDecompiledSourcesEnterTextField.requestFocus();
+                        e.consume();
+                    }
+                }
+            });
+            searchInDecompiledSourcesList.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        FullTextIndex.Hit hit = searchInDecompiledSourcesList.getSelectedValue();
+                        if (hit != null) {
+                            selectedHitCallback.accept(hit);
+                        }
+                    }
+                }
+            });
+            JScrollPane scrollPane = new JScrollPane(searchInDecompiledSourcesList);
+            scrollPane.setPreferredSize(new Dimension(600, 250));
+            panel.add(scrollPane, BorderLayout.CENTER);
+
+            vbox = Box.createVerticalBox();
+
+            vbox.add(Box.createVerticalStrut(25));
+
+            hbox = Box.createHorizontalBox();
+            hbox.add(Box.createHorizontalGlue());
+            JButton searchInDecompiledSourcesOpenButton = new JButton("Open");
+            hbox.add(searchInDecompiledSourcesOpenButton);
+            Action searchInDecompiledSourcesOpenActionListener = new AbstractAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public void actionPerformed(ActionEvent actionEvent) {
+                    FullTextIndex.Hit hit = searchInDecompiledSourcesList.getSelectedValue();
+                    if (hit != null) {
+                        selectedHitCallback.accept(hit);
+                    }
+                }
+            };
+            searchInDecompiledSourcesOpenButton.addActionListener(searchInDecompiledSourcesOpenActionListener);
+            hbox.add(Box.createHorizontalStrut(5));
+            JButton searchInDecompiledSourcesCancelButton = new JButton("Cancel");
+            hbox.add(searchInDecompiledSourcesCancelButton);
+            Action searchInDecompiledSourcesCancelActionListener = new AbstractAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public void actionPerformed(ActionEvent actionEvent) { searchInDecompiledSourcesDialog.setVisible(false); }
+            };
+            searchInDecompiledSourcesCancelButton.addActionListener(searchInDecompiledSourcesCancelActionListener);
+
+            vbox.add(hbox);
+
+            panel.add(vbox, BorderLayout.SOUTH);
+
+            // Last setup
+            JRootPane rootPane = searchInDecompiledSourcesDialog.getRootPane();
+            rootPane.setDefaultButton(searchInDecompiledSourcesOpenButton);
+            rootPane.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "SearchInDecompiledSourcesView.cancel");
+            rootPane.getActionMap().put("SearchInDecompiledSourcesView.cancel", searchInDecompiledSourcesCancelActionListener);
+
+            // Prepare to display
+            searchInDecompiledSourcesDialog.pack();
+            searchInDecompiledSourcesDialog.setMinimumSize(searchInDecompiledSourcesDialog.getSize());
+            searchInDecompiledSourcesDialog.setLocationRelativeTo(searchInDecompiledSourcesDialog.getParent());
+        });
+    }
+
+    public void show(String title) {
+        SwingUtil.invokeLater(() -> {
+            searchInDecompiledSourcesDialog.setTitle("Search in Decompiled Sources of " + title);
+            searchInDecompiledSourcesEnterTextField.selectAll();
+            // Show
+            searchInDecompiledSourcesDialog.setVisible(true);
+            searchInDecompiledSourcesEnterTextField.requestFocus();
+        });
+    }
+
+    public boolean isVisible() { return searchInDecompiledSourcesDialog.isVisible(); }
+
+    public FullTextIndex.Query getQuery() {
+        int kinds = 0;
+
+        if (searchInDecompiledSourcesCheckBoxCode.isSelected()) {
+            kinds |= 1 << SourceTokenizer.KIND_CODE;
+        }
+        if (searchInDecompiledSourcesCheckBoxLiterals.isSelected()) {
+            kinds |= 1 << SourceTokenizer.KIND_LITERAL;
+        }
+        if (searchInDecompiledSourcesCheckBoxComments.isSelected()) {
+            kinds |= 1 << SourceTokenizer.KIND_COMMENT;
+        }
+
+        return new FullTextIndex.Query(searchInDecompiledSourcesEnterTextField.getText(), searchInDecompiledSourcesCheckBoxRegex.isSelected(),
+                searchInDecompiledSourcesCheckBoxCaseSensitive.isSelected(), kinds);
+    }
+
+    /**
+     * @param progress percentage of indexed classes, -1 if no indexation is running
+     */
+    public void updateIndexStatus(String message, int progress, String buttonText) {
+        SwingUtil.invokeLater(() -> {
+            searchInDecompiledSourcesIndexLabel.setText(message);
+            searchInDecompiledSourcesProgressBar.setVisible(progress >= 0);
+            searchInDecompiledSourcesProgressBar.setValue(Math.max(0, progress));
+            searchInDecompiledSourcesIndexButton.setText(buttonText);
+        });
+    }
+
+    public void updateHits(List<FullTextIndex.Hit> hits, String message) {
+        SwingUtil.invokeLater(() -> {
+            searchInDecompiledSourcesListModel.clear();
+            searchInDecompiledSourcesListModel.addAll(hits);
+            searchInDecompiledSourcesLabel.setText(message);
+        });
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.view.component;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.function.Supplier;
+
+import javax.swing.Icon;
+
+/**
+ * Icon of a tab, with a badge while its content is queued for indexing or indexed.
+ */
+public class IndexingStateIcon implements Icon {
+    public enum State { QUEUED, INDEXING, INDEXED }
+
+    protected static final int SIZE = 16;
+    protected static final int BADGE_SIZE = 7;
+    protected static final Color QUEUED_COLOR = new Color(150, 150, 150);
+    protected static final Color INDEXING_COLOR = new Color(230, 150, 20);
+
+    private final Icon icon;
+    private final State state;
+
+    public IndexingStateIcon(Icon icon, State state) {
+        this.icon = icon;
+        this.state = state;
+    }
+
+    /**
+     * @return a supplier creating a new icon only when the icon or the state change: the tab label is refreshed
+     *         periodically
+     */
+    public static Supplier<Icon> supplier(Supplier<Icon> iconSupplier, Supplier<State> stateSupplier) {
+        return new Supplier<>() {
+            private IndexingStateIcon last;
+
+            @Override
+            public Icon get() {
+                Icon icon = iconSupplier.get();
+                State state = stateSupplier.get();
+
+                if (state == State.INDEXED) {
+                    return icon;
+                }
+                if (last == null || last.icon != icon || last.state != state) {
+                    last = new IndexingStateIcon(icon, state);
+                }
+                return last;
+            }
+        };
+    }
+
+    @Override
+    public int getIconWidth() { return (icon == null) ? SIZE : icon.getIconWidth(); }
+
+    @Override
+    public int getIconHeight() { return (icon == null) ? SIZE : icon.getIconHeight(); }
+
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        if (icon != null) {
+            icon.paintIcon(c, g, x, y);
+        }
+
+        if (state != State.INDEXED) {
+            Graphics2D g2d = (Graphics2D) g.create();
+            int bx = x + getIconWidth() - BADGE_SIZE;
+            int by = y + getIconHeight() - BADGE_SIZE;
+
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor((state == State.QUEUED) ? QUEUED_COLOR : INDEXING_COLOR);
+            g2d.fillOval(bx, by, BADGE_SIZE, BADGE_SIZE);
+            g2d.setColor(Color.WHITE);
+            g2d.drawOval(bx, by, BADGE_SIZE, BADGE_SIZE);
+            g2d.dispose();
+        }
+    }
+}
@@ -30,6 +30,9 @@ public class Tree extends JTree {
         inputMap.put(ctrlV, "none");
 
         setRootVisible(false);
+        // Fixed height rows let the tree query only the children of the visible rows
+        setRowHeight(Math.max(18, getFontMetrics(getFont()).getHeight() + 2));
+        setLargeModel(true);
     }
 
     public void fireVisibleDataPropertyChange() {
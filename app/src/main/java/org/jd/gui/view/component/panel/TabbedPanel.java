@@ -120,6 +120,7 @@ public class TabbedPanel<T extends JComponent & UriGettable> extends JPanel impl
 
     public void addPage(String title, Supplier<Icon> iconSupplier, String tip, T page) {
         // Add a new tab
+        JPanel tab = new JPanel(new BorderLayout());
         JLabel tabCloseButton = new JLabel(CLOSE_ICON);
         tabCloseButton.setToolTipText("Close this panel");
         tabCloseButton.addMouseListener(new MouseListener() {
@@ -143,9 +144,12 @@ public class TabbedPanel<T extends JComponent & UriGettable> extends JPanel impl
 
             @Override
             public void mouseClicked(MouseEvent e) {
-                removeComponent(page);
-                if (page instanceof Closeable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
-                    Closeable closeablePage = (Closeable) page;
+                // The page may have been replaced since the tab creation
+                int index = tabbedPane.indexOfTabComponent(tab);
+                Component component = index == -1 ? page : tabbedPane.getComponentAt(index);
+                removeComponent(component);
+                if (component instanceof Closeable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                    Closeable closeablePage = (Closeable) component;
                     try {
                         closeablePage.close();
                     } catch (IOException ex) {
@@ -155,7 +159,6 @@ public class TabbedPanel<T extends JComponent & UriGettable> extends JPanel impl
             }
         });
 
-        JPanel tab = new JPanel(new BorderLayout());
         tab.setBorder(BorderFactory.createEmptyBorder(2, 0, 3, 0));
         tab.setOpaque(false);
         tab.setToolTipText(tip);
@@ -281,6 +284,17 @@ public class TabbedPanel<T extends JComponent & UriGettable> extends JPanel impl
         }
     }
 
+    /**
+     * Replaces the content of a tab, keeping its title, icon and position.
+     */
+    public void replacePage(Component oldPage, T newPage) {
+        int index = tabbedPane.indexOfComponent(oldPage);
+
+        if (index != -1) {
+            tabbedPane.setComponentAt(index, newPage);
+        }
+    }
+
     // --- Popup menu actions --- //
     public void removeComponent(Component component) {
         tabbedPane.remove(component);
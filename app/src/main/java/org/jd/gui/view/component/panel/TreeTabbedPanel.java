@@ -41,6 +41,7 @@ import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
 import javax.swing.JTree;
 import javax.swing.SwingUtilities;
 import javax.swing.event.TreeExpansionEvent;
@@ -87,10 +88,13 @@ public class TreeTabbedPanel<T extends DefaultMutableTreeNode & ContainerEntryGe
                 TreeNode node = (TreeNode)e.getPath().getLastPathComponent();
                 if (node instanceof TreeNodeExpandable) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
                     TreeNodeExpandable tne = (TreeNodeExpandable) node;
-                    int oldHashCode = createHashCode(node.children());
+                    // Compare the first children only: lazy nodes create their children on demand
+                    int oldChildCount = node.getChildCount();
+                    TreeNode oldFirstChild = oldChildCount == 0 ? null : node.getChildAt(0);
                     tne.populateTreeNode(api);
-                    int newHashCode = createHashCode(node.children());
-                    if (oldHashCode != newHashCode) {
+                    int newChildCount = node.getChildCount();
+                    TreeNode newFirstChild = newChildCount == 0 ? null : node.getChildAt(0);
+                    if (oldChildCount != newChildCount || oldFirstChild != newFirstChild) {
                         ((DefaultTreeModel)tree.getModel()).reload(node);
                     }
                 }
@@ -138,22 +142,6 @@ public class TreeTabbedPanel<T extends DefaultMutableTreeNode & ContainerEntryGe
         add(splitter, BorderLayout.CENTER);
     }
 
-    protected static int createHashCode(@SuppressWarnings("all") Enumeration enumeration) {
-        int hashCode = 1;
-
-        while (enumeration.hasMoreElements()) {
-            hashCode *= 31;
-
-            Object element = enumeration.nextElement();
-
-            if (element != null) {
-                hashCode += element.hashCode();
-            }
-        }
-
-        return hashCode;
-    }
-
     @SuppressWarnings("unchecked")
     protected void treeNodeChanged(T node) {
         if (treeNodeChangedEnabled && node != null) {
@@ -249,6 +237,77 @@ public class TreeTabbedPanel<T extends DefaultMutableTreeNode & ContainerEntryGe
         }
     }
 
+    /**
+     * Replaces the tree after a change of the container content on disk. The expanded and selected nodes are
+     * restored, the pages of the deleted entries are closed and the pages of the modified entries are recreated.
+     */
+    @SuppressWarnings("unchecked")
+    protected <P extends JComponent & UriGettable> void reloadTree(DefaultMutableTreeNode root, Collection<URI> modifiedUris) {
+        DefaultMutableTreeNode oldRoot = (DefaultMutableTreeNode) tree.getModel().getRoot();
+        List<URI> expandedUris = new ArrayList<>();
+        Enumeration<TreePath> expandedPaths = oldRoot == null ? null : tree.getExpandedDescendants(new TreePath(oldRoot));
+        T selectedNode = (T) tree.getLastSelectedPathComponent();
+        URI selectedUri = selectedNode == null ? null : selectedNode.getUri();
+
+        while (expandedPaths != null && expandedPaths.hasMoreElements()) {
+            Object node = expandedPaths.nextElement().getLastPathComponent();
+            if (node != oldRoot && node instanceof UriGettable) {
+                expandedUris.add(((UriGettable) node).getUri());
+            }
+        }
+
+        try {
+            // Disable tree node changed listener
+            treeNodeChangedEnabled = false;
+
+            tree.setModel(new DefaultTreeModel(root));
+
+            for (URI expandedUri : expandedUris) {
+                DefaultMutableTreeNode node = searchTreeNode(expandedUri, root);
+                if (node != null) {
+                    tree.expandPath(new TreePath(node.getPath()));
+                }
+            }
+
+            // Update pages
+            JTabbedPane tabbedPane = tabbedPanel.getTabbedPane();
+            int i = tabbedPane.getTabCount();
+
+            while (i-- > 0) {
+                P page = (P) tabbedPane.getComponentAt(i);
+                URI pageUri = page.getUri();
+                DefaultMutableTreeNode node = searchTreeNode(pageUri, root);
+
+                if (node == null) {
+                    // Entry deleted
+                    tabbedPanel.removeComponent(page);
+                } else if (modifiedUris.contains(pageUri) && node instanceof PageCreator) {
+                    // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                    P newPage = ((PageCreator) node).createPage(api);
+                    newPage.putClientProperty("node", node);
+                    tabbedPanel.replacePage(page, newPage);
+                } else {
+                    page.putClientProperty("node", node);
+                }
+            }
+
+            if (selectedUri != null) {
+                DefaultMutableTreeNode node = searchTreeNode(selectedUri, root);
+                if (node != null) {
+                    TreePath treePath = new TreePath(node.getPath());
+                    tree.setSelectionPath(treePath);
+                    tree.scrollPathToVisible(treePath);
+                }
+            }
+        } finally {
+            // Enable tree node changed listener
+            treeNodeChangedEnabled = true;
+        }
+
+        // Notify the new page
+        pageChanged();
+    }
+
     // --- URIGetter --- //
     @Override
     public URI getUri() { return uri; }
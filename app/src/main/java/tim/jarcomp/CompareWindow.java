@@ -6,6 +6,7 @@ import org.jd.core.v1.util.StringConstants;
 import org.jd.core.v1.util.ZipLoader;
 import org.jd.gui.api.API;
 import org.jd.gui.util.ImageUtil;
+import org.jd.gui.util.decompiler.DecompilationSupervisor;
 import org.jd.gui.util.loader.LoaderUtils;
 import org.jdesktop.swingx.JXTable;
 import org.jdesktop.swingx.decorator.HighlighterFactory;
@@ -13,7 +14,6 @@ import org.netbeans.modules.editor.java.JavaKit;
 import org.oxbow.swingbits.list.CheckListRenderer;
 import org.oxbow.swingbits.table.filter.TableRowFilterSupport;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.TransformationException;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
@@ -200,12 +200,16 @@ public class CompareWindow {
             Map<String, String> preferences = api.getPreferences();
             preferences.put(Preferences.WRITE_LINE_NUMBERS, "false");
             preferences.put(Preferences.REALIGN_LINE_NUMBERS, "false");
+            byte[] classFile;
+            try (ZipFile zipFile = new ZipFile(file); InputStream in = zipFile.getInputStream(zipFile.getEntry(entryPath))) {
+                classFile = in.readAllBytes();
+            }
             try (FileInputStream in = new FileInputStream(file)) {
                 ZipLoader zipLoader = new ZipLoader(in);
                 String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
                 Loader apiLoader = LoaderUtils.createLoader(preferences, zipLoader, file.toURI());
                 String entryInternalName = ClassUtil.getInternalName(entryPath);
-                DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
+                DecompilationResult decompilationResult = DecompilationSupervisor.decompile(apiLoader, entryInternalName, preferences, decompileEngine, classFile, true);
                 return decompilationResult.getDecompiledOutput();
             }
         }
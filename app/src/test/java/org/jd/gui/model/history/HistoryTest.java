@@ -0,0 +1,90 @@
+package org.jd.gui.model.history;
+
+import java.net.URI;
+
+import junit.framework.TestCase;
+
+public class HistoryTest extends TestCase {
+    public void testBackwardForward() {
+        History history = new History();
+        URI a = URI.create("file:///tmp/a.jar!/a/A.class");
+        URI b = URI.create("file:///tmp/a.jar!/b/B.class");
+        URI c = URI.create("file:///tmp/c.jar!/c/C.class");
+
+        history.add(a);
+        history.add(b);
+        history.add(c);
+
+        assertTrue(history.canBackward());
+        assertFalse(history.canForward());
+        assertEquals(b, history.backward());
+        assertEquals(a, history.backward());
+        assertFalse(history.canBackward());
+        assertEquals(a, history.backward());
+        assertEquals(b, history.forward());
+
+        // Clear forward entries
+        history.add(c.resolve("D.class"));
+        assertFalse(history.canForward());
+        assertEquals(b, history.backward());
+    }
+
+    public void testCollapsePositions() {
+        History history = new History();
+        URI page = URI.create("file:///tmp/a.jar!/a/A.class");
+
+        history.add(page);
+        for (int i = 0; i < 100; i++) {
+            history.add(URI.create(page + "?position=" + i));
+        }
+
+        assertEquals(1, history.size());
+
+        // Hyperlink in the same page
+        history.add(URI.create(page + "#a/A-m-()V"));
+        assertEquals(2, history.size());
+        assertEquals(URI.create(page + "?position=99"), history.backward());
+    }
+
+    public void testCapacity() {
+        History history = new History(3);
+
+        for (int i = 0; i < 5; i++) {
+            history.add(URI.create("file:///tmp/a.jar!/A" + i + ".class"));
+        }
+
+        assertEquals(3, history.size());
+        assertEquals(URI.create("file:///tmp/a.jar!/A3.class"), history.backward());
+        assertEquals(URI.create("file:///tmp/a.jar!/A2.class"), history.backward());
+        assertFalse(history.canBackward());
+    }
+
+    public void testConstantMemoryUnderMillionEvents() {
+        int capacity = 100;
+        History history = new History(capacity);
+
+        for (int i = 0; i < 1_000_000; i++) {
+            URI page = URI.create("file:///tmp/container" + (i % 10) + ".jar!/p/Type" + i + ".class");
+
+            history.add(page);
+            history.add(URI.create(page + "?position=" + i));
+            history.add(URI.create(page + "?position=" + (i + 1)));
+            if (i % 7 == 0) {
+                history.backward();
+            }
+
+            assertTrue(history.size() <= capacity);
+            assertTrue(history.getInternedPrefixCount() <= 10);
+        }
+
+        assertEquals(capacity, history.size());
+        assertEquals(10, history.getInternedPrefixCount());
+
+        // Oldest entries dropped, prefixes of the remaining ones preserved
+        URI uri = null;
+        while (history.canBackward()) {
+            uri = history.backward();
+        }
+        assertTrue(uri.toString().startsWith("file:///tmp/container"));
+    }
+}
@@ -0,0 +1,71 @@
+package org.jd.gui.service.extension;
+
+import org.jd.gui.spi.Indexer;
+import org.jd.gui.util.StartupTimer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class ExtensionServiceTest extends TestCase {
+    public void testDiscoveryIndex() throws IOException {
+        File indexFile = Files.createTempFile("jd-gui-extensions", ".bin").toFile();
+
+        try {
+            Files.delete(indexFile.toPath());
+
+            // Without index: providers instantiated
+            ExtensionService discovery = new ExtensionService(null, indexFile);
+            List<Extension<Indexer>> discovered = discovery.loadExtensions(Indexer.class, Indexer::getSelectors, Indexer::getPathPattern);
+
+            assertFalse(discovered.isEmpty());
+            for (Extension<Indexer> extension : discovered) {
+                assertTrue(extension.isInstantiated());
+            }
+
+            discovery.saveIndex();
+            assertTrue(indexFile.isFile());
+
+            // With index: same providers, not instantiated
+            ExtensionService indexed = new ExtensionService(null, indexFile);
+            assertTrue(indexed.getIndexedServiceNames().contains(Indexer.class.getName()));
+
+            List<Extension<Indexer>> extensions = indexed.loadExtensions(Indexer.class, Indexer::getSelectors, Indexer::getPathPattern);
+
+            assertEquals(discovered.size(), extensions.size());
+            for (int i = 0; i < extensions.size(); i++) {
+                Extension<Indexer> expected = discovered.get(i);
+                Extension<Indexer> extension = extensions.get(i);
+
+                assertFalse(extension.isInstantiated());
+                assertEquals(expected.getClassName(), extension.getClassName());
+                assertTrue(Arrays.equals(expected.getSelectors(), extension.getSelectors()));
+                assertEquals(String.valueOf(expected.getPathPattern()), String.valueOf(extension.getPathPattern()));
+            }
+
+            // Instantiation on first use
+            Indexer indexer = extensions.get(0).get();
+            assertEquals(extensions.get(0).getClassName(), indexer.getClass().getName());
+            assertSame(indexer, extensions.get(0).get());
+        } finally {
+            Files.deleteIfExists(indexFile.toPath());
+        }
+    }
+
+    public void testStartupTimes() {
+        new ExtensionService(null, null).loadExtensions(Indexer.class, Indexer::getSelectors, Indexer::getPathPattern);
+
+        Map<String, Long> phases = StartupTimer.getPhases();
+
+        assertTrue(phases.containsKey("extensionClassLoader"));
+        assertTrue(phases.containsKey("extensions:Indexer"));
+        for (Long nanos : phases.values()) {
+            assertTrue(nanos >= 0);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.jd.gui.service.extension;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+public class SelectorDispatcherTest extends TestCase {
+
+    public void testPrecedence() {
+        SelectorDispatcher<String> dispatcher = new SelectorDispatcher<>(List.of(
+            newExtension("any", null, "*:file:*"),
+            newExtension("class", null, "*:file:*.class"),
+            newExtension("moduleInfo", null, "*:file:*/module-info.class"),
+            newExtension("jmodModuleInfo", null, "jmod:file:classes/module-info.class"),
+            newExtension("license", null, "*:file:*/LICENSE"),
+            newExtension("jarDirectory", null, "jar:dir:*"),
+            newExtension("xml", null, "*:file:*.xml"),
+            newExtension("webXml", ".*web\\.xml", "*:file:*.xml")));
+
+        assertEquals("class", dispatcher.get("jar", false, "org/jd/gui/App.class"));
+        // Path, then name, then extension
+        assertEquals("jmodModuleInfo", dispatcher.get("jmod", false, "classes/module-info.class"));
+        assertEquals("moduleInfo", dispatcher.get("jar", false, "classes/module-info.class"));
+        assertEquals("moduleInfo", dispatcher.get("jar", false, "module-info.class"));
+        assertEquals("license", dispatcher.get("jar", false, "LICENSE"));
+        assertEquals("license", dispatcher.get("jar", false, "META-INF/LICENSE"));
+        assertEquals("any", dispatcher.get("jar", false, "META-INF/THIRD-PARTY-LICENSE"));
+        // Extension after the last '.' of the name
+        assertEquals("any", dispatcher.get("jar", false, "archive.class.gz"));
+        assertEquals("any", dispatcher.get("jar", false, "org.class/README"));
+        assertEquals("any", dispatcher.get("jar", false, "class"));
+        // Container type, then any container type
+        assertEquals("jarDirectory", dispatcher.get("jar", true, "org"));
+        assertNull(dispatcher.get("war", true, "org"));
+        assertNull(dispatcher.find("jar", false, "org/jd/gui/App.class"));
+        // Path patterns before the default provider
+        assertEquals("webXml", dispatcher.get("war", false, "WEB-INF/web.xml"));
+        assertEquals("xml", dispatcher.get("war", false, "pom.xml"));
+    }
+
+    public void testExclusionPatterns() {
+        SelectorDispatcher<String> dispatcher = new SelectorDispatcher<>(List.of(
+            newExtension("class", "^((?!module-info\\.class).)*$", "*:file:*.class"),
+            newExtension("noDigit", "^((?!\\d).)*$", "*:file:*.txt")));
+
+        // Compiled to a search of the literal
+        assertEquals("module-info.class", SelectorDispatcher.getExcludedLiteral("^((?!module-info\\.class).)*$"));
+        assertEquals("class", dispatcher.get("jar", false, "org/jd/gui/App.class"));
+        assertNull(dispatcher.get("jar", false, "module-info.class"));
+        assertNull(dispatcher.get("jar", false, "META-INF/versions/9/module-info.class"));
+        // Other patterns matched as regular expressions
+        assertNull(SelectorDispatcher.getExcludedLiteral("^((?!\\d).)*$"));
+        assertNull(SelectorDispatcher.getExcludedLiteral(".*web\\.xml"));
+        assertEquals("noDigit", dispatcher.get("jar", false, "README.txt"));
+        assertNull(dispatcher.get("jar", false, "README1.txt"));
+    }
+
+    protected static Extension<String> newExtension(String provider, String pathRegExp, String... selectors) {
+        return new Extension<>(String.class, provider, selectors, (pathRegExp == null) ? null : Pattern.compile(pathRegExp));
+    }
+}
@@ -0,0 +1,244 @@
+package org.jd.gui.service.mainpanel;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.model.container.GenericContainer;
+import org.jd.gui.service.mainpanel.ContainerPanelFactoryProvider.UpdatableIndexes;
+import org.jd.gui.util.index.SummarizedIndex;
+import org.jd.gui.util.io.DirectoryWatcher;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class UpdatableIndexesTest extends TestCase {
+    private Path rootPath;
+
+    @Override
+    protected void setUp() throws Exception {
+        rootPath = Files.createTempDirectory("jd-gui-watched");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(rootPath)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    public void testWatchedUpdate() throws Exception {
+        Files.writeString(rootPath.resolve("a.txt"), "alpha shared");
+        Files.writeString(rootPath.resolve("b.txt"), "beta shared");
+
+        GenericContainer container = new GenericContainer(null, newParentEntry(rootPath), rootPath);
+        Container.Entry a = child(container, "a.txt");
+        Container.Entry b = child(container, "b.txt");
+        // Children iterated while the container is updated
+        Map<Container.EntryPath, Container.Entry> children = container.getRoot().getChildren();
+        List<Container.Entry> childEntries = new ArrayList<>(children.values());
+        Map<String, Map<String, Collection>> map = new ConcurrentHashMap<>();
+
+        map.put("strings", newIndex("alpha", List.of(a), "beta", List.of(b), "shared", List.of(a, b)));
+        map.put("typeDeclarations", newIndex("B", List.of(b)));
+        map.put("subTypeNames", newIndex("java/lang/Object", List.of("B")));
+
+        UpdatableIndexes indexes = new UpdatableIndexes(map);
+        int hashCode = indexes.hashCode();
+        BlockingQueue<DirectoryWatcher.Changes> queue = new LinkedBlockingQueue<>();
+        Map<String, Collection> strings = indexes.getIndex("strings");
+        Collection sharedPostings = strings.get("shared");
+        // Search iterating while the indexes are updated
+        Iterator<Map.Entry<String, Collection>> search = strings.entrySet().iterator();
+
+        search.next();
+
+        try (DirectoryWatcher watcher = container.watch(10, queue::add)) {
+            Files.writeString(rootPath.resolve("a.txt"), "gamma shared");
+            Files.delete(rootPath.resolve("b.txt"));
+            Files.writeString(rootPath.resolve("c.txt"), "gamma shared");
+
+            List<Container.Entry> added = new ArrayList<>();
+            List<Container.Entry> removed = new ArrayList<>();
+            List<Container.Entry> modified = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+
+            while (added.isEmpty() || removed.isEmpty() || modified.isEmpty()) {
+                DirectoryWatcher.Changes changes = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                assertNotNull(changes);
+
+                GenericContainer.EntryChanges entryChanges = container.update(changes);
+
+                added.addAll(entryChanges.added());
+                removed.addAll(entryChanges.removed());
+                modified.addAll(entryChanges.modified());
+            }
+
+            assertEquals(List.of(b), removed);
+            assertEquals(List.of(a), modified);
+            assertEquals(1, added.size());
+            // Replaced, not modified
+            assertEquals(childEntries, new ArrayList<>(children.values()));
+            assertTrue(container.getRoot().getChildren().containsValue(added.get(0)));
+            assertFalse(container.getRoot().getChildren().containsValue(b));
+
+            Container.Entry c = added.get(0);
+            List<Container.Entry> obsoleteEntries = new ArrayList<>(removed);
+            Map<String, Map<String, Collection>> patch = new HashMap<>();
+
+            obsoleteEntries.addAll(modified);
+            patch.put("strings", newIndex("gamma", List.of(a, c), "shared", List.of(a, c)));
+
+            int modificationCount = indexes.update(obsoleteEntries, patch);
+
+            assertEquals(1, modificationCount);
+            assertTrue(indexes.hashCode() != hashCode);
+
+            Map<String, Collection> updatedStrings = indexes.getIndex("strings");
+
+            assertNull(updatedStrings.get("alpha"));
+            assertNull(updatedStrings.get("beta"));
+            assertEquals(List.of(a, c), updatedStrings.get("gamma"));
+            assertEquals(List.of(a, c), updatedStrings.get("shared"));
+            assertTrue(indexes.getIndex("typeDeclarations").isEmpty());
+            assertTrue(indexes.getIndex("subTypeNames").isEmpty());
+        }
+
+        // The previous posting lists are unchanged, the search completes
+        assertEquals(List.of(a, b), sharedPostings);
+
+        while (search.hasNext()) {
+            search.next();
+        }
+
+        container.close();
+    }
+
+    public void testMerge() {
+        Map<String, Map<String, Collection>> map = new HashMap<>();
+
+        map.put("strings", newIndex("alpha", List.of("a"), "shared", List.of("a")));
+
+        UpdatableIndexes indexes = new UpdatableIndexes(map);
+        Map<String, Collection> strings = indexes.getIndex("strings");
+        Collection sharedPostings = strings.get("shared");
+        Map<String, Map<String, Collection>> patch = new HashMap<>();
+
+        patch.put("strings", newIndex("beta", List.of("b"), "shared", List.of("b")));
+        patch.put("typeDeclarations", newIndex("B", List.of("b")));
+
+        assertEquals(1, indexes.merge(patch));
+
+        // Merged in the same maps, the changed posting lists are replaced
+        assertSame(strings, indexes.getIndex("strings"));
+        assertEquals(List.of("a"), sharedPostings);
+        assertEquals(List.of("a", "b"), strings.get("shared"));
+        assertEquals(List.of("b"), indexes.getIndex("typeDeclarations").get("B"));
+
+        Map<String, Map<String, Collection>> merged = new HashMap<>();
+
+        merged.put("strings", strings);
+        merged.put("typeDeclarations", indexes.getIndex("typeDeclarations"));
+        // Weight updated from the patch only
+        assertEquals(UpdatableIndexes.weigh(merged), indexes.weight());
+    }
+
+    public void testSpilledQueries() throws Exception {
+        Map<String, Map<String, Collection>> map = new HashMap<>();
+
+        map.put("typeDeclarations", newIndex("org/example/Alpha", List.of("a"), "org/example/Beta", List.of("b")));
+
+        UpdatableIndexes indexes = new UpdatableIndexes(map);
+
+        assertTrue(indexes.spill());
+        assertEquals(0, indexes.weight());
+
+        Map<String, Collection> typeDeclarations = indexes.getIndex("typeDeclarations");
+
+        // Answered from the file
+        assertEquals(2, typeDeclarations.size());
+        assertEquals(map.get("typeDeclarations"), new HashMap<>(typeDeclarations));
+        assertTrue(typeDeclarations instanceof SummarizedIndex);
+        assertFalse(((SummarizedIndex) typeDeclarations).mightHaveSimpleNameStartingWith("Ga"));
+        assertEquals(List.of("b"), typeDeclarations.get("org/example/Beta"));
+
+        // Read back in the background after the lookup
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+
+        while (indexes.weight() == 0) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+
+        assertEquals(List.of("a"), typeDeclarations.get("org/example/Alpha"));
+        assertTrue(((SummarizedIndex) typeDeclarations).mightHaveSimpleNameStartingWith("Ga"));
+        indexes.discard();
+    }
+
+    protected static Map<String, Collection> newIndex(Object... keysAndPostings) {
+        Map<String, Collection> index = new HashMap<>();
+
+        for (int i = 0; i < keysAndPostings.length; i += 2) {
+            index.put((String) keysAndPostings[i], new ArrayList<>((Collection) keysAndPostings[i + 1]));
+        }
+
+        return index;
+    }
+
+    protected static Container.Entry child(Container container, String path) {
+        for (Container.Entry entry : container.getRoot().getChildren().values()) {
+            if (path.equals(entry.getPath())) {
+                return entry;
+            }
+        }
+        throw new AssertionError(path);
+    }
+
+    protected static Container.Entry newParentEntry(Path path) {
+        return new Container.Entry() {
+            @Override
+            public Container getContainer() { return null; }
+
+            @Override
+            public Container.Entry getParent() { return null; }
+
+            @Override
+            public URI getUri() { return path.toUri(); }
+
+            @Override
+            public long length() { return 0; }
+
+            @Override
+            public long compressedLength() { return 0; }
+
+            @Override
+            public InputStream getInputStream() { return null; }
+
+            @Override
+            public Map<Container.EntryPath, Container.Entry> getChildren() { return null; }
+
+            @Override
+            public boolean isDirectory() { return true; }
+
+            @Override
+            public String getPath() { return path.toString(); }
+        };
+    }
+}
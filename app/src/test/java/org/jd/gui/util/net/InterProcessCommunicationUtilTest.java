@@ -0,0 +1,116 @@
+package org.jd.gui.util.net;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+public class InterProcessCommunicationUtilTest extends TestCase {
+    private Path directory;
+    private Path socketPath;
+
+    @Override
+    protected void setUp() throws Exception {
+        directory = Files.createTempDirectory("jd-gui-ipc");
+        socketPath = directory.resolve("test.socket");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(socketPath);
+        Files.deleteIfExists(socketPath.resolveSibling("test.socket.lock"));
+        Files.deleteIfExists(directory);
+    }
+
+    public void testStaleSocketFile() throws IOException {
+        // Socket file left by an instance that did not exit normally
+        ServerSocketChannel crashed = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+
+        crashed.bind(UnixDomainSocketAddress.of(socketPath));
+        crashed.close();
+        assertTrue(Files.exists(socketPath));
+        assertFalse(isListening());
+
+        try (ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            InterProcessCommunicationUtil.bind(channel, socketPath);
+            assertTrue(isListening());
+        }
+    }
+
+    public void testSecondInstance() throws IOException {
+        try (ServerSocketChannel first = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             ServerSocketChannel second = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            InterProcessCommunicationUtil.bind(first, socketPath);
+
+            try {
+                InterProcessCommunicationUtil.bind(second, socketPath);
+                fail("Second instance bound");
+            } catch (IOException e) {
+                // Expected
+            }
+
+            // The socket of the first instance is still reachable
+            assertTrue(isListening());
+        }
+    }
+
+    public void testConcurrentLaunches() throws Exception {
+        int instanceCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(instanceCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ServerSocketChannel>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < instanceCount; i++) {
+                futures.add(executor.submit((Callable<ServerSocketChannel>) () -> {
+                    ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+                    start.await();
+                    try {
+                        InterProcessCommunicationUtil.bind(channel, socketPath);
+                        return channel;
+                    } catch (IOException e) {
+                        channel.close();
+                        return null;
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            List<ServerSocketChannel> primaries = new ArrayList<>();
+
+            for (Future<ServerSocketChannel> future : futures) {
+                ServerSocketChannel channel = future.get();
+                if (channel != null) {
+                    primaries.add(channel);
+                }
+            }
+
+            assertEquals(1, primaries.size());
+            assertTrue(isListening());
+            primaries.get(0).close();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    protected boolean isListening() {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
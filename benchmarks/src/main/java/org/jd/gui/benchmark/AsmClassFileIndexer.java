@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.core.v1.util.StringConstants;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.apache.bcel.Const.CONSTANT_Class;
+import static org.apache.bcel.Const.CONSTANT_Fieldref;
+import static org.apache.bcel.Const.CONSTANT_InterfaceMethodref;
+import static org.apache.bcel.Const.CONSTANT_Methodref;
+import static org.apache.bcel.Const.CONSTANT_NameAndType;
+import static org.apache.bcel.Const.CONSTANT_String;
+import static org.objectweb.asm.ClassReader.SKIP_CODE;
+import static org.objectweb.asm.ClassReader.SKIP_DEBUG;
+import static org.objectweb.asm.ClassReader.SKIP_FRAMES;
+
+/**
+ * Reference implementation: the ClassReader based collection previously done by ClassFileIndexerProvider.
+ */
+public class AsmClassFileIndexer {
+    protected Set<String> typeDeclarationSet = new HashSet<>();
+    protected Set<String> constructorDeclarationSet = new HashSet<>();
+    protected Set<String> methodDeclarationSet = new HashSet<>();
+    protected Set<String> fieldDeclarationSet = new HashSet<>();
+    protected Set<String> typeReferenceSet = new HashSet<>();
+    protected Set<String> constructorReferenceSet = new HashSet<>();
+    protected Set<String> methodReferenceSet = new HashSet<>();
+    protected Set<String> fieldReferenceSet = new HashSet<>();
+    protected Set<String> stringSet = new HashSet<>();
+    protected Set<String> superTypeNameSet = new HashSet<>();
+    protected Set<String> descriptorSet = new HashSet<>();
+
+    protected ClassIndexer classIndexer = new ClassIndexer();
+    protected SignatureIndexer signatureIndexer = new SignatureIndexer();
+
+    public String getTypeName() {
+        return classIndexer.name;
+    }
+
+    /**
+     * @return the sets in the order of 'ClassFileScanner': type, constructor, method & field declarations, type,
+     *         constructor, method & field references, strings and super type names
+     */
+    public List<Set<String>> getSets() {
+        return List.of(
+            typeDeclarationSet, constructorDeclarationSet, methodDeclarationSet, fieldDeclarationSet,
+            typeReferenceSet, constructorReferenceSet, methodReferenceSet, fieldReferenceSet,
+            stringSet, superTypeNameSet);
+    }
+
+    public void index(byte[] classFile) {
+        // Cleaning sets...
+        typeDeclarationSet.clear();
+        constructorDeclarationSet.clear();
+        methodDeclarationSet.clear();
+        fieldDeclarationSet.clear();
+        typeReferenceSet.clear();
+        constructorReferenceSet.clear();
+        methodReferenceSet.clear();
+        fieldReferenceSet.clear();
+        stringSet.clear();
+        superTypeNameSet.clear();
+        descriptorSet.clear();
+
+        // Index field, method, interfaces & super type
+        ClassReader classReader = new ClassReader(classFile);
+        classReader.accept(classIndexer, SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+
+        // Index descriptors
+        for (String descriptor : descriptorSet) {
+            new SignatureReader(descriptor).accept(signatureIndexer);
+        }
+
+        // Index references
+        char[] buffer = new char[classReader.getMaxStringLength()];
+
+        for (int i = classReader.getItemCount() - 1; i > 0; i--) {
+            int startIndex = classReader.getItem(i);
+
+            if (startIndex != 0) {
+                int tag = classReader.readByte(startIndex - 1);
+
+                switch (tag) {
+                case CONSTANT_Class:
+                    String className = classReader.readUTF8(startIndex, buffer);
+                    if (className.startsWith("[")) {
+                        new SignatureReader(className).acceptType(signatureIndexer);
+                    } else {
+                        typeReferenceSet.add(className);
+                    }
+                    break;
+                case CONSTANT_String:
+                    String str = classReader.readUTF8(startIndex, buffer);
+                    stringSet.add(str);
+                    break;
+                case CONSTANT_Fieldref:
+                    int nameAndTypeItem = classReader.readUnsignedShort(startIndex + 2);
+                    int nameAndTypeIndex = classReader.getItem(nameAndTypeItem);
+                    tag = classReader.readByte(nameAndTypeIndex - 1);
+                    if (tag == CONSTANT_NameAndType) {
+                        String fieldName = classReader.readUTF8(nameAndTypeIndex, buffer);
+                        fieldReferenceSet.add(fieldName);
+                    }
+                    break;
+                case CONSTANT_Methodref, CONSTANT_InterfaceMethodref:
+                    nameAndTypeItem = classReader.readUnsignedShort(startIndex + 2);
+                    nameAndTypeIndex = classReader.getItem(nameAndTypeItem);
+                    tag = classReader.readByte(nameAndTypeIndex - 1);
+                    if (tag == CONSTANT_NameAndType) {
+                        String methodName = classReader.readUTF8(nameAndTypeIndex, buffer);
+                        if (StringConstants.INSTANCE_CONSTRUCTOR.equals(methodName)) {
+                            int classItem = classReader.readUnsignedShort(startIndex);
+                            int classIndex = classReader.getItem(classItem);
+                            className = classReader.readUTF8(classIndex, buffer);
+                            constructorReferenceSet.add(className);
+                        } else {
+                            methodReferenceSet.add(methodName);
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    protected class ClassIndexer extends ClassVisitor {
+        private AnnotationIndexer annotationIndexer = new AnnotationIndexer();
+        private FieldIndexer fieldIndexer = new FieldIndexer(annotationIndexer);
+        private MethodIndexer methodIndexer = new MethodIndexer(annotationIndexer);
+
+        private String name;
+
+        public ClassIndexer() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.name = name;
+            typeDeclarationSet.add(name);
+
+            if (superName != null) {
+                superTypeNameSet.add(superName);
+            }
+
+            if (interfaces != null) {
+                Collections.addAll(superTypeNameSet, interfaces);
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            fieldDeclarationSet.add(name);
+            descriptorSet.add(signature == null ? desc : signature);
+            return fieldIndexer;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if (StringConstants.INSTANCE_CONSTRUCTOR.equals(name)) {
+                constructorDeclarationSet.add(this.name);
+            } else if (!"<clinit>".equals(name)) {
+                methodDeclarationSet.add(name);
+            }
+
+            descriptorSet.add(signature == null ? desc : signature);
+
+            if (exceptions != null) {
+                Collections.addAll(typeReferenceSet, exceptions);
+            }
+            return methodIndexer;
+        }
+    }
+
+    protected class SignatureIndexer extends SignatureVisitor {
+        SignatureIndexer() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visitClassType(String name) {
+            typeReferenceSet.add(name);
+        }
+    }
+
+    protected class AnnotationIndexer extends AnnotationVisitor {
+        public AnnotationIndexer() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visitEnum(String name, String desc, String value) {
+            descriptorSet.add(desc);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String desc) {
+            descriptorSet.add(desc);
+            return this;
+        }
+    }
+
+    protected class FieldIndexer extends FieldVisitor {
+        private AnnotationIndexer annotationIndexer;
+
+        public FieldIndexer(AnnotationIndexer annotationIndexer) {
+            super(Opcodes.ASM9);
+            this.annotationIndexer = annotationIndexer;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+    }
+
+    protected class MethodIndexer extends MethodVisitor {
+        private AnnotationIndexer annotationIndexer;
+
+        public MethodIndexer(AnnotationIndexer annotationIndexer) {
+            super(Opcodes.ASM9);
+            this.annotationIndexer = annotationIndexer;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String desc, boolean visible) {
+            descriptorSet.add(desc);
+            return annotationIndexer;
+        }
+    }
+}
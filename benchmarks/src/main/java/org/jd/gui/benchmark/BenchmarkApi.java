@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.api.API;
+import org.jd.gui.api.feature.UriGettable;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.Indexes;
+import org.jd.gui.service.actions.ContextualActionsFactoryService;
+import org.jd.gui.service.container.ContainerFactoryService;
+import org.jd.gui.service.fileloader.FileLoaderService;
+import org.jd.gui.service.indexer.IndexerService;
+import org.jd.gui.service.mainpanel.PanelFactoryService;
+import org.jd.gui.service.sourcesaver.SourceSaverService;
+import org.jd.gui.service.treenode.TreeNodeFactoryService;
+import org.jd.gui.service.type.TypeFactoryService;
+import org.jd.gui.service.uriloader.UriLoaderService;
+import org.jd.gui.spi.ContainerFactory;
+import org.jd.gui.spi.FileLoader;
+import org.jd.gui.spi.Indexer;
+import org.jd.gui.spi.PanelFactory;
+import org.jd.gui.spi.SourceSaver;
+import org.jd.gui.spi.TreeNodeFactory;
+import org.jd.gui.spi.TypeFactory;
+import org.jd.gui.spi.UriLoader;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import javax.swing.Action;
+import javax.swing.Icon;
+import javax.swing.JComponent;
+
+import static org.jd.gui.util.decompiler.GuiPreferences.ERROR_BACKGROUND_COLOR;
+
+/**
+ * Headless API: services are resolved as in MainController, opened panels are kept instead of being displayed,
+ * and nothing is navigable.
+ */
+public class BenchmarkApi implements API {
+    private final Map<String, String> preferences = new HashMap<>();
+    private final List<JComponent> panels = new ArrayList<>();
+    private final List<Indexes> collectionOfIndexes = new ArrayList<>();
+
+    public BenchmarkApi() {
+        preferences.put(ERROR_BACKGROUND_COLOR, "0xFF6666");
+    }
+
+    public List<JComponent> getPanels() { return panels; }
+
+    public void addIndexes(Indexes indexes) { collectionOfIndexes.add(indexes); }
+
+    /**
+     * Opens the archive 'file', mounted as 'fileSystem', as the file loaders do, without creating a main panel.
+     */
+    public Container openContainer(File file, FileSystem fileSystem) {
+        Path rootPath = fileSystem.getRootDirectories().iterator().next();
+        FileEntry parentEntry = new FileEntry(file);
+        Container container = getContainerFactory(rootPath).make(this, parentEntry, rootPath);
+
+        parentEntry.setChildren(container.getRoot().getChildren());
+        return container;
+    }
+
+    /**
+     * Loads the children of 'entry' recursively and collects the file entries.
+     */
+    public static List<Container.Entry> collectFileEntries(Container.Entry entry, List<Container.Entry> entries) {
+        for (Container.Entry child : entry.getChildren().values()) {
+            if (child.isDirectory()) {
+                collectFileEntries(child, entries);
+            } else {
+                entries.add(child);
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public boolean openURI(URI uri) { return false; }
+
+    @Override
+    public boolean openURI(int x, int y, Collection<Container.Entry> entries, String query, String fragment) { return false; }
+
+    @Override
+    public void addURI(URI uri) {}
+
+    @Override
+    public <T extends JComponent & UriGettable> void addPanel(File file, String title, Supplier<Icon> iconSupplier, String tip, T component) {
+        panels.add(component);
+    }
+
+    @Override
+    public Collection<Action> getContextualActions(Container.Entry entry, String fragment) {
+        return ContextualActionsFactoryService.getInstance().get(this, entry, fragment);
+    }
+
+    @Override
+    public UriLoader getUriLoader(URI uri) { return UriLoaderService.getInstance().get(this, uri); }
+
+    @Override
+    public FileLoader getFileLoader(File file) { return FileLoaderService.getInstance().get(file); }
+
+    @Override
+    public ContainerFactory getContainerFactory(Path rootPath) { return ContainerFactoryService.getInstance().get(this, rootPath); }
+
+    @Override
+    public PanelFactory getMainPanelFactory(Container container) { return PanelFactoryService.getInstance().get(container); }
+
+    @Override
+    public TreeNodeFactory getTreeNodeFactory(Container.Entry entry) { return TreeNodeFactoryService.getInstance().get(entry); }
+
+    @Override
+    public TypeFactory getTypeFactory(Container.Entry entry) { return TypeFactoryService.getInstance().get(entry); }
+
+    @Override
+    public Indexer getIndexer(Container.Entry entry) { return IndexerService.getInstance().get(entry); }
+
+    @Override
+    public SourceSaver getSourceSaver(Container.Entry entry) { return SourceSaverService.getInstance().get(entry); }
+
+    @Override
+    public Map<String, String> getPreferences() { return preferences; }
+
+    @Override
+    public Collection<Indexes> getCollectionOfIndexes() { return collectionOfIndexes; }
+
+    @Override
+    public Collection<Future<Indexes>> getCollectionOfFutureIndexes() {
+        List<Future<Indexes>> list = new ArrayList<>(collectionOfIndexes.size());
+
+        for (Indexes indexes : collectionOfIndexes) {
+            list.add(CompletableFuture.completedFuture(indexes));
+        }
+
+        return list;
+    }
+
+    @Override
+    public String getSource(Container.Entry entry) { return null; }
+
+    @Override
+    public void loadSource(Container.Entry entry, LoadSourceListener listener) {}
+
+    @Override
+    public File loadSourceFile(Container.Entry entry) { return null; }
+
+    @Override
+    public void repaint() {}
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates JAR files of synthetic, verifiable class files, so that the benchmarks do not depend on downloaded
+ * archives.<br>
+ * <br>
+ * Classes are spread over packages of 'CLASSES_PER_PACKAGE' classes. Every tenth class is an interface implemented
+ * by the following classes, every fifth class has a member class, and each class declares fields, a constructor and
+ * methods with loops, conditions, string concatenations, exception handlers and calls to the previous classes, so
+ * that the indexes contain declarations, references and strings and the decompilers have real code to process.
+ * The output only depends on the class count and the seed.
+ */
+public class ClassFileGenerator {
+    public static final int CLASSES_PER_PACKAGE = 50;
+    public static final long DEFAULT_SEED = 20081231L;
+
+    protected static final String[] VERBS = { "get", "set", "compute", "process", "handle", "create", "find", "update", "parse", "format" };
+    protected static final String[] NOUNS = { "Value", "Name", "Count", "Item", "Entry", "Node", "Index", "Result", "Buffer", "Context" };
+
+    private final Random random;
+
+    public ClassFileGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static Path generateJar(Path file, int classCount) throws IOException {
+        return new ClassFileGenerator(DEFAULT_SEED).writeJar(file, classCount);
+    }
+
+    public static String getInternalTypeName(int index) {
+        String simpleName = (index % 10 == 0) ? "Service" + index : "Component" + index;
+        return "org/jd/gen/p" + (index / CLASSES_PER_PACKAGE) + "/" + simpleName;
+    }
+
+    public Path writeJar(Path file, int classCount) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().putValue("Manifest-Version", "1.0");
+
+        try (OutputStream os = Files.newOutputStream(file); JarOutputStream jos = new JarOutputStream(os, manifest)) {
+            for (int i = 0; i < classCount; i++) {
+                for (GeneratedClass generatedClass : generate(i)) {
+                    jos.putNextEntry(new JarEntry(generatedClass.internalName() + ".class"));
+                    jos.write(generatedClass.bytes());
+                    jos.closeEntry();
+                }
+            }
+        }
+
+        return file;
+    }
+
+    public record GeneratedClass(String internalName, byte[] bytes) {}
+
+    /**
+     * @return the class of index 'index', followed by its member class, if any
+     */
+    public List<GeneratedClass> generate(int index) {
+        List<GeneratedClass> generatedClasses = new ArrayList<>(2);
+        String internalName = getInternalTypeName(index);
+
+        if (index % 10 == 0) {
+            generatedClasses.add(new GeneratedClass(internalName, generateInterface(internalName)));
+        } else {
+            String innerName = (index % 5 == 0) ? internalName + "$Inner" : null;
+
+            generatedClasses.add(new GeneratedClass(internalName, generateClass(index, internalName, innerName)));
+
+            if (innerName != null) {
+                generatedClasses.add(new GeneratedClass(innerName, generateInnerClass(internalName, innerName)));
+            }
+        }
+
+        return generatedClasses;
+    }
+
+    protected byte[] generateInterface(String internalName) {
+        ClassWriter cw = newClassWriter();
+
+        cw.visit(V1_8, ACC_PUBLIC | ACC_ABSTRACT | ACC_INTERFACE, internalName, null, "java/lang/Object", null);
+        cw.visitSource(simpleName(internalName) + ".java", null);
+
+        for (int i = 0; i < 3; i++) {
+            cw.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "handle" + NOUNS[i], "(I)I", null, null).visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    protected byte[] generateClass(int index, String internalName, String innerName) {
+        ClassWriter cw = newClassWriter();
+        String serviceName = getInternalTypeName(index / 10 * 10);
+        String previousName = (index > 1 && (index - 1) % 10 != 0) ? getInternalTypeName(index - 1) : null;
+        String[] interfaces = (index > 10) ? new String[] { serviceName } : null;
+
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, internalName, null, "java/lang/Object", interfaces);
+        cw.visitSource(simpleName(internalName) + ".java", null);
+
+        if (innerName != null) {
+            cw.visitInnerClass(innerName, internalName, "Inner", ACC_PUBLIC | ACC_STATIC);
+        }
+
+        // Fields
+        FieldVisitor fv = cw.visitField(ACC_PUBLIC | ACC_STATIC | ACC_FINAL, "PREFIX", "Ljava/lang/String;", null, "prefix-" + index);
+        fv.visitEnd();
+        cw.visitField(ACC_PRIVATE, "count", "I", null, null).visitEnd();
+        cw.visitField(ACC_PRIVATE, "name", "Ljava/lang/String;", null, null).visitEnd();
+        cw.visitField(ACC_PRIVATE, "items", "Ljava/util/List;", "Ljava/util/List<Ljava/lang/String;>;", null).visitEnd();
+
+        // Constructor
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(Ljava/lang/String;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, internalName, "name", "Ljava/lang/String;");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitTypeInsn(NEW, "java/util/ArrayList");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+        mv.visitFieldInsn(PUTFIELD, internalName, "items", "Ljava/util/List;");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // Static entry point called by the next classes
+        mv = cw.visitMethod(ACC_PUBLIC | ACC_STATIC, "compute", "(I)I", null, null);
+        mv.visitCode();
+        generateLoop(mv, 1 + random.nextInt(7));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // Methods of the interface
+        if (interfaces != null) {
+            for (int i = 0; i < 3; i++) {
+                mv = cw.visitMethod(ACC_PUBLIC, "handle" + NOUNS[i], "(I)I", null, null);
+                mv.visitCode();
+                generateCondition(mv, internalName, previousName);
+                mv.visitMaxs(0, 0);
+                mv.visitEnd();
+            }
+        }
+
+        // Other methods
+        int methodCount = 3 + random.nextInt(6);
+
+        for (int i = 0; i < methodCount; i++) {
+            String methodName = VERBS[random.nextInt(VERBS.length)] + NOUNS[random.nextInt(NOUNS.length)] + i;
+
+            switch (random.nextInt(3)) {
+                case 0:
+                    mv = cw.visitMethod(ACC_PUBLIC, methodName, "(I)Ljava/lang/String;", null, null);
+                    mv.visitCode();
+                    generateConcatenation(mv, internalName, index, i);
+                    break;
+                case 1:
+                    mv = cw.visitMethod(ACC_PUBLIC, methodName, "(I)I", null, null);
+                    mv.visitCode();
+                    generateCondition(mv, internalName, previousName);
+                    break;
+                default:
+                    mv = cw.visitMethod(ACC_PUBLIC, methodName, "(Ljava/lang/String;)I", null, new String[] { "java/io/IOException" });
+                    mv.visitCode();
+                    generateTryCatch(mv, internalName, innerName);
+                    break;
+            }
+
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    protected byte[] generateInnerClass(String outerName, String innerName) {
+        ClassWriter cw = newClassWriter();
+
+        cw.visit(V1_8, ACC_PUBLIC | ACC_SUPER, innerName, null, "java/lang/Object", null);
+        cw.visitSource(simpleName(outerName) + ".java", null);
+        cw.visitInnerClass(innerName, outerName, "Inner", ACC_PUBLIC | ACC_STATIC);
+        cw.visitField(ACC_PRIVATE, "value", "I", null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(I)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, innerName, "value", "I");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "getValue", "()I", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, innerName, "value", "I");
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * int sum = 0; for (int i = 0; i < n; i++) { sum += i * factor; } return sum;
+     */
+    protected void generateLoop(MethodVisitor mv, int factor) {
+        Label loop = new Label();
+        Label end = new Label();
+
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 1);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, 2);
+        mv.visitLabel(loop);
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitVarInsn(ILOAD, 0);
+        mv.visitJumpInsn(IF_ICMPGE, end);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitIntInsn(BIPUSH, factor);
+        mv.visitInsn(IMUL);
+        mv.visitInsn(IADD);
+        mv.visitVarInsn(ISTORE, 1);
+        mv.visitIincInsn(2, 1);
+        mv.visitJumpInsn(GOTO, loop);
+        mv.visitLabel(end);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(IRETURN);
+    }
+
+    /**
+     * if (p > count) { count = Previous.compute(p); } else { count -= p; } return count;
+     */
+    protected void generateCondition(MethodVisitor mv, String internalName, String previousName) {
+        Label otherwise = new Label();
+        Label end = new Label();
+
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, "count", "I");
+        mv.visitJumpInsn(IF_ICMPLE, otherwise);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitMethodInsn(INVOKESTATIC, previousName == null ? internalName : previousName, "compute", "(I)I", false);
+        mv.visitFieldInsn(PUTFIELD, internalName, "count", "I");
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(otherwise);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitInsn(DUP);
+        mv.visitFieldInsn(GETFIELD, internalName, "count", "I");
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitInsn(ISUB);
+        mv.visitFieldInsn(PUTFIELD, internalName, "count", "I");
+        mv.visitLabel(end);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, "count", "I");
+        mv.visitInsn(IRETURN);
+    }
+
+    /**
+     * String s = PREFIX + "-" + name + p; items.add(s); return s;
+     */
+    protected void generateConcatenation(MethodVisitor mv, String internalName, int index, int methodIndex) {
+        mv.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "()V", false);
+        mv.visitFieldInsn(GETSTATIC, internalName, "PREFIX", "Ljava/lang/String;");
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitLdcInsn("-message-" + (index * 31 + methodIndex) + "-");
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, "name", "Ljava/lang/String;");
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        mv.visitVarInsn(ILOAD, 1);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;", false);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+        mv.visitVarInsn(ASTORE, 2);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, "items", "Ljava/util/List;");
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+        mv.visitInsn(POP);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+    }
+
+    /**
+     * try { return Integer.parseInt(s) + new Inner(count).getValue(); } catch (NumberFormatException e) { return -1; }
+     */
+    protected void generateTryCatch(MethodVisitor mv, String internalName, String innerName) {
+        Label start = new Label();
+        Label end = new Label();
+        Label handler = new Label();
+
+        mv.visitTryCatchBlock(start, end, handler, "java/lang/NumberFormatException");
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "parseInt", "(Ljava/lang/String;)I", false);
+
+        if (innerName != null) {
+            mv.visitTypeInsn(NEW, innerName);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, "count", "I");
+            mv.visitMethodInsn(INVOKESPECIAL, innerName, "<init>", "(I)V", false);
+            mv.visitMethodInsn(INVOKEVIRTUAL, innerName, "getValue", "()I", false);
+        } else {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, "count", "I");
+        }
+
+        mv.visitInsn(IADD);
+        mv.visitLabel(end);
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(handler);
+        mv.visitVarInsn(ASTORE, 2);
+        mv.visitInsn(ICONST_M1);
+        mv.visitInsn(IRETURN);
+    }
+
+    protected static ClassWriter newClassWriter() {
+        return new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Generated classes are not loadable: the only merged types are unrelated to the class hierarchy
+                return "java/lang/Object";
+            }
+        };
+    }
+
+    protected static String simpleName(String internalName) {
+        return internalName.substring(internalName.lastIndexOf('/') + 1);
+    }
+}
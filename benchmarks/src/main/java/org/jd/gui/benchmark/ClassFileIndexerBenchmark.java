@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.util.index.ClassFileScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Compares the ClassReader based collection of the class file indexer with ClassFileScanner on all the classes of
+ * a JAR file.<br>
+ * <br>
+ * Usage: java -jar benchmarks.jar ClassFileIndexerBenchmark -prof gc -p jar=/path/to/large.jar<br>
+ * Without 'jar' parameter, a JAR of 'GENERATED_CLASS_COUNT' classes is generated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClassFileIndexerBenchmark {
+    protected static final int GENERATED_CLASS_COUNT = 20000;
+
+    @Param("")
+    public String jar;
+
+    private File generatedFile;
+    private List<byte[]> classFiles;
+
+    @Setup
+    public void setup() throws IOException {
+        File file;
+
+        if (jar.isEmpty()) {
+            file = generatedFile = ClassFileGenerator.generateJar(Files.createTempFile("jd-gui-benchmark-", ".jar"), GENERATED_CLASS_COUNT).toFile();
+        } else {
+            file = new File(jar);
+        }
+
+        classFiles = loadClassFiles(file);
+
+        // Both implementations must collect the same names
+        AsmClassFileIndexer indexer = new AsmClassFileIndexer();
+        ClassFileScanner scanner = new ClassFileScanner();
+
+        for (byte[] classFile : classFiles) {
+            indexer.index(classFile);
+            scanner.scan(classFile, 0, classFile.length);
+
+            List<Set<String>> expected = indexer.getSets();
+            List<Set<String>> actual = List.of(
+                scanner.getTypeDeclarations(), scanner.getConstructorDeclarations(), scanner.getMethodDeclarations(), scanner.getFieldDeclarations(),
+                scanner.getTypeReferences(), scanner.getConstructorReferences(), scanner.getMethodReferences(), scanner.getFieldReferences(),
+                scanner.getStrings(), scanner.getSuperTypeNames());
+
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Different names collected for " + indexer.getTypeName());
+            }
+        }
+    }
+
+    @Benchmark
+    public void classReader(Blackhole blackhole) {
+        AsmClassFileIndexer indexer = new AsmClassFileIndexer();
+
+        for (byte[] classFile : classFiles) {
+            indexer.index(classFile);
+            blackhole.consume(indexer.getTypeName());
+        }
+    }
+
+    @Benchmark
+    public void classFileScanner(Blackhole blackhole) {
+        // New dictionary per archive, as for the first indexation of an archive
+        ClassFileScanner scanner = new ClassFileScanner();
+
+        for (byte[] classFile : classFiles) {
+            scanner.scan(classFile, 0, classFile.length);
+            blackhole.consume(scanner.getTypeName());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (generatedFile != null) {
+            Files.deleteIfExists(generatedFile.toPath());
+        }
+    }
+
+    protected static List<byte[]> loadClassFiles(File file) throws IOException {
+        List<byte[]> classFiles = new ArrayList<>();
+
+        try (ZipFile zipFile = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+
+                if (name.endsWith(".class") && !name.endsWith("module-info.class")) {
+                    try (InputStream is = zipFile.getInputStream(entry)) {
+                        classFiles.add(is.readAllBytes());
+                    }
+                }
+            }
+        }
+
+        return classFiles;
+    }
+}
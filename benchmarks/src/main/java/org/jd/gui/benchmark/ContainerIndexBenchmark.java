@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.service.mainpanel.ContainerPanelFactoryProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexing of a whole archive, as done by ContainerPanel.index, on generated JAR files of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContainerIndexBenchmark {
+    @Param({ "1000", "5000", "20000" })
+    public int classCount;
+
+    private Path jar;
+    private FileSystem fileSystem;
+    private BenchmarkApi api;
+    private Container container;
+
+    @Setup
+    public void setup() throws IOException {
+        jar = ClassFileGenerator.generateJar(Files.createTempFile("jd-gui-benchmark-", ".jar"), classCount);
+        fileSystem = FileSystems.newFileSystem(jar);
+        api = new BenchmarkApi();
+        container = api.openContainer(jar.toFile(), fileSystem);
+    }
+
+    @Benchmark
+    @SuppressWarnings("rawtypes")
+    public Map<String, Map<String, Collection>> index() {
+        return ContainerPanelFactoryProvider.indexEntries(api, Collections.singletonList(container.getRoot().getParent()), () -> 0, p -> {}, () -> false);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (container instanceof Closeable) {
+            ((Closeable) container).close();
+        }
+        fileSystem.close();
+        Files.deleteIfExists(jar);
+    }
+}
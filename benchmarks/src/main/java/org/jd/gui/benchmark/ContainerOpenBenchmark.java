@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.api.model.Container;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening of a generated JAR file: mount of the file system, creation of the container by the container factory,
+ * then listing of all the children.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContainerOpenBenchmark {
+    @Param({ "1000", "5000", "20000" })
+    public int classCount;
+
+    private Path jar;
+    private BenchmarkApi api;
+
+    @Setup
+    public void setup() throws IOException {
+        jar = ClassFileGenerator.generateJar(Files.createTempFile("jd-gui-benchmark-", ".jar"), classCount);
+        api = new BenchmarkApi();
+    }
+
+    @Benchmark
+    public int openAndListChildren() throws IOException {
+        try (FileSystem fileSystem = FileSystems.newFileSystem(jar)) {
+            Container container = api.openContainer(jar.toFile(), fileSystem);
+
+            try {
+                return BenchmarkApi.collectFileEntries(container.getRoot(), new ArrayList<>()).size();
+            } finally {
+                if (container instanceof Closeable) {
+                    ((Closeable) container).close();
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jar);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationFailureTable;
+import org.jd.gui.util.decompiler.FallbackDecompiler;
+import org.jd.gui.util.loader.LoaderUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.heliosdecompiler.transformerapi.common.Loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jd.core.ClassUtil;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_CFR;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_FERNFLOWER;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JADX;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V0;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_PROCYON;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+
+/**
+ * Decompilation of generated classes per engine, with the same steps as ClassFilePage.decompile: loader creation,
+ * decompilation and, on failure of JD-Core v1, patch of the failed methods with the output of JD-Core v0. The
+ * parsing and the display of the source are measured by TypePageBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DecompilationBenchmark {
+    protected static final int CLASS_COUNT = 200;
+    protected static final int SAMPLE_SIZE = 20;
+    protected static final Map<String, String> ENGINES = Map.of(
+        "JD_CORE_V1", ENGINE_JD_CORE_V1,
+        "JD_CORE_V0", ENGINE_JD_CORE_V0,
+        "CFR", ENGINE_CFR,
+        "PROCYON", ENGINE_PROCYON,
+        "FERNFLOWER", ENGINE_FERNFLOWER,
+        "JADX", ENGINE_JADX);
+
+    @Param({ "JD_CORE_V1", "JD_CORE_V0", "CFR", "PROCYON", "FERNFLOWER", "JADX" })
+    public String engine;
+
+    private Path jar;
+    private FileSystem fileSystem;
+    private Container container;
+    private Map<String, String> preferences;
+    private List<Container.Entry> entries;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkApi api = new BenchmarkApi();
+
+        // Same fallback for every iteration: no persistent table of failures
+        System.setProperty(DecompilationFailureTable.FILE_PROPERTY, "");
+
+        jar = ClassFileGenerator.generateJar(Files.createTempFile("jd-gui-benchmark-", ".jar"), CLASS_COUNT);
+        fileSystem = FileSystems.newFileSystem(jar);
+        container = api.openContainer(jar.toFile(), fileSystem);
+        preferences = new HashMap<>(api.getPreferences());
+        preferences.put(DECOMPILE_ENGINE, ENGINES.get(engine));
+
+        // Outer classes, regularly spread over the archive
+        List<Container.Entry> outerEntries = new ArrayList<>();
+
+        for (Container.Entry entry : BenchmarkApi.collectFileEntries(container.getRoot(), new ArrayList<>())) {
+            if (entry.getPath().endsWith(".class") && entry.getPath().indexOf('$') == -1) {
+                outerEntries.add(entry);
+            }
+        }
+
+        entries = new ArrayList<>(SAMPLE_SIZE);
+
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            entries.add(outerEntries.get(i * outerEntries.size() / SAMPLE_SIZE));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_SIZE)
+    public void decompile(Blackhole blackhole) throws Exception {
+        for (Container.Entry entry : entries) {
+            blackhole.consume(decompile(entry));
+        }
+    }
+
+    protected String decompile(Container.Entry entry) throws Exception {
+        ContainerLoader loader = new ContainerLoader(entry);
+        String entryInternalName = ClassUtil.getInternalName(entry.getPath());
+        String engineName = preferences.get(DECOMPILE_ENGINE);
+        Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
+        return FallbackDecompiler.decompile(apiLoader, entryInternalName, preferences, engineName, entry).decompilationResult().getDecompiledOutput();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (container instanceof Closeable) {
+            ((Closeable) container).close();
+        }
+        fileSystem.close();
+        Files.deleteIfExists(jar);
+    }
+}
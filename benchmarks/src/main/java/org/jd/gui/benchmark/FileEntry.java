@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.api.model.Container;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Parent entry of an opened archive, as created by the file loaders.
+ */
+public class FileEntry implements Container.Entry {
+    protected static final Container PARENT_CONTAINER = new Container() {
+        @Override
+        public String getType() { return "generic"; }
+        @Override
+        public Container.Entry getRoot() { return null; }
+    };
+
+    private Map<Container.EntryPath, Container.Entry> children = Collections.emptyMap();
+    private final File file;
+    private final URI uri;
+    private final String path;
+
+    public FileEntry(File file) {
+        this.file = file;
+        this.uri = file.toURI();
+        this.path = uri.getPath();
+    }
+
+    @Override
+    public Container getContainer() { return PARENT_CONTAINER; }
+    @Override
+    public Container.Entry getParent() { return null; }
+    @Override
+    public URI getUri() { return uri; }
+    @Override
+    public String getPath() { return path; }
+    @Override
+    public boolean isDirectory() { return false; }
+    @Override
+    public long length() { return file.length(); }
+    @Override
+    public long compressedLength() { return length(); }
+    @Override
+    public Map<Container.EntryPath, Container.Entry> getChildren() { return children; }
+
+    public void setChildren(Map<Container.EntryPath, Container.Entry> children) {
+        this.children = children;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        try {
+            return new BufferedInputStream(Files.newInputStream(file.toPath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
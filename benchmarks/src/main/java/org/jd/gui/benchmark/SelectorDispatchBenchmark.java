@@ -0,0 +1,187 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.service.extension.Extension;
+import org.jd.gui.service.extension.ExtensionService;
+import org.jd.gui.service.extension.SelectorDispatcher;
+import org.jd.gui.spi.Indexer;
+import org.jd.gui.spi.TreeNodeFactory;
+import org.jd.gui.spi.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolution of the indexer, the tree node factory and the type factory of each entry of an archive, by the compiled
+ * {@link SelectorDispatcher} and by the former lookup building a selector string per step, in nanoseconds per entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SelectorDispatchBenchmark {
+    private static final int ENTRY_COUNT = 10_000;
+    private static final String CONTAINER_TYPE = "jar";
+
+    private final String[] paths = new String[ENTRY_COUNT];
+    private final boolean[] directories = new boolean[ENTRY_COUNT];
+    private SelectorDispatcher<Indexer> indexers;
+    private SelectorDispatcher<TreeNodeFactory> treeNodeFactories;
+    private SelectorDispatcher<TypeFactory> typeFactories;
+    private LegacyLookup<Indexer> legacyIndexers;
+    private LegacyLookup<TreeNodeFactory> legacyTreeNodeFactories;
+    private LegacyLookup<TypeFactory> legacyTypeFactories;
+
+    @Setup
+    public void setup() {
+        ExtensionService extensionService = ExtensionService.getInstance();
+        List<Extension<Indexer>> indexerExtensions = extensionService.loadExtensions(Indexer.class, Indexer::getSelectors, Indexer::getPathPattern);
+        List<Extension<TreeNodeFactory>> treeNodeFactoryExtensions = extensionService.loadExtensions(TreeNodeFactory.class, TreeNodeFactory::getSelectors, TreeNodeFactory::getPathPattern);
+        List<Extension<TypeFactory>> typeFactoryExtensions = extensionService.loadExtensions(TypeFactory.class, TypeFactory::getSelectors, TypeFactory::getPathPattern);
+
+        indexers = new SelectorDispatcher<>(indexerExtensions);
+        treeNodeFactories = new SelectorDispatcher<>(treeNodeFactoryExtensions);
+        typeFactories = new SelectorDispatcher<>(typeFactoryExtensions);
+        legacyIndexers = new LegacyLookup<>(indexerExtensions);
+        legacyTreeNodeFactories = new LegacyLookup<>(treeNodeFactoryExtensions);
+        legacyTypeFactories = new LegacyLookup<>(typeFactoryExtensions);
+
+        // Mostly classes, some resources & directories, as in a library
+        String[] resources = { "META-INF/MANIFEST.MF", "messages.properties", "logo.png", "META-INF/LICENSE", "schema.xsd", "README" };
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            String directory = "org/example/package" + (i % 97);
+
+            if (i % 20 == 0) {
+                paths[i] = directory;
+                directories[i] = true;
+            } else if (i % 10 == 5) {
+                paths[i] = directory + '/' + resources[i % resources.length];
+            } else {
+                paths[i] = directory + "/Class" + i + (i % 7 == 0 ? "$Inner.class" : ".class");
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRY_COUNT)
+    public void dispatcher(Blackhole blackhole) {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            blackhole.consume(indexers.get(CONTAINER_TYPE, directories[i], paths[i]));
+            blackhole.consume(treeNodeFactories.get(CONTAINER_TYPE, directories[i], paths[i]));
+            blackhole.consume(typeFactories.get(CONTAINER_TYPE, directories[i], paths[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRY_COUNT)
+    public void legacy(Blackhole blackhole) {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            blackhole.consume(legacyIndexers.get(CONTAINER_TYPE, directories[i], paths[i]));
+            blackhole.consume(legacyTreeNodeFactories.get(CONTAINER_TYPE, directories[i], paths[i]));
+            blackhole.consume(legacyTypeFactories.get(CONTAINER_TYPE, directories[i], paths[i]));
+        }
+    }
+
+    /**
+     * Lookup of the services before the selector dispatcher.
+     */
+    protected static class LegacyLookup<T> {
+        private final Map<String, Candidates<T>> mapProviders = new HashMap<>();
+
+        public LegacyLookup(List<Extension<T>> providers) {
+            for (Extension<T> provider : providers) {
+                for (String selector : provider.getSelectors()) {
+                    mapProviders.computeIfAbsent(selector, k -> new Candidates<>()).add(provider);
+                }
+            }
+        }
+
+        public T get(String containerType, boolean directory, String path) {
+            T provider = get(containerType, directory ? "dir" : "file", path);
+            return provider != null ? provider : get("*", directory ? "dir" : "file", path);
+        }
+
+        protected T get(String containerType, String type, String path) {
+            String prefix = containerType + ':' + type + ':';
+            T provider = null;
+            Candidates<T> candidates = mapProviders.get(prefix + path);
+
+            if (candidates != null) {
+                provider = candidates.match(path);
+            }
+
+            if (provider == null) {
+                String name = path.substring(path.lastIndexOf('/') + 1);
+
+                candidates = mapProviders.get(prefix + "*/" + name);
+                if (candidates != null) {
+                    provider = candidates.match(path);
+                }
+
+                if (provider == null) {
+                    int index = name.lastIndexOf('.');
+
+                    if (index != -1) {
+                        candidates = mapProviders.get(prefix + "*." + name.substring(index + 1));
+                        if (candidates != null) {
+                            provider = candidates.match(path);
+                        }
+                    }
+
+                    if (provider == null) {
+                        candidates = mapProviders.get(prefix + "*");
+                        if (candidates != null) {
+                            provider = candidates.match(path);
+                        }
+                    }
+                }
+            }
+
+            return provider;
+        }
+    }
+
+    protected static class Candidates<T> {
+        private final Map<String, Extension<T>> patterned = new HashMap<>();
+        private Extension<T> defaultProvider;
+
+        public void add(Extension<T> provider) {
+            if (provider.getPathPattern() != null) {
+                patterned.put(provider.getPathPattern().pattern(), provider);
+            } else {
+                defaultProvider = provider;
+            }
+        }
+
+        public T match(String path) {
+            for (Extension<T> provider : patterned.values()) {
+                if (provider.getPathPattern().matcher(path).matches()) {
+                    return provider.get();
+                }
+            }
+            return defaultProvider == null ? null : defaultProvider.get();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.benchmark;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.view.component.ClassFilePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TypePage.parseAndSetText on the source of a decompiled class: parsing for the declarations, parsing with bindings
+ * for the references, then display.<br>
+ * <br>
+ * Pages are Swing components created with the key bindings of the toolkit: a display is required, use 'xvfb-run'
+ * on headless machines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TypePageBenchmark {
+    protected static final int CLASS_COUNT = 100;
+
+    /**
+     * Index of the generated class: 15 has a member class and implements an interface
+     */
+    @Param({ "15", "47" })
+    public int classIndex;
+
+    private Path jar;
+    private FileSystem fileSystem;
+    private Container container;
+    private ClassFilePage page;
+    private String text;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkApi api = new BenchmarkApi();
+        String path = ClassFileGenerator.getInternalTypeName(classIndex) + ".class";
+
+        jar = ClassFileGenerator.generateJar(Files.createTempFile("jd-gui-benchmark-", ".jar"), CLASS_COUNT);
+        fileSystem = FileSystems.newFileSystem(jar);
+        container = api.openContainer(jar.toFile(), fileSystem);
+
+        for (Container.Entry entry : BenchmarkApi.collectFileEntries(container.getRoot(), new ArrayList<>())) {
+            if (entry.getPath().equals(path)) {
+                // Decompiles the class
+                page = new ClassFilePage(api, entry);
+                text = page.getText();
+                break;
+            }
+        }
+
+        if (page == null) {
+            throw new IllegalStateException("Entry not found: " + path);
+        }
+    }
+
+    @Benchmark
+    public ClassFilePage parseAndSetText() {
+        page.parseAndSetText(text);
+        return page;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (container instanceof Closeable) {
+            ((Closeable) container).close();
+        }
+        fileSystem.close();
+        Files.deleteIfExists(jar);
+    }
+}
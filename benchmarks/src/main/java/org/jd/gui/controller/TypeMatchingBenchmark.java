@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.controller;
+
+import org.jd.gui.api.model.Container;
+import org.jd.gui.benchmark.BenchmarkApi;
+import org.jd.gui.benchmark.ClassFileGenerator;
+import org.jd.gui.service.mainpanel.ContainerPanelFactoryProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of the patterns typed in the 'Open Type' and 'Search' dialogs against the indexes of a generated archive,
+ * without the caches of the controllers. Patterns of one character use the dedicated matching methods, as the
+ * controllers do.<br>
+ * <br>
+ * Located in the package of the controllers to call their matching methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@SuppressWarnings("rawtypes")
+public class TypeMatchingBenchmark {
+    @Param({ "20000" })
+    public int classCount;
+
+    @Param({ "c", "Comp", "CoNa", "*ice1?", "get*" })
+    public String pattern;
+
+    private Path jar;
+    private FileSystem fileSystem;
+    private Container container;
+    private Map<String, Collection> typeDeclarations;
+    private Map<String, Collection> typeReferences;
+    private Map<String, Collection> methodDeclarations;
+    private Map<String, Collection> strings;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkApi api = new BenchmarkApi();
+
+        jar = ClassFileGenerator.generateJar(Files.createTempFile("jd-gui-benchmark-", ".jar"), classCount);
+        fileSystem = FileSystems.newFileSystem(jar);
+        container = api.openContainer(jar.toFile(), fileSystem);
+
+        Map<String, Map<String, Collection>> indexes = ContainerPanelFactoryProvider.indexEntries(
+            api, Collections.singletonList(container.getRoot().getParent()), () -> 0, p -> {}, () -> false);
+
+        typeDeclarations = indexes.get("typeDeclarations");
+        typeReferences = indexes.get("typeReferences");
+        methodDeclarations = indexes.get("methodDeclarations");
+        strings = indexes.get("strings");
+    }
+
+    @Benchmark
+    public Map<String, Collection> openType() {
+        Map<String, Collection> result = new HashMap<>();
+
+        if (pattern.length() == 1) {
+            OpenTypeController.match(pattern.charAt(0), typeDeclarations, result);
+        } else {
+            OpenTypeController.match(OpenTypeController.createRegExpPattern(pattern), typeDeclarations, result);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public Map<String, Collection> searchTypeReferences() {
+        if (pattern.length() == 1) {
+            return SearchInConstantPoolsController.matchTypeEntriesWithChar(pattern.charAt(0), typeReferences);
+        }
+        return SearchInConstantPoolsController.matchTypeEntriesWithString(pattern, typeReferences);
+    }
+
+    @Benchmark
+    public Map<String, Collection> searchMethodDeclarations() {
+        if (pattern.length() == 1) {
+            return SearchInConstantPoolsController.matchWithChar(pattern.charAt(0), methodDeclarations);
+        }
+        return SearchInConstantPoolsController.matchWithString(pattern, methodDeclarations);
+    }
+
+    @Benchmark
+    public Map<String, Collection> searchStrings() {
+        if (pattern.length() == 1) {
+            return SearchInConstantPoolsController.matchWithChar(pattern.charAt(0), strings);
+        }
+        return SearchInConstantPoolsController.matchWithString(pattern, strings);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (container instanceof Closeable) {
+            ((Closeable) container).close();
+        }
+        fileSystem.close();
+        Files.deleteIfExists(jar);
+    }
+}
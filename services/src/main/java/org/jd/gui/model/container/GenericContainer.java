@@ -15,6 +15,7 @@ import org.jd.gui.model.container.entry.path.SimpleEntryPath;
 import org.jd.gui.spi.ContainerFactory;
 import org.jd.gui.util.TempFile;
 import org.jd.gui.util.index.IndexesUtil;
+import org.jd.gui.util.io.DirectoryWatcher;
 
 import java.io.Closeable;
 import java.io.File;
@@ -26,14 +27,22 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -43,12 +52,14 @@ public class GenericContainer implements Container, Closeable {
     private static final AtomicLong tmpFileCounter = new AtomicLong(0);
 
     private final API api;
+    private final Path rootPath;
     private final int rootNameCount;
     private final Container.Entry root;
     private ZipFile zipFile; // closed when tab is closed
 
     public GenericContainer(API api, Container.Entry parentEntry, Path rootPath) {
         this.api = api;
+        this.rootPath = rootPath;
         this.rootNameCount = rootPath.getNameCount();
         this.root = makeRootEntry(parentEntry, rootPath);
         this.zipFile = makeZipFile(parentEntry);
@@ -86,13 +97,151 @@ public class GenericContainer implements Container, Closeable {
     @Override
     public Container.Entry getRoot() { return root; }
 
+    public Path getRootPath() { return rootPath; }
+
+    /**
+     * Entries added, removed or modified on disk since they have been loaded.
+     * 'removed' contains the deleted entries and all their loaded descendants.
+     */
+    public record EntryChanges(Collection<Container.Entry> added, Collection<Container.Entry> removed, Collection<Container.Entry> modified) {
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+        }
+    }
+
+    /**
+     * @return a watcher reporting the changes of an exploded directory container, null if the container is an archive
+     */
+    @SuppressWarnings("resource")
+    public DirectoryWatcher watch(int maximumDepth, Consumer<DirectoryWatcher.Changes> listener) throws IOException {
+        if (zipFile == null && rootPath.getFileSystem() == FileSystems.getDefault() && Files.isDirectory(rootPath)) {
+            return new DirectoryWatcher(rootPath, maximumDepth, listener);
+        }
+        return null;
+    }
+
+    /**
+     * Synchronizes the loaded entries with the changes reported by a {@link DirectoryWatcher}.<br>
+     * Unchanged entries are kept as is, so the index postings, tree nodes and pages referencing them stay valid.
+     * Directories not loaded yet are ignored: their children will be listed on first access.
+     */
+    public EntryChanges update(DirectoryWatcher.Changes changes) {
+        List<Container.Entry> added = new ArrayList<>();
+        List<Container.Entry> removed = new ArrayList<>();
+        Set<Container.Entry> modified = new LinkedHashSet<>();
+        Set<Path> directories = new LinkedHashSet<>();
+
+        if (changes.overflow()) {
+            // Events lost: compare all loaded directories with the file system
+            List<Container.Entry> loadedEntries = new ArrayList<>();
+            collectLoadedDirectories(root, directories);
+            collectLoadedEntries(root, loadedEntries);
+            for (Container.Entry loadedEntry : loadedEntries) {
+                if (loadedEntry != root && !loadedEntry.isDirectory()) {
+                    modified.add(loadedEntry);
+                }
+            }
+        } else {
+            for (Path path : changes.created()) {
+                directories.add(path.getParent());
+            }
+            for (Path path : changes.deleted()) {
+                directories.add(path.getParent());
+            }
+        }
+
+        for (Path directory : directories) {
+            Container.Entry entry = findLoadedEntry(directory);
+            if (entry instanceof Entry && entry.isDirectory()) {
+                ((Entry)entry).reloadChildren(added, removed);
+            }
+        }
+
+        for (Path path : changes.modified()) {
+            Container.Entry entry = findLoadedEntry(path);
+            if (entry instanceof Entry && !entry.isDirectory()) {
+                Entry e = (Entry)entry;
+                modified.add(e);
+                if (e.children != null && !e.children.isEmpty()) {
+                    // Nested archive rewritten: drop the entries of the previous version
+                    for (Container.Entry child : e.children.values()) {
+                        collectLoadedEntries(child, removed);
+                    }
+                    e.children = null;
+                }
+            }
+        }
+
+        modified.removeAll(added);
+        modified.removeAll(new HashSet<>(removed));
+
+        return new EntryChanges(added, removed, new ArrayList<>(modified));
+    }
+
+    /**
+     * @return the entry of 'fsPath' if it and all its parent directories have already been loaded, null otherwise
+     */
+    protected Container.Entry findLoadedEntry(Path fsPath) {
+        if (!fsPath.startsWith(rootPath)) {
+            return null;
+        }
+
+        Entry entry = (Entry)root;
+
+        for (Path name : rootPath.relativize(fsPath)) {
+            if (name.toString().isEmpty()) {
+                continue;
+            }
+            if (entry.children == null) {
+                return null;
+            }
+
+            String entryPath = entry.getPath();
+            String childPath = entryPath.isEmpty() ? name.toString() : entryPath + '/' + name;
+            Container.Entry child = entry.children.get(new SimpleEntryPath(childPath, true));
+
+            if (child == null) {
+                child = entry.children.get(new SimpleEntryPath(childPath, false));
+            }
+            if (!(child instanceof Entry)) {
+                return null;
+            }
+
+            entry = (Entry)child;
+        }
+
+        return entry;
+    }
+
+    protected static void collectLoadedDirectories(Container.Entry entry, Set<Path> directories) {
+        if (entry instanceof Entry && ((Entry)entry).children != null && entry.isDirectory()) {
+            Entry e = (Entry)entry;
+            directories.add(e.fsPath);
+            for (Container.Entry child : e.children.values()) {
+                collectLoadedDirectories(child, directories);
+            }
+        }
+    }
+
+    protected static void collectLoadedEntries(Container.Entry entry, Collection<Container.Entry> entries) {
+        entries.add(entry);
+        if (entry instanceof Entry && ((Entry)entry).children != null) {
+            for (Container.Entry child : ((Entry)entry).children.values()) {
+                collectLoadedEntries(child, entries);
+            }
+        }
+    }
+
     protected class Entry implements Container.Entry {
         private final Container.Entry parent;
         private final Path fsPath;
         private String strPath;
         private URI uri;
         private Boolean isDirectory;
-        private Map<Container.EntryPath, Container.Entry> children;
+        // Replaced, never modified, by 'reloadChildren': readers iterating the children on other threads are not affected
+        private volatile Map<Container.EntryPath, Container.Entry> children;
+        // Backing map of 'children' for directories
+        private NavigableMap<Container.EntryPath, Container.Entry> sortedChildren;
 
         public Entry(Container.Entry parent, Path fsPath, URI uri) {
             this.parent = parent;
@@ -171,6 +320,17 @@ public class GenericContainer implements Container, Closeable {
             ZipEntry zipEntry = zipFile.getEntry(strPath);
             return IndexesUtil.entryImpactBytes(zipEntry);
         }
+
+        @Override
+        public long crc() {
+            if (zipFile != null) {
+                ZipEntry zipEntry = zipFile.getEntry(getPath());
+                if (zipEntry != null) {
+                    return zipEntry.getCrc();
+                }
+            }
+            return -1L;
+        }
         
         @Override
         public InputStream getInputStream() {
@@ -200,18 +360,73 @@ public class GenericContainer implements Container, Closeable {
 
         protected NavigableMap<Container.EntryPath, Container.Entry> loadChildrenFromDirectoryEntry() throws IOException {
             try (DirectoryStream<Path> stream = Files.newDirectoryStream(fsPath)) {
-                NavigableMap<Container.EntryPath, Container.Entry> sortedChildren = new TreeMap<>(ContainerEntryComparator.COMPARATOR);
+                NavigableMap<Container.EntryPath, Container.Entry> loadedChildren = new TreeMap<>(ContainerEntryComparator.COMPARATOR);
+                int parentNameCount = fsPath.getNameCount();
+
+                for (Path subPath : stream) {
+                    if (subPath.getNameCount() > parentNameCount) {
+                        Container.Entry newChildEntry = newChildEntry(subPath);
+                        Container.EntryPath newChildEntryPath = new SimpleEntryPath(newChildEntry.getPath(), newChildEntry.isDirectory());
+                        loadedChildren.put(newChildEntryPath, newChildEntry);
+                    }
+                }
+
+                sortedChildren = loadedChildren;
+                return Collections.unmodifiableNavigableMap(loadedChildren);
+            }
+        }
+
+        /**
+         * Lists the directory again, keeping the existing entries, and publishes the new children in a single
+         * assignment if they changed.
+         */
+        protected void reloadChildren(Collection<Container.Entry> added, Collection<Container.Entry> removed) {
+            NavigableMap<Container.EntryPath, Container.Entry> previousChildren = sortedChildren;
+
+            if (previousChildren == null) {
+                return;
+            }
+
+            NavigableMap<Container.EntryPath, Container.Entry> reloadedChildren = new TreeMap<>(ContainerEntryComparator.COMPARATOR);
+            int addedCount = added.size();
+            int removedCount = removed.size();
+
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(fsPath)) {
                 int parentNameCount = fsPath.getNameCount();
 
                 for (Path subPath : stream) {
                     if (subPath.getNameCount() > parentNameCount) {
                         Container.Entry newChildEntry = newChildEntry(subPath);
                         Container.EntryPath newChildEntryPath = new SimpleEntryPath(newChildEntry.getPath(), newChildEntry.isDirectory());
-                        sortedChildren.put(newChildEntryPath, newChildEntry);
+
+                        if (!reloadedChildren.containsKey(newChildEntryPath)) {
+                            Container.Entry child = previousChildren.get(newChildEntryPath);
+
+                            if (child == null) {
+                                child = newChildEntry;
+                                added.add(child);
+                            }
+                            reloadedChildren.put(newChildEntryPath, child);
+                        }
                     }
                 }
+            } catch (NoSuchFileException e) {
+                // Directory deleted: removed by the reload of its parent
+                return;
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                return;
+            }
+
+            for (Map.Entry<Container.EntryPath, Container.Entry> child : previousChildren.entrySet()) {
+                if (!reloadedChildren.containsKey(child.getKey())) {
+                    collectLoadedEntries(child.getValue(), removed);
+                }
+            }
 
-                return Collections.unmodifiableNavigableMap(sortedChildren);
+            if (added.size() != addedCount || removed.size() != removedCount) {
+                sortedChildren = reloadedChildren;
+                children = Collections.unmodifiableNavigableMap(reloadedChildren);
             }
         }
 
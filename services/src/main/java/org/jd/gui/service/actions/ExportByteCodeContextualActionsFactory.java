@@ -0,0 +1,129 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.service.actions;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.API;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.spi.ContextualActionsFactory;
+import org.jd.gui.util.ImageUtil;
+import org.jd.util.ByteCodeExporter;
+
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.ImageIcon;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+public class ExportByteCodeContextualActionsFactory implements ContextualActionsFactory { // NO_UCD (unused code)
+
+    @Override
+    public Collection<Action> make(API api, Container.Entry entry, String fragment) {
+        Collection<Action> actions = new ArrayList<>();
+        if (entry.isDirectory()) {
+            actions.add(new ExportByteCodeAction(entry));
+        }
+        return actions;
+    }
+
+    public static class ExportByteCodeAction extends AbstractAction {
+
+        private static final long serialVersionUID = 1L;
+
+        protected static final ImageIcon ICON = new ImageIcon(ImageUtil.getImage("/org/jd/gui/images/zip_obj.png"));
+
+        private final transient Container.Entry entry;
+
+        public ExportByteCodeAction(Container.Entry entry) {
+            this.entry = entry;
+            putValue(GROUP_NAME, "File > ExportByteCode"); // used for sorting and grouping menus
+            putValue(NAME, "Export Byte Code and Control Flow Graphs...");
+            putValue(SMALL_ICON, ICON);
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+            chooser.setSelectedFile(new File(getBaseName() + "-bytecode.zip"));
+
+            if (chooser.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) {
+                File selectedFile = chooser.getSelectedFile();
+
+                if (selectedFile.isFile()) {
+                    String message = "The file '" + selectedFile.getAbsolutePath() + "' already exists.\n Do you want to replace the existing file?";
+                    if (JOptionPane.showConfirmDialog(null, message, "Are you sure?", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+                        return;
+                    }
+                }
+
+                new ExportWorker(entry, selectedFile).execute();
+            }
+        }
+
+        private String getBaseName() {
+            String path = entry.getPath();
+            if (path.isEmpty()) {
+                path = new File(entry.getContainer().getRoot().getParent().getUri()).getName();
+            }
+            return path.substring(path.lastIndexOf('/') + 1).replaceFirst("\\.[^.]*$", "");
+        }
+    }
+
+    private static class ExportWorker extends SwingWorker<Integer, Void> {
+        private final Container.Entry entry;
+        private final File target;
+        private final ProgressMonitor progressMonitor;
+
+        public ExportWorker(Container.Entry entry, File target) {
+            this.entry = entry;
+            this.target = target;
+            this.progressMonitor = new ProgressMonitor(null, "Exporting byte code and control flow graphs...", null, 0, 100);
+        }
+
+        @Override
+        protected Integer doInBackground() throws Exception {
+            ByteCodeExporter exporter = new ByteCodeExporter(true, true, ShowControlFlowGraphContextualActionsFactory.MODE_GOTO_AND_LOOP,
+                    Runtime.getRuntime().availableProcessors());
+            return exporter.export(entry, target.toPath(), this::updateProgress, this::isCancelled);
+        }
+
+        private void updateProgress(double progress) {
+            SwingUtilities.invokeLater(() -> {
+                progressMonitor.setProgress((int) progress);
+                if (progressMonitor.isCanceled()) {
+                    cancel(false);
+                }
+            });
+        }
+
+        @Override
+        protected void done() {
+            progressMonitor.close();
+            if (!isCancelled()) {
+                try {
+                    JOptionPane.showMessageDialog(null, get() + " classes exported to '" + target.getAbsolutePath() + "'.", "Export", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    JOptionPane.showMessageDialog(null, "Export failed: " + e.getCause().getMessage(), "Export", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+}
@@ -50,6 +50,30 @@ public class ShowControlFlowGraphContextualActionsFactory implements ContextualA
         return actions;
     }
 
+    /**
+     * Builds the control flow graph of 'method', reduced according to 'mode'.
+     */
+    public static ControlFlowGraph makeControlFlowGraph(Method method, int mode) {
+        ControlFlowGraph controlFlowGraph = new ControlFlowGraphMaker().make(method);
+        switch (mode) {
+            case MODE_GOTO_ONLY:
+                ControlFlowGraphGotoReducer.reduce(controlFlowGraph);
+                break;
+            case MODE_GOTO_AND_LOOP:
+                ControlFlowGraphGotoReducer.reduce(controlFlowGraph);
+                ControlFlowGraphLoopReducer.reduce(controlFlowGraph);
+                break;
+            case MODE_PRE_REDUCE:
+                ControlFlowGraphGotoReducer.reduce(controlFlowGraph);
+                ControlFlowGraphLoopReducer.reduce(controlFlowGraph);
+                ControlFlowGraphPreReducer.reduce(controlFlowGraph);
+                break;
+            default:
+                break;
+        }
+        return controlFlowGraph;
+    }
+
     public static class ShowControlFlowGraphAction extends AbstractMethodAction {
 
         private static final long serialVersionUID = 1L;
@@ -91,23 +115,7 @@ public class ShowControlFlowGraphContextualActionsFactory implements ContextualA
                 return;
             }
             if (controlFlowGraphReducer == null) {
-                ControlFlowGraph controlFlowGraph = new ControlFlowGraphMaker().make(method);
-                switch (mode) {
-                    case MODE_GOTO_ONLY:
-                        ControlFlowGraphGotoReducer.reduce(controlFlowGraph);
-                        break;
-                    case MODE_GOTO_AND_LOOP:
-                        ControlFlowGraphGotoReducer.reduce(controlFlowGraph);
-                        ControlFlowGraphLoopReducer.reduce(controlFlowGraph);
-                        break;
-                    case MODE_PRE_REDUCE:
-                        ControlFlowGraphGotoReducer.reduce(controlFlowGraph);
-                        ControlFlowGraphLoopReducer.reduce(controlFlowGraph);
-                        ControlFlowGraphPreReducer.reduce(controlFlowGraph);
-                        break;
-                    default:
-                        break;
-                }
+                ControlFlowGraph controlFlowGraph = makeControlFlowGraph(method, mode);
                 CFGViewer.showGraph(controlFlowGraph, className);
             } else {
                 controlFlowGraphReducer.reduce(method);
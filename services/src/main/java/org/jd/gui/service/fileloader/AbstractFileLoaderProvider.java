@@ -23,13 +23,17 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import javax.swing.Icon;
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 
 public abstract class AbstractFileLoaderProvider implements FileLoader {
     protected <T extends JComponent & UriGettable> T load(API api, File file, Path rootPath) {
@@ -37,6 +41,7 @@ public abstract class AbstractFileLoaderProvider implements FileLoader {
         ContainerFactory containerFactory = api.getContainerFactory(rootPath);
 
         if (containerFactory != null) {
+            // The containers of several files are created concurrently, their panels on the event dispatch thread
             Container container = containerFactory.make(api, parentEntry, rootPath);
 
             if (container != null) {
@@ -45,18 +50,21 @@ public abstract class AbstractFileLoaderProvider implements FileLoader {
                 PanelFactory panelFactory = api.getMainPanelFactory(container);
 
                 if (panelFactory != null) {
-                    T mainPanel = panelFactory.make(api, container);
+                    return onEventDispatchThread(() -> {
+                        T mainPanel = panelFactory.make(api, container);
 
-                    if (mainPanel != null) {
-                        TreeNodeFactory treeNodeFactory = api.getTreeNodeFactory(parentEntry);
-                        Object data = treeNodeFactory != null ? treeNodeFactory.make(api, parentEntry).getUserObject() : null;
-                        // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
-                        Icon icon = data instanceof TreeNodeData ? ((TreeNodeData) data).getIcon() : null;
-                        String location = file.getPath();
+                        if (mainPanel != null) {
+                            TreeNodeFactory treeNodeFactory = api.getTreeNodeFactory(parentEntry);
+                            Object data = treeNodeFactory != null ? treeNodeFactory.make(api, parentEntry).getUserObject() : null;
+                            // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                            Icon icon = data instanceof TreeNodeData ? ((TreeNodeData) data).getIcon() : null;
+                            String location = file.getPath();
+
+                            api.addPanel(file, file.getName(), () -> icon, "Location: " + location, mainPanel);
+                        }
 
-                        api.addPanel(file, file.getName(), () -> icon, "Location: " + location, mainPanel);
                         return mainPanel;
-                    }
+                    });
                 }
             }
         }
@@ -64,6 +72,29 @@ public abstract class AbstractFileLoaderProvider implements FileLoader {
         return null;
     }
 
+    /**
+     * Calls 'supplier' on the event dispatch thread and waits for its result.
+     */
+    protected static <T> T onEventDispatchThread(Supplier<T> supplier) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            return supplier.get();
+        }
+
+        AtomicReference<T> reference = new AtomicReference<>();
+
+        try {
+            SwingUtilities.invokeAndWait(() -> reference.set(supplier.get()));
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        return reference.get();
+    }
+
     protected static class ContainerEntry implements Container.Entry {
         protected static final Container PARENT_CONTAINER = new Container() {
             @Override
@@ -52,16 +52,20 @@ public abstract class AbstractTypeFileLoaderProvider extends AbstractFileLoaderP
             if (!(mainPanel instanceof UriOpenable)) {
                 return mainPanel != null;
             }
-            try {
-                // Open page
-                pathSuffix = file.getAbsolutePath().substring(rootFile.getAbsolutePath().length()).replace(File.separator, "/");
-                URI rootUri = rootFile.toURI();
-                URI uri = new URI(rootUri.getScheme(), rootUri.getHost(), rootUri.getPath() + '!' + pathSuffix, null);
-                ((UriOpenable)mainPanel).openUri(uri);
-                return true;
-            } catch (URISyntaxException e) {
-                assert ExceptionUtil.printStackTrace(e);
-            }
+            URI rootUri = rootFile.toURI();
+            String entryPath = file.getAbsolutePath().substring(rootFile.getAbsolutePath().length()).replace(File.separator, "/");
+
+            // Open page
+            return Boolean.TRUE.equals(onEventDispatchThread(() -> {
+                try {
+                    URI uri = new URI(rootUri.getScheme(), rootUri.getHost(), rootUri.getPath() + '!' + entryPath, null);
+                    ((UriOpenable)mainPanel).openUri(uri);
+                    return true;
+                } catch (URISyntaxException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    return false;
+                }
+            }));
         }
 
         return false;
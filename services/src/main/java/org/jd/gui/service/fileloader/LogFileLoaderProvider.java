@@ -7,11 +7,12 @@
 
 package org.jd.gui.service.fileloader;
 
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
-import org.jd.gui.util.io.TextReader;
 import org.jd.gui.view.component.LogPage;
 
 import java.io.File;
+import java.io.IOException;
 
 public class LogFileLoaderProvider extends ZipFileLoaderProvider {
     protected static final String[] EXTENSIONS = { "log" };
@@ -28,7 +29,14 @@ public class LogFileLoaderProvider extends ZipFileLoaderProvider {
 
     @Override
     public boolean load(API api, File file) {
-        api.addPanel(file, file.getName(), null, "Location: " + file.getAbsolutePath(), new LogPage(api, file.toURI(), TextReader.getText(file)));
-        return true;
+        return Boolean.TRUE.equals(onEventDispatchThread(() -> {
+            try {
+                api.addPanel(file, file.getName(), null, "Location: " + file.getAbsolutePath(), new LogPage(api, file));
+                return true;
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+                return false;
+            }
+        }));
     }
 }
@@ -14,6 +14,7 @@ import org.jd.gui.spi.Indexer;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -23,6 +24,9 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 public abstract class AbstractIndexerProvider implements Indexer {
+    protected static final int MIN_TERM_LENGTH = 2;
+    protected static final int MAX_TERM_LENGTH = 64;
+
     private List<String> externalSelectors;
     protected Pattern externalPathPattern;
 
@@ -81,6 +85,64 @@ public abstract class AbstractIndexerProvider implements Indexer {
     @Override
     public Pattern getPathPattern() { return externalPathPattern; }
 
+    /**
+     * Adds the terms of a text to 'terms', instead of the text itself: words of letters, digits, '_', '$', '-' and
+     * inner '.', to keep the qualified names, from {@link #MIN_TERM_LENGTH} to {@link #MAX_TERM_LENGTH} characters.
+     */
+    protected static void addTerms(Reader reader, Set<String> terms) throws IOException {
+        char[] buffer = new char[8192];
+        StringBuilder term = new StringBuilder(MAX_TERM_LENGTH + 1);
+        int count;
+
+        while ((count = reader.read(buffer)) != -1) {
+            for (int i = 0; i < count; i++) {
+                addTermChar(buffer[i], term, terms);
+            }
+        }
+
+        addTerm(term, terms);
+    }
+
+    protected static void addTerms(String text, Set<String> terms) {
+        StringBuilder term = new StringBuilder(MAX_TERM_LENGTH + 1);
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            addTermChar(text.charAt(i), term, terms);
+        }
+
+        addTerm(term, terms);
+    }
+
+    private static void addTermChar(char c, StringBuilder term, Set<String> terms) {
+        if (Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.' || c == '-') {
+            // Longer words, like encoded data, are dropped
+            if (term.length() <= MAX_TERM_LENGTH) {
+                term.append(c);
+            }
+        } else if (term.length() > 0) {
+            addTerm(term, terms);
+        }
+    }
+
+    private static void addTerm(StringBuilder term, Set<String> terms) {
+        int start = 0;
+        int end = term.length();
+
+        while (start < end && (term.charAt(start) == '.' || term.charAt(start) == '-')) {
+            start++;
+        }
+        while (end > start && (term.charAt(end - 1) == '.' || term.charAt(end - 1) == '-')) {
+            end--;
+        }
+
+        if (end - start >= MIN_TERM_LENGTH && term.length() <= MAX_TERM_LENGTH) {
+            terms.add(term.substring(start, end));
+        }
+
+        term.setLength(0);
+    }
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     protected static void addToIndexes(Indexes indexes, String indexName, Set<String> set, Container.Entry entry) {
         if (!set.isEmpty()) {
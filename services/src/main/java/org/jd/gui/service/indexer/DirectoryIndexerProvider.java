@@ -44,7 +44,7 @@ public class DirectoryIndexerProvider extends AbstractIndexerProvider {
                 } else {
                     Indexer indexer = api.getIndexer(e);
 
-                    if (indexer != null) {
+                    if (indexer != null && !(indexer.isResourceIndexer() && indexes.defer(indexer, e))) {
                         indexer.index(api, e, indexes, getProgressFunction, setProgressFunction, isCancelledFunction);
                     }
                 }
@@ -7,21 +7,14 @@
 
 package org.jd.gui.service.indexer;
 
-import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
-import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
-import org.jd.gui.util.io.TextReader;
-import org.jd.gui.util.xml.AbstractXmlPathFinder;
+import org.jd.gui.util.xml.XmlPathMatcher;
+import org.jd.gui.util.xml.XmlPathMatchers;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.function.BooleanSupplier;
-import java.util.function.DoubleConsumer;
-import java.util.function.DoubleSupplier;
 
 public class EjbJarXmlFileIndexerProvider extends XmlBasedFileIndexerProvider {
 
@@ -29,59 +22,18 @@ public class EjbJarXmlFileIndexerProvider extends XmlBasedFileIndexerProvider {
     public String[] getSelectors() { return appendSelectors("*:file:META-INF/ejb-jar.xml"); }
 
     @Override
-    public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
-        super.index(api, entry, indexes, getProgressFunction, setProgressFunction, isCancelledFunction);
+    protected XmlPathMatcher getPathMatcher() { return XmlPathMatchers.EJB_JAR_XML; }
 
-        try (InputStream inputStream = entry.getInputStream()) {
-            new EjbJarXmlPathFinder(entry, indexes).find(TextReader.getText(inputStream));
-        } catch (IOException e) {
-            assert ExceptionUtil.printStackTrace(e);
-        }
-    }
-
-    public static class EjbJarXmlPathFinder extends AbstractXmlPathFinder {
-        private Container.Entry entry;
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void indexMatches(Container.Entry entry, Indexes indexes, List<XmlPathMatcher.Match> matches) {
         @SuppressWarnings("rawtypes")
-        private Map<String, Collection> index;
-
-        public EjbJarXmlPathFinder(Container.Entry entry, Indexes indexes) {
-            super(Arrays.asList(
-                "ejb-jar/assembly-descriptor/application-exception/exception-class",
-                "ejb-jar/assembly-descriptor/interceptor-binding/interceptor-class",
-
-                "ejb-jar/enterprise-beans/entity/home",
-                "ejb-jar/enterprise-beans/entity/remote",
-                "ejb-jar/enterprise-beans/entity/ejb-class",
-                "ejb-jar/enterprise-beans/entity/prim-key-class",
-
-                "ejb-jar/enterprise-beans/message-driven/ejb-class",
-                "ejb-jar/enterprise-beans/message-driven/messaging-type",
-                "ejb-jar/enterprise-beans/message-driven/resource-ref/injection-target/injection-target-class",
-                "ejb-jar/enterprise-beans/message-driven/resource-env-ref/injection-target/injection-target-class",
-
-                "ejb-jar/enterprise-beans/session/home",
-                "ejb-jar/enterprise-beans/session/local",
-                "ejb-jar/enterprise-beans/session/remote",
-                "ejb-jar/enterprise-beans/session/business-local",
-                "ejb-jar/enterprise-beans/session/business-remote",
-                "ejb-jar/enterprise-beans/session/service-endpoint",
-                "ejb-jar/enterprise-beans/session/ejb-class",
-                "ejb-jar/enterprise-beans/session/ejb-ref/home",
-                "ejb-jar/enterprise-beans/session/ejb-ref/remote",
-
-                "ejb-jar/interceptors/interceptor/around-invoke/class",
-                "ejb-jar/interceptors/interceptor/ejb-ref/home",
-                "ejb-jar/interceptors/interceptor/ejb-ref/remote",
-                "ejb-jar/interceptors/interceptor/interceptor-class"
-            ));
-            this.entry = entry;
-            this.index = indexes.getIndex("typeReferences");
-        }
+        Map<String, Collection> index = indexes.getIndex("typeReferences");
 
-        @Override
-        @SuppressWarnings("unchecked")
-        public void handle(String path, String text, int position) {
-            index.get(text.replace('.', '/')).add(entry);
+        for (XmlPathMatcher.Match match : matches) {
+            if (XmlPathMatchers.EJB_JAR_XML_TYPE_PATHS.contains(match.path())) {
+                index.get(match.text().trim().replace('.', '/')).add(entry);
+            }
         }
     }
 }
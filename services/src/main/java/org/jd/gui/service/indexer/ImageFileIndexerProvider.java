@@ -13,7 +13,6 @@ import org.jd.gui.api.model.Indexes;
 import org.jd.gui.util.ProgressUtil;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collection;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
@@ -27,10 +26,14 @@ public class ImageFileIndexerProvider extends AbstractIndexerProvider {
         return appendSelectors("*:file:*.jpg", "*:file:*.jpeg", "*:file:*.png", "*:file:*.gif", "*:file:*.bmp");
     }
 
+    @Override
+    public boolean isResourceIndexer() { return true; }
+
     @SuppressWarnings("unchecked")
     @Override
     public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
-        try (InputStream inputStream = entry.getInputStream()) {
+        // File name & extension only, the image is not read
+        try {
             String entryPath = entry.getPath();
             int startIndex = entryPath.lastIndexOf('/');
             int endIndex = entryPath.lastIndexOf('.');
@@ -51,7 +51,7 @@ public class JavaModuleFileIndexerProvider extends AbstractIndexerProvider {
             } else {
                 Indexer indexer = api.getIndexer(e);
 
-                if (indexer != null) {
+                if (indexer != null && !(indexer.isResourceIndexer() && indexes.defer(indexer, e))) {
                     indexer.index(api, e, indexes, getProgressFunction, setProgressFunction, isCancelledFunction);
                 }
             }
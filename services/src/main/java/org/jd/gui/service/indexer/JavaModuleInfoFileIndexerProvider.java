@@ -29,7 +29,7 @@ import static org.objectweb.asm.ClassReader.SKIP_DEBUG;
 import static org.objectweb.asm.ClassReader.SKIP_FRAMES;
 
 /**
- * Unsafe thread implementation of class file indexer.
+ * Class file indexer of the module descriptors, synchronized: the archives are indexed in parallel.
  */
 public class JavaModuleInfoFileIndexerProvider extends AbstractIndexerProvider {
     protected Set<String> javaModuleDeclarationSet = new HashSet<>();
@@ -42,7 +42,7 @@ public class JavaModuleInfoFileIndexerProvider extends AbstractIndexerProvider {
     public String[] getSelectors() { return appendSelectors("jmod:file:classes/module-info.class"); }
 
     @Override
-    public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
+    public synchronized void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
         // Cleaning sets...
         javaModuleDeclarationSet.clear();
         javaModuleReferenceSet.clear();
@@ -35,6 +35,9 @@ public class MetainfServiceFileIndexerProvider extends AbstractIndexerProvider {
         return externalPathPattern != null ? externalPathPattern : Pattern.compile("META-INF\\/services\\/[^\\/]+");
     }
 
+    @Override
+    public boolean isResourceIndexer() { return true; }
+
     @Override
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
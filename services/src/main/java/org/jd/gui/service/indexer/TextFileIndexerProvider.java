@@ -12,14 +12,20 @@ import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
 import org.jd.gui.util.ProgressUtil;
-import org.jd.gui.util.io.TextReader;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
+/**
+ * Indexes the terms of the text files in the "strings" index, not their whole text.
+ */
 public class TextFileIndexerProvider extends AbstractIndexerProvider {
 
     @Override
@@ -28,11 +34,16 @@ public class TextFileIndexerProvider extends AbstractIndexerProvider {
                 "*:file:*.xsd", "*:file:*.properties", "*:file:*.props", "*:file:*.sql", "*:file:*.yaml", "*:file:*.yml", "*:file:*.json");
     }
 
-    @SuppressWarnings("unchecked")
+    @Override
+    public boolean isResourceIndexer() { return true; }
+
     @Override
     public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
-        try (InputStream inputStream = entry.getInputStream()) {
-            indexes.getIndex("strings").get(TextReader.getText(inputStream)).add(entry);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entry.getInputStream(), StandardCharsets.UTF_8))) {
+            Set<String> terms = new HashSet<>();
+
+            addTerms(reader, terms);
+            addToIndexes(indexes, "strings", terms, entry);
             ProgressUtil.updateProgress(entry, getProgressFunction, setProgressFunction);
         } catch (IOException e) {
             assert ExceptionUtil.printStackTrace(e);
@@ -7,21 +7,14 @@
 
 package org.jd.gui.service.indexer;
 
-import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
-import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
-import org.jd.gui.util.io.TextReader;
-import org.jd.gui.util.xml.AbstractXmlPathFinder;
+import org.jd.gui.util.xml.XmlPathMatcher;
+import org.jd.gui.util.xml.XmlPathMatchers;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.function.BooleanSupplier;
-import java.util.function.DoubleConsumer;
-import java.util.function.DoubleSupplier;
 
 public class WebXmlFileIndexerProvider extends XmlBasedFileIndexerProvider {
 
@@ -29,35 +22,18 @@ public class WebXmlFileIndexerProvider extends XmlBasedFileIndexerProvider {
     public String[] getSelectors() { return appendSelectors("*:file:WEB-INF/web.xml"); }
 
     @Override
-    public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
-        super.index(api, entry, indexes, getProgressFunction, setProgressFunction, isCancelledFunction);
+    protected XmlPathMatcher getPathMatcher() { return XmlPathMatchers.WEB_XML; }
 
-        try (InputStream inputStream = entry.getInputStream()) {
-            new WebXmlPathFinder(entry, indexes).find(TextReader.getText(inputStream));
-        } catch (IOException e) {
-            assert ExceptionUtil.printStackTrace(e);
-        }
-    }
-
-    protected static class WebXmlPathFinder extends AbstractXmlPathFinder {
-        private Container.Entry entry;
-        private @SuppressWarnings("all")
-        Map<String, Collection> index;
-
-        public WebXmlPathFinder(Container.Entry entry, Indexes indexes) {
-            super(Arrays.asList(
-                "web-app/filter/filter-class",
-                "web-app/listener/listener-class",
-                "web-app/servlet/servlet-class"
-            ));
-            this.entry = entry;
-            this.index = indexes.getIndex("typeReferences");
-        }
-
-        @Override
-        @SuppressWarnings("unchecked")
-        public void handle(String path, String text, int position) {
-            index.get(text.replace('.', '/')).add(entry);
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void indexMatches(Container.Entry entry, Indexes indexes, List<XmlPathMatcher.Match> matches) {
+        @SuppressWarnings("rawtypes")
+        Map<String, Collection> index = indexes.getIndex("typeReferences");
+
+        for (XmlPathMatcher.Match match : matches) {
+            if (XmlPathMatchers.WEB_XML_TYPE_PATHS.contains(match.path())) {
+                index.get(match.text().trim().replace('.', '/')).add(entry);
+            }
         }
     }
 }
@@ -11,49 +11,65 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
+import org.jd.gui.util.xml.XmlFactories;
+import org.jd.gui.util.xml.XmlPathMatcher;
 
 import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BooleanSupplier;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 public class XmlBasedFileIndexerProvider extends AbstractIndexerProvider {
-    private XMLInputFactory factory;
-
-    public XmlBasedFileIndexerProvider() {
-        factory = XMLInputFactory.newInstance();
-        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-    }
 
     @Override
     public String[] getSelectors() {
         return appendSelectors("*:file:*.xsl", "*:file:*.xslt", "*:file:*.xsd");
     }
 
+    @Override
+    public boolean isResourceIndexer() { return true; }
+
     @Override
     public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
         Set<String> stringSet = new HashSet<>();
+        XmlPathMatcher pathMatcher = getPathMatcher();
+        XmlPathMatcher.Scanner scanner = null;
         XMLStreamReader reader = null;
 
         try (InputStream inputStream = entry.getInputStream()) {
+            // Decoded as displayed by the pages, so that the positions of the matches are offsets in their text
+            String text = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
 
-            reader = factory.createXMLStreamReader(inputStream);
+            if (pathMatcher != null) {
+                scanner = pathMatcher.newScanner(text);
+            }
+
+            reader = XmlFactories.getInputFactory().createXMLStreamReader(new StringReader(text));
 
             stringSet.add(reader.getVersion());
             stringSet.add(reader.getEncoding());
             stringSet.add(reader.getCharacterEncodingScheme());
 
             while (reader.hasNext()) {
-                switch (reader.next()) {
+                int eventType = reader.next();
+
+                if (scanner != null) {
+                    // Match the paths in the same pass
+                    scanner.accept(reader);
+                }
+
+                switch (eventType) {
                 case XMLStreamConstants.START_ELEMENT:
                     stringSet.add(reader.getLocalName());
                     for (int i = reader.getAttributeCount() - 1; i >= 0; i--) {
@@ -85,7 +101,8 @@ public class XmlBasedFileIndexerProvider extends AbstractIndexerProvider {
                     stringSet.add(reader.getText());
                     break;
                 case XMLStreamConstants.COMMENT, XMLStreamConstants.DTD, XMLStreamConstants.CDATA, XMLStreamConstants.CHARACTERS:
-                    stringSet.add(reader.getText().trim());
+                    // Terms of the text only
+                    addTerms(reader.getText(), stringSet);
                     break;
                 case XMLStreamConstants.NAMESPACE:
                     for (int i = reader.getNamespaceCount() - 1; i >= 0; i--) {
@@ -108,6 +125,23 @@ public class XmlBasedFileIndexerProvider extends AbstractIndexerProvider {
         }
 
         indexStrings(entry, indexes, stringSet);
+
+        if (scanner != null) {
+            List<XmlPathMatcher.Match> matches = scanner.getMatches();
+            // Reused by the page of the entry
+            pathMatcher.putMatches(entry, matches);
+            indexMatches(entry, indexes, matches);
+        }
+    }
+
+    /**
+     * @return the matcher of the paths to index with {@link #indexMatches}, or null
+     */
+    protected XmlPathMatcher getPathMatcher() {
+        return null;
+    }
+
+    protected void indexMatches(Container.Entry entry, Indexes indexes, List<XmlPathMatcher.Match> matches) {
     }
 
     @SuppressWarnings("unchecked")
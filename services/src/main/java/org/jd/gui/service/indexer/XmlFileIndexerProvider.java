@@ -12,6 +12,7 @@ import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
 import org.jd.gui.util.ProgressUtil;
+import org.jd.gui.util.xml.XmlFactories;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -23,24 +24,20 @@ import java.util.function.BooleanSupplier;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 public class XmlFileIndexerProvider extends AbstractIndexerProvider {
-    protected XMLInputFactory factory;
-
-    public XmlFileIndexerProvider() {
-        factory = XMLInputFactory.newInstance();
-        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-    }
 
     @Override
     public String[] getSelectors() {
         return appendSelectors("*:file:*.xml");
     }
 
+    @Override
+    public boolean isResourceIndexer() { return true; }
+
     @Override
     public void index(API api, Container.Entry entry, Indexes indexes, DoubleSupplier getProgressFunction, DoubleConsumer setProgressFunction, BooleanSupplier isCancelledFunction) {
         Set<String> stringSet = new HashSet<>();
@@ -49,7 +46,7 @@ public class XmlFileIndexerProvider extends AbstractIndexerProvider {
 
         try (InputStream inputStream = entry.getInputStream()) {
 
-            reader = factory.createXMLStreamReader(inputStream);
+            reader = XmlFactories.getInputFactory().createXMLStreamReader(inputStream);
 
             stringSet.add(reader.getVersion());
             stringSet.add(reader.getEncoding());
@@ -98,7 +95,8 @@ public class XmlFileIndexerProvider extends AbstractIndexerProvider {
                     stringSet.add(reader.getText());
                     break;
                 case XMLStreamConstants.COMMENT, XMLStreamConstants.DTD, XMLStreamConstants.CDATA, XMLStreamConstants.CHARACTERS:
-                    stringSet.add(reader.getText().trim());
+                    // Terms of the text only
+                    addTerms(reader.getText(), stringSet);
                     break;
                 case XMLStreamConstants.NAMESPACE:
                     for (int i = reader.getNamespaceCount() - 1; i >= 0; i--) {
@@ -29,7 +29,7 @@ public class ZipFileIndexerProvider extends AbstractIndexerProvider {
             } else {
                 Indexer indexer = api.getIndexer(e);
 
-                if (indexer != null && !isCancelledFunction.getAsBoolean()) {
+                if (indexer != null && !isCancelledFunction.getAsBoolean() && !(indexer.isResourceIndexer() && indexes.defer(indexer, e))) {
                     indexer.index(api, e, indexes, getProgressFunction, setProgressFunction, isCancelledFunction);
                 }
             }
@@ -22,7 +22,9 @@ import com.strobel.reflection.TypeList;
 import java.awt.Color;
 import java.awt.GridLayout;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -82,6 +84,19 @@ public class CFRDecompilerPreferencesProvider extends JPanel implements Preferen
         }
     }
 
+    /**
+     * @return the keys of the options, without creating the panel
+     */
+    public static Set<String> getOptionKeys() {
+        Set<String> keys = new HashSet<>();
+        for (FieldInfo fieldInfo : Type.of(OptionsImpl.class).getFields()) {
+            if (fieldInfo.getFieldType().getName().startsWith("Argument")) {
+                keys.add(((ArgumentParam<?, ?>) fieldInfo.getValue(null)).getName());
+            }
+        }
+        return keys;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void restoreDefaults() {
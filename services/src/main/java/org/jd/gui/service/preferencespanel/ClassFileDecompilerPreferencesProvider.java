@@ -9,12 +9,14 @@ package org.jd.gui.service.preferencespanel;
 
 import org.jd.gui.spi.PreferencesPanel;
 import org.jd.gui.util.ImageUtil;
+import org.jd.gui.util.decompiler.PreferenceScope;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.GridLayout;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -93,6 +95,20 @@ public class ClassFileDecompilerPreferencesProvider extends JPanel implements Pr
         decompileEngine.addActionListener(e -> jdCoreDecompilerPreferencesProvider.toggleOldOptions());
    }
 
+    /**
+     * Declares the options of each decompiler, so that changing them only affects its pages. Called at startup,
+     * before any page is opened.
+     */
+    public static void registerEngineKeys() {
+        Set<String> jdCoreKeys = JDCoreDecompilerPreferencesProvider.getOptionKeys();
+        PreferenceScope.registerEngineKeys(ENGINE_JD_CORE_V0, jdCoreKeys);
+        PreferenceScope.registerEngineKeys(ENGINE_JD_CORE_V1, jdCoreKeys);
+        PreferenceScope.registerEngineKeys(ENGINE_CFR, CFRDecompilerPreferencesProvider.getOptionKeys());
+        PreferenceScope.registerEngineKeys(ENGINE_PROCYON, ProcyonDecompilerPreferencesProvider.getOptionKeys());
+        PreferenceScope.registerEngineKeys(ENGINE_FERNFLOWER, FernflowerDecompilerPreferencesProvider.getOptionKeys());
+        PreferenceScope.registerEngineKeys(ENGINE_JADX, JadxDecompilerPreferencesProvider.getOptionKeys());
+    }
+
     public void configureDecompiler() {
         String selectedDecompiler = decompileEngine.getSelectedItem().toString();
         JDialog optionDialog = new JDialog((JDialog) SwingUtilities.getWindowAncestor(this), selectedDecompiler + " Settings", true);
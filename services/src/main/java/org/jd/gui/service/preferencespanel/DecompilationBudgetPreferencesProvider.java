@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.service.preferencespanel;
+
+import org.jd.gui.spi.PreferencesPanel;
+
+import java.awt.Color;
+import java.awt.GridLayout;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import static org.jd.gui.util.decompiler.DecompilationSupervisor.DEFAULT_ALLOCATION_BUDGET;
+import static org.jd.gui.util.decompiler.DecompilationSupervisor.DEFAULT_TIME_BUDGET;
+import static org.jd.gui.util.decompiler.GuiPreferences.ALLOCATION_BUDGET;
+import static org.jd.gui.util.decompiler.GuiPreferences.TIME_BUDGET;
+
+public class DecompilationBudgetPreferencesProvider extends JPanel implements PreferencesPanel, DocumentListener {
+
+    private static final long serialVersionUID = 1L;
+
+    protected transient PreferencesPanel.PreferencesPanelChangeListener listener;
+    protected JTextField timeBudgetTextField;
+    protected JTextField allocationBudgetTextField;
+    protected Color errorBackgroundColor = Color.RED;
+    protected Color defaultBackgroundColor;
+
+    public DecompilationBudgetPreferencesProvider() {
+        super(new GridLayout(0, 2));
+
+        timeBudgetTextField = new JTextField();
+        timeBudgetTextField.getDocument().addDocumentListener(this);
+        allocationBudgetTextField = new JTextField();
+        allocationBudgetTextField.getDocument().addDocumentListener(this);
+
+        add(new JLabel("Time budget per class (seconds, 0 = none): "));
+        add(timeBudgetTextField);
+        add(new JLabel("Allocation budget per class (MB, 0 = none): "));
+        add(allocationBudgetTextField);
+
+        defaultBackgroundColor = timeBudgetTextField.getBackground();
+    }
+
+    // --- PreferencesPanel --- //
+    @Override
+    public String getPreferencesGroupTitle() { return "Decompiler"; }
+    @Override
+    public String getPreferencesPanelTitle() { return "Budget"; }
+    @Override
+    public JComponent getPanel() { return this; }
+
+    @Override
+    public void init(Color errorBackgroundColor) {
+        this.errorBackgroundColor = errorBackgroundColor;
+    }
+
+    @Override
+    public boolean isActivated() { return true; }
+
+    @Override
+    public void loadPreferences(Map<String, String> preferences) {
+        timeBudgetTextField.setText(preferences.getOrDefault(TIME_BUDGET, String.valueOf(DEFAULT_TIME_BUDGET)));
+        allocationBudgetTextField.setText(preferences.getOrDefault(ALLOCATION_BUDGET, String.valueOf(DEFAULT_ALLOCATION_BUDGET)));
+    }
+
+    @Override
+    public void savePreferences(Map<String, String> preferences) {
+        preferences.put(TIME_BUDGET, timeBudgetTextField.getText());
+        preferences.put(ALLOCATION_BUDGET, allocationBudgetTextField.getText());
+    }
+
+    @Override
+    public boolean arePreferencesValid() {
+        return isValid(timeBudgetTextField) && isValid(allocationBudgetTextField);
+    }
+
+    protected static boolean isValid(JTextField textField) {
+        // Up to 7 digits: no integer overflow
+        return textField.getText().matches("\\d{1,7}");
+    }
+
+    @Override
+    public void addPreferencesChangeListener(PreferencesPanel.PreferencesPanelChangeListener listener) {
+        this.listener = listener;
+    }
+
+    // --- DocumentListener --- //
+    @Override
+    public void insertUpdate(DocumentEvent e) { onTextChange(); }
+    @Override
+    public void removeUpdate(DocumentEvent e) { onTextChange(); }
+    @Override
+    public void changedUpdate(DocumentEvent e) { onTextChange(); }
+
+    public void onTextChange() {
+        timeBudgetTextField.setBackground(isValid(timeBudgetTextField) ? defaultBackgroundColor : errorBackgroundColor);
+        allocationBudgetTextField.setBackground(isValid(allocationBudgetTextField) ? defaultBackgroundColor : errorBackgroundColor);
+
+        if (listener != null) {
+            listener.preferencesPanelChanged(this);
+        }
+    }
+
+    @Override
+    public void restoreDefaults() {
+        timeBudgetTextField.setText(String.valueOf(DEFAULT_TIME_BUDGET));
+        allocationBudgetTextField.setText(String.valueOf(DEFAULT_ALLOCATION_BUDGET));
+    }
+}
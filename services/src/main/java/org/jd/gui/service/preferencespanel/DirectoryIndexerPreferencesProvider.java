@@ -14,6 +14,7 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.util.Map;
 
+import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -22,6 +23,7 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
 import static org.jd.gui.util.decompiler.GuiPreferences.MAXIMUM_DEPTH_KEY;
+import static org.jd.gui.util.decompiler.GuiPreferences.WATCH_DIRECTORIES_KEY;
 
 public class DirectoryIndexerPreferencesProvider extends JPanel implements PreferencesPanel, DocumentListener {
 
@@ -30,6 +32,7 @@ public class DirectoryIndexerPreferencesProvider extends JPanel implements Prefe
 
     protected transient PreferencesPanel.PreferencesPanelChangeListener listener;
     protected JTextField maximumDepthTextField;
+    protected JCheckBox watchDirectoriesCheckBox;
     protected Color errorBackgroundColor = Color.RED;
     protected Color defaultBackgroundColor;
 
@@ -42,6 +45,9 @@ public class DirectoryIndexerPreferencesProvider extends JPanel implements Prefe
         maximumDepthTextField.getDocument().addDocumentListener(this);
         add(maximumDepthTextField, BorderLayout.CENTER);
 
+        watchDirectoriesCheckBox = new JCheckBox("Re-index the changed files of opened directories");
+        add(watchDirectoriesCheckBox, BorderLayout.SOUTH);
+
         defaultBackgroundColor = maximumDepthTextField.getBackground();
     }
 
@@ -67,11 +73,13 @@ public class DirectoryIndexerPreferencesProvider extends JPanel implements Prefe
 
         maximumDepthTextField.setText(preference != null ? preference : "15");
         maximumDepthTextField.setCaretPosition(maximumDepthTextField.getText().length());
+        watchDirectoriesCheckBox.setSelected("true".equals(preferences.get(WATCH_DIRECTORIES_KEY)));
     }
 
     @Override
     public void savePreferences(Map<String, String> preferences) {
         preferences.put(MAXIMUM_DEPTH_KEY, maximumDepthTextField.getText());
+        preferences.put(WATCH_DIRECTORIES_KEY, Boolean.toString(watchDirectoriesCheckBox.isSelected()));
     }
 
     @Override
@@ -112,5 +120,6 @@ public class DirectoryIndexerPreferencesProvider extends JPanel implements Prefe
     @Override
     public void restoreDefaults() {
         maximumDepthTextField.setText("15");
+        watchDirectoriesCheckBox.setSelected(false);
     }
 }
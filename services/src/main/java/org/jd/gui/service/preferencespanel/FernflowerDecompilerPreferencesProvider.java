@@ -21,7 +21,9 @@ import java.awt.Dimension;
 import java.awt.GridLayout;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -76,6 +78,22 @@ public class FernflowerDecompilerPreferencesProvider extends JPanel implements P
         }
     }
 
+    /**
+     * @return the keys of the options, without creating the panel
+     */
+    public static Set<String> getOptionKeys() {
+        Set<String> keys = new HashSet<>();
+        for (FieldInfo fieldInfo : Type.of(IFernflowerPreferences.class).getFields()) {
+            if (String.class.getName().equals(fieldInfo.getFieldType().getTypeName())) {
+                String trigram = (String) fieldInfo.getValue(null);
+                if (trigram.matches("\\w{3}")) {
+                    keys.add(trigram);
+                }
+            }
+        }
+        return keys;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void restoreDefaults() {
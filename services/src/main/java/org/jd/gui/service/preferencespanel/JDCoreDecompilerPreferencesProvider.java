@@ -5,6 +5,7 @@ import org.jd.gui.spi.PreferencesPanel;
 import java.awt.Color;
 import java.awt.GridLayout;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -52,6 +53,13 @@ public class JDCoreDecompilerPreferencesProvider extends JPanel implements Prefe
         add(displayDefaultConstructorCheckBox);
     }
 
+    /**
+     * @return the keys of the options, without creating the panel
+     */
+    public static Set<String> getOptionKeys() {
+        return Set.of(WRITE_LINE_NUMBERS, WRITE_METADATA, ESCAPE_UNICODE_CHARACTERS, REALIGN_LINE_NUMBERS, OMIT_THIS_PREFIX, DISPLAY_DEFAULT_CONSTRUCTOR);
+    }
+
     @Override
     public void restoreDefaults() {
         writeLineNumbersCheckBox.setSelected(true);
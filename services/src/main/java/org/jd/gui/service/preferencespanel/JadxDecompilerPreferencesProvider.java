@@ -16,7 +16,9 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -73,6 +75,30 @@ public class JadxDecompilerPreferencesProvider extends JPanel implements Prefere
         }
     }
 
+    /**
+     * @return the keys of the options, without creating the panel
+     */
+    public static Set<String> getOptionKeys() {
+        Set<String> keys = new HashSet<>();
+        for (Method method : JadxArgs.class.getMethods()) {
+            if (method.getName().startsWith("set")) {
+                String optionKey = method.getName().substring(3);
+                try {
+                    if (Arrays.equals(method.getParameterTypes(), BOOLEAN_PARAM)) {
+                        JadxArgs.class.getMethod("is" + optionKey);
+                        keys.add(optionKey);
+                    } else if (Arrays.equals(method.getParameterTypes(), INT_PARAM)) {
+                        JadxArgs.class.getMethod("get" + optionKey);
+                        keys.add(optionKey);
+                    }
+                } catch (NoSuchMethodException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+        }
+        return keys;
+    }
+
     @Override
     public void restoreDefaults() {
         for (Map.Entry<String, String> defaultEntry : defaults.entrySet()) {
@@ -14,15 +14,18 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.util.Map;
 import java.util.regex.Pattern;
 
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComponent;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
+import javax.swing.JTextField;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 
@@ -31,16 +34,29 @@ public class MavenOrgSourceLoaderPreferencesProvider extends JPanel implements P
     private static final long serialVersionUID = 1L;
     public static final String ACTIVATED = "MavenOrgSourceLoaderPreferencesProvider.activated";
     public static final String FILTERS = "MavenOrgSourceLoaderPreferencesProvider.filters";
+    public static final String PREFETCH = "MavenOrgSourceLoaderPreferencesProvider.prefetch";
+    public static final String LOCAL_REPOSITORIES = "MavenOrgSourceLoaderPreferencesProvider.localRepositories";
+    public static final String PROBE_TIMEOUT = "MavenOrgSourceLoaderPreferencesProvider.probeTimeout";
+
+    /** Directories with the layout of a Maven repository, separated by the path separator */
+    public static final String DEFAULT_LOCAL_REPOSITORIES_VALUE = System.getProperty("user.home") + File.separator + ".m2" + File.separator + "repository";
+
+    /** Milliseconds spent searching the local sources of a class before decompiling it */
+    public static final int DEFAULT_PROBE_TIMEOUT_VALUE = 150;
 
     public static final String DEFAULT_FILTERS_VALUE =
             "+org +com.google +com.springsource +com.sun -com +java +javax +sun +sunw " +
             "+spring +springframework +springmodules +tomcat +maven +edu";
 
     protected static final Pattern CONTROL_PATTERN = Pattern.compile("([+-][a-zA-Z0-9$_.]+(\\s+[+-][a-zA-Z0-9$_.]+)*+)?\\s*");
+    protected static final Pattern PROBE_TIMEOUT_PATTERN = Pattern.compile("\\d{1,5}");
 
     private JCheckBox enableCheckBox;
     private JTextArea filtersTextArea;
     private JButton resetButton;
+    private JCheckBox prefetchCheckBox;
+    private JTextField localRepositoriesTextField;
+    private JTextField probeTimeoutTextField;
     private Color errorBackgroundColor = Color.RED;
     private Color defaultBackgroundColor;
 
@@ -81,8 +97,26 @@ public class MavenOrgSourceLoaderPreferencesProvider extends JPanel implements P
         resetButton = new JButton("Reset");
         resetButton.addActionListener(this);
 
+        prefetchCheckBox = new JCheckBox("Prefetch sources after indexing from local repositories:");
+        prefetchCheckBox.addActionListener(this);
+
+        localRepositoriesTextField = new JTextField();
+
+        probeTimeoutTextField = new JTextField(5);
+        probeTimeoutTextField.getDocument().addDocumentListener(this);
+
+        JPanel probeTimeoutPanel = new JPanel(new BorderLayout());
+        probeTimeoutPanel.add(new JLabel("Wait for local sources before decompiling (ms):"), BorderLayout.CENTER);
+        probeTimeoutPanel.add(probeTimeoutTextField, BorderLayout.EAST);
+
+        JPanel prefetchPanel = new JPanel(new BorderLayout());
+        prefetchPanel.add(prefetchCheckBox, BorderLayout.NORTH);
+        prefetchPanel.add(localRepositoriesTextField, BorderLayout.CENTER);
+        prefetchPanel.add(probeTimeoutPanel, BorderLayout.SOUTH);
+
         JPanel southPanel = new JPanel(new BorderLayout());
         southPanel.add(resetButton, BorderLayout.EAST);
+        southPanel.add(prefetchPanel, BorderLayout.SOUTH);
 
         add(enableCheckBox, BorderLayout.NORTH);
         add(spacer, BorderLayout.WEST);
@@ -117,17 +151,30 @@ public class MavenOrgSourceLoaderPreferencesProvider extends JPanel implements P
         String filters = preferences.get(FILTERS);
 
         filtersTextArea.setText(filters == null || filters.isEmpty() ? DEFAULT_FILTERS_VALUE : filters);
+
+        String localRepositories = preferences.get(LOCAL_REPOSITORIES);
+
+        prefetchCheckBox.setSelected("true".equals(preferences.get(PREFETCH)));
+        prefetchCheckBox.setEnabled(enabled);
+        localRepositoriesTextField.setText(localRepositories == null || localRepositories.isEmpty() ? DEFAULT_LOCAL_REPOSITORIES_VALUE : localRepositories);
+        localRepositoriesTextField.setEnabled(enabled && prefetchCheckBox.isSelected());
+        probeTimeoutTextField.setText(preferences.getOrDefault(PROBE_TIMEOUT, String.valueOf(DEFAULT_PROBE_TIMEOUT_VALUE)));
+        probeTimeoutTextField.setEnabled(enabled);
     }
 
     @Override
     public void savePreferences(Map<String, String> preferences) {
         preferences.put(ACTIVATED, Boolean.toString(enableCheckBox.isSelected()));
         preferences.put(FILTERS, filtersTextArea.getText().trim());
+        preferences.put(PREFETCH, Boolean.toString(prefetchCheckBox.isSelected()));
+        preferences.put(LOCAL_REPOSITORIES, localRepositoriesTextField.getText().trim());
+        preferences.put(PROBE_TIMEOUT, probeTimeoutTextField.getText().trim());
     }
 
     @Override
     public boolean arePreferencesValid() {
-        return CONTROL_PATTERN.matcher(filtersTextArea.getText()).matches();
+        return CONTROL_PATTERN.matcher(filtersTextArea.getText()).matches()
+            && PROBE_TIMEOUT_PATTERN.matcher(probeTimeoutTextField.getText().trim()).matches();
     }
 
     @Override
@@ -144,7 +191,8 @@ public class MavenOrgSourceLoaderPreferencesProvider extends JPanel implements P
     public void changedUpdate(DocumentEvent e) { onTextChange(); }
 
     protected void onTextChange() {
-        filtersTextArea.setBackground(arePreferencesValid() ? defaultBackgroundColor : errorBackgroundColor);
+        filtersTextArea.setBackground(CONTROL_PATTERN.matcher(filtersTextArea.getText()).matches() ? defaultBackgroundColor : errorBackgroundColor);
+        probeTimeoutTextField.setBackground(PROBE_TIMEOUT_PATTERN.matcher(probeTimeoutTextField.getText().trim()).matches() ? defaultBackgroundColor : errorBackgroundColor);
 
         if (listener != null) {
             listener.preferencesPanelChanged(this);
@@ -158,6 +206,11 @@ public class MavenOrgSourceLoaderPreferencesProvider extends JPanel implements P
             boolean enabled = enableCheckBox.isSelected();
             filtersTextArea.setEnabled(enabled);
             resetButton.setEnabled(enabled);
+            prefetchCheckBox.setEnabled(enabled);
+            localRepositoriesTextField.setEnabled(enabled && prefetchCheckBox.isSelected());
+            probeTimeoutTextField.setEnabled(enabled);
+        } else if (e.getSource() == prefetchCheckBox) {
+            localRepositoriesTextField.setEnabled(prefetchCheckBox.isSelected());
         } else {
             // Reset button
             filtersTextArea.setText(DEFAULT_FILTERS_VALUE);
@@ -171,5 +224,11 @@ public class MavenOrgSourceLoaderPreferencesProvider extends JPanel implements P
         filtersTextArea.setEnabled(true);
         resetButton.setEnabled(true);
         filtersTextArea.setText(DEFAULT_FILTERS_VALUE);
+        prefetchCheckBox.setSelected(false);
+        prefetchCheckBox.setEnabled(true);
+        localRepositoriesTextField.setText(DEFAULT_LOCAL_REPOSITORIES_VALUE);
+        localRepositoriesTextField.setEnabled(false);
+        probeTimeoutTextField.setText(String.valueOf(DEFAULT_PROBE_TIMEOUT_VALUE));
+        probeTimeoutTextField.setEnabled(true);
     }
 }
@@ -20,7 +20,9 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.JCheckBox;
@@ -89,6 +91,23 @@ public class ProcyonDecompilerPreferencesProvider extends JPanel implements Pref
         }
     }
 
+    /**
+     * @return the keys of the options, without creating the panel
+     */
+    public static Set<String> getOptionKeys() {
+        Set<String> keys = new HashSet<>();
+        Map<String, Method> getters = findGetters();
+        for (Method method : CommandLineOptions.class.getMethods()) {
+            if (method.getName().startsWith("set")) {
+                String optionKey = method.getName().substring(3);
+                if (getters.containsKey(optionKey) && (Arrays.equals(method.getParameterTypes(), BOOLEAN_PARAM) || Arrays.equals(method.getParameterTypes(), INT_PARAM))) {
+                    keys.add(optionKey);
+                }
+            }
+        }
+        return keys;
+    }
+
     private static Map<String, Method> findGetters() {
         Map<String, Method> getters = new HashMap<>();
         for (Method method : CommandLineOptions.class.getMethods()) {
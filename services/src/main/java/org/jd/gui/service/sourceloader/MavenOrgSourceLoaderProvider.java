@@ -8,6 +8,7 @@ package org.jd.gui.service.sourceloader;
 
 import org.apache.commons.io.IOUtils;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.service.preferencespanel.MavenOrgSourceLoaderPreferencesProvider;
@@ -17,6 +18,7 @@ import org.jd.util.SHA1Util;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -26,16 +28,22 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import javax.xml.XMLConstants;
@@ -52,41 +60,273 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
 
     protected Set<Container.Entry> failed = new HashSet<>();
     protected Map<Container.Entry, File> cache = new HashMap<>();
+    // Sources prefetched from the local repositories, by archive
+    protected Map<Container.Entry, SourceIndex> sourceIndexes = new ConcurrentHashMap<>();
+    // Source JARs found in the local repositories, opened once, by archive, empty when the archive has no local sources
+    protected Map<Container.Entry, Optional<ZipFile>> localSourceJarFiles = new ConcurrentHashMap<>();
 
     @Override
     public String getSource(API api, Container.Entry entry) {
-        if (isActivated(api)) {
-            String filters = api.getPreferences().get(MavenOrgSourceLoaderPreferencesProvider.FILTERS);
+        if (isActivated(api) && accepted(getFilters(api), entry.getPath())) {
+            Container.Entry archive = entry.getContainer().getRoot().getParent();
+            String source = getPrefetchedSource(archive, entry);
+            return source != null ? source : searchSource(entry, cache.get(archive));
+        }
+
+        return null;
+    }
+
+    @Override
+    public String loadSource(API api, Container.Entry entry) {
+        if (isActivated(api) && accepted(getFilters(api), entry.getPath())) {
+            Container.Entry archive = entry.getContainer().getRoot().getParent();
+            String source = searchLocalSource(api, archive, entry);
+            return source != null ? source : searchSource(entry, downloadSourceJarFile(archive));
+        }
+
+        return null;
+    }
+
+    @Override
+    public String probeSource(API api, Container.Entry entry) {
+        if (isActivated(api) && accepted(getFilters(api), entry.getPath())) {
+            return searchLocalSource(api, entry.getContainer().getRoot().getParent(), entry);
+        }
+
+        return null;
+    }
+
+    /**
+     * Searches the prefetched sources, then the source JAR of 'archive' in the local repositories. The local source
+     * JAR is searched and opened once per archive, then kept open until the archive is evicted.
+     */
+    protected String searchLocalSource(API api, Container.Entry archive, Container.Entry entry) {
+        SourceIndex sourceIndex = sourceIndexes.get(archive);
+
+        if (sourceIndex != null) {
+            return sourceIndex.getSource(entry.getPath());
+        }
+
+        Optional<ZipFile> sourceJarFile = localSourceJarFiles.get(archive);
+
+        if (sourceJarFile == null) {
+            sourceJarFile = openLocalSourceJarFile(api, archive);
+
+            Optional<ZipFile> previous = localSourceJarFiles.putIfAbsent(archive, sourceJarFile);
+
+            if (previous != null) {
+                // Opened concurrently
+                sourceJarFile.ifPresent(IOUtils::closeQuietly);
+                sourceJarFile = previous;
+            }
+        }
+
+        return sourceJarFile.isPresent() ? readSource(sourceJarFile.get(), entry) : null;
+    }
+
+    protected static Optional<ZipFile> openLocalSourceJarFile(API api, Container.Entry archive) {
+        Properties pomProperties = getPomProperties(archive);
+
+        if (pomProperties != null) {
+            File sourceJarFile = findLocalSourceJarFile(api, pomProperties.getProperty("groupId"), pomProperties.getProperty("artifactId"), pomProperties.getProperty("version"));
 
-            if (filters == null || filters.isEmpty()) {
-                filters = MavenOrgSourceLoaderPreferencesProvider.DEFAULT_FILTERS_VALUE;
+            if (sourceJarFile != null) {
+                try {
+                    return Optional.of(new ZipFile(sourceJarFile));
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
             }
+        }
+
+        return Optional.empty();
+    }
 
-            if (accepted(filters, entry.getPath())) {
-                return searchSource(entry, cache.get(entry.getContainer().getRoot().getParent()));
+    protected static String readSource(ZipFile zipFile, Container.Entry entry) {
+        try {
+            ZipEntry zipEntry = zipFile.getEntry(SourceIndex.getSourcePath(entry.getPath()));
+
+            if (zipEntry != null) {
+                try (InputStream is = zipFile.getInputStream(zipEntry)) {
+                    return IOUtils.toString(is, StandardCharsets.UTF_8);
+                }
             }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
         }
 
         return null;
     }
 
+    /**
+     * Resolves the source JAR of 'archive' once, in the local repositories, and indexes its '.java' entries matching
+     * the classes of the archive.
+     */
     @Override
-    public String loadSource(API api, Container.Entry entry) {
-        if (isActivated(api)) {
-            String filters = api.getPreferences().get(MavenOrgSourceLoaderPreferencesProvider.FILTERS);
+    public void prefetch(API api, Container.Entry archive, BooleanSupplier isCancelledFunction) {
+        if (!isActivated(api) || !"true".equals(api.getPreferences().get(MavenOrgSourceLoaderPreferencesProvider.PREFETCH)) || sourceIndexes.containsKey(archive)) {
+            return;
+        }
+
+        SourceIndex sourceIndex = SourceIndex.EMPTY;
+        Properties pomProperties = getPomProperties(archive);
+
+        if (pomProperties != null) {
+            File sourceJarFile = findLocalSourceJarFile(api, pomProperties.getProperty("groupId"), pomProperties.getProperty("artifactId"), pomProperties.getProperty("version"));
+
+            if (sourceJarFile != null) {
+                try {
+                    sourceIndex = createSourceIndex(archive, sourceJarFile, getFilters(api), isCancelledFunction);
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+        }
+
+        if (sourceIndex != null) {
+            if (sourceIndexes.putIfAbsent(archive, sourceIndex) != null) {
+                // Resolved concurrently
+                sourceIndex.close();
+            } else if (isCancelledFunction.getAsBoolean() && sourceIndexes.remove(archive, sourceIndex)) {
+                // Archive closed meanwhile
+                sourceIndex.close();
+            }
+        }
+    }
+
+    @Override
+    public void evict(Container.Entry archive) {
+        SourceIndex sourceIndex = sourceIndexes.remove(archive);
+
+        if (sourceIndex != null) {
+            sourceIndex.close();
+        }
+
+        Optional<ZipFile> sourceJarFile = localSourceJarFiles.remove(archive);
+
+        if (sourceJarFile != null) {
+            sourceJarFile.ifPresent(IOUtils::closeQuietly);
+        }
+    }
 
-            if (filters == null || filters.isEmpty()) {
-                filters = MavenOrgSourceLoaderPreferencesProvider.DEFAULT_FILTERS_VALUE;
+    protected String getPrefetchedSource(Container.Entry archive, Container.Entry entry) {
+        SourceIndex sourceIndex = sourceIndexes.get(archive);
+        return sourceIndex == null ? null : sourceIndex.getSource(entry.getPath());
+    }
+
+    private static String getFilters(API api) {
+        String filters = api.getPreferences().get(MavenOrgSourceLoaderPreferencesProvider.FILTERS);
+        return filters == null || filters.isEmpty() ? MavenOrgSourceLoaderPreferencesProvider.DEFAULT_FILTERS_VALUE : filters;
+    }
+
+    protected static File findLocalSourceJarFile(API api, String groupId, String artifactId, String version) {
+        if (groupId == null || artifactId == null || version == null) {
+            return null;
+        }
+
+        String localRepositories = api.getPreferences().get(MavenOrgSourceLoaderPreferencesProvider.LOCAL_REPOSITORIES);
+
+        if (localRepositories == null || localRepositories.isEmpty()) {
+            localRepositories = MavenOrgSourceLoaderPreferencesProvider.DEFAULT_LOCAL_REPOSITORIES_VALUE;
+        }
+
+        String filePath = groupId.replace('.', '/') + '/' + artifactId + '/' + version + '/' + artifactId + '-' + version + MAVENORG_LOAD_URL_SUFFIX;
+
+        for (String localRepository : localRepositories.split(Pattern.quote(File.pathSeparator))) {
+            if (!localRepository.isBlank()) {
+                File file = new File(localRepository.trim(), filePath);
+                if (file.isFile()) {
+                    return file;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the index, or null if cancelled
+     */
+    protected SourceIndex createSourceIndex(Container.Entry archive, File sourceJarFile, String filters, BooleanSupplier isCancelledFunction) throws IOException {
+        ZipFile zipFile = new ZipFile(sourceJarFile);
+        Map<String, ZipEntry> entries = new HashMap<>();
+
+        if (!populateSourceEntries(archive, zipFile, filters, entries, isCancelledFunction)) {
+            zipFile.close();
+            return null;
+        }
+        if (entries.isEmpty()) {
+            zipFile.close();
+            return SourceIndex.EMPTY;
+        }
+
+        return new SourceIndex(zipFile, entries);
+    }
+
+    /**
+     * @return false if cancelled
+     */
+    protected boolean populateSourceEntries(Container.Entry entry, ZipFile zipFile, String filters, Map<String, ZipEntry> entries, BooleanSupplier isCancelledFunction) {
+        for (Container.Entry child : entry.getChildren().values()) {
+            if (isCancelledFunction.getAsBoolean()) {
+                return false;
+            }
+
+            String path = child.getPath();
+
+            if (child.isDirectory()) {
+                if (!populateSourceEntries(child, zipFile, filters, entries, isCancelledFunction)) {
+                    return false;
+                }
+            } else if (path.endsWith(StringConstants.CLASS_FILE_SUFFIX) && accepted(filters, path)) {
+                String sourcePath = SourceIndex.getSourcePath(path);
+                ZipEntry zipEntry = zipFile.getEntry(sourcePath);
+
+                if (zipEntry != null) {
+                    entries.put(sourcePath, zipEntry);
+                }
             }
+        }
+
+        return true;
+    }
 
-            if (accepted(filters, entry.getPath())) {
-                return searchSource(entry, downloadSourceJarFile(entry.getContainer().getRoot().getParent()));
+    protected static Properties getPomProperties(Container.Entry archive) {
+        // Search 'META-INF/maven/*/*/pom.properties'
+        Container.Entry maven = getChild(getChild(archive, "META-INF"), "META-INF/maven");
+
+        if (maven != null) {
+            for (Container.Entry group : maven.getChildren().values()) {
+                for (Container.Entry artifact : group.getChildren().values()) {
+                    Container.Entry pom = getChild(artifact, artifact.getPath() + "/pom.properties");
+
+                    if (pom != null && !pom.isDirectory()) {
+                        try (InputStream is = pom.getInputStream()) {
+                            Properties properties = new Properties();
+                            properties.load(is);
+                            return properties;
+                        } catch (IOException e) {
+                            assert ExceptionUtil.printStackTrace(e);
+                        }
+                    }
+                }
             }
         }
 
         return null;
     }
 
+    private static Container.Entry getChild(Container.Entry parent, String path) {
+        if (parent != null) {
+            for (Container.Entry child : parent.getChildren().values()) {
+                if (child.getPath().equals(path)) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public File loadSourceFile(API api, Container.Entry entry) {
         return isActivated(api) ? downloadSourceJarFile(entry) : null;
@@ -288,4 +528,48 @@ public class MavenOrgSourceLoaderProvider implements SourceLoader {
 
         return false;
     }
+
+    /**
+     * '.java' entries of a source JAR, by path, read by random access.
+     */
+    protected static class SourceIndex implements Closeable {
+        protected static final SourceIndex EMPTY = new SourceIndex(null, Collections.emptyMap());
+
+        private final ZipFile zipFile;
+        private final Map<String, ZipEntry> entries;
+
+        public SourceIndex(ZipFile zipFile, Map<String, ZipEntry> entries) {
+            this.zipFile = zipFile;
+            this.entries = entries;
+        }
+
+        /**
+         * @return the path of the source file declaring the class at 'classPath'
+         */
+        public static String getSourcePath(String classPath) {
+            int lastSeparatorIndex = classPath.lastIndexOf('/');
+            int dollarIndex = classPath.indexOf('$', lastSeparatorIndex + 1);
+            int end = dollarIndex == -1 ? classPath.length() - StringConstants.CLASS_FILE_SUFFIX.length() : dollarIndex;
+            return classPath.substring(0, end) + ".java";
+        }
+
+        public String getSource(String classPath) {
+            ZipEntry zipEntry = entries.get(getSourcePath(classPath));
+
+            if (zipEntry != null) {
+                try (InputStream is = zipFile.getInputStream(zipEntry)) {
+                    return IOUtils.toString(is, StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public void close() {
+            IOUtils.closeQuietly(zipFile);
+        }
+    }
 }
@@ -8,17 +8,15 @@
 package org.jd.gui.service.sourcesaver;
 
 import org.jd.core.v1.printer.LineNumberStringBuilderPrinter;
-import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
-import org.jd.gui.util.MethodPatcher;
 import org.jd.gui.util.ProgressUtil;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationSupervisor;
 import org.jd.gui.util.loader.LoaderUtils;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
 import java.io.IOException;
@@ -31,7 +29,6 @@ import java.util.function.BooleanSupplier;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
 
-import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V0;
 import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
 import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
 
@@ -89,11 +86,7 @@ public class ClassFileSourceSaverProvider extends AbstractSourceSaverProvider {
             
             String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
-            decompiledResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
-            if (decompiledResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
-                DecompilationResult sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
-                decompiledResult.setDecompiledOutput(MethodPatcher.patchCode(decompiledResult.getDecompiledOutput(), sourceCodeV0.getDecompiledOutput(), entry));
-            }
+            decompiledResult.setDecompiledOutput(DecompilationSupervisor.decompileSource(apiLoader, entryInternalName, preferences, decompileEngine, entry, true));
 
         } catch (Exception t) {
             decompiledResult.setDecompiledOutput(INTERNAL_ERROR);
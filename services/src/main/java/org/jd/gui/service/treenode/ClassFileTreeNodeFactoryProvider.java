@@ -59,9 +59,8 @@ public class ClassFileTreeNodeFactoryProvider extends AbstractTypeFileTreeNodeFa
         int lastSlashIndex = entry.getPath().lastIndexOf('/');
         String label = entry.getPath().substring(lastSlashIndex + 1);
         ClassFileTreeNodeBean treeNodeBean = new ClassFileTreeNodeBean(api, label, entry);
-        FileTreeNode fileTreeNode = new FileTreeNode(entry, treeNodeBean, FACTORY);
-        treeNodeBean.getWorker().execute();
-        return (T) fileTreeNode;
+        // The decompilation state behind the icon is computed when the row is painted
+        return (T) new FileTreeNode(entry, treeNodeBean, FACTORY);
     }
 
     protected static class Factory implements AbstractTypeFileTreeNodeFactoryProvider.PageAndTipFactory {
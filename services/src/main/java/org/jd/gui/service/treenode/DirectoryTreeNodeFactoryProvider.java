@@ -13,16 +13,20 @@ import org.jd.gui.api.feature.TreeNodeExpandable;
 import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Container.Entry;
-import org.jd.gui.spi.TreeNodeFactory;
 import org.jd.gui.util.ImageUtil;
 import org.jd.gui.view.data.TreeNodeBean;
 
 import java.io.File;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+import java.util.Vector;
 
 import javax.swing.ImageIcon;
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.MutableTreeNode;
 
 public class DirectoryTreeNodeFactoryProvider extends AbstractTreeNodeFactoryProvider {
 
@@ -70,12 +74,20 @@ public class DirectoryTreeNodeFactoryProvider extends AbstractTreeNodeFactoryPro
         return OPEN_ICON;
     }
 
+    /**
+     * Directory node whose children are created on demand: the sorted child entries are kept in a compact array and
+     * a child node is made the first time its row is requested by the tree, so that expanding a directory with
+     * thousands of entries only creates the nodes of the visible rows.
+     */
     protected class TreeNode extends DefaultMutableTreeNode implements ContainerEntryGettable, UriGettable, TreeNodeExpandable {
 
         private static final long serialVersionUID = 1L;
 
         protected transient Container.Entry entry;
         protected boolean initialized;
+        // Entries of the children not yet created, aligned on 'children'
+        private transient Container.Entry[] childEntries;
+        private transient API api;
 
         public TreeNode(Container.Entry entry, Object userObject) {
             super(userObject);
@@ -111,12 +123,7 @@ public class DirectoryTreeNodeFactoryProvider extends AbstractTreeNodeFactoryPro
                     entries = child.getChildren().values();
                 }
 
-                for (Entry nextEntry : entries) {
-                    TreeNodeFactory factory = api.getTreeNodeFactory(nextEntry);
-                    if (factory != null) {
-                        add(factory.make(api, nextEntry));
-                    }
-                }
+                setChildEntries(api, entries);
 
                 initialized = true;
             }
@@ -125,5 +132,111 @@ public class DirectoryTreeNodeFactoryProvider extends AbstractTreeNodeFactoryPro
         public Collection<Container.Entry> getChildren() {
             return entry.getChildren().values();
         }
+
+        /**
+         * Replaces the children by the entries of 'entries' having a tree node factory. Nodes are made on demand.
+         */
+        protected void setChildEntries(API api, Collection<Container.Entry> entries) {
+            removeAllChildren();
+
+            Container.Entry[] array = new Container.Entry[entries.size()];
+            int length = 0;
+
+            for (Container.Entry e : entries) {
+                if (api.getTreeNodeFactory(e) != null) {
+                    array[length++] = e;
+                }
+            }
+
+            if (length > 0) {
+                this.api = api;
+                this.childEntries = Arrays.copyOf(array, length);
+                this.children = new Vector<>(length);
+                this.children.setSize(length);
+            }
+        }
+
+        @Override
+        public javax.swing.tree.TreeNode getChildAt(int index) {
+            javax.swing.tree.TreeNode child = super.getChildAt(index);
+
+            if (child == null) {
+                MutableTreeNode node = api.getTreeNodeFactory(childEntries[index]).make(api, childEntries[index]);
+                node.setParent(this);
+                children.set(index, node);
+                childEntries[index] = null;
+                child = node;
+            }
+
+            return child;
+        }
+
+        @Override
+        public Enumeration<javax.swing.tree.TreeNode> children() {
+            if (childEntries == null) {
+                return super.children();
+            }
+
+            return new Enumeration<>() {
+                private int index;
+
+                @Override
+                public boolean hasMoreElements() {
+                    return index < getChildCount();
+                }
+
+                @Override
+                public javax.swing.tree.TreeNode nextElement() {
+                    if (index >= getChildCount()) {
+                        throw new NoSuchElementException();
+                    }
+                    return getChildAt(index++);
+                }
+            };
+        }
+
+        @Override
+        public void insert(MutableTreeNode newChild, int childIndex) {
+            if (newChild.getParent() == this) {
+                // Keep the entries aligned on the children
+                remove(newChild);
+            }
+            super.insert(newChild, childIndex);
+            if (childEntries != null) {
+                Container.Entry[] array = new Container.Entry[childEntries.length + 1];
+                System.arraycopy(childEntries, 0, array, 0, childIndex);
+                System.arraycopy(childEntries, childIndex, array, childIndex + 1, childEntries.length - childIndex);
+                childEntries = array;
+            }
+        }
+
+        @Override
+        public void remove(int childIndex) {
+            super.remove(childIndex);
+            if (childEntries != null) {
+                Container.Entry[] array = new Container.Entry[childEntries.length - 1];
+                System.arraycopy(childEntries, 0, array, 0, childIndex);
+                System.arraycopy(childEntries, childIndex + 1, array, childIndex, array.length - childIndex);
+                childEntries = array;
+            }
+        }
+
+        @Override
+        public void removeAllChildren() {
+            if (childEntries != null) {
+                // Detach the created nodes only
+                for (javax.swing.tree.TreeNode child : children) {
+                    if (child != null) {
+                        ((MutableTreeNode) child).setParent(null);
+                    }
+                }
+                children.clear();
+                childEntries = null;
+                api = null;
+            } else {
+                super.removeAllChildren();
+            }
+        }
+
     }
 }
@@ -11,7 +11,6 @@ import org.jd.gui.api.API;
 import org.jd.gui.api.feature.ContainerEntryGettable;
 import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
-import org.jd.gui.spi.TreeNodeFactory;
 import org.jd.gui.util.ImageUtil;
 import org.jd.gui.view.data.TreeNodeBean;
 
@@ -53,15 +52,7 @@ public class ZipFileTreeNodeFactoryProvider extends DirectoryTreeNodeFactoryProv
         @Override
         public void populateTreeNode(API api) {
             if (!initialized) {
-                removeAllChildren();
-
-                for (Container.Entry e : getChildren()) {
-                    TreeNodeFactory factory = api.getTreeNodeFactory(e);
-                    if (factory != null) {
-                        add(factory.make(api, e));
-                    }
-                }
-
+                setChildEntries(api, getChildren());
                 initialized = true;
             }
         }
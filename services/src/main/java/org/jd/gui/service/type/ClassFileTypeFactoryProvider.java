@@ -13,6 +13,9 @@ import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Type;
 import org.jd.gui.model.container.entry.path.FileEntryPath;
+import org.jd.gui.util.container.ClassBytesCache;
+import org.jd.gui.util.container.ContentHash;
+import org.jd.gui.util.container.SharedContentCache;
 import org.jd.util.LRUCache;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
@@ -21,7 +24,6 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -30,8 +32,15 @@ import java.util.List;
 
 import javax.swing.Icon;
 
+/**
+ * The headers read from the class files are shared with the identical classes, by content hash, of all open archives.
+ * A header holds no entry: the types built from it resolve their inner and outer types in their own container.
+ */
 public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
 
+    // Headers of the classes found in several archives, keyed by content
+    protected static final SharedContentCache<ContentHash, ClassHeader> SHARED_HEADERS = new SharedContentCache<>(4096);
+
     // Create cache
     protected LRUCache<URI, JavaType> cache = new LRUCache<>();
 
@@ -52,8 +61,9 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
         }
         JavaType type;
 
-        try (InputStream is = entry.getInputStream()) {
-            ClassReader classReader = new ClassReader(is);
+        try {
+            byte[] classFile = ClassBytesCache.getInstance().get(entry);
+            ClassReader classReader = new ClassReader(classFile);
 
             if (fragment != null && !fragment.isEmpty()) {
                 // Search type name in fragment. URI format : see jd.gui.api.feature.UriOpener
@@ -80,8 +90,9 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
 
                             entry = entryFound;
 
-                            try (@SuppressWarnings("all") InputStream is2 = entry.getInputStream()) {
-                                classReader = new ClassReader(is2);
+                            try {
+                                classFile = ClassBytesCache.getInstance().get(entry);
+                                classReader = new ClassReader(classFile);
                             } catch (IOException e) {
                                 assert ExceptionUtil.printStackTrace(e);
                                 return null;
@@ -102,7 +113,7 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
                 }
             }
 
-            type = new JavaType(entry, classReader, -1);
+            type = new JavaType(entry, getHeader(entry, classFile), -1);
         } catch (IOException e) {
             assert ExceptionUtil.printStackTrace(e);
             type = null;
@@ -112,57 +123,114 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
         return type;
     }
 
+    @Override
+    public void invalidate(Container.Entry entry) {
+        cache.remove(entry.getUri());
+    }
+
+    protected static ClassHeader getHeader(Container.Entry entry, byte[] classFile) {
+        ContentHash hash = ContentHash.of(entry, classFile);
+        ClassHeader header = SHARED_HEADERS.get(hash);
+
+        if (header == null) {
+            header = ClassHeader.read(new ClassReader(classFile));
+            SHARED_HEADERS.put(hash, header);
+        }
+
+        return header;
+    }
+
+    /**
+     * Flags, names and members of a class file.
+     *
+     * @param outerName    name of the outer type, null if not an inner type
+     * @param innerName    simple name of the inner type, null if not an inner type
+     * @param innerClasses non synthetic inner types declared by the class, without descriptor
+     */
+    protected record ClassHeader(int access, String name, String superName, String outerName, String innerName,
+            List<Member> innerClasses, List<Member> fields, List<Member> methods) {
+
+        protected static ClassHeader read(ClassReader classReader) {
+            List<Member> innerClasses = new ArrayList<>();
+            List<Member> fields = new ArrayList<>();
+            List<Member> methods = new ArrayList<>();
+            String[] names = new String[2];
+            String className = classReader.getClassName();
+
+            classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitInnerClass(String name, String outerName, String innerName, int access) {
+                    if (className.equals(name)) {
+                        // Inner class path found
+                        names[0] = outerName;
+                        names[1] = innerName;
+                    } else if ((access & (Opcodes.ACC_SYNTHETIC|Opcodes.ACC_BRIDGE)) == 0 && className.equals(outerName)) {
+                        innerClasses.add(new Member(access, name, null));
+                    }
+                }
+
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                    if ((access & (Opcodes.ACC_SYNTHETIC|Opcodes.ACC_ENUM)) == 0) {
+                        fields.add(new Member(access, name, descriptor));
+                    }
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    if ((access & (Opcodes.ACC_SYNTHETIC|Opcodes.ACC_ENUM|Opcodes.ACC_BRIDGE)) == 0) {
+                        methods.add(new Member(access, name, descriptor));
+                    }
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE|ClassReader.SKIP_DEBUG|ClassReader.SKIP_FRAMES);
+
+            return new ClassHeader(classReader.getAccess(), className, classReader.getSuperName(), names[0], names[1],
+                    List.copyOf(innerClasses), List.copyOf(fields), List.copyOf(methods));
+        }
+    }
+
+    protected record Member(int access, String name, String descriptor) {}
+
     static class JavaType implements Type {
         private final Container.Entry entry;
-        private int access;
-        private String name;
-        private String superName;
-        private String outerName;
+        private final int access;
+        private final String name;
+        private final String superName;
+        private final String outerName;
 
         private String displayTypeName;
-        private String displayInnerTypeName;
+        private final String displayInnerTypeName;
         private final String displayPackageName;
 
         private List<Type> innerTypes;
         private final List<Type.Field> fields = new ArrayList<>();
         private final List<Type.Method> methods = new ArrayList<>();
 
-        protected JavaType(Container.Entry entry, ClassReader classReader, final int outerAccess) {
+        protected JavaType(Container.Entry entry, ClassHeader header, int outerAccess) {
             this.entry = entry;
-            this.name = "";
-            ClassVisitor classAndInnerClassesVisitor = new ClassVisitor(Opcodes.ASM9) {
-                @Override
-                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
-                    setFlags(outerAccess == -1 ? access : outerAccess);
-                    setName(name);
-                    setSuperName((access & Opcodes.ACC_INTERFACE) != 0 && StringConstants.JAVA_LANG_OBJECT.equals(superName) ? null : superName);
-                }
-
-                @Override
-                public void visitInnerClass(String name, String outerName, String innerName, int access) {
-                    if (getName().equals(name)) {
-                        // Inner class path found
-                        setOuterName(outerName);
-                        setDisplayInnerTypeName(innerName);
-                    } else if ((access & (Opcodes.ACC_SYNTHETIC|Opcodes.ACC_BRIDGE)) == 0 && getName().equals(outerName)) {
-                        Container.Entry innerEntry = getEntry(name);
-
-                        if (innerEntry != null) {
-                            try (InputStream is = innerEntry.getInputStream()) {
-                                ClassReader classReader = new ClassReader(is);
-                                if (innerTypes == null) {
-                                    innerTypes = new ArrayList<>();
-                                }
-                                innerTypes.add(new JavaType(innerEntry, classReader, access));
-                            } catch (IOException e) {
-                                assert ExceptionUtil.printStackTrace(e);
-                            }
+            this.access = (outerAccess == -1) ? header.access() : outerAccess;
+            this.name = header.name();
+            this.superName = (header.access() & Opcodes.ACC_INTERFACE) != 0 && StringConstants.JAVA_LANG_OBJECT.equals(header.superName()) ? null : header.superName();
+            this.outerName = header.outerName();
+            this.displayInnerTypeName = header.innerName();
+
+            for (Member innerClass : header.innerClasses()) {
+                Container.Entry innerEntry = getEntry(innerClass.name());
+
+                if (innerEntry != null) {
+                    try {
+                        ClassHeader innerHeader = getHeader(innerEntry, ClassBytesCache.getInstance().get(innerEntry));
+                        if (innerTypes == null) {
+                            innerTypes = new ArrayList<>();
                         }
+                        innerTypes.add(new JavaType(innerEntry, innerHeader, innerClass.access()));
+                    } catch (IOException e) {
+                        assert ExceptionUtil.printStackTrace(e);
                     }
                 }
-            };
-
-            classReader.accept(classAndInnerClassesVisitor, ClassReader.SKIP_CODE|ClassReader.SKIP_DEBUG|ClassReader.SKIP_FRAMES);
+            }
 
             int lastPackageSeparatorIndex = name.lastIndexOf('/');
 
@@ -186,60 +254,56 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
                 displayTypeName = displayTypeName.substring(lastPackageSeparatorIndex+1);
             }
 
-            ClassVisitor fieldsAndMethodsVisitor = new ClassVisitor(Opcodes.ASM9) {
-                @Override
-                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-                    if ((access & (Opcodes.ACC_SYNTHETIC|Opcodes.ACC_ENUM)) == 0) {
-                        fields.add(new Type.Field() {
-                            @Override
-                            public int getFlags() { return access; }
-                            @Override
-                            public String getName() { return name; }
-                            @Override
-                            public String getDescriptor() { return descriptor; }
-                            @Override
-                            public Icon getIcon() { return getFieldIcon(access); }
-
-                            @Override
-                            public String getDisplayName() {
-                                StringBuilder sb = new StringBuilder();
-                                sb.append(name).append(" : ");
-                                writeSignature(sb, descriptor, descriptor.length(), 0, false);
-                                return sb.toString();
-                            }
-                        });
+            for (Member field : header.fields()) {
+                int fieldAccess = field.access();
+                String fieldName = field.name();
+                String descriptor = field.descriptor();
+
+                fields.add(new Type.Field() {
+                    @Override
+                    public int getFlags() { return fieldAccess; }
+                    @Override
+                    public String getName() { return fieldName; }
+                    @Override
+                    public String getDescriptor() { return descriptor; }
+                    @Override
+                    public Icon getIcon() { return getFieldIcon(fieldAccess); }
+
+                    @Override
+                    public String getDisplayName() {
+                        StringBuilder sb = new StringBuilder();
+                        sb.append(fieldName).append(" : ");
+                        writeSignature(sb, descriptor, descriptor.length(), 0, false);
+                        return sb.toString();
                     }
-                    return null;
-                }
+                });
+            }
 
-                @Override
-                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-                    if ((access & (Opcodes.ACC_SYNTHETIC|Opcodes.ACC_ENUM|Opcodes.ACC_BRIDGE)) == 0) {
-                        methods.add(new Type.Method() {
-                            @Override
-                            public int getFlags() { return access; }
-                            @Override
-                            public String getName() { return name; }
-                            @Override
-                            public String getDescriptor() { return descriptor; }
-                            @Override
-                            public Icon getIcon() { return getMethodIcon(access); }
-
-                            @Override
-                            public String getDisplayName() {
-                                boolean isInnerClass = getDisplayInnerTypeName() != null;
-                                String constructorName = isInnerClass ? getDisplayInnerTypeName() : getDisplayTypeName();
-                                StringBuilder sb = new StringBuilder();
-                                writeMethodSignature(sb, getFlags(), access, isInnerClass, constructorName, name, descriptor);
-                                return sb.toString();
-                            }
-                        });
+            for (Member method : header.methods()) {
+                int methodAccess = method.access();
+                String methodName = method.name();
+                String descriptor = method.descriptor();
+
+                methods.add(new Type.Method() {
+                    @Override
+                    public int getFlags() { return methodAccess; }
+                    @Override
+                    public String getName() { return methodName; }
+                    @Override
+                    public String getDescriptor() { return descriptor; }
+                    @Override
+                    public Icon getIcon() { return getMethodIcon(methodAccess); }
+
+                    @Override
+                    public String getDisplayName() {
+                        boolean isInnerClass = getDisplayInnerTypeName() != null;
+                        String constructorName = isInnerClass ? getDisplayInnerTypeName() : getDisplayTypeName();
+                        StringBuilder sb = new StringBuilder();
+                        writeMethodSignature(sb, JavaType.this.getFlags(), methodAccess, isInnerClass, constructorName, methodName, descriptor);
+                        return sb.toString();
                     }
-                    return null;
-                }
-            };
-
-            classReader.accept(fieldsAndMethodsVisitor, ClassReader.SKIP_CODE|ClassReader.SKIP_DEBUG|ClassReader.SKIP_FRAMES);
+                });
+            }
         }
 
         protected String getDisplayTypeName(String name, int packageLength) {
@@ -249,17 +313,12 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
                 Container.Entry loadedEntry = getEntry(name);
 
                 if (loadedEntry != null) {
-                    try (InputStream is = loadedEntry.getInputStream()) {
-                        ClassReader classReader = new ClassReader(is);
-                        InnerClassVisitor classVisitor = new InnerClassVisitor(name);
-
-                        classReader.accept(classVisitor, ClassReader.SKIP_CODE|ClassReader.SKIP_DEBUG|ClassReader.SKIP_FRAMES);
-
-                        String localOuterName = classVisitor.getOuterName();
+                    try {
+                        ClassHeader header = getHeader(loadedEntry, ClassBytesCache.getInstance().get(loadedEntry));
 
-                        if (localOuterName != null) {
+                        if (header.outerName() != null) {
                             // Inner class path found => Recursive call
-                            return getDisplayTypeName(localOuterName, packageLength) + '.' + classVisitor.getInnerName();
+                            return getDisplayTypeName(header.outerName(), packageLength) + '.' + header.innerName();
                         }
                     } catch (IOException e) {
                         assert ExceptionUtil.printStackTrace(e);
@@ -300,54 +359,5 @@ public class ClassFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
         public Container.Entry getEntry() {
             return entry;
         }
-
-        private void setFlags(int access) {
-            this.access = access;
-        }
-
-        private void setName(String name) {
-            this.name = name;
-        }
-
-        private void setSuperName(String superName) {
-            this.superName = superName;
-        }
-
-        private void setOuterName(String outerName) {
-            this.outerName = outerName;
-        }
-
-        private void setDisplayInnerTypeName(String displayInnerTypeName) {
-            this.displayInnerTypeName = displayInnerTypeName;
-        }
-
-    }
-
-    protected static class InnerClassVisitor extends ClassVisitor {
-        private String name;
-        private String outerName;
-        private String innerName;
-
-        public InnerClassVisitor(String name) {
-            super(Opcodes.ASM9);
-            this.name = name;
-        }
-
-        @Override
-        public void visitInnerClass(String name, String outerName, String innerName, int access) {
-            if (this.name.equals(name)) {
-                // Inner class path found
-                this.outerName = outerName;
-                this.innerName = innerName;
-            }
-        }
-
-        public String getOuterName() {
-            return outerName;
-        }
-
-        public String getInnerName() {
-            return innerName;
-        }
     }
 }
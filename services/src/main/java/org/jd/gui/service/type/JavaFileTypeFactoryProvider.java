@@ -77,6 +77,11 @@ public class JavaFileTypeFactoryProvider extends AbstractTypeFactoryProvider {
         return listener.getMainType();
     }
 
+    @Override
+    public void invalidate(Container.Entry entry) {
+        cache.remove(entry.getUri());
+    }
+
     protected Listener getListener(Container.Entry entry) {
         URI key = entry.getUri();
 
@@ -0,0 +1,61 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util;
+
+import java.io.File;
+
+/**
+ * Directory of the configuration files of the platform: $XDG_CONFIG_HOME or ~/.config on Linux, %APPDATA% on Windows.
+ */
+public final class ConfigurationDirectoryUtil {
+
+    private ConfigurationDirectoryUtil() {
+    }
+
+    /**
+     * @return the existing configuration directory of the platform, null if none
+     */
+    public static File getConfigurationDirectory() {
+        String osName = System.getProperty("os.name").toLowerCase();
+
+        if (osName.contains("windows")) {
+            // See: http://blogs.msdn.com/b/patricka/archive/2010/03/18/where-should-i-store-my-data-and-configuration-files-if-i-target-multiple-os-versions.aspx
+            return getExistingDirectory(System.getenv("APPDATA"));
+        }
+        if (!osName.contains("mac os")) {
+            // See: http://standards.freedesktop.org/basedir-spec/basedir-spec-latest.html
+            File xdgConfigHome = getExistingDirectory(System.getenv("XDG_CONFIG_HOME"));
+
+            if (xdgConfigHome != null) {
+                return xdgConfigHome;
+            }
+
+            return getExistingDirectory(new File(System.getProperty("user.home"), ".config").getPath());
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the file 'name' of the configuration directory, the hidden file '.name' of the home directory if the
+     *         platform has no configuration directory
+     */
+    public static File getConfigurationFile(String name) {
+        File directory = getConfigurationDirectory();
+        return (directory == null) ? new File(System.getProperty("user.home"), '.' + name) : new File(directory, name);
+    }
+
+    private static File getExistingDirectory(String path) {
+        if (path != null) {
+            File directory = new File(path);
+            if (directory.exists()) {
+                return directory;
+            }
+        }
+        return null;
+    }
+}
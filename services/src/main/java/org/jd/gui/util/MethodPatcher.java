@@ -18,15 +18,147 @@ import org.jd.gui.util.parser.jdt.ASTParserFactory;
 import org.jd.util.Range;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import jd.core.DecompilationResult;
+import jd.core.links.DeclarationData;
+
 public final class MethodPatcher {
 
+    private static final String PATCH_COMMENT = "/* Patched from JD-Core V0 */";
+
     private MethodPatcher() {
         super();
     }
 
+    /**
+     * Replaces the method bodies of JD-Core v1 containing a decompilation failure with the method bodies of JD-Core v0.
+     * The bodies are located from the method declarations reported by both decompilers, without parsing the sources.
+     * If a decompiler reports no method declaration, the sources are parsed by JDT.
+     */
+    public static String patchCode(DecompilationResult resultV1, DecompilationResult resultV0, Container.Entry entry) {
+        String sourceCodeV1 = resultV1.getDecompiledOutput();
+        String sourceCodeV0 = resultV0.getDecompiledOutput();
+        Map<String, Range> methodRangesV1 = getMethodBodyRanges(resultV1.getDeclarations(), sourceCodeV1);
+        Map<String, Range> methodRangesV0 = getMethodBodyRanges(resultV0.getDeclarations(), sourceCodeV0);
+
+        if (methodRangesV1.isEmpty() || methodRangesV0.isEmpty()) {
+            return patchCode(sourceCodeV1, sourceCodeV0, entry);
+        }
+
+        List<Map.Entry<String, Range>> failedMethods = new ArrayList<>();
+        for (Map.Entry<String, Range> methodRange : methodRangesV1.entrySet()) {
+            Range rangeV1 = methodRange.getValue();
+            if (methodRangesV0.containsKey(methodRange.getKey()) && sourceCodeV1.substring(rangeV1.minimum(), rangeV1.maximum()).contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
+                failedMethods.add(methodRange);
+            }
+        }
+        failedMethods.sort(Comparator.comparing((Map.Entry<String, Range> e) -> e.getValue().minimum()).thenComparing(e -> -e.getValue().maximum()));
+
+        StringBuilder sb = new StringBuilder(sourceCodeV1.length() + sourceCodeV0.length() / 2);
+        int position = 0;
+        for (Map.Entry<String, Range> failedMethod : failedMethods) {
+            Range rangeV1 = failedMethod.getValue();
+            if (rangeV1.minimum() < position) {
+                // Method of an inner or anonymous class, replaced with its enclosing method
+                continue;
+            }
+            Range rangeV0 = methodRangesV0.get(failedMethod.getKey());
+            String methodV0 = sourceCodeV0.substring(rangeV0.minimum(), rangeV0.maximum());
+            String methodV1 = sourceCodeV1.substring(rangeV1.minimum(), rangeV1.maximum());
+            sb.append(sourceCodeV1, position, rangeV1.minimum());
+            sb.append(PATCH_COMMENT).append(methodV0);
+            for (long i = methodV1.lines().count() - methodV0.lines().count(); i > 0; i--) {
+                sb.append(System.lineSeparator());
+            }
+            position = rangeV1.maximum();
+        }
+        sb.append(sourceCodeV1, position, sourceCodeV1.length());
+        return sb.toString();
+    }
+
+    private static Map<String, Range> getMethodBodyRanges(Map<String, DeclarationData> declarations, String sourceCode) {
+        Map<String, Range> methodBodyRanges = new HashMap<>();
+        for (Map.Entry<String, DeclarationData> declaration : declarations.entrySet()) {
+            DeclarationData data = declaration.getValue();
+            if (data.isAMethod() || data.isAConstructor()) {
+                Range range = findBody(sourceCode, data.getEndPosition());
+                if (range != null) {
+                    methodBodyRanges.put(declaration.getKey(), range);
+                }
+            }
+        }
+        return methodBodyRanges;
+    }
+
+    /**
+     * @return the range of the block following the parameters of a method declaration, or null for a method without body
+     */
+    static Range findBody(String sourceCode, int fromIndex) {
+        int length = sourceCode.length();
+        int parenthesisDepth = 0;
+        int braceDepth = 0;
+        int start = -1;
+        int i = fromIndex;
+        while (i >= 0 && i < length) {
+            char c = sourceCode.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(sourceCode, i);
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sourceCode.charAt(i + 1) == '/') {
+                i = sourceCode.indexOf('\n', i);
+                continue;
+            }
+            if (c == '/' && i + 1 < length && sourceCode.charAt(i + 1) == '*') {
+                int end = sourceCode.indexOf("*/", i + 2);
+                i = end == -1 ? -1 : end + 2;
+                continue;
+            }
+            if (c == '(') {
+                parenthesisDepth++;
+            } else if (c == ')') {
+                parenthesisDepth--;
+            } else if (parenthesisDepth == 0) {
+                if (c == '{') {
+                    if (braceDepth++ == 0) {
+                        start = i;
+                    }
+                } else if (c == '}') {
+                    if (--braceDepth == 0) {
+                        return Range.between(start, i + 1);
+                    }
+                } else if (c == ';' && braceDepth == 0) {
+                    return null;
+                }
+            }
+            i++;
+        }
+        return null;
+    }
+
+    private static int skipLiteral(String sourceCode, int index) {
+        char quote = sourceCode.charAt(index);
+        if (quote == '"' && sourceCode.startsWith("\"\"\"", index)) {
+            int end = sourceCode.indexOf("\"\"\"", index + 3);
+            return end == -1 ? -1 : end + 3;
+        }
+        int length = sourceCode.length();
+        for (int i = index + 1; i < length; i++) {
+            char c = sourceCode.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote || c == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
     public static String patchCode(String sourceCodeV1, String sourceCodeV0, Container.Entry entry) {
         Map<String, Range> methodKeyPositionRanges = new HashMap<>();
         URI jarURI = entry.getContainer().getRoot().getParent().getUri();
@@ -80,7 +212,7 @@ public final class MethodPatcher {
                                 newMethod.append(System.lineSeparator());
                             }
                             textEdit.addChild(new ReplaceEdit(rangeV1.minimum(), rangeV1.length(), newMethod.toString()));
-                            textEdit.addChild(new InsertEdit(rangeV1.minimum(), "/* Patched from JD-Core V0 */"));
+                            textEdit.addChild(new InsertEdit(rangeV1.minimum(), PATCH_COMMENT));
                         }
                     }
                 }
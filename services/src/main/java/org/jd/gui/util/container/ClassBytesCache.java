@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.container;
+
+import org.jd.gui.api.model.Container;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Content of the class files, shared by the indexers, the type factories, the decompiler loaders and the tree
+ * filters, keyed by container and path.<br>
+ * <br>
+ * The least recently used contents are dropped beyond 'maximumWeight'. Concurrent requests for the same entry
+ * trigger one read. The returned arrays are shared and must not be modified.
+ */
+public final class ClassBytesCache {
+    /** Megabytes */
+    public static final String MAXIMUM_WEIGHT_PROPERTY = "jd-gui.classBytesCacheSize";
+    public static final int DEFAULT_MAXIMUM_WEIGHT = 64;
+
+    private static final ClassBytesCache INSTANCE = new ClassBytesCache(Long.getLong(MAXIMUM_WEIGHT_PROPERTY, DEFAULT_MAXIMUM_WEIGHT) * 1024 * 1024);
+
+    private final LinkedHashMap<Key, byte[]> map = new LinkedHashMap<>(1024, 0.75F, true);
+    private final Map<Key, CompletableFuture<byte[]>> loadings = new ConcurrentHashMap<>();
+    private final ToLongFunction<byte[]> weigher;
+    private final long maximumWeight;
+    private long weight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Weighs each content by its length, plus the overhead of the array and the key.
+     */
+    public ClassBytesCache(long maximumWeight) {
+        this(maximumWeight, bytes -> bytes.length + 64L);
+    }
+
+    public ClassBytesCache(long maximumWeight, ToLongFunction<byte[]> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    public static ClassBytesCache getInstance() {
+        return INSTANCE;
+    }
+
+    private record Key(Container container, String path) {
+    }
+
+    /**
+     * @param hitCount      number of requests served from the cache, or by waiting for a concurrent read
+     * @param missCount     number of requests that read the entry
+     * @param evictionCount number of contents dropped to respect the maximum weight
+     */
+    public record Stats(long hitCount, long missCount, long evictionCount, int size, long weight) {
+    }
+
+    public byte[] get(Container.Entry entry) throws IOException {
+        Key key = new Key(entry.getContainer(), entry.getPath());
+        byte[] bytes = getIfPresent(key);
+
+        if (bytes != null) {
+            hitCount.increment();
+            return bytes;
+        }
+
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> loading = loadings.putIfAbsent(key, future);
+
+        if (loading != null) {
+            // Single flight: wait for the concurrent read
+            hitCount.increment();
+            return join(loading);
+        }
+
+        try {
+            // Loaded between the first lookup and the registration of the future ?
+            bytes = getIfPresent(key);
+
+            if (bytes != null) {
+                hitCount.increment();
+            } else {
+                missCount.increment();
+
+                try (InputStream is = entry.getInputStream()) {
+                    if (is == null) {
+                        throw new IOException("Cannot read " + entry.getUri());
+                    }
+                    bytes = is.readAllBytes();
+                }
+
+                put(key, bytes);
+            }
+
+            future.complete(bytes);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(key, future);
+        }
+    }
+
+    public synchronized void invalidate(Container.Entry entry) {
+        byte[] bytes = map.remove(new Key(entry.getContainer(), entry.getPath()));
+
+        if (bytes != null) {
+            weight -= weigher.applyAsLong(bytes);
+        }
+    }
+
+    /**
+     * Drops the contents of a closed container.
+     */
+    public synchronized void invalidate(Container container) {
+        Iterator<Map.Entry<Key, byte[]>> iterator = map.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Key, byte[]> mapEntry = iterator.next();
+
+            if (mapEntry.getKey().container() == container) {
+                weight -= weigher.applyAsLong(mapEntry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hitCount.sum(), missCount.sum(), evictionCount.sum(), map.size(), weight);
+    }
+
+    private synchronized byte[] getIfPresent(Key key) {
+        return map.get(key);
+    }
+
+    private synchronized void put(Key key, byte[] bytes) {
+        byte[] previous = map.put(key, bytes);
+
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+
+        weight += weigher.applyAsLong(bytes);
+
+        Iterator<byte[]> iterator = map.values().iterator();
+
+        while (weight > maximumWeight && iterator.hasNext()) {
+            weight -= weigher.applyAsLong(iterator.next());
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> loading) throws IOException {
+        try {
+            return loading.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
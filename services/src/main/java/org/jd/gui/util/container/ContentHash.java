@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.container;
+
+import org.jd.gui.api.model.Container;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+/**
+ * 128-bit hash of the content of an entry, used to share the results computed for identical classes found in
+ * several archives.<br>
+ * <br>
+ * The high half combines the CRC-32 and the size of the content. The CRC-32 is read from the central directory of the
+ * archive when available, computed otherwise. The low half is a 64-bit hash of the bytes, confirming the match.
+ */
+public record ContentHash(long high, long low) {
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long PRIME1 = 0x9E3779B97F4A7C15L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+
+    /**
+     * @param data content of 'entry'
+     */
+    public static ContentHash of(Container.Entry entry, byte[] data) {
+        return of(entry, data, 0, data.length);
+    }
+
+    /**
+     * @param data buffer holding the content of 'entry' from 'offset' to 'offset + length'
+     */
+    public static ContentHash of(Container.Entry entry, byte[] data, int offset, int length) {
+        long crc = entry.crc();
+
+        if (crc == -1L) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(data, offset, length);
+            crc = crc32.getValue();
+        }
+
+        return new ContentHash((crc << 32) | (length & 0xFFFFFFFFL), hash(data, offset, length));
+    }
+
+    static long hash(byte[] data, int offset, int length) {
+        long h = PRIME2 ^ length;
+        int i = offset;
+        int end = offset + length;
+
+        for (; i + 8 <= end; i += 8) {
+            h ^= Long.rotateLeft((long) LONG.get(data, i) * PRIME2, 31) * PRIME1;
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME2;
+        }
+        for (; i < end; i++) {
+            h ^= (data[i] & 0xFF) * PRIME1;
+            h = Long.rotateLeft(h, 11) * PRIME2;
+        }
+
+        // Final mix
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -7,22 +7,17 @@
 
 package org.jd.gui.util.container;
 
-import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.model.Container;
-import org.jd.gui.model.container.ContainerEntryComparator;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassVisitor;
-import org.objectweb.asm.Opcodes;
 
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -34,89 +29,82 @@ public final class JarContainerEntryUtil {
         super();
     }
 
+    /**
+     * Hides the class files of the inner types, detected by name: 'A$B.class' is an inner type when 'A.class' is
+     * found in the same directory. The class files are not read and the order of 'entries' is kept.
+     */
     public static Collection<Container.Entry> removeInnerTypeEntries(Map<Container.EntryPath, Container.Entry> entries) {
-        Set<String> potentialOuterTypePaths = new HashSet<>();
-        Map<Container.EntryPath, Container.Entry> filteredSubEntries;
+        Set<String> outerTypePaths = null;
 
         for (Container.Entry e : entries.values()) {
-            if (!e.isDirectory()) {
-                String p = e.getPath();
-
-                if (p.toLowerCase().endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
-                    int lastSeparatorIndex = p.lastIndexOf('/');
-                    int dollarIndex = p.indexOf('$', lastSeparatorIndex+1);
-
-                    if (dollarIndex != -1) {
-                        potentialOuterTypePaths.add(p.substring(0, dollarIndex) + StringConstants.CLASS_FILE_SUFFIX);
+            if (getOuterTypePath(e) != null) {
+                if (outerTypePaths == null) {
+                    outerTypePaths = new HashSet<>();
+                    for (Container.Entry f : entries.values()) {
+                        if (!f.isDirectory()) {
+                            outerTypePaths.add(f.getPath());
+                        }
                     }
                 }
+                break;
             }
         }
 
-        if (potentialOuterTypePaths.isEmpty()) {
-            filteredSubEntries = entries;
-        } else {
-            Set<String> innerTypePaths = new HashSet<>();
-
-            for (Container.Entry e : entries.values()) {
-                if (!e.isDirectory() && potentialOuterTypePaths.contains(e.getPath())) {
-                    populateInnerTypePaths(innerTypePaths, e);
-                }
-            }
-
-            filteredSubEntries = new TreeMap<>(ContainerEntryComparator.COMPARATOR);
-
-            for (Map.Entry<Container.EntryPath, Container.Entry> entry : entries.entrySet()) {
-                Container.Entry e = entry.getValue();
-                if (!e.isDirectory()) {
-                    String p = e.getPath();
-
-                    if (p.toLowerCase().endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
-                        int indexDollar = p.lastIndexOf('$');
+        if (outerTypePaths == null) {
+            return entries.values();
+        }
 
-                        if (indexDollar != -1) {
-                            int indexSeparator = p.lastIndexOf('/');
+        List<Container.Entry> filteredEntries = new ArrayList<>(entries.size());
 
-                            if (indexDollar > indexSeparator) {
-                                if (innerTypePaths.contains(p)) {
-                                    // Inner class found -> Skip
-                                    continue;
-                                }
-                                populateInnerTypePaths(innerTypePaths, e);
+        for (Container.Entry e : entries.values()) {
+            String outerTypePath = getOuterTypePath(e);
 
-                                if (innerTypePaths.contains(p)) {
-                                    // Inner class found -> Skip
-                                    continue;
-                                }
-                            }
-                        }
-                    }
-                }
+            if (outerTypePath == null || !outerTypePaths.contains(outerTypePath)) {
                 // Valid path
-                filteredSubEntries.put(entry.getKey(), e);
+                filteredEntries.add(e);
             }
         }
 
-        return filteredSubEntries.values();
+        return filteredEntries;
+    }
+
+    /**
+     * Collects the class files under 'entry', in the order of the children.
+     *
+     * @param innerTypes false to skip the class files of the inner types, as {@link #removeInnerTypeEntries(Map)} does
+     */
+    public static void collectClassEntries(Container.Entry entry, boolean innerTypes, List<Container.Entry> entries) {
+        if (entry.isDirectory()) {
+            Collection<Container.Entry> children = innerTypes ? entry.getChildren().values() : removeInnerTypeEntries(entry.getChildren());
+
+            for (Container.Entry child : children) {
+                collectClassEntries(child, innerTypes, entries);
+            }
+        } else if (entry.getPath().endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
+            entries.add(entry);
+        }
     }
 
-    private static void populateInnerTypePaths(final Set<String> innerTypePaths, Container.Entry entry) {
-        try (InputStream is = entry.getInputStream()) {
-            ClassReader classReader = new ClassReader(is);
+    /**
+     * @return the path of the class file of the potential outer type of 'entry', null if 'entry' is not a class file or
+     *         has no '$' in its name
+     */
+    private static String getOuterTypePath(Container.Entry entry) {
+        if (!entry.isDirectory()) {
             String p = entry.getPath();
-            final String prefixPath = p.substring(0, p.length() - classReader.getClassName().length() - 6);
 
-            ClassVisitor classVisitor = new ClassVisitor(Opcodes.ASM9) {
-                @Override
-                public void visitInnerClass(final String name, final String outerName, final String innerName, final int access) {
-                    innerTypePaths.add(prefixPath + name + StringConstants.CLASS_FILE_SUFFIX);
-                }
-            };
+            if (p.regionMatches(true, p.length() - StringConstants.CLASS_FILE_SUFFIX.length(), StringConstants.CLASS_FILE_SUFFIX, 0, StringConstants.CLASS_FILE_SUFFIX.length())) {
+                int lastSeparatorIndex = p.lastIndexOf('/');
+                int dollarIndex = p.indexOf('$', lastSeparatorIndex + 1);
 
-            classReader.accept(classVisitor, ClassReader.SKIP_CODE|ClassReader.SKIP_DEBUG|ClassReader.SKIP_FRAMES);
-        } catch (Exception e) {
-            assert ExceptionUtil.printStackTrace(e);
+                // Skip names starting or ending with '$' ('$Proxy1.class', 'Module$.class')
+                if (dollarIndex > lastSeparatorIndex + 1 && dollarIndex < p.length() - StringConstants.CLASS_FILE_SUFFIX.length() - 1) {
+                    return p.substring(0, dollarIndex) + StringConstants.CLASS_FILE_SUFFIX;
+                }
+            }
         }
+
+        return null;
     }
 
     public static String inferGroupFromFile(JarFile jarFile) {
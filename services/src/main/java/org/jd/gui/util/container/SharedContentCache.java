@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.container;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread safe cache of the results computed from the content of entries, shared across all open archives.<br>
+ * <br>
+ * The least recently used results are dropped beyond 'maximumWeight'.
+ */
+public final class SharedContentCache<K, V> {
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(256, 0.75F, true);
+    private final ToLongFunction<V> weigher;
+    private final long maximumWeight;
+    private long weight;
+
+    public SharedContentCache(long maximumSize) {
+        this(maximumSize, value -> 1L);
+    }
+
+    public SharedContentCache(long maximumWeight, ToLongFunction<V> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        V previous = map.put(key, value);
+
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+
+        weight += weigher.applyAsLong(value);
+
+        Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+
+        while (weight > maximumWeight && iterator.hasNext()) {
+            weight -= weigher.applyAsLong(iterator.next().getValue());
+            iterator.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized void clear() {
+        map.clear();
+        weight = 0;
+    }
+}
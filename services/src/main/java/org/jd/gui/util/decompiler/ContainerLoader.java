@@ -12,6 +12,7 @@ import org.jd.core.v1.api.loader.Loader;
 import org.jd.core.v1.util.StringConstants;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.model.container.entry.path.FileEntryPath;
+import org.jd.gui.util.container.ClassBytesCache;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -56,9 +57,8 @@ public class ContainerLoader implements Loader {
         if (loadedEntry == null) {
             return null;
         }
-        try (InputStream inputStream = loadedEntry.getInputStream()) {
-            return IOUtils.toByteArray(inputStream);
-        }
+        // The decompilers own the returned array
+        return ClassBytesCache.getInstance().get(loadedEntry).clone();
     }
 
     public static char[] loadEntry(Container.Entry entry, Charset charset) throws IOException {
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.ConfigurationDirectoryUtil;
+import org.jd.gui.util.container.ClassBytesCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Hashes of class files: the classes for which JD-Core v1 reported a decompilation failure, and the classes whose
+ * decompilation exceeded its time or allocation budget.<br>
+ * <br>
+ * A table is loaded from its file on first use and saved at shutdown. The least recently used hashes are dropped
+ * beyond 'MAXIMUM_SIZE' entries. A hash combines the CRC-32C and the length of the class file.
+ */
+public final class DecompilationFailureTable {
+    public static final String FILE_PROPERTY = "jd-gui.decompilationFailures";
+    public static final String SLOW_CLASSES_FILE_PROPERTY = "jd-gui.slowClasses";
+    public static final int MAXIMUM_SIZE = 1 << 16;
+
+    private static final int MAGIC = 0x4A444654;
+    private static final DecompilationFailureTable INSTANCE = new DecompilationFailureTable(getFile(FILE_PROPERTY, "jd-gui-decompilation-failures"));
+    private static final DecompilationFailureTable SLOW_CLASSES = new DecompilationFailureTable(getFile(SLOW_CLASSES_FILE_PROPERTY, "jd-gui-slow-classes"));
+
+    private final File file;
+    private final LinkedHashMap<Long, Boolean> hashes = new LinkedHashMap<>(1024, 0.75F, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAXIMUM_SIZE;
+        }
+    };
+    private boolean loaded;
+    private boolean modified;
+
+    DecompilationFailureTable(File file) {
+        this.file = file;
+    }
+
+    public static DecompilationFailureTable getInstance() {
+        return INSTANCE;
+    }
+
+    public static DecompilationFailureTable getSlowClasses() {
+        return SLOW_CLASSES;
+    }
+
+    public static long hash(Container.Entry entry) throws IOException {
+        return hash(ClassBytesCache.getInstance().get(entry));
+    }
+
+    public static long hash(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, 0, data.length);
+        return (crc.getValue() << 32) | (data.length & 0xFFFFFFFFL);
+    }
+
+    public synchronized boolean contains(long hash) {
+        load();
+        return hashes.get(hash) != null;
+    }
+
+    public synchronized void add(long hash) {
+        load();
+        if (hashes.put(hash, Boolean.TRUE) == null) {
+            modified = true;
+        }
+    }
+
+    public synchronized void remove(long hash) {
+        load();
+        if (hashes.remove(hash) != null) {
+            modified = true;
+        }
+    }
+
+    public synchronized void save() {
+        if (modified && file != null) {
+            File parent = file.getAbsoluteFile().getParentFile();
+
+            try {
+                if (parent != null) {
+                    Files.createDirectories(parent.toPath());
+                }
+                try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+                    dos.writeInt(MAGIC);
+                    dos.writeInt(hashes.size());
+                    for (Long hash : hashes.keySet()) {
+                        dos.writeLong(hash);
+                    }
+                }
+                modified = false;
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
+
+    private void load() {
+        if (!loaded) {
+            loaded = true;
+
+            if (file != null && file.isFile()) {
+                List<Long> values = new ArrayList<>();
+
+                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                    if (dis.readInt() == MAGIC) {
+                        for (int i = dis.readInt(); i > 0; i--) {
+                            values.add(dis.readLong());
+                        }
+                    }
+                } catch (IOException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+
+                for (Long value : values) {
+                    hashes.put(value, Boolean.TRUE);
+                }
+            }
+
+            if (file != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(this::save, "jd-gui-save-" + file.getName()));
+            }
+        }
+    }
+
+    private static File getFile(String property, String defaultName) {
+        String path = System.getProperty(property);
+
+        if (path != null) {
+            return path.isEmpty() ? null : new File(path);
+        }
+
+        return ConfigurationDirectoryUtil.getConfigurationFile(defaultName);
+    }
+}
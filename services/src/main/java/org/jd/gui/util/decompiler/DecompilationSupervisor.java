@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.apache.bcel.classfile.ClassParser;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.container.ClassBytesCache;
+import org.jd.gui.util.container.ContentHash;
+import org.jd.gui.util.container.SharedContentCache;
+
+import com.heliosdecompiler.transformerapi.StandardTransformers;
+import com.heliosdecompiler.transformerapi.TransformationException;
+import com.heliosdecompiler.transformerapi.common.Loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.jd.gui.util.decompiler.GuiPreferences.ALLOCATION_BUDGET;
+import static org.jd.gui.util.decompiler.GuiPreferences.TIME_BUDGET;
+
+import jd.core.DecompilationResult;
+
+/**
+ * Runs the decompilation of a class on a worker thread, under a time and an allocation budget.<br>
+ * <br>
+ * When a budget is exceeded, the worker thread is interrupted and abandoned, the hash of the class is recorded in the
+ * table of slow classes and a byte code listing of the methods is returned instead. The known slow classes are listed
+ * directly, unless the user retries their decompilation. At most {@link #MAX_ABANDONED_WORKERS} abandoned workers may
+ * run at once: beyond, the classes are listed without starting a worker.
+ */
+public final class DecompilationSupervisor {
+    /** Seconds, 0 for no limit */
+    public static final int DEFAULT_TIME_BUDGET = 60;
+    /** Megabytes allocated by the worker thread, 0 for no limit */
+    public static final int DEFAULT_ALLOCATION_BUDGET = 8192;
+
+    public static final String KNOWN_SLOW_CLASS = "Decompilation skipped: this class exceeded its budget before.";
+    protected static final int MAX_ABANDONED_WORKERS = 4;
+
+    private static final long POLL_INTERVAL = 100;
+    // Workers interrupted after their budget & still running
+    private static final AtomicInteger ABANDONED_WORKERS = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jd-gui-decompiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int ABANDONED = 2;
+
+    // Decompiled sources, weighted by length
+    private static final SharedContentCache<SourceKey, String> SHARED_SOURCES = new SharedContentCache<>(16L * 1024 * 1024, String::length);
+
+    private DecompilationSupervisor() {
+    }
+
+    private record SourceKey(ContentHash hash, String engineName, Map<String, String> preferences) {
+    }
+
+    /**
+     * Decompiles 'entry', patching the methods JD-Core v1 fails to decompile, see {@link FallbackDecompiler}.
+     */
+    public static FallbackDecompiler.Result decompile(Loader apiLoader, String entryInternalName, Map<String, String> preferences, String engineName,
+            Container.Entry entry, boolean skipKnownSlowClasses) throws IOException, TransformationException, IllegalAccessException, InvocationTargetException {
+        byte[] classFile = readClassFile(entry);
+        return supervise(() -> FallbackDecompiler.decompile(apiLoader, entryInternalName, preferences, engineName, entry), classFile, preferences, skipKnownSlowClasses);
+    }
+
+    /**
+     * Decompiles 'entry' to source code only.<br>
+     * <br>
+     * The source is shared with the identical classes, by content hash, of all open archives, decompiled with the same
+     * engine and decompilation preferences. Hyperlinks, declarations and line numbers are not shared: their references are updated
+     * by each page according to the indexes of its container.
+     */
+    public static String decompileSource(Loader apiLoader, String entryInternalName, Map<String, String> preferences, String engineName,
+            Container.Entry entry, boolean skipKnownSlowClasses) throws IOException, TransformationException, IllegalAccessException, InvocationTargetException {
+        byte[] classFile = readClassFile(entry);
+        SourceKey key = new SourceKey(ContentHash.of(entry, classFile), engineName, PreferenceScope.getDecompilationPreferences(preferences, engineName));
+        String source = SHARED_SOURCES.get(key);
+
+        if (source == null) {
+            Callable<FallbackDecompiler.Result> task = () -> {
+                FallbackDecompiler.Result result = FallbackDecompiler.decompile(apiLoader, entryInternalName, preferences, engineName, entry);
+                // Budget listings are not shared
+                SHARED_SOURCES.put(key, result.decompilationResult().getDecompiledOutput());
+                return result;
+            };
+            source = supervise(task, classFile, preferences, skipKnownSlowClasses).decompilationResult().getDecompiledOutput();
+        }
+
+        return source;
+    }
+
+    /**
+     * @return true if 'entry' exceeded its budget before: its decompilation is skipped unless retried
+     */
+    public static boolean isKnownSlow(Container.Entry entry) throws IOException {
+        return DecompilationFailureTable.getSlowClasses().contains(DecompilationFailureTable.hash(readClassFile(entry)));
+    }
+
+    private static byte[] readClassFile(Container.Entry entry) throws IOException {
+        return ClassBytesCache.getInstance().get(entry);
+    }
+
+    /**
+     * Decompiles with the selected engine only.
+     *
+     * @param classFile content of the class, hashed and listed if a budget is exceeded
+     */
+    public static DecompilationResult decompile(Loader apiLoader, String entryInternalName, Map<String, String> preferences, String engineName,
+            byte[] classFile, boolean skipKnownSlowClasses) throws IOException, TransformationException, IllegalAccessException, InvocationTargetException {
+        Callable<FallbackDecompiler.Result> task = () -> new FallbackDecompiler.Result(StandardTransformers.decompile(apiLoader, entryInternalName, preferences, engineName), false);
+        return supervise(task, classFile, preferences, skipKnownSlowClasses).decompilationResult();
+    }
+
+    private static FallbackDecompiler.Result supervise(Callable<FallbackDecompiler.Result> task, byte[] classFile, Map<String, String> preferences, boolean skipKnownSlowClasses)
+            throws IOException, TransformationException, IllegalAccessException, InvocationTargetException {
+        DecompilationFailureTable slowClasses = DecompilationFailureTable.getSlowClasses();
+        long hash = DecompilationFailureTable.hash(classFile);
+
+        if (skipKnownSlowClasses && slowClasses.contains(hash)) {
+            return new FallbackDecompiler.Result(createByteCodeListing(classFile, KNOWN_SLOW_CLASS), false);
+        }
+
+        long timeBudget = TimeUnit.SECONDS.toNanos(getBudget(preferences, TIME_BUDGET, DEFAULT_TIME_BUDGET));
+        long allocationBudget = getBudget(preferences, ALLOCATION_BUDGET, DEFAULT_ALLOCATION_BUDGET) * 1024 * 1024;
+        com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+
+        if (threadMXBean == null) {
+            allocationBudget = 0;
+        }
+        if (timeBudget == 0 && allocationBudget == 0) {
+            try {
+                return task.call();
+            } catch (IOException | TransformationException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        if (ABANDONED_WORKERS.get() >= MAX_ABANDONED_WORKERS) {
+            return new FallbackDecompiler.Result(createByteCodeListing(classFile, "Decompilation skipped: " + MAX_ABANDONED_WORKERS + " decompilations exceeding their budget are still running."), false);
+        }
+
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        // RUNNING, then DONE or ABANDONED, whichever comes first
+        AtomicInteger state = new AtomicInteger(RUNNING);
+        long[] allocatedBytesAtStart = new long[1];
+        Future<FallbackDecompiler.Result> future = EXECUTOR.submit(() -> {
+            Thread thread = Thread.currentThread();
+            try {
+                if (threadMXBean != null) {
+                    allocatedBytesAtStart[0] = threadMXBean.getThreadAllocatedBytes(thread.getId());
+                }
+                worker.set(thread);
+                return task.call();
+            } finally {
+                if (!state.compareAndSet(RUNNING, DONE)) {
+                    ABANDONED_WORKERS.decrementAndGet();
+                }
+            }
+        });
+        long start = System.nanoTime();
+
+        while (true) {
+            try {
+                FallbackDecompiler.Result result = future.get(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                // Retried with success
+                slowClasses.remove(hash);
+                return result;
+            } catch (TimeoutException e) {
+                String exceededBudget = null;
+
+                if (timeBudget > 0 && System.nanoTime() - start > timeBudget) {
+                    exceededBudget = "time budget of " + TimeUnit.NANOSECONDS.toSeconds(timeBudget) + " s";
+                } else if (allocationBudget > 0) {
+                    Thread thread = worker.get();
+                    if (thread != null && threadMXBean.getThreadAllocatedBytes(thread.getId()) - allocatedBytesAtStart[0] > allocationBudget) {
+                        exceededBudget = "allocation budget of " + (allocationBudget / (1024 * 1024)) + " MB";
+                    }
+                }
+
+                if (exceededBudget != null) {
+                    // Cooperative interruption, the thread is abandoned if the decompiler ignores it
+                    if (state.compareAndSet(RUNNING, ABANDONED)) {
+                        ABANDONED_WORKERS.incrementAndGet();
+                    }
+                    future.cancel(true);
+                    slowClasses.add(hash);
+                    return new FallbackDecompiler.Result(createByteCodeListing(classFile, "Decompilation aborted: " + exceededBudget + " exceeded."), false);
+                }
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                return new FallbackDecompiler.Result(createByteCodeListing(classFile, "Decompilation interrupted."), false);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new InvocationTargetException(cause);
+            }
+        }
+    }
+
+    public static DecompilationResult createByteCodeListing(byte[] classFile, String message) throws IOException {
+        JavaClass javaClass = new ClassParser(new ByteArrayInputStream(classFile), "").parse();
+
+        StringBuilder sb = new StringBuilder();
+        ByteCodeWriter byteCodeWriter = new ByteCodeWriter();
+
+        sb.append("/*\n * ").append(message).append("\n * Byte code of ").append(javaClass.getClassName()).append(":\n */\n");
+
+        for (Method method : javaClass.getMethods()) {
+            sb.append("\n// ").append(method.getName()).append(method.getSignature()).append('\n');
+            if (method.getCode() != null) {
+                sb.append(byteCodeWriter.write("// ", method)).append('\n');
+            }
+        }
+
+        DecompilationResult decompilationResult = new DecompilationResult();
+        decompilationResult.setDecompiledOutput(sb.toString());
+        return decompilationResult;
+    }
+
+    private static long getBudget(Map<String, String> preferences, String key, int defaultValue) {
+        String value = preferences.get(key);
+
+        if (value != null) {
+            try {
+                return Math.max(0, Integer.parseInt(value));
+            } catch (NumberFormatException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+
+        return defaultValue;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return sunThreadMXBean;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.MethodPatcher;
+
+import com.heliosdecompiler.transformerapi.StandardTransformers;
+import com.heliosdecompiler.transformerapi.TransformationException;
+import com.heliosdecompiler.transformerapi.common.Loader;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V0;
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+
+import jd.core.DecompilationResult;
+
+/**
+ * Decompiles a class and patches the methods JD-Core v1 fails to decompile with the methods decompiled by JD-Core v0.<br>
+ * <br>
+ * The hash of each class failing with JD-Core v1 is recorded in the {@link DecompilationFailureTable}. When the same
+ * class is decompiled again, JD-Core v0 is started in parallel with JD-Core v1 instead of after it.
+ */
+public final class FallbackDecompiler {
+
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jd-gui-fallback-decompiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FallbackDecompiler() {
+    }
+
+    /**
+     * @param patched true if the output contains methods decompiled by JD-Core v0: the positions of the declarations,
+     *                hyperlinks and line numbers of 'decompilationResult' are no longer valid.
+     */
+    public record Result(DecompilationResult decompilationResult, boolean patched) {
+    }
+
+    public static Result decompile(Loader apiLoader, String entryInternalName, Map<String, String> preferences, String engineName, Container.Entry entry)
+            throws IOException, TransformationException, IllegalAccessException, InvocationTargetException {
+        DecompilationFailureTable failureTable = DecompilationFailureTable.getInstance();
+        long hash = DecompilationFailureTable.hash(entry);
+        Future<DecompilationResult> futureV0 = null;
+
+        if (ENGINE_JD_CORE_V1.equals(engineName) && failureTable.contains(hash)) {
+            futureV0 = EXECUTOR.submit(() -> StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0));
+        }
+
+        try {
+            DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, engineName);
+
+            if (!decompilationResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
+                if (futureV0 != null) {
+                    failureTable.remove(hash);
+                }
+                return new Result(decompilationResult, false);
+            }
+
+            failureTable.add(hash);
+
+            /*
+             * Sometimes JD-Core v0 decompiles with success where JD-Core v1 fails.
+             * In this case, patch JD-Core v0 method into JD-Core v1 method.
+             * It will appear with comment 'Patched from JD-Core V0'
+             */
+            DecompilationResult sourceCodeV0 = null;
+
+            if (futureV0 != null) {
+                try {
+                    sourceCodeV0 = futureV0.get();
+                } catch (InterruptedException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                    // Restore interrupted state...
+                    Thread.currentThread().interrupt();
+                    // Interrupted by the supervisor: no second decompilation, the failed methods are not patched
+                    return new Result(decompilationResult, false);
+                } catch (ExecutionException e) {
+                    assert ExceptionUtil.printStackTrace(e);
+                }
+            }
+            if (sourceCodeV0 == null) {
+                sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
+            }
+
+            decompilationResult.setDecompiledOutput(MethodPatcher.patchCode(decompilationResult, sourceCodeV0, entry));
+            return new Result(decompilationResult, true);
+        } finally {
+            if (futureV0 != null) {
+                // No effect once consumed: the speculative decompilation never outlives this one
+                futureV0.cancel(true);
+            }
+        }
+    }
+}
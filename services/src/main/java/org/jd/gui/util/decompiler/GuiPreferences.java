@@ -10,6 +10,7 @@ package org.jd.gui.util.decompiler;
 public final class GuiPreferences {
 
     public static final String MAXIMUM_DEPTH_KEY        = "DirectoryIndexerPreferences.maximumDepth";
+    public static final String WATCH_DIRECTORIES_KEY    = "DirectoryIndexerPreferences.watchDirectories";
     public static final String FONT_SIZE_KEY            = "ViewerPreferences.fontSize";
     public static final String ERROR_BACKGROUND_COLOR   = "JdGuiPreferences.errorBackgroundColor";
     public static final String DECOMPILE_ENGINE         = "ClassFileDecompilerPreferences.decompileEngine";
@@ -18,6 +19,8 @@ public final class GuiPreferences {
     public static final String SHOW_COMPILER_INFO       = "ClassFileDecompilerPreferences.showCompilerInfo";
     public static final String ADVANCED_CLASS_LOOKUP    = "ClassFileDecompilerPreferences.advancedClassLookup";
     public static final String REMOVE_UNNECESSARY_CASTS = "ClassFileDecompilerPreferences.removeUnnecessaryCasts";
+    public static final String TIME_BUDGET              = "ClassFileDecompilerPreferences.timeBudget";
+    public static final String ALLOCATION_BUDGET        = "ClassFileDecompilerPreferences.allocationBudget";
 
     private GuiPreferences() {
     }
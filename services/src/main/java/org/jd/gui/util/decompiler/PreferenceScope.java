@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.decompiler;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static jd.core.preferences.Preferences.REALIGN_LINE_NUMBERS;
+import static org.jd.gui.util.decompiler.GuiPreferences.ADVANCED_CLASS_LOOKUP;
+import static org.jd.gui.util.decompiler.GuiPreferences.ALLOCATION_BUDGET;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.ERROR_BACKGROUND_COLOR;
+import static org.jd.gui.util.decompiler.GuiPreferences.REMOVE_UNNECESSARY_CASTS;
+import static org.jd.gui.util.decompiler.GuiPreferences.SHOW_COMPILER_ERRORS;
+import static org.jd.gui.util.decompiler.GuiPreferences.SHOW_COMPILER_INFO;
+import static org.jd.gui.util.decompiler.GuiPreferences.SHOW_COMPILER_WARNINGS;
+import static org.jd.gui.util.decompiler.GuiPreferences.TIME_BUDGET;
+
+/**
+ * What a preference affects, used by the pages to redo only the work depending on the changed preferences.<br>
+ * <br>
+ * Keys that are neither known nor registered by a decompiler are assumed to affect the output of all decompilers.
+ */
+public enum PreferenceScope {
+    /** Rendering of the views only: fonts, tabs, tree icons, indexers, source loaders and decompilation budgets */
+    PRESENTATION,
+    /** Highlights of the decompiled source */
+    HIGHLIGHTING,
+    /** Problems reported by the parser of the decompiled source */
+    PARSING,
+    /** Output of all decompilers */
+    DECOMPILATION,
+    /** Output of the decompilers having registered the key */
+    ENGINE;
+
+    private static final Map<String, PreferenceScope> KEY_SCOPES = Map.of(
+            ERROR_BACKGROUND_COLOR, HIGHLIGHTING,
+            SHOW_COMPILER_ERRORS, PARSING,
+            SHOW_COMPILER_WARNINGS, PARSING,
+            SHOW_COMPILER_INFO, PARSING,
+            DECOMPILE_ENGINE, DECOMPILATION,
+            ADVANCED_CLASS_LOOKUP, DECOMPILATION,
+            REMOVE_UNNECESSARY_CASTS, DECOMPILATION,
+            // Budgets of the supervisor: the output of a decompilation within them does not change
+            TIME_BUDGET, PRESENTATION,
+            ALLOCATION_BUDGET, PRESENTATION,
+            // Read by the pages for all decompilers
+            REALIGN_LINE_NUMBERS, DECOMPILATION);
+
+    private static final List<String> PRESENTATION_PREFIXES = List.of(
+            "UI", "ViewerPreferences.", "DirectoryIndexerPreferences.", "MavenOrgSourceLoaderPreferencesProvider.", "History.");
+
+    /** Key -> names of the decompilers reading it */
+    private static final Map<String, Set<String>> ENGINE_KEYS = new ConcurrentHashMap<>();
+
+    /**
+     * Declares the keys of the options of a decompiler.
+     */
+    public static void registerEngineKeys(String engineName, Collection<String> keys) {
+        for (String key : keys) {
+            ENGINE_KEYS.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(engineName);
+        }
+    }
+
+    public static PreferenceScope of(String key) {
+        PreferenceScope scope = KEY_SCOPES.get(key);
+
+        if (scope != null) {
+            return scope;
+        }
+        if (ENGINE_KEYS.containsKey(key)) {
+            return ENGINE;
+        }
+        for (String prefix : PRESENTATION_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return PRESENTATION;
+            }
+        }
+
+        return DECOMPILATION;
+    }
+
+    /**
+     * @return a copy of the preferences of 'scope'
+     */
+    public static Map<String, String> getPreferences(Map<String, String> preferences, PreferenceScope scope) {
+        Map<String, String> subset = new HashMap<>();
+
+        for (Map.Entry<String, String> preference : preferences.entrySet()) {
+            if (of(preference.getKey()) == scope) {
+                subset.put(preference.getKey(), preference.getValue());
+            }
+        }
+
+        return subset;
+    }
+
+    /**
+     * @return a copy of the preferences the output of the selected decompiler depends on
+     */
+    public static Map<String, String> getDecompilationPreferences(Map<String, String> preferences) {
+        return getDecompilationPreferences(preferences, preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1));
+    }
+
+    /**
+     * @return a copy of the preferences the output of the decompiler 'engineName' depends on
+     */
+    public static Map<String, String> getDecompilationPreferences(Map<String, String> preferences, String engineName) {
+        Map<String, String> subset = new HashMap<>();
+
+        for (Map.Entry<String, String> preference : preferences.entrySet()) {
+            String key = preference.getKey();
+            PreferenceScope scope = of(key);
+
+            if (scope == DECOMPILATION || (scope == ENGINE && ENGINE_KEYS.get(key).contains(engineName))) {
+                subset.put(key, preference.getValue());
+            }
+        }
+
+        return subset;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+/**
+ * Set of (index name, key) pairs answering "maybe" or "no", in about 10 bits per pair for 1% of false positives.
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+    private static final int MAX_HASH_COUNT = 16;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedCount     number of pairs to add
+     * @param falsePositiveRate probability of a "maybe" for a missing pair, once 'expectedCount' pairs are added
+     */
+    public BloomFilter(int expectedCount, double falsePositiveRate) {
+        int n = Math.max(1, expectedCount);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+
+        this.bits = new long[(int) Math.max(1, (m + 63) >>> 6)];
+        this.bitCount = bits.length * 64L;
+        this.hashCount = Math.max(1, Math.min(MAX_HASH_COUNT, (int) Math.round(bitCount / (double) n * LN2)));
+    }
+
+    public void add(String indexName, String key) {
+        long hash = hash(indexName, key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return false if the pair has never been added
+     */
+    public boolean mightContain(String indexName, String key) {
+        long hash = hash(indexName, key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the size of the filter in bytes
+     */
+    public int size() { return bits.length * 8; }
+
+    /**
+     * FNV-1a on the characters of the key, seeded by the index name, then mixed by the finalizer of MurmurHash3.
+     */
+    static long hash(String indexName, String key) {
+        long h = 0xCBF29CE484222325L ^ indexName.hashCode();
+
+        for (int i = 0, length = key.length(); i < length; i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
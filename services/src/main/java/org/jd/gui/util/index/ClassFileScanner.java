@@ -0,0 +1,896 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.core.v1.util.StringConstants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.apache.bcel.Const.ANEWARRAY;
+import static org.apache.bcel.Const.CHECKCAST;
+import static org.apache.bcel.Const.CONSTANT_Class;
+import static org.apache.bcel.Const.CONSTANT_Double;
+import static org.apache.bcel.Const.CONSTANT_Dynamic;
+import static org.apache.bcel.Const.CONSTANT_Fieldref;
+import static org.apache.bcel.Const.CONSTANT_Float;
+import static org.apache.bcel.Const.CONSTANT_Integer;
+import static org.apache.bcel.Const.CONSTANT_InterfaceMethodref;
+import static org.apache.bcel.Const.CONSTANT_InvokeDynamic;
+import static org.apache.bcel.Const.CONSTANT_Long;
+import static org.apache.bcel.Const.CONSTANT_MethodHandle;
+import static org.apache.bcel.Const.CONSTANT_MethodType;
+import static org.apache.bcel.Const.CONSTANT_Methodref;
+import static org.apache.bcel.Const.CONSTANT_Module;
+import static org.apache.bcel.Const.CONSTANT_NameAndType;
+import static org.apache.bcel.Const.CONSTANT_Package;
+import static org.apache.bcel.Const.CONSTANT_String;
+import static org.apache.bcel.Const.CONSTANT_Utf8;
+import static org.apache.bcel.Const.GETFIELD;
+import static org.apache.bcel.Const.GETSTATIC;
+import static org.apache.bcel.Const.IINC;
+import static org.apache.bcel.Const.INSTANCEOF;
+import static org.apache.bcel.Const.INVOKEINTERFACE;
+import static org.apache.bcel.Const.INVOKESPECIAL;
+import static org.apache.bcel.Const.INVOKESTATIC;
+import static org.apache.bcel.Const.INVOKEVIRTUAL;
+import static org.apache.bcel.Const.LDC;
+import static org.apache.bcel.Const.LDC_W;
+import static org.apache.bcel.Const.LOOKUPSWITCH;
+import static org.apache.bcel.Const.MULTIANEWARRAY;
+import static org.apache.bcel.Const.NEW;
+import static org.apache.bcel.Const.PUTFIELD;
+import static org.apache.bcel.Const.PUTSTATIC;
+import static org.apache.bcel.Const.TABLESWITCH;
+import static org.apache.bcel.Const.WIDE;
+
+/**
+ * Collects the declared and referenced names of a class file without building a ClassReader.<br>
+ * <br>
+ * The class file is read into a reusable buffer, then the constant pool, the class header, the field and method
+ * headers and their annotations are parsed in place. Code attributes are skipped, unless the usages are recorded.
+ * Strings are decoded through a shared {@link Utf8Dictionary}, and descriptors & signatures are parsed on the encoded
+ * bytes, so that only the names not yet seen in the archive are allocated.<br>
+ * <br>
+ * The collected sets are the same as the ones produced by an ASM ClassVisitor called with SKIP_CODE | SKIP_DEBUG |
+ * SKIP_FRAMES, whose annotation visitors index the enum and nested annotation types, and a SignatureVisitor
+ * indexing the class types of the field & method descriptors.<br>
+ * <br>
+ * When the usages are recorded, the instructions referencing a type, a field, a method or a constructor are located
+ * by method, bytecode offset and line number, see {@link #getUsageTable()}.<br>
+ * <br>
+ * Unsafe thread implementation.
+ */
+public class ClassFileScanner {
+    // Length of the instructions, 0 for the instructions of variable length
+    private static final byte[] INSTRUCTION_LENGTHS = new byte[256];
+
+    static {
+        Arrays.fill(INSTRUCTION_LENGTHS, (byte)1);
+        // bipush, ldc, iload..aload, istore..astore, ret, newarray
+        setInstructionLengths(2, 0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3A, 0xA9, 0xBC);
+        // sipush, ldc_w, ldc2_w, iinc, if<cond>..jsr, get/put field & static, invokevirtual..invokestatic, new,
+        // anewarray, checkcast, instanceof, ifnull, ifnonnull
+        setInstructionLengths(3, 0x11, 0x13, 0x14, 0x84, 0xB2, 0xB3, 0xB4, 0xB5, 0xB6, 0xB7, 0xB8, 0xBB, 0xBD, 0xC0, 0xC1, 0xC6, 0xC7);
+        for (int opcode = 0x99; opcode <= 0xA8; opcode++) {
+            INSTRUCTION_LENGTHS[opcode] = 3;
+        }
+        // multianewarray
+        setInstructionLengths(4, 0xC5);
+        // invokeinterface, invokedynamic, goto_w, jsr_w
+        setInstructionLengths(5, 0xB9, 0xBA, 0xC8, 0xC9);
+        // tableswitch, lookupswitch, wide
+        setInstructionLengths(0, 0xAA, 0xAB, 0xC4);
+    }
+
+    private final Set<String> typeDeclarations = new HashSet<>();
+    private final Set<String> constructorDeclarations = new HashSet<>();
+    private final Set<String> methodDeclarations = new HashSet<>();
+    private final Set<String> fieldDeclarations = new HashSet<>();
+    private final Set<String> typeReferences = new HashSet<>();
+    private final Set<String> constructorReferences = new HashSet<>();
+    private final Set<String> methodReferences = new HashSet<>();
+    private final Set<String> fieldReferences = new HashSet<>();
+    private final Set<String> strings = new HashSet<>();
+    private final Set<String> superTypeNames = new HashSet<>();
+
+    private final Utf8Dictionary dictionary;
+
+    private byte[] buffer = new byte[8192];
+    private int length;
+    // Offset of the first byte following the tag of each constant pool item, 0 for the second slot of long & double items
+    private int[] itemOffsets = new int[1024];
+    private String[] itemStrings = new String[1024];
+    private boolean[] descriptorFlags = new boolean[1024];
+    private int[] descriptors = new int[256];
+    private int descriptorCount;
+    private String typeName;
+
+    private boolean recordingUsages;
+    // Target index + 1 of each constant pool item referenced by the code, 0 if not yet referenced, -1 if not a target
+    private int[] itemTargets = new int[1024];
+    private String[] targetOwners = new String[64];
+    private String[] targetNames = new String[64];
+    private String[] targetDescriptors = new String[64];
+    private int targetCount;
+    private String[] methodNames = new String[64];
+    private String[] methodDescriptors = new String[64];
+    private int methodCount;
+    private int[] usageTargets = new int[256];
+    private int[] usageLocations = new int[256];
+    private int[] usageLineNumbers = new int[256];
+    private int usageCount;
+    // Line number table of the current method: start offset in the high 16 bits, line number in the low 16 bits
+    private long[] lineNumbers = new long[64];
+
+    public ClassFileScanner() {
+        this(new Utf8Dictionary());
+    }
+
+    public ClassFileScanner(Utf8Dictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public Utf8Dictionary getDictionary() { return dictionary; }
+
+    public String getTypeName() { return typeName; }
+    public Set<String> getTypeDeclarations() { return typeDeclarations; }
+    public Set<String> getConstructorDeclarations() { return constructorDeclarations; }
+    public Set<String> getMethodDeclarations() { return methodDeclarations; }
+    public Set<String> getFieldDeclarations() { return fieldDeclarations; }
+    public Set<String> getTypeReferences() { return typeReferences; }
+    public Set<String> getConstructorReferences() { return constructorReferences; }
+    public Set<String> getMethodReferences() { return methodReferences; }
+    public Set<String> getFieldReferences() { return fieldReferences; }
+    public Set<String> getStrings() { return strings; }
+    public Set<String> getSuperTypeNames() { return superTypeNames; }
+
+    public boolean isRecordingUsages() { return recordingUsages; }
+
+    /**
+     * @param recordingUsages true to parse the Code attributes and record the references of the instructions
+     */
+    public void setRecordingUsages(boolean recordingUsages) { this.recordingUsages = recordingUsages; }
+
+    /**
+     * @return the references recorded by the last scan, grouped by target, {@link UsageTable#EMPTY} if the usages are
+     *         not recorded
+     */
+    public UsageTable getUsageTable() {
+        if (!recordingUsages) {
+            return UsageTable.EMPTY;
+        }
+
+        // Counting sort of the references by target, keeping the order of the code
+        int[] starts = new int[targetCount + 1];
+
+        for (int i = 0; i < usageCount; i++) {
+            starts[usageTargets[i] + 1]++;
+        }
+        for (int i = 0; i < targetCount; i++) {
+            starts[i + 1] += starts[i];
+        }
+
+        int[] next = Arrays.copyOf(starts, targetCount);
+        int[] locations = new int[usageCount];
+        char[] lines = new char[usageCount];
+
+        for (int i = 0; i < usageCount; i++) {
+            int index = next[usageTargets[i]]++;
+            locations[index] = usageLocations[i];
+            lines[index] = (char)usageLineNumbers[i];
+        }
+
+        return new UsageTable(typeName, Arrays.copyOf(targetOwners, targetCount), Arrays.copyOf(targetNames, targetCount),
+                Arrays.copyOf(targetDescriptors, targetCount), starts, Arrays.copyOf(methodNames, methodCount),
+                Arrays.copyOf(methodDescriptors, methodCount), locations, lines);
+    }
+
+    public void scan(InputStream inputStream) throws IOException {
+        load(inputStream);
+        scan();
+    }
+
+    /**
+     * Reads the class file into the reusable buffer, without scanning it.
+     */
+    public void load(InputStream inputStream) throws IOException {
+        int count;
+
+        length = 0;
+
+        while ((count = inputStream.read(buffer, length, buffer.length - length)) != -1) {
+            length += count;
+
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+    }
+
+    /**
+     * @return the buffer holding the last class file read, from offset 0 to {@link #getLength()}
+     */
+    public byte[] getBuffer() { return buffer; }
+
+    public int getLength() { return length; }
+
+    public void scan(byte[] bytes, int offset, int length) {
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+
+        System.arraycopy(bytes, offset, buffer, 0, length);
+        this.length = length;
+
+        scan();
+    }
+
+    /**
+     * Scans the class file loaded in the buffer.
+     */
+    public void scan() {
+        typeDeclarations.clear();
+        constructorDeclarations.clear();
+        methodDeclarations.clear();
+        fieldDeclarations.clear();
+        typeReferences.clear();
+        constructorReferences.clear();
+        methodReferences.clear();
+        fieldReferences.clear();
+        strings.clear();
+        superTypeNames.clear();
+        descriptorCount = 0;
+        typeName = null;
+        targetCount = 0;
+        methodCount = 0;
+        usageCount = 0;
+
+        if (length < 10) {
+            throw new IllegalArgumentException("Invalid class file");
+        }
+
+        int offset = readConstantPool();
+
+        // Class header
+        typeName = readClassName(readUnsignedShort(offset + 2));
+        typeDeclarations.add(typeName);
+
+        int superClassIndex = readUnsignedShort(offset + 4);
+
+        if (superClassIndex != 0) {
+            superTypeNames.add(readClassName(superClassIndex));
+        }
+
+        int interfaceCount = readUnsignedShort(offset + 6);
+
+        offset += 8;
+
+        for (int i = 0; i < interfaceCount; i++, offset += 2) {
+            superTypeNames.add(readClassName(readUnsignedShort(offset)));
+        }
+
+        // Fields
+        int fieldCount = readUnsignedShort(offset);
+
+        offset += 2;
+
+        for (int i = 0; i < fieldCount; i++) {
+            offset = readMember(offset, false);
+        }
+
+        // Methods
+        int methodCount = readUnsignedShort(offset);
+
+        offset += 2;
+
+        for (int i = 0; i < methodCount; i++) {
+            offset = readMember(offset, true);
+        }
+
+        // Class attributes
+        int attributeCount = readUnsignedShort(offset);
+
+        offset += 2;
+
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort(offset));
+            int attributeOffset = offset + 6;
+
+            offset = attributeOffset + readInt(offset + 2);
+            readAnnotationAttribute(attributeName, attributeOffset);
+        }
+
+        // Descriptors
+        for (int i = 0; i < descriptorCount; i++) {
+            int utf8Offset = itemOffsets[descriptors[i]];
+            readSignature(utf8Offset + 2, utf8Offset + 2 + readUnsignedShort(utf8Offset));
+        }
+
+        // References
+        readReferences();
+    }
+
+    protected int readConstantPool() {
+        int itemCount = readUnsignedShort(8);
+
+        if (itemOffsets.length < itemCount) {
+            int capacity = Math.max(itemCount, itemOffsets.length * 2);
+            itemOffsets = new int[capacity];
+            itemStrings = new String[capacity];
+            descriptorFlags = new boolean[capacity];
+            itemTargets = new int[capacity];
+        } else {
+            Arrays.fill(itemStrings, 0, itemCount, null);
+            Arrays.fill(descriptorFlags, 0, itemCount, false);
+
+            if (recordingUsages) {
+                Arrays.fill(itemTargets, 0, itemCount, 0);
+            }
+        }
+
+        int offset = 10;
+
+        for (int i = 1; i < itemCount; i++) {
+            int tag = buffer[offset] & 0xFF;
+
+            itemOffsets[i] = offset + 1;
+
+            switch (tag) {
+                case CONSTANT_Utf8:
+                    offset += 3 + readUnsignedShort(offset + 1);
+                    break;
+                case CONSTANT_Integer, CONSTANT_Float, CONSTANT_Fieldref, CONSTANT_Methodref, CONSTANT_InterfaceMethodref,
+                     CONSTANT_NameAndType, CONSTANT_Dynamic, CONSTANT_InvokeDynamic:
+                    offset += 5;
+                    break;
+                case CONSTANT_Long, CONSTANT_Double:
+                    offset += 9;
+                    itemOffsets[++i] = 0;
+                    break;
+                case CONSTANT_Class, CONSTANT_String, CONSTANT_MethodType, CONSTANT_Module, CONSTANT_Package:
+                    offset += 3;
+                    break;
+                case CONSTANT_MethodHandle:
+                    offset += 4;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid constant pool tag: " + tag);
+            }
+        }
+
+        return offset;
+    }
+
+    protected int readMember(int offset, boolean method) {
+        String name = readUtf8(readUnsignedShort(offset + 2));
+        int descriptorIndex = readUnsignedShort(offset + 4);
+        int signatureIndex = 0;
+        int attributeCount = readUnsignedShort(offset + 6);
+        int methodIndex = -1;
+
+        if (method && recordingUsages) {
+            methodIndex = addMethod(name, readUtf8(descriptorIndex));
+        }
+
+        offset += 8;
+
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort(offset));
+            int attributeOffset = offset + 6;
+
+            offset = attributeOffset + readInt(offset + 2);
+
+            if (methodIndex != -1 && "Code".equals(attributeName)) {
+                readCode(attributeOffset, methodIndex);
+            } else if ("Signature".equals(attributeName)) {
+                signatureIndex = readUnsignedShort(attributeOffset);
+            } else if (method && "Exceptions".equals(attributeName)) {
+                int exceptionCount = readUnsignedShort(attributeOffset);
+
+                for (int j = 0; j < exceptionCount; j++) {
+                    typeReferences.add(readClassName(readUnsignedShort(attributeOffset + 2 + 2 * j)));
+                }
+            } else if (method && ("RuntimeVisibleParameterAnnotations".equals(attributeName) || "RuntimeInvisibleParameterAnnotations".equals(attributeName))) {
+                int parameterCount = buffer[attributeOffset] & 0xFF;
+
+                attributeOffset++;
+
+                for (int j = 0; j < parameterCount; j++) {
+                    attributeOffset = readAnnotations(attributeOffset, false);
+                }
+            } else {
+                readAnnotationAttribute(attributeName, attributeOffset);
+            }
+        }
+
+        if (!method) {
+            fieldDeclarations.add(name);
+        } else if (StringConstants.INSTANCE_CONSTRUCTOR.equals(name)) {
+            constructorDeclarations.add(typeName);
+        } else if (!StringConstants.CLASS_CONSTRUCTOR.equals(name)) {
+            methodDeclarations.add(name);
+        }
+
+        addDescriptor(signatureIndex == 0 ? descriptorIndex : signatureIndex);
+
+        return offset;
+    }
+
+    protected void readAnnotationAttribute(String attributeName, int offset) {
+        if ("RuntimeVisibleAnnotations".equals(attributeName) || "RuntimeInvisibleAnnotations".equals(attributeName)) {
+            readAnnotations(offset, false);
+        } else if ("RuntimeVisibleTypeAnnotations".equals(attributeName) || "RuntimeInvisibleTypeAnnotations".equals(attributeName)) {
+            readAnnotations(offset, true);
+        }
+    }
+
+    protected int readAnnotations(int offset, boolean typeAnnotations) {
+        int annotationCount = readUnsignedShort(offset);
+
+        offset += 2;
+
+        for (int i = 0; i < annotationCount; i++) {
+            if (typeAnnotations) {
+                offset = skipTypeAnnotationTarget(offset);
+            }
+
+            addDescriptor(readUnsignedShort(offset));
+            offset = readElementValuePairs(offset + 2, true);
+        }
+
+        return offset;
+    }
+
+    protected int skipTypeAnnotationTarget(int offset) {
+        int targetType = buffer[offset] & 0xFF;
+
+        switch (targetType) {
+            case 0x00, 0x01, 0x16: // Type parameter, formal parameter
+                offset += 2;
+                break;
+            case 0x10, 0x11, 0x12, 0x17, 0x42, 0x43, 0x44, 0x45, 0x46: // Super type, type parameter bound, throws, catch, offset
+                offset += 3;
+                break;
+            case 0x47, 0x48, 0x49, 0x4A, 0x4B: // Type argument
+                offset += 4;
+                break;
+            case 0x13, 0x14, 0x15: // Field, return type, receiver
+                offset += 1;
+                break;
+            case 0x40, 0x41: // Local variable
+                offset += 3 + 6 * readUnsignedShort(offset + 1);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid type annotation target: " + targetType);
+        }
+
+        // Type path
+        return offset + 1 + 2 * (buffer[offset] & 0xFF);
+    }
+
+    /**
+     * @param indexed false to skip the values, like ASM does for the content of arrays when the visitor returned by
+     *                'visitArray' is null
+     */
+    protected int readElementValuePairs(int offset, boolean indexed) {
+        int pairCount = readUnsignedShort(offset);
+
+        offset += 2;
+
+        for (int i = 0; i < pairCount; i++) {
+            offset = readElementValue(offset + 2, indexed);
+        }
+
+        return offset;
+    }
+
+    protected int readElementValue(int offset, boolean indexed) {
+        int tag = buffer[offset++] & 0xFF;
+
+        switch (tag) {
+            case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c':
+                return offset + 2;
+            case 'e':
+                if (indexed) {
+                    addDescriptor(readUnsignedShort(offset));
+                }
+                return offset + 4;
+            case '@':
+                if (indexed) {
+                    addDescriptor(readUnsignedShort(offset));
+                }
+                return readElementValuePairs(offset + 2, indexed);
+            case '[':
+                int valueCount = readUnsignedShort(offset);
+
+                offset += 2;
+
+                for (int i = 0; i < valueCount; i++) {
+                    offset = readElementValue(offset, false);
+                }
+                return offset;
+            default:
+                throw new IllegalArgumentException("Invalid element value tag: " + (char)tag);
+        }
+    }
+
+    protected void readReferences() {
+        int itemCount = readUnsignedShort(8);
+
+        for (int i = 1; i < itemCount; i++) {
+            int itemOffset = itemOffsets[i];
+
+            if (itemOffset != 0) {
+                switch (buffer[itemOffset - 1]) {
+                    case CONSTANT_Class:
+                        int utf8Offset = itemOffsets[readUnsignedShort(itemOffset)];
+
+                        if (buffer[utf8Offset + 2] == '[') {
+                            readType(utf8Offset + 2);
+                        } else {
+                            typeReferences.add(readClassName(i));
+                        }
+                        break;
+                    case CONSTANT_String:
+                        strings.add(readUtf8(readUnsignedShort(itemOffset)));
+                        break;
+                    case CONSTANT_Fieldref:
+                        int nameAndTypeOffset = itemOffsets[readUnsignedShort(itemOffset + 2)];
+
+                        if (buffer[nameAndTypeOffset - 1] == CONSTANT_NameAndType) {
+                            fieldReferences.add(readUtf8(readUnsignedShort(nameAndTypeOffset)));
+                        }
+                        break;
+                    case CONSTANT_Methodref, CONSTANT_InterfaceMethodref:
+                        nameAndTypeOffset = itemOffsets[readUnsignedShort(itemOffset + 2)];
+
+                        if (buffer[nameAndTypeOffset - 1] == CONSTANT_NameAndType) {
+                            String methodName = readUtf8(readUnsignedShort(nameAndTypeOffset));
+
+                            if (StringConstants.INSTANCE_CONSTRUCTOR.equals(methodName)) {
+                                constructorReferences.add(readClassName(readUnsignedShort(itemOffset)));
+                            } else {
+                                methodReferences.add(methodName);
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    protected int addMethod(String name, String descriptor) {
+        if (methodCount == methodNames.length) {
+            methodNames = Arrays.copyOf(methodNames, methodCount * 2);
+            methodDescriptors = Arrays.copyOf(methodDescriptors, methodCount * 2);
+        }
+
+        methodNames[methodCount] = name;
+        methodDescriptors[methodCount] = descriptor;
+
+        return methodCount++;
+    }
+
+    /**
+     * Records the references of the instructions of a Code attribute.
+     */
+    protected void readCode(int offset, int methodIndex) {
+        int codeStart = offset + 8;
+        int codeLength = readInt(offset + 4);
+        int codeEnd = codeStart + codeLength;
+
+        // Line number tables, following the exception table
+        offset = codeEnd + 2 + 8 * readUnsignedShort(codeEnd);
+
+        int attributeCount = readUnsignedShort(offset);
+        int lineNumberCount = 0;
+
+        offset += 2;
+
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = readUtf8(readUnsignedShort(offset));
+            int attributeOffset = offset + 6;
+
+            offset = attributeOffset + readInt(offset + 2);
+
+            if ("LineNumberTable".equals(attributeName)) {
+                int count = readUnsignedShort(attributeOffset);
+
+                if (lineNumbers.length < lineNumberCount + count) {
+                    lineNumbers = Arrays.copyOf(lineNumbers, Math.max(lineNumberCount + count, lineNumbers.length * 2));
+                }
+
+                for (int j = 0; j < count; j++) {
+                    int entryOffset = attributeOffset + 2 + 4 * j;
+                    lineNumbers[lineNumberCount++] = ((long)readUnsignedShort(entryOffset) << 16) | readUnsignedShort(entryOffset + 2);
+                }
+            }
+        }
+
+        Arrays.sort(lineNumbers, 0, lineNumberCount);
+
+        // Instructions
+        int lineNumberIndex = 0;
+        int lineNumber = 0;
+
+        for (int pc = 0; pc < codeLength;) {
+            while (lineNumberIndex < lineNumberCount && (lineNumbers[lineNumberIndex] >>> 16) <= pc) {
+                lineNumber = (int)lineNumbers[lineNumberIndex++] & 0xFFFF;
+            }
+
+            int instructionOffset = codeStart + pc;
+            int opcode = buffer[instructionOffset] & 0xFF;
+
+            switch (opcode) {
+                case GETSTATIC, PUTSTATIC, GETFIELD, PUTFIELD, INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC, INVOKEINTERFACE,
+                     NEW, ANEWARRAY, CHECKCAST, INSTANCEOF, MULTIANEWARRAY, LDC_W:
+                    addUsage(readUnsignedShort(instructionOffset + 1), methodIndex, pc, lineNumber);
+                    pc += INSTRUCTION_LENGTHS[opcode];
+                    break;
+                case LDC:
+                    addUsage(buffer[instructionOffset + 1] & 0xFF, methodIndex, pc, lineNumber);
+                    pc += 2;
+                    break;
+                case TABLESWITCH:
+                    // Padding to a multiple of 4, default, low, high & jump offsets
+                    int padded = (pc + 4) & ~3;
+                    pc = padded + 12 + 4 * (readInt(codeStart + padded + 8) - readInt(codeStart + padded + 4) + 1);
+                    break;
+                case LOOKUPSWITCH:
+                    // Padding to a multiple of 4, default, pair count & pairs
+                    padded = (pc + 4) & ~3;
+                    pc = padded + 8 + 8 * readInt(codeStart + padded + 4);
+                    break;
+                case WIDE:
+                    pc += ((buffer[instructionOffset + 1] & 0xFF) == IINC) ? 6 : 4;
+                    break;
+                default:
+                    pc += INSTRUCTION_LENGTHS[opcode];
+                    break;
+            }
+        }
+    }
+
+    protected void addUsage(int itemIndex, int methodIndex, int pc, int lineNumber) {
+        int target = itemTargets[itemIndex] - 1;
+
+        if (target == -1) {
+            target = addTarget(itemIndex);
+        }
+
+        if (target >= 0) {
+            if (usageCount == usageTargets.length) {
+                usageTargets = Arrays.copyOf(usageTargets, usageCount * 2);
+                usageLocations = Arrays.copyOf(usageLocations, usageCount * 2);
+                usageLineNumbers = Arrays.copyOf(usageLineNumbers, usageCount * 2);
+            }
+
+            usageTargets[usageCount] = target;
+            usageLocations[usageCount] = (methodIndex << 16) | pc;
+            usageLineNumbers[usageCount] = lineNumber;
+            usageCount++;
+        }
+    }
+
+    /**
+     * @return the index of the new target, -2 if the item is not a type, a field, a method or a constructor
+     */
+    protected int addTarget(int itemIndex) {
+        int itemOffset = itemOffsets[itemIndex];
+        String owner;
+        String name = null;
+        String descriptor = null;
+
+        switch (buffer[itemOffset - 1]) {
+            case CONSTANT_Class:
+                int utf8Offset = itemOffsets[readUnsignedShort(itemOffset)];
+
+                if (buffer[utf8Offset + 2] != '[') {
+                    owner = readClassName(itemIndex);
+                } else {
+                    // Element type of an array type
+                    int start = utf8Offset + 2;
+                    int end = start + readUnsignedShort(utf8Offset);
+
+                    while (buffer[start] == '[') {
+                        start++;
+                    }
+
+                    if (buffer[start] != 'L') {
+                        itemTargets[itemIndex] = -1;
+                        return -2;
+                    }
+
+                    owner = dictionary.get(buffer, start + 1, end - start - 2);
+                }
+                break;
+            case CONSTANT_Fieldref, CONSTANT_Methodref, CONSTANT_InterfaceMethodref:
+                int nameAndTypeOffset = itemOffsets[readUnsignedShort(itemOffset + 2)];
+
+                owner = readClassName(readUnsignedShort(itemOffset));
+                name = readUtf8(readUnsignedShort(nameAndTypeOffset));
+                descriptor = readUtf8(readUnsignedShort(nameAndTypeOffset + 2));
+                break;
+            default:
+                // Constant loaded by 'ldc'
+                itemTargets[itemIndex] = -1;
+                return -2;
+        }
+
+        if (targetCount == targetOwners.length) {
+            targetOwners = Arrays.copyOf(targetOwners, targetCount * 2);
+            targetNames = Arrays.copyOf(targetNames, targetCount * 2);
+            targetDescriptors = Arrays.copyOf(targetDescriptors, targetCount * 2);
+        }
+
+        targetOwners[targetCount] = owner;
+        targetNames[targetCount] = name;
+        targetDescriptors[targetCount] = descriptor;
+        itemTargets[itemIndex] = targetCount + 1;
+
+        return targetCount++;
+    }
+
+    protected void addDescriptor(int utf8Index) {
+        if (!descriptorFlags[utf8Index]) {
+            descriptorFlags[utf8Index] = true;
+
+            if (descriptorCount == descriptors.length) {
+                descriptors = Arrays.copyOf(descriptors, descriptorCount * 2);
+            }
+
+            descriptors[descriptorCount++] = utf8Index;
+        }
+    }
+
+    /**
+     * Same parsing as 'org.objectweb.asm.signature.SignatureReader.accept'.
+     */
+    protected void readSignature(int offset, int end) {
+        if (buffer[offset] == '<') {
+            byte b;
+
+            // Formal type parameters
+            offset += 2;
+
+            do {
+                while (buffer[offset] != ':') {
+                    offset++;
+                }
+
+                // Class bound, possibly empty
+                b = buffer[++offset];
+
+                if (b == 'L' || b == '[' || b == 'T') {
+                    offset = readType(offset);
+                }
+
+                // Interface bounds
+                while ((b = buffer[offset++]) == ':') {
+                    offset = readType(offset);
+                }
+            } while (b != '>');
+        }
+
+        if (buffer[offset] == '(') {
+            offset++;
+
+            while (buffer[offset] != ')') {
+                offset = readType(offset);
+            }
+
+            // Return type
+            offset = readType(offset + 1);
+
+            // Exception types
+            while (offset < end) {
+                offset = readType(offset + 1);
+            }
+        } else {
+            // Super class & interfaces
+            offset = readType(offset);
+
+            while (offset < end) {
+                offset = readType(offset);
+            }
+        }
+    }
+
+    /**
+     * Same parsing as 'org.objectweb.asm.signature.SignatureReader.parseType', the names of outer class types are
+     * added to the type references.
+     */
+    protected int readType(int offset) {
+        byte b = buffer[offset++];
+
+        switch (b) {
+            case 'Z', 'C', 'B', 'S', 'I', 'F', 'J', 'D', 'V':
+                return offset;
+            case '[':
+                return readType(offset);
+            case 'T':
+                while (buffer[offset] != ';') {
+                    offset++;
+                }
+                return offset + 1;
+            case 'L':
+                int start = offset;
+                boolean visited = false;
+                boolean inner = false;
+
+                while (true) {
+                    b = buffer[offset++];
+
+                    if (b == '.' || b == ';') {
+                        if (!visited && !inner) {
+                            typeReferences.add(dictionary.get(buffer, start, offset - 1 - start));
+                        }
+                        if (b == ';') {
+                            return offset;
+                        }
+                        start = offset;
+                        visited = false;
+                        inner = true;
+                    } else if (b == '<') {
+                        if (!inner) {
+                            typeReferences.add(dictionary.get(buffer, start, offset - 1 - start));
+                        }
+                        visited = true;
+
+                        // Type arguments
+                        while ((b = buffer[offset]) != '>') {
+                            if (b == '*') {
+                                offset++;
+                            } else if (b == '+' || b == '-') {
+                                offset = readType(offset + 1);
+                            } else {
+                                offset = readType(offset);
+                            }
+                        }
+                    }
+                }
+            default:
+                throw new IllegalArgumentException("Invalid signature type: " + (char)b);
+        }
+    }
+
+    private static void setInstructionLengths(int length, int... opcodes) {
+        for (int opcode : opcodes) {
+            INSTRUCTION_LENGTHS[opcode] = (byte)length;
+        }
+    }
+
+    protected String readUtf8(int utf8Index) {
+        String value = itemStrings[utf8Index];
+
+        if (value == null) {
+            int offset = itemOffsets[utf8Index];
+            itemStrings[utf8Index] = value = dictionary.get(buffer, offset + 2, readUnsignedShort(offset));
+        }
+
+        return value;
+    }
+
+    protected String readClassName(int classIndex) {
+        return readUtf8(readUnsignedShort(itemOffsets[classIndex]));
+    }
+
+    protected int readUnsignedShort(int offset) {
+        return ((buffer[offset] & 0xFF) << 8) | (buffer[offset + 1] & 0xFF);
+    }
+
+    protected int readInt(int offset) {
+        return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16) | ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,782 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * On-disk inverted index of the words of the decompiled sources of a container, built by FullTextIndexWriter.<br>
+ * <br>
+ * A query is split into words, the words are looked up in the dictionary and the posting lists of their terms are
+ * intersected: only the candidate documents are decompressed and searched. Phrases are checked against the word
+ * positions first; regular expressions are prefiltered with the literal words they require.<br>
+ * <br>
+ * Safe thread implementation.
+ */
+public final class FullTextIndex implements Closeable {
+    public static final int DEFAULT_MAX_HITS = 1000;
+
+    // Words matching more terms do not filter the documents
+    private static final int MAX_EXPANSIONS = 4096;
+    private static final int MAX_LINE_LENGTH = 200;
+
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int SUFFIX = 2;
+    private static final int CONTAINS = 3;
+
+    private final Path directory;
+    private final Map<String, String> preferences;
+
+    private final String[] uris;
+    private final String[] paths;
+    private final long[] sourceOffsets;
+    private final int[] compressedLengths;
+    private final int[] lengths;
+
+    private final String[] terms;
+    private final long[] postingOffsets;
+    private final int[] postingLengths;
+
+    private final FileChannel postings;
+    private final FileChannel sources;
+
+    /**
+     * @param text          searched text, a regular expression if 'regex' is set
+     * @param kinds         bitmask of the searched kinds of text, see SourceTokenizer.KIND_*
+     */
+    public record Query(String text, boolean regex, boolean caseSensitive, int kinds) {
+    }
+
+    /**
+     * @param position   offset of the match in the decompiled source
+     * @param lineNumber 1-based line number of the match
+     * @param line       trimmed line containing the match
+     */
+    public record Hit(String uri, String path, int position, int lineNumber, String line) {
+    }
+
+    private record Word(String text, int mode) {
+    }
+
+    private FullTextIndex(Path directory, Map<String, String> preferences, String[] uris, String[] paths, long[] sourceOffsets, int[] compressedLengths, int[] lengths,
+            String[] terms, long[] postingOffsets, int[] postingLengths) throws IOException {
+        this.directory = directory;
+        this.preferences = preferences;
+        this.uris = uris;
+        this.paths = paths;
+        this.sourceOffsets = sourceOffsets;
+        this.compressedLengths = compressedLengths;
+        this.lengths = lengths;
+        this.terms = terms;
+        this.postingOffsets = postingOffsets;
+        this.postingLengths = postingLengths;
+        this.postings = FileChannel.open(directory.resolve(FullTextIndexWriter.POSTINGS_FILE), StandardOpenOption.READ);
+        this.sources = FileChannel.open(directory.resolve(FullTextIndexWriter.SOURCES_FILE), StandardOpenOption.READ);
+    }
+
+    public static FullTextIndex open(Path directory) throws IOException {
+        Map<String, String> preferences = new HashMap<>();
+        String[] uris;
+        String[] paths;
+        long[] sourceOffsets;
+        int[] compressedLengths;
+        int[] lengths;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(directory.resolve(FullTextIndexWriter.DOCUMENTS_FILE)), 64 * 1024))) {
+            for (int i = in.readInt(); i > 0; i--) {
+                preferences.put(in.readUTF(), in.readUTF());
+            }
+
+            int count = in.readInt();
+
+            uris = new String[count];
+            paths = new String[count];
+            sourceOffsets = new long[count];
+            compressedLengths = new int[count];
+            lengths = new int[count];
+
+            for (int i = 0; i < count; i++) {
+                uris[i] = in.readUTF();
+                paths[i] = in.readUTF();
+                sourceOffsets[i] = in.readLong();
+                compressedLengths[i] = in.readInt();
+                lengths[i] = in.readInt();
+            }
+        }
+
+        Path dictionaryFile = directory.resolve(FullTextIndexWriter.DICTIONARY_FILE);
+        List<String> terms = new ArrayList<>();
+        long[] postingOffsets = new long[1024];
+        int[] postingLengths = new int[1024];
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(dictionaryFile), 64 * 1024))) {
+            for (;;) {
+                String term;
+
+                try {
+                    term = in.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                int index = terms.size();
+
+                if (index == postingOffsets.length) {
+                    postingOffsets = Arrays.copyOf(postingOffsets, index * 2);
+                    postingLengths = Arrays.copyOf(postingLengths, index * 2);
+                }
+
+                terms.add(term);
+                postingOffsets[index] = in.readLong();
+                postingLengths[index] = in.readInt();
+                in.readInt(); // Document count
+            }
+        }
+
+        return new FullTextIndex(directory, preferences, uris, paths, sourceOffsets, compressedLengths, lengths,
+                terms.toArray(new String[0]), postingOffsets, postingLengths);
+    }
+
+    public int getDocumentCount() {
+        return uris.length;
+    }
+
+    /**
+     * @return the decompilation preferences the index has been built with
+     */
+    public Map<String, String> getPreferences() {
+        return Collections.unmodifiableMap(preferences);
+    }
+
+    /**
+     * @throws java.util.regex.PatternSyntaxException if 'query' is an invalid regular expression
+     */
+    public List<Hit> search(Query query, int maxHits, BooleanSupplier isCancelledFunction) throws IOException {
+        List<Hit> hits = new ArrayList<>();
+        String text = query.text();
+
+        if (text.isEmpty()) {
+            return hits;
+        }
+
+        Pattern pattern = query.regex() ? Pattern.compile(text, query.caseSensitive() ? 0 : Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE) : null;
+        List<Word> words = query.regex() ? getRegexWords(text) : getPhraseWords(text);
+        List<Map<Integer, int[]>> positions = new ArrayList<>(words.size());
+        BitSet candidates = null;
+
+        for (Word word : words) {
+            int[] matchingTerms = getMatchingTerms(word);
+
+            if (matchingTerms == null) {
+                // Too common: do not filter
+                positions.add(null);
+                continue;
+            }
+
+            BitSet documents = new BitSet(uris.length);
+            Map<Integer, int[]> wordPositions = query.regex() ? null : new HashMap<>();
+
+            for (int term : matchingTerms) {
+                readPostings(term, documents, candidates, wordPositions);
+            }
+
+            positions.add(wordPositions);
+
+            if (candidates == null) {
+                candidates = documents;
+            } else {
+                candidates.and(documents);
+            }
+            if (candidates.isEmpty() || isCancelledFunction.getAsBoolean()) {
+                return hits;
+            }
+        }
+
+        if (candidates == null) {
+            candidates = new BitSet(uris.length);
+            candidates.set(0, uris.length);
+        }
+
+        for (int document = candidates.nextSetBit(0); document >= 0; document = candidates.nextSetBit(document + 1)) {
+            if (isCancelledFunction.getAsBoolean()) {
+                break;
+            }
+            if (pattern == null && !matchesPhrase(document, positions, query.kinds())) {
+                continue;
+            }
+
+            String source = getSource(document);
+            int[] offsets = (pattern == null) ? find(source, text, query.caseSensitive()) : find(source, pattern);
+
+            if (offsets.length == 0) {
+                continue;
+            }
+
+            int[] kinds = SourceTokenizer.getKinds(source, offsets);
+            int lineNumber = 1;
+            int lineStart = 0;
+
+            for (int i = 0; i < offsets.length; i++) {
+                if ((query.kinds() & (1 << kinds[i])) == 0) {
+                    continue;
+                }
+
+                int offset = offsets[i];
+
+                for (int j = source.indexOf('\n', lineStart); j != -1 && j < offset; j = source.indexOf('\n', lineStart)) {
+                    lineNumber++;
+                    lineStart = j + 1;
+                }
+
+                hits.add(new Hit(uris[document], paths[document], offset, lineNumber, getLine(source, lineStart)));
+
+                if (hits.size() >= maxHits) {
+                    return hits;
+                }
+            }
+        }
+
+        return hits;
+    }
+
+    /**
+     * @return the decompiled source of 'document'
+     */
+    public String getSource(int document) throws IOException {
+        byte[] compressed = new byte[compressedLengths[document]];
+        byte[] bytes = new byte[lengths[document]];
+
+        read(sources, sourceOffsets[document], compressed);
+
+        Inflater inflater = new Inflater();
+
+        try {
+            inflater.setInput(compressed);
+            inflater.inflate(bytes);
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Closes the files and deletes the directory of the index.
+     */
+    @Override
+    public void close() throws IOException {
+        postings.close();
+        sources.close();
+        deleteDirectory(directory);
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        File[] files = directory.toFile().listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Words of a phrase: interior words are complete words of the source; the first word may end a longer word and
+     * the last one may start a longer word.
+     */
+    private static List<Word> getPhraseWords(String text) {
+        List<Word> words = new ArrayList<>();
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            if (!SourceTokenizer.isWordPart(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            int start = i;
+
+            while (++i < length && SourceTokenizer.isWordPart(text.charAt(i))) {
+                // Skip word
+            }
+
+            boolean startBounded = start > 0;
+            boolean endBounded = i < length;
+            int mode;
+
+            if (startBounded) {
+                mode = endBounded ? EXACT : PREFIX;
+            } else {
+                mode = endBounded ? SUFFIX : CONTAINS;
+            }
+
+            addWord(words, text.substring(start, i), mode);
+        }
+
+        return words;
+    }
+
+    /**
+     * Literal words required by a regular expression. Quantified characters and groups, classes, escapes and
+     * alternatives are skipped: the returned words only prefilter the documents.
+     */
+    private static List<Word> getRegexWords(String regex) {
+        List<Word> words = new ArrayList<>();
+        List<Integer> groupStarts = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int length = regex.length();
+        int i = 0;
+
+        if (regex.contains("\\Q")) {
+            return words;
+        }
+
+        while (i < length) {
+            char c = regex.charAt(i);
+
+            if (SourceTokenizer.isWordPart(c) && c != '$') {
+                run.append(c);
+                i++;
+                continue;
+            }
+
+            switch (c) {
+            case '|':
+                if (groupStarts.isEmpty()) {
+                    // Top-level alternative: no word is required
+                    return new ArrayList<>();
+                }
+                // Alternatives of a group: forget the words of the group
+                addRegexWord(words, run);
+                removeWords(words, groupStarts.get(groupStarts.size() - 1));
+                i = skipGroup(regex, i);
+                groupStarts.remove(groupStarts.size() - 1);
+                i = skipOptionalQuantifier(regex, i, words, null);
+                continue;
+            case '?', '*':
+                // Optional previous character
+                removeLastChar(run);
+                addRegexWord(words, run);
+                break;
+            case '{':
+                removeLastChar(run);
+                addRegexWord(words, run);
+                i = regex.indexOf('}', i);
+                if (i == -1) {
+                    return words;
+                }
+                break;
+            case '\\':
+                addRegexWord(words, run);
+                // Skip escaped character, and the digits and names of '\\u0041', '\\p{Lu}', '\\k<name>'...
+                if (++i < length && SourceTokenizer.isWordPart(regex.charAt(i))) {
+                    while (i + 1 < length && SourceTokenizer.isWordPart(regex.charAt(i + 1))) {
+                        i++;
+                    }
+                }
+                break;
+            case '[':
+                addRegexWord(words, run);
+                i = skipClass(regex, i);
+                i = skipOptionalQuantifier(regex, i, words, null);
+                continue;
+            case '(':
+                addRegexWord(words, run);
+                if (regex.startsWith("(?", i) && !regex.startsWith("(?:", i) && !isNamedGroup(regex, i)) {
+                    // Flags and look-arounds
+                    i = skipGroup(regex, i + 1);
+                    continue;
+                }
+                groupStarts.add(words.size());
+                if (regex.startsWith("(?", i)) {
+                    i = regex.indexOf(regex.charAt(i + 2) == ':' ? ':' : '>', i);
+                    if (i == -1) {
+                        return words;
+                    }
+                }
+                break;
+            case ')':
+                addRegexWord(words, run);
+                if (!groupStarts.isEmpty()) {
+                    int groupStart = groupStarts.remove(groupStarts.size() - 1);
+                    i = skipOptionalQuantifier(regex, i + 1, words, groupStart);
+                    continue;
+                }
+                break;
+            default:
+                addRegexWord(words, run);
+                break;
+            }
+
+            i++;
+        }
+
+        addRegexWord(words, run);
+
+        return words;
+    }
+
+    private static boolean isNamedGroup(String regex, int i) {
+        return regex.startsWith("(?<", i) && i + 3 < regex.length() && Character.isLetter(regex.charAt(i + 3));
+    }
+
+    private static void addRegexWord(List<Word> words, StringBuilder run) {
+        if (run.length() > 0) {
+            addWord(words, run.toString(), CONTAINS);
+            run.setLength(0);
+        }
+    }
+
+    private static void removeLastChar(StringBuilder run) {
+        if (run.length() > 0) {
+            run.setLength(run.length() - 1);
+        }
+    }
+
+    private static void removeWords(List<Word> words, int size) {
+        while (words.size() > size) {
+            words.remove(words.size() - 1);
+        }
+    }
+
+    /**
+     * Skips a quantifier at 'i'. If the quantifier makes the previous group optional, removes its words.
+     *
+     * @return the index following the quantifier
+     */
+    private static int skipOptionalQuantifier(String regex, int i, List<Word> words, Integer groupStart) {
+        if (i >= regex.length()) {
+            return i;
+        }
+
+        char c = regex.charAt(i);
+        boolean optional = c == '?' || c == '*' || (c == '{' && regex.startsWith("{0", i));
+
+        if (optional && groupStart != null) {
+            removeWords(words, groupStart);
+        }
+        if (c == '{') {
+            int end = regex.indexOf('}', i);
+            return (end == -1) ? regex.length() : end + 1;
+        }
+
+        return (c == '?' || c == '*' || c == '+') ? i + 1 : i;
+    }
+
+    /**
+     * @return the index following the group containing 'i'
+     */
+    private static int skipGroup(String regex, int i) {
+        int depth = 1;
+        int length = regex.length();
+
+        while (i < length) {
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+
+        return length;
+    }
+
+    /**
+     * @return the index following the character class starting at 'i'
+     */
+    private static int skipClass(String regex, int i) {
+        int depth = 0;
+        int length = regex.length();
+
+        while (i < length) {
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+
+        return length;
+    }
+
+    private static void addWord(List<Word> words, String text, int mode) {
+        if (text.length() > FullTextIndexWriter.MAX_TERM_LENGTH) {
+            // Longer words are truncated in the index: only their start can be looked up
+            if (mode == SUFFIX || mode == CONTAINS) {
+                return;
+            }
+            text = text.substring(0, FullTextIndexWriter.MAX_TERM_LENGTH);
+            mode = PREFIX;
+        }
+
+        words.add(new Word(text.toLowerCase(), mode));
+    }
+
+    /**
+     * @return the indexes of the terms matching 'word', null if there are too many
+     */
+    private int[] getMatchingTerms(Word word) {
+        String text = word.text();
+
+        if (word.mode() == EXACT) {
+            int index = Arrays.binarySearch(terms, text);
+            return (index >= 0) ? new int[] { index } : new int[0];
+        }
+
+        int[] matches = new int[16];
+        int count = 0;
+
+        if (word.mode() == PREFIX) {
+            int index = Arrays.binarySearch(terms, text);
+
+            for (int i = (index >= 0) ? index : -(index + 1); i < terms.length && terms[i].startsWith(text); i++) {
+                if (count == MAX_EXPANSIONS) {
+                    return null;
+                }
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = i;
+            }
+        } else {
+            boolean suffix = word.mode() == SUFFIX;
+
+            for (int i = 0; i < terms.length; i++) {
+                if (suffix ? terms[i].endsWith(text) : terms[i].contains(text)) {
+                    if (count == MAX_EXPANSIONS) {
+                        return null;
+                    }
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = i;
+                }
+            }
+        }
+
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Decodes the posting list of 'term'.
+     *
+     * @param documents receives the documents containing the term
+     * @param filter    documents to decode, all if null
+     * @param positions receives the positions by document, if not null
+     */
+    private void readPostings(int term, BitSet documents, BitSet filter, Map<Integer, int[]> positions) throws IOException {
+        byte[] bytes = new byte[postingLengths[term]];
+        int[] next = new int[1];
+        int document = 0;
+        int i = 0;
+
+        read(postings, postingOffsets[term], bytes);
+
+        while (i < bytes.length) {
+            document += readVarInt(bytes, i, next);
+            int count = readVarInt(bytes, next[0], next);
+            i = next[0];
+
+            if (filter != null && !filter.get(document)) {
+                // Skip positions
+                for (int j = 0; j < count; j++) {
+                    while ((bytes[i++] & 0x80) != 0) {
+                        // Skip varint
+                    }
+                }
+                continue;
+            }
+
+            documents.set(document);
+
+            if (positions == null) {
+                for (int j = 0; j < count; j++) {
+                    while ((bytes[i++] & 0x80) != 0) {
+                        // Skip varint
+                    }
+                }
+            } else {
+                int[] documentPositions = new int[count];
+                int position = 0;
+
+                for (int j = 0; j < count; j++) {
+                    position += readVarInt(bytes, i, next);
+                    documentPositions[j] = position;
+                    i = next[0];
+                }
+
+                positions.merge(document, documentPositions, FullTextIndex::union);
+            }
+        }
+    }
+
+    private static int[] union(int[] positions1, int[] positions2) {
+        int[] union = Arrays.copyOf(positions1, positions1.length + positions2.length);
+        System.arraycopy(positions2, 0, union, positions1.length, positions2.length);
+        Arrays.sort(union);
+        return union;
+    }
+
+    /**
+     * @return true if the words of the phrase follow each other in 'document', starting with a word of the searched kinds
+     */
+    private static boolean matchesPhrase(int document, List<Map<Integer, int[]>> positions, int kinds) {
+        if (positions.isEmpty() || positions.get(0) == null) {
+            return true;
+        }
+
+        for (int position : positions.get(0).get(document)) {
+            if ((kinds & (1 << (position & 3))) == 0) {
+                continue;
+            }
+
+            int ordinal = position >>> 2;
+            boolean matches = true;
+
+            for (int i = 1; i < positions.size() && matches; i++) {
+                Map<Integer, int[]> wordPositions = positions.get(i);
+                matches = wordPositions == null || containsOrdinal(wordPositions.get(document), ordinal + i);
+            }
+
+            if (matches) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean containsOrdinal(int[] positions, int ordinal) {
+        int index = Arrays.binarySearch(positions, ordinal << 2);
+
+        if (index < 0) {
+            index = -(index + 1);
+        }
+
+        return index < positions.length && (positions[index] >>> 2) == ordinal;
+    }
+
+    private static int[] find(String source, String text, boolean caseSensitive) {
+        int[] offsets = new int[8];
+        int count = 0;
+        int length = text.length();
+        int last = source.length() - length;
+
+        for (int i = 0; i <= last; i++) {
+            if (caseSensitive ? source.startsWith(text, i) : source.regionMatches(true, i, text, 0, length)) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = i;
+                i += length - 1;
+            }
+        }
+
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private static int[] find(String source, Pattern pattern) {
+        Matcher matcher = pattern.matcher(source);
+        int[] offsets = new int[8];
+        int count = 0;
+
+        while (matcher.find()) {
+            if (matcher.end() > matcher.start()) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = matcher.start();
+            }
+        }
+
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private static String getLine(String source, int lineStart) {
+        int lineEnd = source.indexOf('\n', lineStart);
+        String line = source.substring(lineStart, (lineEnd == -1) ? source.length() : lineEnd).trim();
+        return (line.length() > MAX_LINE_LENGTH) ? line.substring(0, MAX_LINE_LENGTH) + "..." : line;
+    }
+
+    private static void read(FileChannel channel, long position, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    static int writeVarInt(byte[] bytes, int offset, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    /**
+     * @param next receives the index following the varint
+     */
+    static int readVarInt(byte[] bytes, int offset, int[] next) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            b = bytes[offset++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        next[0] = offset;
+        return value;
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.zip.Deflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Builds a FullTextIndex, one document after the other.<br>
+ * <br>
+ * Postings are buffered in memory and spilled to sorted segment files once 'maxBufferedBytes' is reached; the
+ * segments are merged when the index is finished, so the memory used does not depend on the size of the container.
+ * Each posting list is a sequence of varints: document id delta, number of positions, position deltas. A position is
+ * the ordinal of the word in the document, shifted left by 2, ORed with the kind of the word.<br>
+ * <br>
+ * Unsafe thread implementation.
+ */
+public class FullTextIndexWriter implements Closeable {
+    static final String DICTIONARY_FILE = "dictionary.bin";
+    static final String POSTINGS_FILE = "postings.bin";
+    static final String DOCUMENTS_FILE = "documents.bin";
+    static final String SOURCES_FILE = "sources.bin";
+
+    static final int MAX_TERM_LENGTH = 64;
+
+    public static final long DEFAULT_MAX_BUFFERED_BYTES = 32L * 1024 * 1024;
+
+    // Estimated memory used by a buffered term, in addition to its postings
+    private static final int TERM_OVERHEAD = 96;
+
+    private final Path directory;
+    private final Map<String, String> preferences;
+    private final long maxBufferedBytes;
+
+    private final Map<String, TermBuffer> buffers = new HashMap<>();
+    private long bufferedBytes;
+    private final List<Path> segments = new ArrayList<>();
+
+    private final List<String> uris = new ArrayList<>();
+    private final List<String> paths = new ArrayList<>();
+    private long[] sourceOffsets = new long[1024];
+    private int[] compressedLengths = new int[1024];
+    private int[] lengths = new int[1024];
+
+    private final DataOutputStream sources;
+    private long sourcesSize;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private byte[] compressionBuffer = new byte[64 * 1024];
+
+    private final Map<String, PositionList> documentTerms = new HashMap<>();
+    private boolean finished;
+
+    /**
+     * @param directory   empty directory receiving the files of the index
+     * @param preferences decompilation preferences the documents have been produced with
+     */
+    public FullTextIndexWriter(Path directory, Map<String, String> preferences) throws IOException {
+        this(directory, preferences, DEFAULT_MAX_BUFFERED_BYTES);
+    }
+
+    public FullTextIndexWriter(Path directory, Map<String, String> preferences, long maxBufferedBytes) throws IOException {
+        this.directory = directory;
+        this.preferences = preferences;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.sources = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(SOURCES_FILE)), 64 * 1024));
+    }
+
+    private static class TermBuffer {
+        byte[] bytes = new byte[16];
+        int size;
+        int lastDocument;
+        int documentCount;
+
+        void writeVarInt(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            size = FullTextIndex.writeVarInt(bytes, size, value);
+        }
+    }
+
+    private static class PositionList {
+        int[] positions = new int[4];
+        int size;
+
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+    }
+
+    /**
+     * @param uri  URI opening the document
+     * @param path path displayed in the results
+     * @param text decompiled source
+     */
+    public void addDocument(String uri, String path, String text) throws IOException {
+        int document = uris.size();
+
+        uris.add(uri);
+        paths.add(path);
+        writeSource(document, text);
+
+        int[] ordinal = { 0 };
+
+        SourceTokenizer.tokenize(text, (start, end, kind) -> {
+            String term = getTerm(text, start, Math.min(end, start + MAX_TERM_LENGTH));
+            documentTerms.computeIfAbsent(term, t -> new PositionList()).add((ordinal[0]++ << 2) | kind);
+        });
+
+        for (Map.Entry<String, PositionList> entry : documentTerms.entrySet()) {
+            TermBuffer buffer = buffers.get(entry.getKey());
+            PositionList list = entry.getValue();
+
+            if (buffer == null) {
+                buffers.put(entry.getKey(), buffer = new TermBuffer());
+                bufferedBytes += TERM_OVERHEAD + 2L * entry.getKey().length();
+            }
+
+            int sizeBefore = buffer.size;
+            int previous = 0;
+
+            buffer.writeVarInt(document - buffer.lastDocument);
+            buffer.writeVarInt(list.size);
+            for (int i = 0; i < list.size; i++) {
+                buffer.writeVarInt(list.positions[i] - previous);
+                previous = list.positions[i];
+            }
+            buffer.lastDocument = document;
+            buffer.documentCount++;
+            bufferedBytes += buffer.size - sizeBefore;
+        }
+
+        documentTerms.clear();
+
+        if (bufferedBytes > maxBufferedBytes) {
+            spill();
+        }
+    }
+
+    public int getDocumentCount() {
+        return uris.size();
+    }
+
+    /**
+     * Merges the segments and writes the dictionary and the document table.
+     *
+     * @return the index, owning the files of 'directory'
+     */
+    public FullTextIndex finish() throws IOException {
+        if (!buffers.isEmpty()) {
+            spill();
+        }
+
+        sources.close();
+        deflater.end();
+        merge();
+        writeDocuments();
+        finished = true;
+
+        return FullTextIndex.open(directory);
+    }
+
+    /**
+     * Deletes the files of an unfinished index.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            finished = true;
+            sources.close();
+            deflater.end();
+            FullTextIndex.deleteDirectory(directory);
+        }
+    }
+
+    protected static String getTerm(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (Character.isUpperCase(text.charAt(i))) {
+                return text.substring(start, end).toLowerCase();
+            }
+        }
+        return text.substring(start, end);
+    }
+
+    protected void writeSource(int document, String text) throws IOException {
+        if (document == lengths.length) {
+            sourceOffsets = Arrays.copyOf(sourceOffsets, document * 2);
+            compressedLengths = Arrays.copyOf(compressedLengths, document * 2);
+            lengths = Arrays.copyOf(lengths, document * 2);
+        }
+
+        byte[] bytes = text.getBytes(UTF_8);
+        int compressedLength = 0;
+
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        while (!deflater.finished()) {
+            int count = deflater.deflate(compressionBuffer);
+            sources.write(compressionBuffer, 0, count);
+            compressedLength += count;
+        }
+
+        sourceOffsets[document] = sourcesSize;
+        compressedLengths[document] = compressedLength;
+        lengths[document] = bytes.length;
+        sourcesSize += compressedLength;
+    }
+
+    protected void spill() throws IOException {
+        String[] terms = buffers.keySet().toArray(new String[0]);
+        Path segment = directory.resolve("segment-" + segments.size() + ".bin");
+
+        Arrays.sort(terms);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(segment), 64 * 1024))) {
+            for (String term : terms) {
+                TermBuffer buffer = buffers.get(term);
+                out.writeUTF(term);
+                out.writeInt(buffer.lastDocument);
+                out.writeInt(buffer.documentCount);
+                out.writeInt(buffer.size);
+                out.write(buffer.bytes, 0, buffer.size);
+            }
+        }
+
+        segments.add(segment);
+        buffers.clear();
+        bufferedBytes = 0;
+    }
+
+    private static class SegmentReader implements Comparable<SegmentReader> {
+        final int index;
+        final DataInputStream in;
+        String term;
+        int lastDocument;
+        int documentCount;
+        byte[] postings = new byte[256];
+        int size;
+
+        SegmentReader(int index, Path file) throws IOException {
+            this.index = index;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        }
+
+        boolean next() throws IOException {
+            try {
+                term = in.readUTF();
+            } catch (EOFException e) {
+                return false;
+            }
+            lastDocument = in.readInt();
+            documentCount = in.readInt();
+            size = in.readInt();
+            if (size > postings.length) {
+                postings = new byte[Math.max(size, postings.length * 2)];
+            }
+            in.readFully(postings, 0, size);
+            return true;
+        }
+
+        @Override
+        public int compareTo(SegmentReader other) {
+            int cmp = term.compareTo(other.term);
+            // Keep the postings sorted by document id
+            return (cmp != 0) ? cmp : Integer.compare(index, other.index);
+        }
+    }
+
+    /**
+     * k-way merge of the segments. A segment restarts the document id deltas from 0: the first delta of each segment
+     * is rebased on the last document of the previous one.
+     */
+    protected void merge() throws IOException {
+        PriorityQueue<SegmentReader> queue = new PriorityQueue<>();
+        List<SegmentReader> readers = new ArrayList<>(segments.size());
+        byte[] varInt = new byte[5];
+        int[] next = new int[1];
+
+        try (DataOutputStream postings = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(POSTINGS_FILE)), 64 * 1024));
+             DataOutputStream dictionary = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(DICTIONARY_FILE)), 64 * 1024))) {
+            for (int i = 0; i < segments.size(); i++) {
+                SegmentReader reader = new SegmentReader(i, segments.get(i));
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+
+            long offset = 0;
+
+            while (!queue.isEmpty()) {
+                String term = queue.peek().term;
+                int previousLastDocument = 0;
+                int documentCount = 0;
+                long length = 0;
+
+                while (!queue.isEmpty() && queue.peek().term.equals(term)) {
+                    SegmentReader reader = queue.poll();
+                    int firstDocument = FullTextIndex.readVarInt(reader.postings, 0, next);
+                    int count = FullTextIndex.writeVarInt(varInt, 0, firstDocument - previousLastDocument);
+
+                    postings.write(varInt, 0, count);
+                    postings.write(reader.postings, next[0], reader.size - next[0]);
+                    length += count + reader.size - next[0];
+                    documentCount += reader.documentCount;
+                    previousLastDocument = reader.lastDocument;
+
+                    if (reader.next()) {
+                        queue.add(reader);
+                    }
+                }
+
+                dictionary.writeUTF(term);
+                dictionary.writeLong(offset);
+                dictionary.writeInt((int) length);
+                dictionary.writeInt(documentCount);
+                offset += length;
+            }
+        } finally {
+            for (SegmentReader reader : readers) {
+                reader.in.close();
+            }
+        }
+
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+        segments.clear();
+    }
+
+    protected void writeDocuments() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(DOCUMENTS_FILE)), 64 * 1024))) {
+            out.writeInt(preferences.size());
+            for (Map.Entry<String, String> preference : preferences.entrySet()) {
+                out.writeUTF(preference.getKey());
+                out.writeUTF(preference.getValue());
+            }
+
+            out.writeInt(uris.size());
+            for (int i = 0; i < uris.size(); i++) {
+                out.writeUTF(uris.get(i));
+                out.writeUTF(paths.get(i));
+                out.writeLong(sourceOffsets[i]);
+                out.writeInt(compressedLengths[i]);
+                out.writeInt(lengths[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.FutureUtil;
+import org.jd.gui.util.container.JarContainerEntryUtil;
+import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationSupervisor;
+import org.jd.gui.util.decompiler.PreferenceScope;
+import org.jd.gui.util.loader.LoaderUtils;
+import org.jd.gui.util.parser.jdt.core.manipulation.RemoveUnnecessaryCasts;
+
+import com.heliosdecompiler.transformerapi.common.Loader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
+import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
+import static org.jd.gui.util.decompiler.GuiPreferences.REMOVE_UNNECESSARY_CASTS;
+
+import jd.core.ClassUtil;
+
+/**
+ * Decompiles the classes of a container and builds the FullTextIndex of their sources.<br>
+ * <br>
+ * Top-level classes are decompiled on 'parallelism' threads, inner classes being part of their sources. Sources are
+ * added to the index by the calling thread, in completion order; at most 4 sources per thread are pending, so the
+ * memory used does not depend on the size of the container.
+ */
+public class FullTextIndexer {
+    private final int parallelism;
+
+    public FullTextIndexer(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    private record Document(Container.Entry entry, String source) {
+    }
+
+    /**
+     * @return the index, null if cancelled
+     */
+    public FullTextIndex index(Container.Entry root, Map<String, String> preferences, DoubleConsumer progressFunction, BooleanSupplier isCancelledFunction)
+            throws IOException, InterruptedException {
+        List<Container.Entry> entries = new ArrayList<>();
+        // Inner classes are decompiled with their outer class
+        JarContainerEntryUtil.collectClassEntries(root, false, entries);
+
+        Path directory = Files.createTempDirectory("jd-gui-full-text-index");
+        int total = entries.size();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "FullTextIndexer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        CompletionService<Document> completionService = new ExecutorCompletionService<>(executor);
+
+        directory.toFile().deleteOnExit();
+
+        try (FullTextIndexWriter writer = new FullTextIndexWriter(directory, PreferenceScope.getDecompilationPreferences(preferences))) {
+            int submitted = 0;
+
+            for (int done = 0; done < total; done++) {
+                while (submitted < total && submitted - done < 4 * parallelism) {
+                    Container.Entry entry = entries.get(submitted++);
+                    completionService.submit(() -> new Document(entry, decompile(entry, new HashMap<>(preferences))));
+                }
+
+                Document document = FutureUtil.get(completionService.take());
+
+                if (isCancelledFunction.getAsBoolean()) {
+                    return null;
+                }
+                if (document.source() != null) {
+                    writer.addDocument(document.entry().getUri().toString(), document.entry().getPath(), document.source());
+                }
+
+                progressFunction.accept(100.0 * (done + 1) / total);
+            }
+
+            for (String file : new String[] { FullTextIndexWriter.DICTIONARY_FILE, FullTextIndexWriter.POSTINGS_FILE, FullTextIndexWriter.DOCUMENTS_FILE, FullTextIndexWriter.SOURCES_FILE }) {
+                directory.resolve(file).toFile().deleteOnExit();
+            }
+
+            return writer.finish();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the source displayed by the page of 'entry', null on error
+     */
+    protected String decompile(Container.Entry entry, Map<String, String> preferences) {
+        try {
+            String engineName = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
+            Loader apiLoader = LoaderUtils.createLoader(preferences, new ContainerLoader(entry), entry);
+            String source = DecompilationSupervisor.decompileSource(apiLoader, ClassUtil.getInternalName(entry.getPath()), preferences, engineName, entry, true);
+
+            if ("true".equals(preferences.get(REMOVE_UNNECESSARY_CASTS))) {
+                source = new RemoveUnnecessaryCasts(entry).process(source);
+            }
+
+            return source;
+        } catch (Exception e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text indexes of the opened containers, by URI of their root entry.
+ */
+public final class FullTextIndexes {
+    private static final Map<URI, FullTextIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private FullTextIndexes() {
+    }
+
+    public static FullTextIndex get(URI uri) {
+        return INDEXES.get(uri);
+    }
+
+    /**
+     * Registers 'index', closing the previous index of the container.
+     */
+    public static void put(URI uri, FullTextIndex index) {
+        close(INDEXES.put(uri, index));
+    }
+
+    /**
+     * Closes the index of a container, called when its tab is closed.
+     */
+    public static void evict(URI uri) {
+        close(INDEXES.remove(uri));
+    }
+
+    private static void close(FullTextIndex index) {
+        if (index != null) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
+}
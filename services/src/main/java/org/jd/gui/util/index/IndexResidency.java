@@ -0,0 +1,147 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the indexes of the open containers under a global memory budget.<br>
+ * <br>
+ * When the resident indexes exceed the budget, the least recently queried ones are spilled to disk, down to
+ * {@link #LOW_WATER_MARK} of the budget. The indexes queried during the last {@link #MIN_IDLE_NANOS} are never
+ * spilled, so that a search through all containers does not spill the indexes it has just read back.
+ */
+public final class IndexResidency {
+    public static final double BUDGET_RATIO = 0.25;
+    protected static final double LOW_WATER_MARK = 0.75;
+    protected static final long MIN_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    protected static final long CHECK_PERIOD_SECONDS = 10;
+
+    private static final IndexResidency INSTANCE = new IndexResidency((long) (Runtime.getRuntime().maxMemory() * BUDGET_RATIO));
+
+    /**
+     * Indexes able to leave the heap.
+     */
+    public interface Resident {
+        /**
+         * @return the estimated heap size of the indexes, in bytes, 0 if spilled
+         */
+        long weight();
+
+        /**
+         * @return the time of the last query, in nanoseconds
+         */
+        long lastAccess();
+
+        /**
+         * Called on the thread of the residency manager.
+         *
+         * @return true if spilled
+         */
+        boolean spill();
+    }
+
+    private final long budget;
+    private final Set<Resident> residents = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean checkPending = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "IndexResidency");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    public IndexResidency(long budget) {
+        this.budget = budget;
+        // The containers become idle without being queried
+        executor.scheduleWithFixedDelay(this::check, CHECK_PERIOD_SECONDS, CHECK_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static IndexResidency getInstance() { return INSTANCE; }
+
+    public long getBudget() { return budget; }
+
+    public void register(Resident resident) {
+        residents.add(resident);
+        requestCheck();
+    }
+
+    public void unregister(Resident resident) {
+        residents.remove(resident);
+    }
+
+    /**
+     * Checks the budget soon, after a change of weight.
+     */
+    public void requestCheck() {
+        if (checkPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                checkPending.set(false);
+                check();
+            });
+        }
+    }
+
+    /**
+     * Runs 'task' on the thread of the residency manager, as the read back of spilled indexes.
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * @return the weight of the resident indexes after the check
+     */
+    public long check() {
+        return check(System.nanoTime());
+    }
+
+    synchronized long check(long now) {
+        List<Candidate> candidates = new ArrayList<>();
+        long total = 0;
+
+        for (Resident resident : residents) {
+            long weight = resident.weight();
+            long lastAccess = resident.lastAccess();
+
+            if (weight > 0) {
+                total += weight;
+                if (now - lastAccess >= MIN_IDLE_NANOS) {
+                    candidates.add(new Candidate(resident, weight, lastAccess));
+                }
+            }
+        }
+
+        if (total > budget) {
+            long target = (long) (budget * LOW_WATER_MARK);
+
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+
+            for (Candidate candidate : candidates) {
+                if (total <= target) {
+                    break;
+                }
+                if (candidate.resident().spill()) {
+                    total -= candidate.weight();
+                }
+            }
+        }
+
+        return total;
+    }
+
+    // Snapshot of a resident: the last access changes while sorting
+    private record Candidate(Resident resident, long weight, long lastAccess) {}
+}
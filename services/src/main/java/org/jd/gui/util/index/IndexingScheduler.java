@@ -0,0 +1,159 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the indexations of the open archives, the smallest first, with a parallelism adapted to the storage.<br>
+ * <br>
+ * The parallelism starts at {@link #INITIAL_PARALLELISM} and grows by one while the throughput, in archive bytes read
+ * per second, grows by {@link #MIN_GAIN} at least. Once more threads no longer read faster, the storage is the
+ * bottleneck: the parallelism goes back to the best measured value and stays there until the scheduler is idle. The
+ * next archives may be read from another storage: the measure restarts with them. The parallelism never exceeds the
+ * number of available processors.
+ */
+public class IndexingScheduler {
+    public static final int INITIAL_PARALLELISM = 2;
+    protected static final double MIN_GAIN = 0.1;
+    protected static final long MIN_WINDOW_NANOS = 200_000_000L;
+
+    private static final IndexingScheduler INSTANCE = new IndexingScheduler(Runtime.getRuntime().availableProcessors(), Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "Indexer");
+        thread.setDaemon(true);
+        return thread;
+    }));
+
+    private final int maxParallelism;
+    private final Executor executor;
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    private long sequence;
+    private int running;
+    private int parallelism;
+    private boolean settled;
+    // Measure of the current parallelism
+    private long windowStart;
+    private long windowBytes;
+    private int windowTasks;
+    private double bestThroughput;
+    private int bestParallelism;
+
+    private record Task(Runnable runnable, long length, long sequence) implements Comparable<Task> {
+        @Override
+        public int compareTo(Task other) {
+            int result = Long.compare(length, other.length);
+            return (result != 0) ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    public static IndexingScheduler getInstance() { return INSTANCE; }
+
+    /**
+     * @param executor runs the tasks, with one thread per running task at least
+     */
+    public IndexingScheduler(int maxParallelism, Executor executor) {
+        this.maxParallelism = Math.max(1, maxParallelism);
+        this.executor = executor;
+        reset();
+    }
+
+    /**
+     * Queues 'task' behind the tasks of smaller archives.
+     *
+     * @param length size of the archive in bytes, -1 if unknown: the task is queued last and not measured
+     */
+    public synchronized void execute(Runnable task, long length) {
+        queue.add(new Task(task, (length < 0) ? Long.MAX_VALUE : length, sequence++));
+        dispatch();
+    }
+
+    public synchronized int getParallelism() { return parallelism; }
+
+    public synchronized int getQueuedTaskCount() { return queue.size(); }
+
+    protected void dispatch() {
+        while (running < parallelism && !queue.isEmpty()) {
+            Task task = queue.poll();
+
+            if (running == 0 && windowTasks == 0) {
+                windowStart = nanoTime();
+            }
+
+            running++;
+            executor.execute(() -> {
+                try {
+                    task.runnable().run();
+                } finally {
+                    completed(task.length());
+                }
+            });
+        }
+    }
+
+    protected synchronized void completed(long length) {
+        running--;
+
+        if (length != Long.MAX_VALUE) {
+            windowBytes += length;
+            windowTasks++;
+            adapt(nanoTime());
+        }
+
+        dispatch();
+
+        if (running == 0) {
+            // Idle: the next measure starts with the next task
+            reset();
+        }
+    }
+
+    protected void reset() {
+        parallelism = Math.min(INITIAL_PARALLELISM, maxParallelism);
+        bestParallelism = parallelism;
+        bestThroughput = 0;
+        settled = (parallelism == maxParallelism);
+        windowBytes = 0;
+        windowTasks = 0;
+    }
+
+    protected long nanoTime() { return System.nanoTime(); }
+
+    /**
+     * Measures the throughput of the current parallelism once 'parallelism' tasks have completed, then probes the
+     * next one.
+     */
+    protected void adapt(long now) {
+        long elapsed = now - windowStart;
+
+        if (settled || windowTasks < parallelism || elapsed < MIN_WINDOW_NANOS) {
+            return;
+        }
+
+        double throughput = windowBytes * 1e9 / elapsed;
+
+        if (throughput >= bestThroughput * (1 + MIN_GAIN)) {
+            bestThroughput = throughput;
+            bestParallelism = parallelism;
+
+            if (parallelism < maxParallelism) {
+                parallelism++;
+            } else {
+                settled = true;
+            }
+        } else {
+            // More threads do not read faster: the storage is the bottleneck
+            parallelism = bestParallelism;
+            settled = true;
+        }
+
+        windowStart = now;
+        windowBytes = 0;
+        windowTasks = 0;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+/**
+ * Set of the first one and two characters of names, answering "maybe" or "no" for a prefix, in 512 bytes.
+ */
+public final class PrefixFilter {
+    private static final int BIT_COUNT = 4096;
+    private static final int SHIFT = Integer.numberOfLeadingZeros(BIT_COUNT - 1);
+
+    private final long[] bits = new long[BIT_COUNT / 64];
+
+    /**
+     * Adds the prefixes of 'name' from 'start'.
+     */
+    public void add(String name, int start) {
+        int length = name.length();
+
+        if (start < length) {
+            set(hash(name.charAt(start)));
+            if (start + 1 < length) {
+                set(hash(name.charAt(start), name.charAt(start + 1)));
+            }
+        }
+    }
+
+    /**
+     * @return false if no added name starts with 'prefix', only the first two characters of which are checked
+     */
+    public boolean mightStartWith(String prefix) {
+        switch (prefix.length()) {
+            case 0:
+                return true;
+            case 1:
+                return get(hash(prefix.charAt(0)));
+            default:
+                return get(hash(prefix.charAt(0), prefix.charAt(1)));
+        }
+    }
+
+    public int size() { return BIT_COUNT / 8; }
+
+    private void set(int bit) {
+        bits[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean get(int bit) {
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private static int hash(char c) {
+        return (c * 0x9E3779B1) >>> SHIFT;
+    }
+
+    private static int hash(char c1, char c2) {
+        return (((c1 << 16) | c2) * 0x85EBCA6B + 0x9E3779B1) >>> SHIFT;
+    }
+}
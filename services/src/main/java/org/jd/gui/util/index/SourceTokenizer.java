@@ -0,0 +1,173 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+/**
+ * Splits Java source code into words: identifiers, keywords and numbers in the code, words of the string and character
+ * literals, words of the comments.<br>
+ * <br>
+ * Words are runs of letters, digits, '_' and '$'. The tokenizer does not allocate: the words are reported as ranges of
+ * the text.
+ */
+public final class SourceTokenizer {
+    public static final int KIND_CODE = 0;
+    public static final int KIND_LITERAL = 1;
+    public static final int KIND_COMMENT = 2;
+
+    public static final int ALL_KINDS = (1 << KIND_CODE) | (1 << KIND_LITERAL) | (1 << KIND_COMMENT);
+
+    private static final int CODE = 0;
+    private static final int LINE_COMMENT = 1;
+    private static final int BLOCK_COMMENT = 2;
+    private static final int STRING = 3;
+    private static final int TEXT_BLOCK = 4;
+    private static final int CHARACTER = 5;
+
+    private SourceTokenizer() {
+    }
+
+    @FunctionalInterface
+    public interface WordConsumer {
+        /**
+         * @param start index of the first character of the word
+         * @param end   index following the last character of the word
+         * @param kind  see KIND_*
+         */
+        void accept(int start, int end, int kind);
+    }
+
+    public static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    public static void tokenize(CharSequence text, WordConsumer consumer) {
+        scan(text, consumer, null, null);
+    }
+
+    /**
+     * @param offsets ascending offsets in 'text'
+     * @return the kinds of the text at 'offsets', see KIND_*
+     */
+    public static int[] getKinds(CharSequence text, int[] offsets) {
+        int[] kinds = new int[offsets.length];
+        scan(text, null, offsets, kinds);
+        return kinds;
+    }
+
+    private static void scan(CharSequence text, WordConsumer consumer, int[] offsets, int[] kinds) {
+        int length = text.length();
+        int state = CODE;
+        int k = 0;
+        int i = 0;
+
+        while (i < length) {
+            if (offsets != null) {
+                if (k == offsets.length) {
+                    return;
+                }
+                while (k < offsets.length && offsets[k] <= i) {
+                    kinds[k++] = getKind(state);
+                }
+            }
+
+            char c = text.charAt(i);
+
+            if (isWordPart(c)) {
+                int start = i;
+
+                while (++i < length && isWordPart(text.charAt(i))) {
+                    // Skip word
+                }
+
+                if (consumer != null) {
+                    consumer.accept(start, i, getKind(state));
+                }
+                continue;
+            }
+
+            switch (state) {
+            case CODE:
+                if (c == '/' && i + 1 < length && text.charAt(i + 1) == '/') {
+                    state = LINE_COMMENT;
+                    i++;
+                } else if (c == '/' && i + 1 < length && text.charAt(i + 1) == '*') {
+                    state = BLOCK_COMMENT;
+                    i++;
+                } else if (c == '"') {
+                    if (startsWith(text, i, "\"\"\"")) {
+                        state = TEXT_BLOCK;
+                        i += 2;
+                    } else {
+                        state = STRING;
+                    }
+                } else if (c == '\'') {
+                    state = CHARACTER;
+                }
+                break;
+            case LINE_COMMENT:
+                if (c == '\n') {
+                    state = CODE;
+                }
+                break;
+            case BLOCK_COMMENT:
+                if (c == '*' && i + 1 < length && text.charAt(i + 1) == '/') {
+                    state = CODE;
+                    i++;
+                }
+                break;
+            case TEXT_BLOCK:
+                if (c == '\\') {
+                    // Skip escaped character
+                    i++;
+                } else if (startsWith(text, i, "\"\"\"")) {
+                    state = CODE;
+                    i += 2;
+                }
+                break;
+            default:
+                // STRING or CHARACTER
+                if (c == '\\') {
+                    i++;
+                } else if (c == (state == STRING ? '"' : '\'') || c == '\n') {
+                    state = CODE;
+                }
+                break;
+            }
+
+            i++;
+        }
+
+        if (offsets != null) {
+            while (k < offsets.length) {
+                kinds[k++] = getKind(state);
+            }
+        }
+    }
+
+    private static int getKind(int state) {
+        return switch (state) {
+            case LINE_COMMENT, BLOCK_COMMENT -> KIND_COMMENT;
+            case STRING, TEXT_BLOCK, CHARACTER -> KIND_LITERAL;
+            default -> KIND_CODE;
+        };
+    }
+
+    private static boolean startsWith(CharSequence text, int offset, String prefix) {
+        int length = prefix.length();
+
+        if (offset + length > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
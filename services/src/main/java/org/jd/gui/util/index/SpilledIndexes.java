@@ -0,0 +1,459 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes of a container written to a temporary file, and the summary kept in memory to read them back on demand.<br>
+ * <br>
+ * The keys of each index are sorted and front coded. The postings referencing strings are written, the other postings,
+ * the entries of the container, are written as references to a table kept in memory: the entries are held by the
+ * container anyway. A {@link BloomFilter} of the keys of all indexes answers most of the lookups of missing keys
+ * without reading the file.<br>
+ * <br>
+ * The front coding restarts every {@link #BLOCK_SIZE} keys: a lookup reads the block of the key only, located by the
+ * first keys of the blocks kept in memory. A {@link PrefixFilter} of the keys and of the simple names of each index
+ * tells the searches that an index cannot match without reading it.<br>
+ * <br>
+ * The name of the file contains the process id: the files left by the processes which did not exit normally are
+ * deleted by {@link #deleteStaleFiles()}.
+ */
+@SuppressWarnings("rawtypes")
+public final class SpilledIndexes {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int BLOCK_SIZE = 64;
+    private static final String FILE_PREFIX = "jd-gui-indexes";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final Path file;
+    private final Map<String, IndexSummary> summaries;
+    private final Object[] values;
+    private final BloomFilter filter;
+
+    /**
+     * @param blockOffsets offsets of the blocks in the file
+     * @param blockKeys    first key of each block
+     * @param end          offset following the last block
+     */
+    private record IndexSummary(int keyCount, int[] blockOffsets, String[] blockKeys, int end, PrefixFilter keyPrefixes, PrefixFilter simpleNamePrefixes) {
+        long weight() {
+            long weight = 64 + 4L * blockOffsets.length + keyPrefixes.size() + simpleNamePrefixes.size();
+
+            for (String blockKey : blockKeys) {
+                weight += 48 + blockKey.length();
+            }
+
+            return weight;
+        }
+    }
+
+    private SpilledIndexes(Path file, Map<String, IndexSummary> summaries, Object[] values, BloomFilter filter) {
+        this.file = file;
+        this.summaries = summaries;
+        this.values = values;
+        this.filter = filter;
+    }
+
+    /**
+     * Writes 'indexes' to a new temporary file.
+     */
+    public static SpilledIndexes write(Map<String, Map<String, Collection>> indexes) throws IOException {
+        Path file = Files.createTempFile(FILE_PREFIX + '-' + ProcessHandle.current().pid() + '-', FILE_SUFFIX);
+        Map<Object, Integer> valueIndexes = new IdentityHashMap<>();
+        List<Object> values = new ArrayList<>();
+        Map<String, IndexSummary> summaries = new HashMap<>();
+        int keyCount = 0;
+
+        for (Map<String, Collection> index : indexes.values()) {
+            keyCount += index.size();
+        }
+
+        BloomFilter filter = new BloomFilter(keyCount, FALSE_POSITIVE_RATE);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            writeVarInt(out, indexes.size());
+
+            for (Map.Entry<String, Map<String, Collection>> index : indexes.entrySet()) {
+                String indexName = index.getKey();
+                String[] keys = index.getValue().keySet().toArray(new String[0]);
+                int blockCount = (keys.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                int[] blockOffsets = new int[blockCount];
+                String[] blockKeys = new String[blockCount];
+                PrefixFilter keyPrefixes = new PrefixFilter();
+                PrefixFilter simpleNamePrefixes = new PrefixFilter();
+                String previous = "";
+
+                Arrays.sort(keys);
+                writeString(out, indexName, 0);
+                writeVarInt(out, keys.length);
+
+                for (int i = 0; i < keys.length; i++) {
+                    String key = keys[i];
+                    Collection postings = index.getValue().get(key);
+
+                    if (i % BLOCK_SIZE == 0) {
+                        blockOffsets[i / BLOCK_SIZE] = out.size();
+                        blockKeys[i / BLOCK_SIZE] = key;
+                        previous = "";
+                    }
+
+                    int prefix = commonPrefixLength(previous, key);
+
+                    filter.add(indexName, key);
+                    keyPrefixes.add(key, 0);
+                    simpleNamePrefixes.add(key, SummarizedIndex.getSimpleNameStart(key));
+                    writeVarInt(out, prefix);
+                    writeString(out, key, prefix);
+                    writeVarInt(out, postings.size());
+
+                    for (Object posting : postings) {
+                        if (posting instanceof String) { // to convert to jdk16 pattern matching only when spotbugs #1617 and eclipse #577987 are solved
+                            writeVarInt(out, 1);
+                            writeString(out, (String) posting, 0);
+                        } else {
+                            Integer valueIndex = valueIndexes.get(posting);
+
+                            if (valueIndex == null) {
+                                valueIndex = values.size();
+                                valueIndexes.put(posting, valueIndex);
+                                values.add(posting);
+                            }
+
+                            writeVarInt(out, valueIndex << 1);
+                        }
+                    }
+
+                    previous = key;
+                }
+
+                summaries.put(indexName, new IndexSummary(keys.length, blockOffsets, blockKeys, out.size(), keyPrefixes, simpleNamePrefixes));
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        return new SpilledIndexes(file, summaries, values.toArray(), filter);
+    }
+
+    /**
+     * @return new indexes, equal to the written ones
+     */
+    public Map<String, Map<String, Collection>> read() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int[] next = new int[1];
+        int offset = 0;
+        int indexCount = FullTextIndex.readVarInt(bytes, offset, next);
+        Map<String, Map<String, Collection>> indexes = new ConcurrentHashMap<>();
+        StringBuilder sb = new StringBuilder();
+
+        offset = next[0];
+
+        for (int i = 0; i < indexCount; i++) {
+            sb.setLength(0);
+            offset = readString(bytes, offset, sb, next);
+
+            String indexName = sb.toString();
+            int keyCount = FullTextIndex.readVarInt(bytes, offset, next);
+            Map<String, Collection> index = new ConcurrentHashMap<>((int) (keyCount / 0.75f) + 1);
+
+            offset = readKeys(bytes, next[0], keyCount, index, next);
+            indexes.put(indexName, index);
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Reads the index 'indexName' only.
+     *
+     * @return a new index, equal to the written one, null if not written
+     */
+    public Map<String, Collection> read(String indexName) throws IOException {
+        IndexSummary summary = summaries.get(indexName);
+
+        if (summary == null) {
+            return null;
+        }
+
+        Map<String, Collection> index = new HashMap<>((int) (summary.keyCount() / 0.75f) + 1);
+
+        if (summary.keyCount() > 0) {
+            readKeys(read(summary.blockOffsets()[0], summary.end()), 0, summary.keyCount(), index, new int[1]);
+        }
+
+        return index;
+    }
+
+    /**
+     * Reads the block of 'key' only.
+     *
+     * @return the postings of 'key', null if missing
+     */
+    public Collection get(String indexName, String key) throws IOException {
+        IndexSummary summary = summaries.get(indexName);
+
+        if (summary == null || !filter.mightContain(indexName, key)) {
+            return null;
+        }
+
+        String[] blockKeys = summary.blockKeys();
+        int block = Arrays.binarySearch(blockKeys, key);
+
+        if (block < 0) {
+            // Block starting before 'key'
+            block = -block - 2;
+            if (block < 0) {
+                return null;
+            }
+        }
+
+        int end = (block + 1 < blockKeys.length) ? summary.blockOffsets()[block + 1] : summary.end();
+        byte[] bytes = read(summary.blockOffsets()[block], end);
+        int[] next = new int[1];
+        StringBuilder sb = new StringBuilder();
+        int offset = 0;
+
+        while (offset < bytes.length) {
+            sb.setLength(FullTextIndex.readVarInt(bytes, offset, next));
+            offset = readString(bytes, next[0], sb, next);
+
+            List<Object> postings = readPostings(bytes, offset, next);
+            int comparison = sb.toString().compareTo(key);
+
+            if (comparison == 0) {
+                return postings;
+            }
+            if (comparison > 0) {
+                break;
+            }
+
+            offset = next[0];
+        }
+
+        return null;
+    }
+
+    public boolean hasIndex(String indexName) { return summaries.containsKey(indexName); }
+
+    /**
+     * @return the number of keys of the index 'indexName', 0 if not written
+     */
+    public int size(String indexName) {
+        IndexSummary summary = summaries.get(indexName);
+        return (summary == null) ? 0 : summary.keyCount();
+    }
+
+    /**
+     * @return false if no key of the index 'indexName' starts with 'prefix'
+     */
+    public boolean mightHaveKeyStartingWith(String indexName, String prefix) {
+        IndexSummary summary = summaries.get(indexName);
+        return (summary != null) && summary.keyPrefixes().mightStartWith(prefix);
+    }
+
+    /**
+     * @return false if no simple name of the keys of the index 'indexName' starts with 'prefix'
+     */
+    public boolean mightHaveSimpleNameStartingWith(String indexName, String prefix) {
+        IndexSummary summary = summaries.get(indexName);
+        return (summary != null) && summary.simpleNamePrefixes().mightStartWith(prefix);
+    }
+
+    /**
+     * @return false if 'key' is not in the index 'indexName'
+     */
+    public boolean mightContain(String indexName, String key) { return filter.mightContain(indexName, key); }
+
+    /**
+     * @return the memory used by the summary, in bytes
+     */
+    public long weight() {
+        long weight = filter.size() + 8L * values.length;
+
+        for (IndexSummary summary : summaries.values()) {
+            weight += summary.weight();
+        }
+
+        return weight;
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Deletes the files of the temporary directory spilled by the processes no longer alive.
+     */
+    public static void deleteStaleFiles() {
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"));
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + '*' + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (isStale(file.getFileName().toString())) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        assert ExceptionUtil.printStackTrace(e);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    /**
+     * @return true if the process which spilled the file 'fileName' is no longer alive, or unknown
+     */
+    static boolean isStale(String fileName) {
+        int start = FILE_PREFIX.length() + 1;
+        int end = fileName.indexOf('-', start);
+
+        if (!fileName.startsWith(FILE_PREFIX + '-') || end < 0) {
+            // Spilled before the process id was part of the name
+            return true;
+        }
+
+        try {
+            long pid = Long.parseLong(fileName.substring(start, end));
+            return ProcessHandle.of(pid).map(process -> !process.isAlive()).orElse(true);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private byte[] read(int start, int end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(end - start);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Truncated file: " + file);
+                }
+            }
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Puts 'keyCount' keys and their postings into 'index'.
+     *
+     * @return the offset following the keys
+     */
+    private int readKeys(byte[] bytes, int offset, int keyCount, Map<String, Collection> index, int[] next) {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < keyCount; i++) {
+            sb.setLength(FullTextIndex.readVarInt(bytes, offset, next));
+            offset = readString(bytes, next[0], sb, next);
+            index.put(sb.toString(), readPostings(bytes, offset, next));
+            offset = next[0];
+        }
+
+        return offset;
+    }
+
+    /**
+     * @return the postings, the following offset in 'next'
+     */
+    private List<Object> readPostings(byte[] bytes, int offset, int[] next) {
+        int postingCount = FullTextIndex.readVarInt(bytes, offset, next);
+        List<Object> postings = new ArrayList<>(postingCount);
+
+        offset = next[0];
+
+        for (int i = 0; i < postingCount; i++) {
+            int tag = FullTextIndex.readVarInt(bytes, offset, next);
+
+            offset = next[0];
+
+            if (tag == 1) {
+                StringBuilder posting = new StringBuilder();
+                offset = readString(bytes, offset, posting, next);
+                postings.add(posting.toString());
+            } else {
+                postings.add(values[tag >>> 1]);
+            }
+        }
+
+        next[0] = offset;
+        return postings;
+    }
+
+    private static int commonPrefixLength(String s1, String s2) {
+        int length = Math.min(s1.length(), s2.length());
+        int i = 0;
+
+        while (i < length && s1.charAt(i) == s2.charAt(i)) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Writes the characters of 's' from 'start', preceded by their count, as varints: one byte per ASCII character.
+     */
+    private static void writeString(OutputStream out, String s, int start) throws IOException {
+        int length = s.length();
+
+        writeVarInt(out, length - start);
+
+        for (int i = start; i < length; i++) {
+            writeVarInt(out, s.charAt(i));
+        }
+    }
+
+    /**
+     * Appends the characters of a string to 'sb'.
+     *
+     * @return the offset following the string
+     */
+    private static int readString(byte[] bytes, int offset, StringBuilder sb, int[] next) {
+        int length = FullTextIndex.readVarInt(bytes, offset, next);
+
+        offset = next[0];
+
+        for (int i = 0; i < length; i++) {
+            sb.append((char) FullTextIndex.readVarInt(bytes, offset, next));
+            offset = next[0];
+        }
+
+        return offset;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+/**
+ * Index telling, without reading its keys, that none of them can match a prefix: the searches skip it.
+ */
+public interface SummarizedIndex {
+    /**
+     * @return false if no key starts with 'prefix', only the first two characters of which are checked
+     */
+    boolean mightHaveKeyStartingWith(String prefix);
+
+    /**
+     * @return false if no simple name, following the last '/' or '$' of a key, starts with 'prefix', only the first
+     * two characters of which are checked
+     */
+    boolean mightHaveSimpleNameStartingWith(String prefix);
+
+    static int getSimpleNameStart(String key) {
+        return Math.max(key.lastIndexOf('/'), key.lastIndexOf('$')) + 1;
+    }
+}
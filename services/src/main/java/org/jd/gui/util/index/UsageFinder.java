@@ -0,0 +1,173 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.api.model.Indexes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Finds the usages of a type or a member in the indexed containers.<br>
+ * <br>
+ * The reference indexes give the candidate entries, their {@link UsageTable}s give the exact references, so that no
+ * class file is read nor decompiled.
+ */
+public final class UsageFinder {
+
+    /**
+     * @param typeName   internal name of the declaring type
+     * @param name       member name, "&lt;init&gt;" for the constructors, null for the type itself
+     * @param descriptor member descriptor, null for any
+     */
+    public record Member(String typeName, String name, String descriptor) {}
+
+    /**
+     * @param typeName   internal name of the referencing class
+     * @param lineNumber line number of the reference, 0 if the class file contains no line number table
+     */
+    public record Usage(Container.Entry entry, String typeName, String methodName, String methodDescriptor, int offset, int lineNumber) {}
+
+    private UsageFinder() {
+    }
+
+    /**
+     * Streams the usages of 'member' to 'consumer', entry by entry.
+     *
+     * @return the number of usages found
+     */
+    public static int find(Collection<Future<Indexes>> collectionOfFutureIndexes, Member member, Consumer<Usage> consumer, BooleanSupplier isCancelled) {
+        int count = 0;
+
+        try {
+            List<Indexes> collectionOfIndexes = new ArrayList<>();
+
+            for (Future<Indexes> futureIndexes : collectionOfFutureIndexes) {
+                if (futureIndexes.isDone()) {
+                    collectionOfIndexes.add(futureIndexes.get());
+                }
+            }
+
+            Set<String> owners = getOwners(collectionOfIndexes, member);
+            boolean constructor = StringConstants.INSTANCE_CONSTRUCTOR.equals(member.name());
+            String key = (member.name() == null || constructor) ? member.typeName() : member.name();
+            String[] indexNames;
+
+            if (member.name() == null) {
+                indexNames = new String[] { "typeReferences" };
+            } else if (constructor) {
+                indexNames = new String[] { "constructorReferences" };
+            } else if (member.descriptor() == null) {
+                indexNames = new String[] { "methodReferences", "fieldReferences" };
+            } else if (member.descriptor().charAt(0) == '(') {
+                indexNames = new String[] { "methodReferences" };
+            } else {
+                indexNames = new String[] { "fieldReferences" };
+            }
+
+            for (Indexes indexes : collectionOfIndexes) {
+                for (Container.Entry entry : getCandidates(indexes, indexNames, key)) {
+                    if (isCancelled.getAsBoolean()) {
+                        return count;
+                    }
+
+                    UsageTable table = UsageTables.get(entry);
+
+                    if (table != null) {
+                        count += table.forEachUsage(owners, member.name(), member.descriptor(), usage -> consumer.accept(new Usage(entry, table.getTypeName(),
+                                table.getMethodName(usage), table.getMethodDescriptor(usage), table.getOffset(usage), table.getLineNumber(usage))));
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the declaring type and, for the fields & methods, its sub types, through which the member may be
+     *         referenced
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected static Set<String> getOwners(List<Indexes> collectionOfIndexes, Member member) {
+        Set<String> owners = new HashSet<>();
+
+        owners.add(member.typeName());
+
+        if (member.name() != null && !StringConstants.INSTANCE_CONSTRUCTOR.equals(member.name())) {
+            Deque<String> typeNames = new ArrayDeque<>(owners);
+
+            while (!typeNames.isEmpty()) {
+                String typeName = typeNames.removeFirst();
+
+                for (Indexes indexes : collectionOfIndexes) {
+                    Map<String, Collection> subTypeNames = indexes.getIndex("subTypeNames");
+
+                    if (subTypeNames != null) {
+                        Collection<String> collection = subTypeNames.get(typeName);
+
+                        if (collection != null) {
+                            for (String subTypeName : collection) {
+                                if (owners.add(subTypeName)) {
+                                    typeNames.addLast(subTypeName);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return owners;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    protected static Collection<Container.Entry> getCandidates(Indexes indexes, String[] indexNames, String key) {
+        if (indexNames.length == 1) {
+            Map<String, Collection> index = indexes.getIndex(indexNames[0]);
+            Collection<Container.Entry> entries = (index == null) ? null : index.get(key);
+            return (entries == null) ? Collections.emptyList() : entries;
+        }
+
+        Set<Container.Entry> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (String indexName : indexNames) {
+            Map<String, Collection> index = indexes.getIndex(indexName);
+
+            if (index != null) {
+                Collection<Container.Entry> collection = index.get(key);
+
+                if (collection != null) {
+                    entries.addAll(collection);
+                }
+            }
+        }
+
+        return entries;
+    }
+}
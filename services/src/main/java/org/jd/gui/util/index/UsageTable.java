@@ -0,0 +1,84 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Types, fields, methods & constructors referenced by the code of a class, with the location of each reference.<br>
+ * <br>
+ * The references are grouped by target. The location of a reference is packed in an int, referencing method index in
+ * the high 16 bits and bytecode offset in the low 16 bits, and its line number in a char, 0 if unknown. The names come
+ * from the {@link Utf8Dictionary} of the scanner and are shared with the other classes of the archive.<br>
+ * <br>
+ * Immutable, shared by the identical classes of all open archives.
+ */
+public final class UsageTable {
+    public static final UsageTable EMPTY = new UsageTable(null, new String[0], new String[0], new String[0], new int[1], new String[0], new String[0], new int[0], new char[0]);
+
+    private final String typeName;
+    // Targets: owner type name, member name & descriptor, null name for the types
+    private final String[] owners;
+    private final String[] names;
+    private final String[] descriptors;
+    // References of target 'i', from 'starts[i]' to 'starts[i+1]'
+    private final int[] starts;
+    private final String[] methodNames;
+    private final String[] methodDescriptors;
+    private final int[] locations;
+    private final char[] lineNumbers;
+
+    UsageTable(String typeName, String[] owners, String[] names, String[] descriptors, int[] starts,
+            String[] methodNames, String[] methodDescriptors, int[] locations, char[] lineNumbers) {
+        this.typeName = typeName;
+        this.owners = owners;
+        this.names = names;
+        this.descriptors = descriptors;
+        this.starts = starts;
+        this.methodNames = methodNames;
+        this.methodDescriptors = methodDescriptors;
+        this.locations = locations;
+        this.lineNumbers = lineNumbers;
+    }
+
+    /**
+     * @return the internal name of the referencing class
+     */
+    public String getTypeName() { return typeName; }
+
+    public int getUsageCount() { return locations.length; }
+
+    /**
+     * Calls 'consumer' with the index of each reference to a matching target, by target then by location.
+     *
+     * @param owners     internal names of the declaring type and of the types through which the member is referenced
+     * @param name       member name, null for the usages of the types themselves: instructions on the type and
+     *                   references to its members
+     * @param descriptor member descriptor, null for any
+     * @return the number of references found
+     */
+    public int forEachUsage(Set<String> owners, String name, String descriptor, IntConsumer consumer) {
+        int count = 0;
+
+        for (int i = 0; i < this.owners.length; i++) {
+            if (owners.contains(this.owners[i]) && (name == null || (name.equals(names[i]) && (descriptor == null || descriptor.equals(descriptors[i]))))) {
+                for (int j = starts[i]; j < starts[i + 1]; j++) {
+                    consumer.accept(j);
+                }
+                count += starts[i + 1] - starts[i];
+            }
+        }
+
+        return count;
+    }
+
+    public String getMethodName(int usage) { return methodNames[locations[usage] >>> 16]; }
+    public String getMethodDescriptor(int usage) { return methodDescriptors[locations[usage] >>> 16]; }
+    public int getOffset(int usage) { return locations[usage] & 0xFFFF; }
+    public int getLineNumber(int usage) { return lineNumbers[usage]; }
+}
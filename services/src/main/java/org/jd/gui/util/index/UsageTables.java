@@ -0,0 +1,36 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import org.jd.gui.api.model.Container;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Usage tables of the indexed class files, by entry. The tables of an entry are released with the entry, when its
+ * container is closed or re-indexed.
+ */
+public final class UsageTables {
+    private static final Map<Container.Entry, UsageTable> TABLES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private UsageTables() {
+    }
+
+    public static UsageTable get(Container.Entry entry) {
+        return TABLES.get(entry);
+    }
+
+    public static void put(Container.Entry entry, UsageTable table) {
+        if (table.getUsageCount() == 0) {
+            TABLES.remove(entry);
+        } else {
+            TABLES.put(entry, table);
+        }
+    }
+}
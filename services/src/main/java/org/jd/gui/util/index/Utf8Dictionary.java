@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.index;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Decodes modified UTF-8 strings of class files and shares the decoded instances.<br>
+ * <br>
+ * The same type, method and field names appear in thousands of class files of an archive: a lookup compares the
+ * encoded bytes against the previously decoded strings and only allocates a new string for unknown values. The
+ * dictionary is emptied once 'maximumSize' strings have been stored.<br>
+ * <br>
+ * Unsafe thread implementation.
+ */
+public class Utf8Dictionary {
+    public static final int DEFAULT_MAXIMUM_SIZE = 1 << 18;
+
+    private final int maximumSize;
+    private byte[][] keys;
+    private int[] hashes;
+    private String[] values;
+    private int size;
+    private char[] charBuffer = new char[256];
+
+    public Utf8Dictionary() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public Utf8Dictionary(int maximumSize) {
+        this.maximumSize = maximumSize;
+        clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        keys = new byte[1024][];
+        hashes = new int[1024];
+        values = new String[1024];
+        size = 0;
+    }
+
+    /**
+     * @param buffer modified UTF-8 bytes, as stored in CONSTANT_Utf8_info structures
+     */
+    public String get(byte[] buffer, int offset, int length) {
+        int hash = 0;
+        boolean ascii = true;
+
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = buffer[i];
+            hash = 31 * hash + b;
+            ascii &= b > 0;
+        }
+
+        int mask = keys.length - 1;
+        int index = mix(hash) & mask;
+        byte[] key;
+
+        while ((key = keys[index]) != null) {
+            if (hashes[index] == hash && Arrays.equals(key, 0, key.length, buffer, offset, offset + length)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        String value = ascii ? new String(buffer, offset, length, ISO_8859_1) : decode(buffer, offset, length);
+
+        if (size >= maximumSize) {
+            clear();
+            index = mix(hash) & (keys.length - 1);
+        }
+
+        keys[index] = Arrays.copyOfRange(buffer, offset, offset + length);
+        hashes[index] = hash;
+        values[index] = value;
+
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+
+        return value;
+    }
+
+    protected String decode(byte[] buffer, int offset, int length) {
+        if (charBuffer.length < length) {
+            charBuffer = new char[Math.max(length, charBuffer.length * 2)];
+        }
+
+        int end = offset + length;
+        int charLength = 0;
+
+        // Same decoding as 'org.objectweb.asm.ClassReader.readUtf'
+        while (offset < end) {
+            int currentByte = buffer[offset++];
+
+            if ((currentByte & 0x80) == 0) {
+                charBuffer[charLength++] = (char)(currentByte & 0x7F);
+            } else if ((currentByte & 0xE0) == 0xC0) {
+                charBuffer[charLength++] = (char)(((currentByte & 0x1F) << 6) + (buffer[offset++] & 0x3F));
+            } else {
+                charBuffer[charLength++] = (char)(((currentByte & 0xF) << 12) + ((buffer[offset++] & 0x3F) << 6) + (buffer[offset++] & 0x3F));
+            }
+        }
+
+        return new String(charBuffer, 0, charLength);
+    }
+
+    protected void resize() {
+        byte[][] oldKeys = keys;
+        int[] oldHashes = hashes;
+        String[] oldValues = values;
+        int capacity = oldKeys.length * 2;
+        int mask = capacity - 1;
+
+        keys = new byte[capacity][];
+        hashes = new int[capacity];
+        values = new String[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = mix(oldHashes[i]) & mask;
+
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+
+                keys[index] = oldKeys[i];
+                hashes[index] = oldHashes[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    protected static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.io;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches a directory tree and reports the created, modified and deleted paths in batches.<br>
+ * <br>
+ * A build usually rewrites many files at once: events are accumulated until no new event has been received
+ * during 'debounceDelay' milliseconds (or until 'maximumDelay' has elapsed), then the whole batch is delivered
+ * to the listener on the watcher thread.
+ */
+public class DirectoryWatcher implements Closeable {
+    public static final long DEFAULT_DEBOUNCE_DELAY = 300L;
+    public static final long DEFAULT_MAXIMUM_DELAY = 3000L;
+
+    /**
+     * @param overflow true if some events have been lost: the listener should reload the whole directory tree
+     */
+    public record Changes(Set<Path> created, Set<Path> modified, Set<Path> deleted, boolean overflow) {
+        public boolean isEmpty() {
+            return !overflow && created.isEmpty() && modified.isEmpty() && deleted.isEmpty();
+        }
+    }
+
+    private final Path rootPath;
+    private final int maximumDepth;
+    private final long debounceDelay;
+    private final long maximumDelay;
+    private final Consumer<Changes> listener;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    public DirectoryWatcher(Path rootPath, int maximumDepth, Consumer<Changes> listener) throws IOException {
+        this(rootPath, maximumDepth, DEFAULT_DEBOUNCE_DELAY, DEFAULT_MAXIMUM_DELAY, listener);
+    }
+
+    public DirectoryWatcher(Path rootPath, int maximumDepth, long debounceDelay, long maximumDelay, Consumer<Changes> listener) throws IOException {
+        this.rootPath = rootPath;
+        this.maximumDepth = maximumDepth;
+        this.debounceDelay = debounceDelay;
+        this.maximumDelay = maximumDelay;
+        this.listener = listener;
+        this.watchService = rootPath.getFileSystem().newWatchService();
+
+        register(rootPath);
+
+        this.thread = new Thread(this::run, "DirectoryWatcher-" + rootPath.getFileName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public Path getRootPath() {
+        return rootPath;
+    }
+
+    protected void register(Path start) throws IOException {
+        int depth = maximumDepth - (start.getNameCount() - rootPath.getNameCount());
+
+        if (depth > 0) {
+            Files.walkFileTree(start, EnumSet.noneOf(FileVisitOption.class), depth, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+    }
+
+    protected void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Changes changes = new Changes(new LinkedHashSet<>(), new LinkedHashSet<>(), new LinkedHashSet<>(), false);
+                long deadline = System.currentTimeMillis() + maximumDelay;
+
+                changes = collect(key, changes);
+
+                // Wait for a quiet period before delivering the batch
+                while (System.currentTimeMillis() < deadline && (key = watchService.poll(debounceDelay, TimeUnit.MILLISECONDS)) != null) {
+                    changes = collect(key, changes);
+                }
+
+                if (!changes.isEmpty()) {
+                    try {
+                        listener.accept(changes);
+                    } catch (Exception e) {
+                        assert ExceptionUtil.printStackTrace(e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Watcher closed
+        }
+    }
+
+    protected Changes collect(WatchKey key, Changes changes) {
+        Path directory = directories.get(key);
+        boolean overflow = changes.overflow();
+
+        if (directory != null) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                WatchEvent.Kind<?> kind = event.kind();
+
+                if (kind == OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+
+                Path path = directory.resolve((Path)event.context());
+
+                if (kind == ENTRY_CREATE) {
+                    if (changes.deleted().remove(path)) {
+                        // Deleted then re-created
+                        changes.modified().add(path);
+                    } else {
+                        changes.created().add(path);
+                    }
+                    if (Files.isDirectory(path)) {
+                        try {
+                            register(path);
+                        } catch (IOException e) {
+                            assert ExceptionUtil.printStackTrace(e);
+                        }
+                    }
+                } else if (kind == ENTRY_MODIFY) {
+                    if (!changes.created().contains(path) && !Files.isDirectory(path)) {
+                        changes.modified().add(path);
+                    }
+                } else if (kind == ENTRY_DELETE && !changes.created().remove(path)) {
+                    changes.modified().remove(path);
+                    changes.deleted().add(path);
+                }
+            }
+        }
+
+        if (!key.reset()) {
+            // Directory deleted
+            directories.remove(key);
+        }
+
+        return overflow == changes.overflow() ? changes : new Changes(changes.created(), changes.modified(), changes.deleted(), overflow);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Wakes up the watcher thread with a ClosedWatchServiceException
+        watchService.close();
+    }
+}
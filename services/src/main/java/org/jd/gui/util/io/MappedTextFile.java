@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * UTF-8 text, memory-mapped in segments of 'SEGMENT_SIZE' bytes, and indexed into line offsets.<br>
+ * <br>
+ * The offset of one line out of 'CHECKPOINT_INTERVAL' is stored: 4 GB of logs with lines of 100 bytes need 5 MB of
+ * offsets. Lines are readable while {@link #index(IntConsumer, BooleanSupplier)} runs on a background thread: the
+ * line count grows as the indexation progresses.
+ */
+public class MappedTextFile implements Closeable {
+    protected static final int SEGMENT_SIZE = 1 << 30;
+    protected static final int CHECKPOINT_INTERVAL = 64;
+    /** Maximum number of bytes decoded by {@link #getLines(int, int)}, to survive lines of gigabytes */
+    protected static final int MAXIMUM_READ_SIZE = 16 * 1024 * 1024;
+    protected static final int PROGRESS_INTERVAL = 64 * 1024 * 1024;
+
+    protected final FileChannel channel;
+    protected final ByteBuffer[] segments;
+    protected final long length;
+
+    // Offset of lines 0, CHECKPOINT_INTERVAL, 2*CHECKPOINT_INTERVAL, ...
+    protected volatile long[] checkpoints = new long[1024];
+    protected volatile int lineCount;
+    protected volatile boolean indexed;
+
+    public MappedTextFile(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        length = channel.size();
+        segments = new ByteBuffer[(int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, length - position));
+        }
+    }
+
+    public MappedTextFile(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        channel = null;
+        length = bytes.length;
+        segments = new ByteBuffer[] { ByteBuffer.wrap(bytes) };
+    }
+
+    public long getLength() { return length; }
+
+    public int getLineCount() { return lineCount; }
+
+    public boolean isIndexed() { return indexed; }
+
+    /**
+     * Scans the text for line feeds.
+     *
+     * @param progressListener called with the count of complete lines every 'PROGRESS_INTERVAL' bytes
+     * @param isCancelled      polled every 'PROGRESS_INTERVAL' bytes
+     */
+    public void index(IntConsumer progressListener, BooleanSupplier isCancelled) {
+        long[] offsets = checkpoints;
+        int count = 0;
+        long nextProgress = PROGRESS_INTERVAL;
+
+        // Line 0
+        offsets[0] = 0;
+
+        for (int s = 0; s < segments.length; s++) {
+            ByteBuffer segment = segments[s].duplicate();
+            long segmentOffset = (long) s * SEGMENT_SIZE;
+            int limit = segment.limit();
+
+            for (int i = 0; i < limit; i++) {
+                if (segment.get(i) == '\n') {
+                    long offset = segmentOffset + i + 1;
+
+                    if (offset < length) {
+                        count++;
+                        if (count % CHECKPOINT_INTERVAL == 0) {
+                            int index = count / CHECKPOINT_INTERVAL;
+                            if (index == offsets.length) {
+                                checkpoints = offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                            }
+                            offsets[index] = offset;
+                        }
+                    }
+                }
+
+                if (segmentOffset + i >= nextProgress) {
+                    nextProgress += PROGRESS_INTERVAL;
+                    // Complete lines only
+                    lineCount = count;
+                    if (isCancelled.getAsBoolean()) {
+                        return;
+                    }
+                    progressListener.accept(lineCount);
+                }
+            }
+        }
+
+        lineCount = length == 0 ? 0 : count + 1;
+        indexed = true;
+        progressListener.accept(lineCount);
+    }
+
+    /**
+     * @param firstLine index of the first line, from 0
+     * @return the lines, with their line feeds
+     */
+    public String getLines(int firstLine, int count) {
+        int lastLine = Math.min(firstLine + count, lineCount);
+
+        if (firstLine >= lastLine) {
+            return "";
+        }
+
+        long start = getLineOffset(firstLine);
+        long end = lastLine == lineCount && indexed ? length : getLineOffset(lastLine);
+        int size = (int) Math.min(end - start, MAXIMUM_READ_SIZE);
+        byte[] bytes = new byte[size];
+
+        read(start, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void writeTo(OutputStream os) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+
+        for (long position = 0; position < length; position += buffer.length) {
+            int size = (int) Math.min(buffer.length, length - position);
+            read(position, buffer, size);
+            os.write(buffer, 0, size);
+        }
+    }
+
+    protected long getLineOffset(int line) {
+        long[] offsets = checkpoints;
+        long offset = offsets[line / CHECKPOINT_INTERVAL];
+
+        // Skip the lines following the checkpoint
+        for (int i = line % CHECKPOINT_INTERVAL; i > 0 && offset < length; i--) {
+            offset = indexOfLineFeed(offset) + 1;
+        }
+
+        return offset;
+    }
+
+    protected long indexOfLineFeed(long offset) {
+        for (long i = offset; i < length; i++) {
+            if (segments[(int) (i / SEGMENT_SIZE)].get((int) (i % SEGMENT_SIZE)) == '\n') {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    protected void read(long position, byte[] bytes) {
+        read(position, bytes, bytes.length);
+    }
+
+    protected void read(long position, byte[] bytes, int size) {
+        int done = 0;
+
+        while (done < size) {
+            long current = position + done;
+            ByteBuffer segment = segments[(int) (current / SEGMENT_SIZE)].duplicate();
+            int offset = (int) (current % SEGMENT_SIZE);
+            int n = Math.min(size - done, segment.limit() - offset);
+
+            segment.position(offset);
+            segment.get(bytes, done, n);
+            done += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mapped buffers are released by the garbage collector
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
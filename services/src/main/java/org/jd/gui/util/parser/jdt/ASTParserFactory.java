@@ -14,6 +14,8 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,7 +44,15 @@ public final class ASTParserFactory {
         return BINDING_INSTANCE;
     }
 
-    private static final Map<URI, String> jarTojdkVersion = new ConcurrentHashMap<>();
+    /**
+     * Classpath and compiler options of the parsers of a container, computed once and shared by all the parses of
+     * the container, until it is closed.
+     */
+    private record Environment(String[] classpathEntries, String[] sourcepathEntries, boolean includeRunningVMBootclasspath, Map<String, String> options) {
+    }
+
+    private static final Map<URI, Environment> environments = new ConcurrentHashMap<>();
+    private static volatile List<String> jdkClasspath;
 
     private final boolean resolveBindings;
     private final boolean bindingRecovery;
@@ -62,28 +72,43 @@ public final class ASTParserFactory {
         parser.setResolveBindings(resolveBindings);
         parser.setBindingsRecovery(bindingRecovery);
         parser.setStatementsRecovery(statementRecovery);
-        List<String> jdkClasspath = ClasspathUtil.getJDKClasspath();
-        String[] classpathEntries = ClasspathUtil.createClasspathEntries(jarURI, jdkClasspath);
-        boolean includeRunningVMBootclasspath = jdkClasspath.isEmpty();
+        Environment environment = environments.computeIfAbsent(jarURI, ASTParserFactory::createEnvironment);
         if (unitName.endsWith(".java")) {
-            String[] sourcepathEntries = { jarURI.getPath() };
             String[] encodings = { StandardCharsets.UTF_8.name() };
-            parser.setEnvironment(classpathEntries, sourcepathEntries, encodings, includeRunningVMBootclasspath);
+            parser.setEnvironment(environment.classpathEntries(), environment.sourcepathEntries(), encodings, environment.includeRunningVMBootclasspath());
             parser.setUnitName(unitName);
         }
         if (unitName.endsWith(StringConstants.CLASS_FILE_SUFFIX)) {
-            parser.setEnvironment(classpathEntries, null, null, includeRunningVMBootclasspath);
+            parser.setEnvironment(environment.classpathEntries(), null, null, environment.includeRunningVMBootclasspath());
             parser.setUnitName(unitName.replace(StringConstants.CLASS_FILE_SUFFIX, ".java"));
         }
 
+        parser.setCompilerOptions(new HashMap<>(environment.options()));
+        return parser;
+    }
+
+    /**
+     * Forgets the environment of a container, called when its tab is closed.
+     */
+    public static void evict(URI jarURI) {
+        environments.remove(jarURI);
+    }
+
+    private static Environment createEnvironment(URI jarURI) {
+        List<String> classpath = jdkClasspath;
+        if (classpath == null) {
+            // Same JDK for all containers
+            jdkClasspath = classpath = ClasspathUtil.getJDKClasspath();
+        }
+        String[] classpathEntries = ClasspathUtil.createClasspathEntries(jarURI, classpath);
+        String[] sourcepathEntries = { jarURI.getPath() };
         Map<String, String> options = getDefaultOptions();
-        String majorVersion = jarTojdkVersion.computeIfAbsent(jarURI, ASTParserFactory::resolveJDKVersion);
+        String majorVersion = resolveJDKVersion(jarURI);
         options.put(JavaCore.COMPILER_COMPLIANCE, majorVersion);
         options.put(JavaCore.COMPILER_SOURCE, majorVersion);
         options.put(JavaCore.COMPILER_PB_MAX_PER_UNIT, String.valueOf(Integer.MAX_VALUE));
         options.put(JavaCore.COMPILER_PB_UNNECESSARY_TYPE_CHECK, "warning");
-        parser.setCompilerOptions(options);
-        return parser;
+        return new Environment(classpathEntries, sourcepathEntries, classpath.isEmpty(), Collections.unmodifiableMap(options));
     }
 
     private static String resolveJDKVersion(URI jarURI) {
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.xml;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * XML factories configured once per thread: looking up and configuring a factory costs far more than parsing a
+ * small document.
+ */
+public final class XmlFactories {
+    private static final ThreadLocal<XMLInputFactory> INPUT_FACTORIES = ThreadLocal.withInitial(XmlFactories::createInputFactory);
+
+    private XmlFactories() {
+    }
+
+    /**
+     * @return a factory of readers ignoring DTDs and external resources, owned by the current thread
+     */
+    public static XMLInputFactory getInputFactory() {
+        return INPUT_FACTORIES.get();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+        factory.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+        return factory;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.xml;
+
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.util.container.SharedContentCache;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Finds the texts of the elements at given paths of XML documents, 'web-app/servlet/servlet-class' for example.<br>
+ * <br>
+ * The paths are compiled into an automaton over the tag names: each element costs one lookup, whatever the number of
+ * paths, and no path is built while reading. The matches are cached by entry, so that the indexers and the pages
+ * share one pass per document.<br>
+ * <br>
+ * The documents are parsed from the decoded text displayed by the pages, so that the positions are offsets in it.
+ */
+public final class XmlPathMatcher {
+    private final State initialState = new State();
+    private final SharedContentCache<Container.Entry, List<Match>> cache = new SharedContentCache<>(256);
+
+    public XmlPathMatcher(Collection<String> paths) {
+        for (String path : paths) {
+            if (path != null && !path.isEmpty()) {
+                State state = initialState;
+
+                for (String tagName : path.split("/")) {
+                    if (!tagName.isEmpty()) {
+                        state = state.transitions.computeIfAbsent(tagName, k -> new State());
+                    }
+                }
+
+                state.path = path;
+            }
+        }
+    }
+
+    /**
+     * @param path     matched path, as given to the constructor
+     * @param text     text of the element, untrimmed
+     * @param position offset of the first character following the start tag
+     */
+    public record Match(String path, String text, int position) {
+    }
+
+    private static class State {
+        private final Map<String, State> transitions = new HashMap<>();
+        // Not null for the final states
+        private String path;
+    }
+
+    /**
+     * @param text decoded content of 'entry', parsed if the matches of 'entry' are not cached
+     */
+    public List<Match> getMatches(Container.Entry entry, String text) {
+        List<Match> matches = cache.get(entry);
+
+        if (matches == null) {
+            matches = find(text);
+            cache.put(entry, matches);
+        }
+
+        return matches;
+    }
+
+    /**
+     * Caches the matches of 'entry' found by a scanner fed by another pass.
+     */
+    public void putMatches(Container.Entry entry, List<Match> matches) {
+        cache.put(entry, matches);
+    }
+
+    public List<Match> find(String text) {
+        Scanner scanner = newScanner(text);
+        XMLStreamReader reader = null;
+
+        try {
+            reader = XmlFactories.getInputFactory().createXMLStreamReader(new StringReader(text));
+
+            while (reader.hasNext()) {
+                reader.next();
+                scanner.accept(reader);
+            }
+        } catch (XMLStreamException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        } finally {
+            close(reader);
+        }
+
+        return scanner.getMatches();
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
+
+    /**
+     * @param text document read by the reader feeding the scanner
+     * @return a scanner to feed with the events of a reader, for one document
+     */
+    public Scanner newScanner(String text) {
+        return new Scanner(text);
+    }
+
+    public final class Scanner {
+        private final String text;
+        // States of the open elements, null below the elements of no path
+        private State[] states = new State[16];
+        private int depth;
+        // State of the last started element, until its end
+        private State leafState;
+        private int offset;
+        private final List<Match> matches = new ArrayList<>();
+
+        private Scanner(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Processes the current event of 'reader'.
+         */
+        public void accept(XMLStreamReader reader) {
+            switch (reader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT:
+                State parentState = depth == 0 ? initialState : states[depth - 1];
+                State state = parentState == null ? null : parentState.transitions.get(reader.getLocalName());
+
+                if (depth == states.length) {
+                    states = Arrays.copyOf(states, depth * 2);
+                }
+
+                states[depth++] = state;
+                leafState = state;
+                offset = reader.getLocation().getCharacterOffset();
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                depth--;
+                leafState = null;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+                if (leafState != null && leafState.path != null) {
+                    matches.add(new Match(leafState.path, reader.getText(), getTextPosition()));
+                }
+                break;
+            default:
+                break;
+            }
+        }
+
+        /**
+         * @return the offset following the '>' of the start tag, searched backward from the location of the reader
+         */
+        private int getTextPosition() {
+            int index = Math.min(offset, text.length() - 1);
+
+            while (index > 0 && text.charAt(index) != '>') {
+                index--;
+            }
+
+            return index + 1;
+        }
+
+        public List<Match> getMatches() {
+            return matches.isEmpty() ? Collections.emptyList() : matches;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.util.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paths of the deployment descriptors referencing types and resources, shared by their indexers and their pages.
+ */
+public final class XmlPathMatchers {
+    public static final List<String> WEB_XML_TYPE_PATHS = List.of(
+        "web-app/filter/filter-class",
+        "web-app/listener/listener-class",
+        "web-app/servlet/servlet-class");
+
+    public static final List<String> WEB_XML_RESOURCE_PATHS = List.of(
+        "web-app/jsp-config/taglib/taglib-location",
+        "web-app/welcome-file-list/welcome-file",
+        "web-app/login-config/form-login-config/form-login-page",
+        "web-app/login-config/form-login-config/form-error-page",
+        "web-app/jsp-config/jsp-property-group/include-prelude",
+        "web-app/jsp-config/jsp-property-group/include-coda");
+
+    public static final XmlPathMatcher WEB_XML = new XmlPathMatcher(concat(WEB_XML_TYPE_PATHS, WEB_XML_RESOURCE_PATHS));
+
+    public static final List<String> EJB_JAR_XML_TYPE_PATHS = List.of(
+        "ejb-jar/assembly-descriptor/application-exception/exception-class",
+        "ejb-jar/assembly-descriptor/interceptor-binding/interceptor-class",
+
+        "ejb-jar/enterprise-beans/entity/home",
+        "ejb-jar/enterprise-beans/entity/remote",
+        "ejb-jar/enterprise-beans/entity/ejb-class",
+        "ejb-jar/enterprise-beans/entity/prim-key-class",
+
+        "ejb-jar/enterprise-beans/message-driven/ejb-class",
+        "ejb-jar/enterprise-beans/message-driven/messaging-type",
+        "ejb-jar/enterprise-beans/message-driven/resource-ref/injection-target/injection-target-class",
+        "ejb-jar/enterprise-beans/message-driven/resource-env-ref/injection-target/injection-target-class",
+
+        "ejb-jar/enterprise-beans/session/home",
+        "ejb-jar/enterprise-beans/session/local",
+        "ejb-jar/enterprise-beans/session/remote",
+        "ejb-jar/enterprise-beans/session/business-local",
+        "ejb-jar/enterprise-beans/session/business-remote",
+        "ejb-jar/enterprise-beans/session/service-endpoint",
+        "ejb-jar/enterprise-beans/session/ejb-class",
+        "ejb-jar/enterprise-beans/session/ejb-ref/home",
+        "ejb-jar/enterprise-beans/session/ejb-ref/remote",
+
+        "ejb-jar/interceptors/interceptor/around-invoke/class",
+        "ejb-jar/interceptors/interceptor/ejb-ref/home",
+        "ejb-jar/interceptors/interceptor/ejb-ref/remote",
+        "ejb-jar/interceptors/interceptor/interceptor-class");
+
+    public static final XmlPathMatcher EJB_JAR_XML = new XmlPathMatcher(EJB_JAR_XML_TYPE_PATHS);
+
+    private XmlPathMatchers() {
+    }
+
+    private static List<String> concat(List<String> paths1, List<String> paths2) {
+        List<String> paths = new ArrayList<>(paths1.size() + paths2.size());
+        paths.addAll(paths1);
+        paths.addAll(paths2);
+        return paths;
+    }
+}
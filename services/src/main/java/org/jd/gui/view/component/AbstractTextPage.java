@@ -45,6 +45,7 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.swing.InputMap;
 import javax.swing.JPanel;
@@ -68,6 +69,7 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
 
     protected final RSyntaxTextArea textArea;
     protected final RTextScrollPane scrollPane;
+    protected final IncrementalFinder finder;
 
     private Map<String, String> preferences;
 
@@ -82,10 +84,12 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
         textArea.setEditable(false);
         textArea.setDropTarget(null);
         textArea.setPopupMenu(null);
+        finder = new IncrementalFinder(textArea);
         textArea.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
+                    finder.cancel();
                     textArea.setMarkAllHighlightColor(DOUBLE_CLICK_HIGHLIGHT_COLOR);
                     SearchEngine.markAll(textArea, newSearchContext(textArea.getSelectedText(), true, true, true, false));
                 }
@@ -292,6 +296,7 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
     @Override
     public boolean highlightText(String text, boolean caseSensitive) {
         if (text.length() > 1) {
+            finder.cancel();
             textArea.setMarkAllHighlightColor(SEARCH_HIGHLIGHT_COLOR);
             textArea.setCaretPosition(textArea.getSelectionStart());
 
@@ -309,9 +314,21 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
     }
 
     @Override
-    public void findNext(String text, boolean caseSensitive) {
+    public void highlightText(String text, boolean caseSensitive, Consumer<Boolean> resultCallback) {
         if (text.length() > 1) {
             textArea.setMarkAllHighlightColor(SEARCH_HIGHLIGHT_COLOR);
+            finder.find(text, caseSensitive, resultCallback);
+        } else {
+            finder.cancel();
+            resultCallback.accept(true);
+        }
+    }
+
+    @Override
+    public void findNext(String text, boolean caseSensitive) {
+        if (text.length() > 1 && !finder.select(text, caseSensitive, true)) {
+            finder.cancel();
+            textArea.setMarkAllHighlightColor(SEARCH_HIGHLIGHT_COLOR);
 
             SearchContext context = newSearchContext(text, caseSensitive, false, true, false);
             SearchResult result = SearchEngine.find(textArea, context);
@@ -325,7 +342,8 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
 
     @Override
     public void findPrevious(String text, boolean caseSensitive) {
-        if (text.length() > 1) {
+        if (text.length() > 1 && !finder.select(text, caseSensitive, false)) {
+            finder.cancel();
             textArea.setMarkAllHighlightColor(SEARCH_HIGHLIGHT_COLOR);
 
             SearchContext context = newSearchContext(text, caseSensitive, false, false, false);
@@ -380,6 +398,7 @@ public class AbstractTextPage extends JPanel implements LineNumberNavigable, Con
                 String highlightFlags = parameters.get("highlightFlags");
 
                 if (highlightFlags.indexOf('s') != -1 && parameters.containsKey("highlightPattern")) {
+                    finder.cancel();
                     textArea.setMarkAllHighlightColor(SELECT_HIGHLIGHT_COLOR);
                     textArea.setCaretPosition(0);
 
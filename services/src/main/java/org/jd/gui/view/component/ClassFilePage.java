@@ -9,30 +9,37 @@ package org.jd.gui.view.component;
 
 import org.fife.ui.rsyntaxtextarea.DocumentRange;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
-import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container;
-import org.jd.gui.util.MethodPatcher;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationSupervisor;
+import org.jd.gui.util.decompiler.FallbackDecompiler;
 import org.jd.gui.util.decompiler.GuiPreferences;
+import org.jd.gui.util.decompiler.PreferenceScope;
 import org.jd.gui.util.loader.LoaderUtils;
 import org.jd.gui.util.parser.jdt.core.manipulation.RemoveUnnecessaryCasts;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
+import java.awt.BorderLayout;
 import java.awt.Color;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultCaret;
 
-import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V0;
 import static com.heliosdecompiler.transformerapi.StandardTransformers.Decompilers.ENGINE_JD_CORE_V1;
 import static jd.core.preferences.Preferences.REALIGN_LINE_NUMBERS;
 import static org.jd.gui.util.decompiler.GuiPreferences.DECOMPILE_ENGINE;
@@ -48,49 +55,94 @@ public class ClassFilePage extends TypePage {
     private static final long serialVersionUID = 1L;
 
     private int maximumLineNumber = -1;
+    // Preferences the displayed source depends on
+    private transient Map<String, String> decompilationPreferences;
+    private transient Map<String, String> highlightingPreferences;
+    private transient Map<String, String> parsingPreferences;
+    private transient SwingWorker<Decompilation, Void> decompilationWorker;
+    // Shown while a known slow class is listed instead of decompiled
+    private JPanel knownSlowBanner;
+    private JButton retryButton;
 
     public ClassFilePage(API api, Container.Entry entry) {
         super(api, entry);
         Map<String, String> preferences = api.getPreferences();
         // Init view
         setErrorForeground(Color.decode(preferences.get(GuiPreferences.ERROR_BACKGROUND_COLOR)));
+        highlightingPreferences = PreferenceScope.getPreferences(preferences, PreferenceScope.HIGHLIGHTING);
+        parsingPreferences = PreferenceScope.getPreferences(preferences, PreferenceScope.PARSING);
         // Display source
         decompile(preferences);
     }
 
+    /**
+     * @param result    null on error
+     * @param text      decompiled source, without the unnecessary casts if requested
+     * @param knownSlow true if the class exceeded its budget before: its byte code is listed
+     */
+    protected record Decompilation(Map<String, String> preferences, FallbackDecompiler.Result result, String text, boolean knownSlow) {
+    }
+
     public void decompile(Map<String, String> preferences) {
-        
-        boolean realignmentLineNumbers = "true".equals(preferences.get(REALIGN_LINE_NUMBERS)) || "true".equals(preferences.get("StretchLines"));
+        setDecompilation(runDecompiler(preferences));
+    }
+
+    /**
+     * Runs the decompiler, outside the EDT when the preferences change. The known slow classes are listed directly.
+     */
+    protected Decompilation runDecompiler(Map<String, String> preferences) {
+        return runDecompiler(preferences, true);
+    }
+
+    /**
+     * @param skipKnownSlowClasses false to retry the decompilation of a known slow class
+     */
+    protected Decompilation runDecompiler(Map<String, String> preferences, boolean skipKnownSlowClasses) {
         boolean removeUnnecessaryCasts = "true".equals(preferences.get(REMOVE_UNNECESSARY_CASTS));
+        Map<String, String> decompiledPreferences = PreferenceScope.getDecompilationPreferences(preferences);
 
-        setShowMisalignment(realignmentLineNumbers);
-        
         // Init loader
         ContainerLoader loader = new ContainerLoader(entry);
         try {
-            // Clear ...
-            clearLineNumbers();
-            listener.clearData();
-
             // Format internal name
             String entryInternalName = ClassUtil.getInternalName(entry.getPath());
             
             String engineName = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
-            DecompilationResult decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, engineName);
-            if (decompilationResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
-                /*
-                 * Sometimes JD-Core v0 decompiles with success where JD-Core v1 fails. 
-                 * In this case, patch JD-Core v0 method into JD-Core v1 method.
-                 * It will appear with comment 'Patched from JD-Core V0'
-                 */
-                DecompilationResult sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
-                String patchedCode = MethodPatcher.patchCode(decompilationResult.getDecompiledOutput(), sourceCodeV0.getDecompiledOutput(), entry);
-                if (removeUnnecessaryCasts) {
-                    patchedCode = new RemoveUnnecessaryCasts(entry).process(patchedCode);
-                }
-                parseAndSetText(patchedCode);
+            boolean knownSlow = skipKnownSlowClasses && DecompilationSupervisor.isKnownSlow(entry);
+            FallbackDecompiler.Result result = DecompilationSupervisor.decompile(apiLoader, entryInternalName, preferences, engineName, entry, skipKnownSlowClasses);
+            String text = result.decompilationResult().getDecompiledOutput();
+            if (removeUnnecessaryCasts && !knownSlow) {
+                text = new RemoveUnnecessaryCasts(entry).process(text);
+            }
+            return new Decompilation(decompiledPreferences, result, text, knownSlow);
+        } catch (Exception t) {
+            assert ExceptionUtil.printStackTrace(t);
+            return new Decompilation(decompiledPreferences, null, INTERNAL_ERROR, false);
+        }
+    }
+
+    protected void setDecompilation(Decompilation decompilation) {
+        Map<String, String> preferences = decompilation.preferences();
+        boolean realignmentLineNumbers = "true".equals(preferences.get(REALIGN_LINE_NUMBERS)) || "true".equals(preferences.get("StretchLines"));
+        boolean removeUnnecessaryCasts = "true".equals(preferences.get(REMOVE_UNNECESSARY_CASTS));
+
+        setShowMisalignment(realignmentLineNumbers);
+        setKnownSlowBannerVisible(decompilation.knownSlow());
+        decompilationPreferences = preferences;
+
+        try {
+            // Clear ...
+            clearLineNumbers();
+            listener.clearData();
+
+            FallbackDecompiler.Result result = decompilation.result();
+            if (result == null) {
+                setText(INTERNAL_ERROR);
+            } else if (result.patched()) {
+                parseAndSetText(decompilation.text());
             } else {
+                DecompilationResult decompilationResult = result.decompilationResult();
                 /*
                  * Use the hyperlinks of the decompiler as preferred way providing links as it often provides more of them
                  */
@@ -113,12 +165,9 @@ public class ClassFilePage extends TypePage {
                      * enable the links. Same thing in case 'Remove casts' options is activated, as it ruins the hyperlinks.
                      * Avoid shifting positions for all of them by re-parsing the source code. 
                      */
-                    if (removeUnnecessaryCasts) {
-                        decompilationResult.setDecompiledOutput(new RemoveUnnecessaryCasts(entry).process(decompilationResult.getDecompiledOutput()));
-                    }
-                    parseAndSetText(decompilationResult.getDecompiledOutput());
+                    parseAndSetText(decompilation.text());
                 } else {
-                    setText(decompilationResult.getDecompiledOutput());
+                    setText(decompilation.text());
                 }
             }
         } catch (Exception t) {
@@ -129,6 +178,29 @@ public class ClassFilePage extends TypePage {
         }
     }
 
+    /**
+     * Shows the banner of a known slow class, with the action retrying its decompilation under the budgets.
+     */
+    protected void setKnownSlowBannerVisible(boolean visible) {
+        if (visible && knownSlowBanner == null) {
+            retryButton = new JButton("Retry decompilation");
+            retryButton.addActionListener(e -> {
+                retryButton.setEnabled(false);
+                decompileInBackground(new HashMap<>(api.getPreferences()), false);
+            });
+            knownSlowBanner = new JPanel(new BorderLayout(8, 0));
+            knownSlowBanner.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+            knownSlowBanner.add(new JLabel("Known slow class: its decompilation exceeded the budget before, its byte code is listed."), BorderLayout.CENTER);
+            knownSlowBanner.add(retryButton, BorderLayout.LINE_END);
+            add(knownSlowBanner, BorderLayout.PAGE_START);
+        }
+        if (knownSlowBanner != null) {
+            retryButton.setEnabled(true);
+            knownSlowBanner.setVisible(visible);
+            revalidate();
+        }
+    }
+
     @Override
     public String getSyntaxStyle() {
         return SyntaxConstants.SYNTAX_STYLE_JAVA;
@@ -158,11 +230,7 @@ public class ClassFilePage extends TypePage {
 
             String decompileEngine = preferences.getOrDefault(DECOMPILE_ENGINE, ENGINE_JD_CORE_V1);
             Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
-            decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, decompileEngine);
-            if (decompilationResult.getDecompiledOutput().contains(ByteCodeWriter.DECOMPILATION_FAILED_AT_LINE)) {
-                DecompilationResult sourceCodeV0 = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, ENGINE_JD_CORE_V0);
-                decompilationResult.setDecompiledOutput(MethodPatcher.patchCode(decompilationResult.getDecompiledOutput(), sourceCodeV0.getDecompiledOutput(), entry));
-            }
+            decompilationResult.setDecompiledOutput(DecompilationSupervisor.decompileSource(apiLoader, entryInternalName, preferences, decompileEngine, entry, true));
         } catch (Exception t) {
             assert ExceptionUtil.printStackTrace(t);
             decompilationResult.setDecompiledOutput(INTERNAL_ERROR);
@@ -202,14 +270,66 @@ public class ClassFilePage extends TypePage {
     // --- PreferencesChangeListener --- //
     @Override
     public void preferencesChanged(Map<String, String> preferences) {
-        DefaultCaret caret = (DefaultCaret) textArea.getCaret();
-        int updatePolicy = caret.getUpdatePolicy();
+        if (!PreferenceScope.getDecompilationPreferences(preferences).equals(decompilationPreferences)) {
+            // The source depends on the changed preferences
+            decompileInBackground(new HashMap<>(preferences));
+        }
 
-        caret.setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
-        decompile(preferences);
-        caret.setUpdatePolicy(updatePolicy);
+        Map<String, String> newHighlightingPreferences = PreferenceScope.getPreferences(preferences, PreferenceScope.HIGHLIGHTING);
+        if (!newHighlightingPreferences.equals(highlightingPreferences)) {
+            highlightingPreferences = newHighlightingPreferences;
+            setErrorForeground(Color.decode(preferences.get(GuiPreferences.ERROR_BACKGROUND_COLOR)));
+            textArea.repaint();
+        }
+
+        Map<String, String> newParsingPreferences = PreferenceScope.getPreferences(preferences, PreferenceScope.PARSING);
+        if (!newParsingPreferences.equals(parsingPreferences)) {
+            // The reported problems depend on the changed preferences
+            parsingPreferences = newParsingPreferences;
+            textArea.forceReparsing(parser);
+        }
 
         super.preferencesChanged(preferences);
-        indexesChanged(collectionOfFutureIndexes);
+    }
+
+    protected void decompileInBackground(Map<String, String> preferences) {
+        decompileInBackground(preferences, true);
+    }
+
+    protected void decompileInBackground(Map<String, String> preferences, boolean skipKnownSlowClasses) {
+        if (decompilationWorker != null) {
+            // Superseded
+            decompilationWorker.cancel(false);
+        }
+
+        decompilationPreferences = PreferenceScope.getDecompilationPreferences(preferences);
+        decompilationWorker = new SwingWorker<Decompilation, Void>() {
+            @Override
+            protected Decompilation doInBackground() {
+                return runDecompiler(preferences, skipKnownSlowClasses);
+            }
+
+            @Override
+            protected void done() {
+                if (!isCancelled()) {
+                    try {
+                        DefaultCaret caret = (DefaultCaret) textArea.getCaret();
+                        int updatePolicy = caret.getUpdatePolicy();
+
+                        caret.setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+                        setDecompilation(get());
+                        caret.setUpdatePolicy(updatePolicy);
+
+                        indexesChanged(collectionOfFutureIndexes);
+                    } catch (InterruptedException e) {
+                        assert ExceptionUtil.printStackTrace(e);
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                        assert ExceptionUtil.printStackTrace(e);
+                    }
+                }
+            }
+        };
+        decompilationWorker.execute();
     }
 }
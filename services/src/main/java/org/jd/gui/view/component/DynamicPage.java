@@ -29,8 +29,10 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
@@ -55,12 +57,15 @@ public class DynamicPage
         this.api = api;
         this.entry = entry;
 
-        Map<String, String> preferences = api.getPreferences();
-        Integer currentHashcode = Integer.valueOf(preferences.hashCode());
-        putClientProperty("preferences-hashCode", currentHashcode);
+        putClientProperty("preferences", new HashMap<>(api.getPreferences()));
 
         String source = api.getSource(entry);
 
+        if (source == null) {
+            // Give the local sources a short chance before starting a decompilation that would be thrown away
+            source = api.probeSource(entry);
+        }
+
         if (source == null) {
             // Display the decompiled source code
             page = new ClassFilePage(api, entry);
@@ -88,6 +93,8 @@ public class DynamicPage
     @Override
     public boolean highlightText(String text, boolean caseSensitive) { return page.highlightText(text, caseSensitive); }
     @Override
+    public void highlightText(String text, boolean caseSensitive, Consumer<Boolean> resultCallback) { page.highlightText(text, caseSensitive, resultCallback); }
+    @Override
     public void findNext(String text, boolean caseSensitive) { page.findNext(text, caseSensitive); }
     @Override
     public void findPrevious(String text, boolean caseSensitive) { page.findPrevious(text, caseSensitive); }
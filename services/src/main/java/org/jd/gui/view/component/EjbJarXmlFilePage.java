@@ -7,6 +7,7 @@
 
 package org.jd.gui.view.component;
 
+import org.apache.commons.io.IOUtils;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
@@ -15,16 +16,16 @@ import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
 import org.jd.gui.util.index.IndexesUtil;
-import org.jd.gui.util.io.TextReader;
-import org.jd.gui.util.xml.AbstractXmlPathFinder;
+import org.jd.gui.util.xml.XmlPathMatcher;
+import org.jd.gui.util.xml.XmlPathMatchers;
 
 import java.awt.Point;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -45,10 +46,13 @@ public class EjbJarXmlFilePage extends TypeReferencePage implements UriGettable,
         this.api = api;
         this.entry = entry;
         try (InputStream inputStream = entry.getInputStream()) {
-            // Load content file
-            String text = TextReader.getText(inputStream);
-            // Create hyperlinks
-            new PathFinder().find(text);
+            // Load file contents
+            byte[] content = IOUtils.toByteArray(inputStream);
+            String text = new String(content, StandardCharsets.UTF_8);
+            // Create hyperlinks, from the matches found by the indexer when available
+            for (XmlPathMatcher.Match match : XmlPathMatchers.EJB_JAR_XML.getMatches(entry, text)) {
+                addHyperlink(match);
+            }
             // Display
             setText(text);
         } catch (IOException e) {
@@ -56,6 +60,18 @@ public class EjbJarXmlFilePage extends TypeReferencePage implements UriGettable,
         }
     }
 
+    private void addHyperlink(XmlPathMatcher.Match match) {
+        String text = match.text();
+        String trim = text.trim();
+
+        if (!trim.isEmpty()) {
+            int startIndex = match.position() + text.indexOf(trim);
+            int endIndex = startIndex + trim.length();
+            String internalTypeName = trim.replace('.', '/');
+            addHyperlink(new TypeHyperlinkData(startIndex, endIndex, internalTypeName));
+        }
+    }
+
     @Override
     public String getSyntaxStyle() { return SyntaxConstants.SYNTAX_STYLE_XML; }
 
@@ -132,51 +148,4 @@ public class EjbJarXmlFilePage extends TypeReferencePage implements UriGettable,
             textArea.repaint();
         }
     }
-
-    private static final List<String> typeHyperlinkPaths = Arrays.asList(
-        "ejb-jar/assembly-descriptor/application-exception/exception-class",
-        "ejb-jar/assembly-descriptor/interceptor-binding/interceptor-class",
-
-        "ejb-jar/enterprise-beans/entity/home",
-        "ejb-jar/enterprise-beans/entity/remote",
-        "ejb-jar/enterprise-beans/entity/ejb-class",
-        "ejb-jar/enterprise-beans/entity/prim-key-class",
-
-        "ejb-jar/enterprise-beans/message-driven/ejb-class",
-        "ejb-jar/enterprise-beans/message-driven/messaging-type",
-        "ejb-jar/enterprise-beans/message-driven/resource-ref/injection-target/injection-target-class",
-        "ejb-jar/enterprise-beans/message-driven/resource-env-ref/injection-target/injection-target-class",
-
-        "ejb-jar/enterprise-beans/session/home",
-        "ejb-jar/enterprise-beans/session/local",
-        "ejb-jar/enterprise-beans/session/remote",
-        "ejb-jar/enterprise-beans/session/business-local",
-        "ejb-jar/enterprise-beans/session/business-remote",
-        "ejb-jar/enterprise-beans/session/service-endpoint",
-        "ejb-jar/enterprise-beans/session/ejb-class",
-        "ejb-jar/enterprise-beans/session/ejb-ref/home",
-        "ejb-jar/enterprise-beans/session/ejb-ref/remote",
-
-        "ejb-jar/interceptors/interceptor/around-invoke/class",
-        "ejb-jar/interceptors/interceptor/ejb-ref/home",
-        "ejb-jar/interceptors/interceptor/ejb-ref/remote",
-        "ejb-jar/interceptors/interceptor/interceptor-class"
-    );
-
-    public class PathFinder extends AbstractXmlPathFinder {
-        public PathFinder() {
-            super(typeHyperlinkPaths);
-        }
-
-        @Override
-        public void handle(String path, String text, int position) {
-            String trim = text.trim();
-            if (trim != null) {
-                int startIndex = position + text.indexOf(trim);
-                int endIndex = startIndex + trim.length();
-                String internalTypeName = trim.replace('.', '/');
-                addHyperlink(new TypeHyperlinkData(startIndex, endIndex, internalTypeName));
-            }
-        }
-    }
 }
@@ -0,0 +1,296 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.gui.view.component;
+
+import org.fife.ui.rsyntaxtextarea.DocumentRange;
+import org.fife.ui.rsyntaxtextarea.RSyntaxUtilities;
+import org.fife.ui.rtextarea.RTextArea;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.Document;
+
+/**
+ * Finds the occurrences of a text in a text area, off the event dispatch thread.<br>
+ * <br>
+ * Keystrokes are debounced and the text of the document is copied once per modification. When the searched text is
+ * extended, only the previous occurrences are checked again. The occurrences of the viewport are highlighted first,
+ * the others once the search settles.
+ */
+public class IncrementalFinder {
+    protected static final int DEBOUNCE_DELAY = 150;
+    protected static final int FULL_HIGHLIGHT_DELAY = 300;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "IncrementalFinder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RTextArea textArea;
+    private final Timer debounceTimer;
+    private final Timer highlightTimer;
+    private final DocumentListener documentListener = new DocumentListener() {
+        @Override
+        public void insertUpdate(DocumentEvent e) { invalidate(); }
+        @Override
+        public void removeUpdate(DocumentEvent e) { invalidate(); }
+        @Override
+        public void changedUpdate(DocumentEvent e) { /* Attributes only */ }
+    };
+
+    // Incremented by each query: the previous searches stop
+    private volatile int generation;
+
+    // Accessed on the event dispatch thread only
+    private String snapshot;
+    private String pendingText;
+    private boolean pendingCaseSensitive;
+    private Consumer<Boolean> pendingCallback;
+    private Result result;
+
+    private record Result(String snapshot, String text, boolean caseSensitive, int[] offsets) {
+        boolean matches(String snapshot, String text, boolean caseSensitive) {
+            return this.snapshot == snapshot && this.text.equals(text) && this.caseSensitive == caseSensitive;
+        }
+    }
+
+    public IncrementalFinder(RTextArea textArea) {
+        this.textArea = textArea;
+        this.debounceTimer = new Timer(DEBOUNCE_DELAY, e -> search());
+        this.debounceTimer.setRepeats(false);
+        this.highlightTimer = new Timer(FULL_HIGHLIGHT_DELAY, e -> highlightAll());
+        this.highlightTimer.setRepeats(false);
+
+        textArea.getDocument().addDocumentListener(documentListener);
+        textArea.addPropertyChangeListener("document", e -> {
+            if (e.getOldValue() != null) {
+                ((Document) e.getOldValue()).removeDocumentListener(documentListener);
+            }
+            if (e.getNewValue() != null) {
+                ((Document) e.getNewValue()).addDocumentListener(documentListener);
+            }
+            invalidate();
+        });
+    }
+
+    /**
+     * Searches 'text' once the user stops typing, selects the first occurrence following the selection and highlights
+     * all occurrences.
+     *
+     * @param resultCallback called on the event dispatch thread, with true if 'text' has been found
+     */
+    public void find(String text, boolean caseSensitive, Consumer<Boolean> resultCallback) {
+        generation++;
+        pendingText = text;
+        pendingCaseSensitive = caseSensitive;
+        pendingCallback = resultCallback;
+        highlightTimer.stop();
+        debounceTimer.restart();
+    }
+
+    /**
+     * Selects the next or the previous occurrence found by the last search.
+     *
+     * @return false if the last search is obsolete
+     */
+    public boolean select(String text, boolean caseSensitive, boolean forward) {
+        if (debounceTimer.isRunning() || result == null || !result.matches(snapshot, text, caseSensitive) || result.offsets().length == 0) {
+            return false;
+        }
+
+        int[] offsets = result.offsets();
+        int index;
+
+        if (forward) {
+            index = lowerBound(offsets, textArea.getSelectionEnd());
+            if (index == offsets.length) {
+                index = 0;
+            }
+        } else {
+            index = lowerBound(offsets, textArea.getSelectionStart()) - 1;
+            if (index < 0) {
+                index = offsets.length - 1;
+            }
+        }
+
+        RSyntaxUtilities.selectAndPossiblyCenter(textArea, new DocumentRange(offsets[index], offsets[index] + text.length()), true);
+        return true;
+    }
+
+    /**
+     * Stops the pending search, before the text area is highlighted by other means.
+     */
+    public void cancel() {
+        generation++;
+        debounceTimer.stop();
+        highlightTimer.stop();
+    }
+
+    protected void invalidate() {
+        snapshot = null;
+        result = null;
+    }
+
+    protected void search() {
+        if (snapshot == null) {
+            snapshot = textArea.getText();
+        }
+
+        int searchGeneration = generation;
+        String source = snapshot;
+        String text = pendingText;
+        boolean caseSensitive = pendingCaseSensitive;
+        Consumer<Boolean> callback = pendingCallback;
+        Result previous = result;
+        // Occurrences of an extended text are among the occurrences of the previous text
+        int[] candidates = (previous != null && previous.snapshot() == source && previous.caseSensitive() == caseSensitive && text.startsWith(previous.text())) ?
+                previous.offsets() : null;
+
+        EXECUTOR.execute(() -> {
+            if (searchGeneration != generation) {
+                return;
+            }
+
+            int[] offsets = (candidates == null) ? find(source, text, caseSensitive) : narrow(source, text, caseSensitive, candidates);
+
+            SwingUtilities.invokeLater(() -> {
+                if (searchGeneration == generation && source == snapshot) {
+                    result = new Result(source, text, caseSensitive, offsets);
+                    apply(offsets, text.length(), callback);
+                }
+            });
+        });
+    }
+
+    protected void apply(int[] offsets, int length, Consumer<Boolean> callback) {
+        if (offsets.length == 0) {
+            textArea.clearMarkAllHighlights();
+            callback.accept(false);
+            return;
+        }
+
+        int index = lowerBound(offsets, textArea.getSelectionStart());
+        if (index == offsets.length) {
+            index = 0;
+        }
+
+        RSyntaxUtilities.selectAndPossiblyCenter(textArea, new DocumentRange(offsets[index], offsets[index] + length), true);
+
+        // Highlight the viewport now, the rest later
+        Rectangle visibleRect = textArea.getVisibleRect();
+        int start = textArea.viewToModel2D(new Point(visibleRect.x, visibleRect.y));
+        int end = textArea.viewToModel2D(new Point(visibleRect.x + visibleRect.width, visibleRect.y + visibleRect.height));
+
+        textArea.markAll(getRanges(offsets, length, Math.max(0, start - length), end));
+
+        if (start > 0 || end < snapshot.length()) {
+            highlightTimer.restart();
+        }
+
+        callback.accept(true);
+    }
+
+    protected void highlightAll() {
+        if (result != null && result.matches(snapshot, pendingText, pendingCaseSensitive)) {
+            textArea.markAll(getRanges(result.offsets(), result.text().length(), 0, Integer.MAX_VALUE));
+        }
+    }
+
+    protected static List<DocumentRange> getRanges(int[] offsets, int length, int start, int end) {
+        List<DocumentRange> ranges = new ArrayList<>();
+
+        for (int i = lowerBound(offsets, start); i < offsets.length && offsets[i] <= end; i++) {
+            ranges.add(new DocumentRange(offsets[i], offsets[i] + length));
+        }
+
+        return ranges;
+    }
+
+    /**
+     * @return the offsets of all occurrences of 'text', overlapping occurrences included
+     */
+    protected static int[] find(String source, String text, boolean caseSensitive) {
+        int[] offsets = new int[16];
+        int count = 0;
+        int length = text.length();
+        int last = source.length() - length;
+
+        if (caseSensitive) {
+            for (int i = source.indexOf(text); i != -1; i = source.indexOf(text, i + 1)) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = i;
+            }
+        } else {
+            char lower = Character.toLowerCase(text.charAt(0));
+            char upper = Character.toUpperCase(text.charAt(0));
+
+            for (int i = 0; i <= last; i++) {
+                char c = source.charAt(i);
+
+                if ((c == lower || c == upper || Character.toLowerCase(c) == lower || Character.toUpperCase(c) == upper) && source.regionMatches(true, i, text, 0, length)) {
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = i;
+                }
+            }
+        }
+
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * @param candidates offsets of the occurrences of a prefix of 'text'
+     */
+    protected static int[] narrow(String source, String text, boolean caseSensitive, int[] candidates) {
+        int[] offsets = new int[candidates.length];
+        int count = 0;
+        int length = text.length();
+
+        for (int offset : candidates) {
+            if (source.regionMatches(!caseSensitive, offset, text, 0, length)) {
+                offsets[count++] = offset;
+            }
+        }
+
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * @return the index of the first offset greater than or equal to 'value'
+     */
+    protected static int lowerBound(int[] offsets, int value) {
+        int low = 0;
+        int high = offsets.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (offsets[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
@@ -14,30 +14,201 @@ import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
 import org.jd.gui.util.index.IndexesUtil;
+import org.jd.gui.util.io.MappedTextFile;
 
+import java.awt.BorderLayout;
 import java.awt.Point;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollBar;
+import javax.swing.SwingUtilities;
+import javax.swing.text.BadLocationException;
+
 import static org.jd.gui.util.Key.key;
 
 import jd.core.links.HyperlinkData;
 
-public class LogPage extends HyperlinkPage implements UriGettable, IndexesChangeListener {
+/**
+ * Log viewer for files of any size.<br>
+ * <br>
+ * The file is memory-mapped and indexed into line offsets on a background thread. Only a window of 'WINDOW_SIZE'
+ * lines is loaded in the text area, and only the stack frames of this window are parsed. The window moves when the
+ * text area is scrolled to one of its edges, or with the scroll bar at the bottom of the page. The type names of the
+ * stack frames are resolved once per state of the indexes, in a cache shared by all the log pages.
+ */
+public class LogPage extends HyperlinkPage implements UriGettable, IndexesChangeListener, Closeable {
 
     private static final long serialVersionUID = 1L;
+
+    protected static final int WINDOW_SIZE = 2000;
+
+    // Collection of indexes -> stamp of the indexes & (internal type name -> found)
+    private static final Map<Collection<Future<Indexes>>, TypeNames> TYPE_NAME_CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
     private final transient API api;
     private final URI uri;
+    private final transient MappedTextFile mappedTextFile;
     private transient Collection<Future<Indexes>> collectionOfFutureIndexes = Collections.emptyList();
+    private final JLabel lineLabel = new JLabel();
+    private final JScrollBar lineScrollBar = new JScrollBar(JScrollBar.HORIZONTAL);
+    private int windowFirstLine;
+    private int windowLineCount;
+    private boolean adjusting;
+    private volatile boolean closed;
 
     public LogPage(API api, URI uri, String content) {
+        this(api, uri, new MappedTextFile(content));
+        mappedTextFile.index(lineCount -> {}, () -> false);
+        updateWindow();
+    }
+
+    public LogPage(API api, File file) throws IOException {
+        this(api, file.toURI(), new MappedTextFile(file));
+
+        Thread thread = new Thread(() -> mappedTextFile.index(lineCount -> SwingUtilities.invokeLater(this::updateWindow), () -> closed), "jd-gui-log-indexer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    protected LogPage(API api, URI uri, MappedTextFile mappedTextFile) {
         this.api = api;
         this.uri = uri;
-        // Parse
+        this.mappedTextFile = mappedTextFile;
+
+        JPanel linePanel = new JPanel(new BorderLayout());
+        linePanel.add(lineLabel, BorderLayout.LINE_START);
+        linePanel.add(lineScrollBar, BorderLayout.CENTER);
+        linePanel.setVisible(false);
+        add(linePanel, BorderLayout.PAGE_END);
+
+        lineScrollBar.addAdjustmentListener(e -> {
+            if (!adjusting && !e.getValueIsAdjusting()) {
+                loadWindow(e.getValue(), 0);
+            }
+        });
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!adjusting && !e.getValueIsAdjusting()) {
+                onTextAreaScrolled();
+            }
+        });
+    }
+
+    /**
+     * Called on the event dispatch thread as the indexation progresses: fills the first window and updates the
+     * navigation.
+     */
+    protected void updateWindow() {
+        int lineCount = mappedTextFile.getLineCount();
+
+        if (windowLineCount < WINDOW_SIZE && windowFirstLine + windowLineCount < lineCount) {
+            // Fill the current window without moving the view
+            Point viewPosition = scrollPane.getViewport().getViewPosition();
+            int caretPosition = textArea.getCaretPosition();
+            loadWindow(windowFirstLine, 0);
+            scrollPane.getViewport().setViewPosition(viewPosition);
+            textArea.setCaretPosition(Math.min(caretPosition, textArea.getDocument().getLength()));
+        }
+
+        updateNavigation();
+    }
+
+    protected void updateNavigation() {
+        int lineCount = mappedTextFile.getLineCount();
+        boolean large = lineCount > WINDOW_SIZE || !mappedTextFile.isIndexed();
+
+        adjusting = true;
+        lineScrollBar.setValues(windowFirstLine, windowLineCount, 0, Math.max(lineCount, windowFirstLine + windowLineCount));
+        lineScrollBar.setBlockIncrement(WINDOW_SIZE / 2);
+        lineScrollBar.setUnitIncrement(WINDOW_SIZE / 20);
+        adjusting = false;
+
+        StringBuilder sb = new StringBuilder(" Lines ");
+        sb.append(windowFirstLine + 1).append('-').append(windowFirstLine + windowLineCount).append(" of ").append(lineCount);
+        if (!mappedTextFile.isIndexed()) {
+            sb.append(", indexing...");
+        }
+        sb.append(' ');
+        lineLabel.setText(sb.toString());
+        lineLabel.getParent().setVisible(large);
+    }
+
+    /**
+     * @param firstLine   first line of the file to load, from 0
+     * @param visibleLine line of the new window to scroll to, from 0
+     */
+    protected void loadWindow(int firstLine, int visibleLine) {
+        int lineCount = mappedTextFile.getLineCount();
+        int first = Math.max(0, Math.min(firstLine, lineCount - WINDOW_SIZE));
+        String text = mappedTextFile.getLines(first, WINDOW_SIZE);
+
+        adjusting = true;
+        windowFirstLine = first;
+        windowLineCount = Math.min(WINDOW_SIZE, lineCount - first);
+        clearHyperlinks();
+        parse(text);
+        setText(text);
+        scrollPane.getGutter().setLineNumberingStartIndex(first + 1);
+        refreshHyperlinks();
+        scrollToWindowLine(visibleLine + firstLine - first);
+        adjusting = false;
+
+        updateNavigation();
+    }
+
+    protected void scrollToWindowLine(int line) {
+        if (line > 0) {
+            try {
+                int offset = textArea.getLineStartOffset(Math.min(line, textArea.getLineCount() - 1));
+                textArea.setCaretPosition(offset);
+                scrollPane.getViewport().setViewPosition(new Point(0, (int) textArea.modelToView2D(offset).getY()));
+            } catch (BadLocationException e) {
+                assert ExceptionUtil.printStackTrace(e);
+            }
+        }
+    }
+
+    /**
+     * Moves the window by half of its size when the text area is scrolled to its top or bottom, keeping the first
+     * visible line in place.
+     */
+    protected void onTextAreaScrolled() {
+        JScrollBar verticalScrollBar = scrollPane.getVerticalScrollBar();
+        int value = verticalScrollBar.getValue();
+        int firstVisibleLine = getFirstVisibleWindowLine();
+
+        if (value == 0 && windowFirstLine > 0) {
+            int firstLine = Math.max(0, windowFirstLine - WINDOW_SIZE / 2);
+            loadWindow(firstLine, windowFirstLine + firstVisibleLine - firstLine);
+        } else if (value + verticalScrollBar.getVisibleAmount() >= verticalScrollBar.getMaximum() && windowFirstLine + windowLineCount < mappedTextFile.getLineCount()) {
+            int firstLine = windowFirstLine + WINDOW_SIZE / 2;
+            loadWindow(firstLine, windowFirstLine + firstVisibleLine - firstLine);
+        }
+    }
+
+    protected int getFirstVisibleWindowLine() {
+        try {
+            return textArea.getLineOfOffset(textArea.viewToModel2D(scrollPane.getViewport().getViewPosition()));
+        } catch (BadLocationException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return 0;
+        }
+    }
+
+    protected void parse(String content) {
         int index = 0;
         int eol = content.indexOf('\n');
 
@@ -48,8 +219,6 @@ public class LogPage extends HyperlinkPage implements UriGettable, IndexesChange
         }
 
         parseLine(content, index, content.length());
-        // Display
-        setText(content);
     }
 
     protected void parseLine(String content, int index, int eol) {
@@ -76,7 +245,8 @@ public class LogPage extends HyperlinkPage implements UriGettable, IndexesChange
                 // Save current position in history
                 Point location = textArea.getLocationOnScreen();
                 int offset = textArea.viewToModel2D(new Point(x - location.x, y - location.y));
-                api.addURI(new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), "position=" + offset, null));
+                int lineNumber = windowFirstLine + textArea.getLineOfOffset(offset) + 1;
+                api.addURI(new URI(uri.getScheme(), uri.getAuthority(), uri.getPath(), "lineNumber=" + lineNumber, null));
 
                 // Open link
                 String text = getText();
@@ -97,8 +267,8 @@ public class LogPage extends HyperlinkPage implements UriGettable, IndexesChange
                 } else {
                     // Example: at sun.misc.Launcher$AppClassLoader.loadClass(Launcher.java:294)
                     int colonIndex = lineNumberOrNativeMethodFlag.indexOf(':');
-                    String lineNumber = lineNumberOrNativeMethodFlag.substring(colonIndex + 1);
-                    api.openURI(x, y, entries, "lineNumber=" + lineNumber, null);
+                    String frameLineNumber = lineNumberOrNativeMethodFlag.substring(colonIndex + 1);
+                    api.openURI(x, y, entries, "lineNumber=" + frameLineNumber, null);
                 }
             } catch (Exception e) {
                 assert ExceptionUtil.printStackTrace(e);
@@ -106,6 +276,31 @@ public class LogPage extends HyperlinkPage implements UriGettable, IndexesChange
         }
     }
 
+    // --- LineNumberNavigable --- //
+    @Override
+    public int getMaximumLineNumber() { return Math.max(1, mappedTextFile.getLineCount()); }
+
+    @Override
+    public void goToLineNumber(int lineNumber) {
+        int line = lineNumber - 1;
+
+        if (line < windowFirstLine || line >= windowFirstLine + windowLineCount) {
+            int firstLine = Math.max(0, line - WINDOW_SIZE / 2);
+            loadWindow(firstLine, line - firstLine);
+        }
+
+        try {
+            textArea.setCaretPosition(textArea.getLineStartOffset(Math.max(0, Math.min(line - windowFirstLine, textArea.getLineCount() - 1))));
+        } catch (BadLocationException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
+    @Override
+    public boolean checkLineNumber(int lineNumber) {
+        return lineNumber > 0 && lineNumber <= getMaximumLineNumber();
+    }
+
     // --- UriGettable --- //
     @Override
     public URI getUri() { return uri; }
@@ -118,12 +313,28 @@ public class LogPage extends HyperlinkPage implements UriGettable, IndexesChange
         return path.substring(index + 1);
     }
 
+    @Override
+    public void save(API api, OutputStream os) {
+        try {
+            // Whole file, not only the loaded window
+            mappedTextFile.writeTo(os);
+        } catch (IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+        }
+    }
+
     // --- IndexesChangeListener --- //
     @Override
     public void indexesChanged(Collection<Future<Indexes>> collectionOfFutureIndexes) {
         // Update the list of containers
         this.collectionOfFutureIndexes = collectionOfFutureIndexes;
         // Refresh links
+        if (refreshHyperlinks()) {
+            textArea.repaint();
+        }
+    }
+
+    protected boolean refreshHyperlinks() {
         boolean refresh = false;
         String text = getText();
 
@@ -131,18 +342,60 @@ public class LogPage extends HyperlinkPage implements UriGettable, IndexesChange
             LogHyperlinkData entryData = (LogHyperlinkData)entry.getValue();
             String typeAndMethodNames = text.substring(entryData.getStartPosition(), entryData.getEndPosition());
             int lastDotIndex = typeAndMethodNames.lastIndexOf('.');
-            String internalTypeName = typeAndMethodNames.substring(0, lastDotIndex).replace('.', '/');
-            boolean enabled = IndexesUtil.containsInternalTypeName(collectionOfFutureIndexes, internalTypeName);
 
-            if (entryData.isEnabled() != enabled) {
-                entryData.setEnabled(enabled);
-                refresh = true;
+            if (lastDotIndex != -1) {
+                String internalTypeName = typeAndMethodNames.substring(0, lastDotIndex).replace('.', '/');
+                boolean enabled = containsInternalTypeName(internalTypeName);
+
+                if (entryData.isEnabled() != enabled) {
+                    entryData.setEnabled(enabled);
+                    refresh = true;
+                }
             }
         }
 
-        if (refresh) {
-            textArea.repaint();
+        return refresh;
+    }
+
+    protected boolean containsInternalTypeName(String internalTypeName) {
+        Collection<Future<Indexes>> futureIndexes = collectionOfFutureIndexes;
+        int stamp = 1;
+
+        try {
+            for (Future<Indexes> future : futureIndexes) {
+                if (!future.isDone()) {
+                    // Incomplete indexes: do not cache
+                    return IndexesUtil.containsInternalTypeName(futureIndexes, internalTypeName);
+                }
+                // The indexes are updated in place, their hash code changes on each update
+                stamp = 31 * stamp + future.get().hashCode();
+            }
+        } catch (InterruptedException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            // Restore interrupted state...
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return IndexesUtil.containsInternalTypeName(futureIndexes, internalTypeName);
         }
+
+        int currentStamp = stamp;
+        TypeNames typeNames = TYPE_NAME_CACHE.compute(futureIndexes, (k, v) -> (v == null || v.stamp() != currentStamp) ? new TypeNames(currentStamp, new ConcurrentHashMap<>()) : v);
+
+        return typeNames.found().computeIfAbsent(internalTypeName, k -> IndexesUtil.containsInternalTypeName(futureIndexes, k));
+    }
+
+    /**
+     * Type names resolved with the indexes of a given stamp.
+     */
+    protected record TypeNames(int stamp, Map<String, Boolean> found) {}
+
+    // --- Closeable --- //
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        mappedTextFile.close();
     }
 
     public static class LogHyperlinkData extends HyperlinkData {
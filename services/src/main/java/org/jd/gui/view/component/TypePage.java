@@ -56,6 +56,7 @@ public abstract class TypePage extends CustomLineNumbersPage
     protected transient Collection<Future<Indexes>> collectionOfFutureIndexes = Collections.emptyList();
 
     protected final transient ReferenceListener listener;
+    protected final transient RSyntaxASTParser parser;
 
     protected TypePage(API api, Container.Entry entry) {
         // Init attributes
@@ -63,7 +64,8 @@ public abstract class TypePage extends CustomLineNumbersPage
         this.entry = entry;
         this.listener = new ReferenceListener(entry);
         this.listener.setHyperlinks(hyperlinks);
-        this.textArea.addParser(new RSyntaxASTParser(entry, api));
+        this.parser = new RSyntaxASTParser(entry, api);
+        this.textArea.addParser(parser);
     }
 
     @Override
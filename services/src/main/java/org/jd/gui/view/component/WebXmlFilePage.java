@@ -7,6 +7,7 @@
 
 package org.jd.gui.view.component;
 
+import org.apache.commons.io.IOUtils;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
@@ -15,16 +16,16 @@ import org.jd.gui.api.feature.UriGettable;
 import org.jd.gui.api.model.Container;
 import org.jd.gui.api.model.Indexes;
 import org.jd.gui.util.index.IndexesUtil;
-import org.jd.gui.util.io.TextReader;
-import org.jd.gui.util.xml.AbstractXmlPathFinder;
+import org.jd.gui.util.xml.XmlPathMatcher;
+import org.jd.gui.util.xml.XmlPathMatchers;
 
 import java.awt.Point;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -46,9 +47,12 @@ public class WebXmlFilePage extends TypeReferencePage implements UriGettable, In
         this.entry = entry;
         try (InputStream inputStream = entry.getInputStream()) {
             // Load file contents
-            String text = TextReader.getText(inputStream);
-            // Create hyperlinks
-            new PathFinder().find(text);
+            byte[] content = IOUtils.toByteArray(inputStream);
+            String text = new String(content, StandardCharsets.UTF_8);
+            // Create hyperlinks, from the matches found by the indexer when available
+            for (XmlPathMatcher.Match match : XmlPathMatchers.WEB_XML.getMatches(entry, text)) {
+                addHyperlink(match);
+            }
             // Display
             setText(text);
         } catch (IOException e) {
@@ -56,6 +60,23 @@ public class WebXmlFilePage extends TypeReferencePage implements UriGettable, In
         }
     }
 
+    private void addHyperlink(XmlPathMatcher.Match match) {
+        String text = match.text();
+        String trim = text.trim();
+
+        if (!trim.isEmpty()) {
+            int startIndex = match.position() + text.indexOf(trim);
+            int endIndex = startIndex + trim.length();
+
+            if (XmlPathMatchers.WEB_XML_RESOURCE_PATHS.contains(match.path())) {
+                addHyperlink(new PathHyperlinkData(startIndex, endIndex, trim));
+            } else {
+                String internalTypeName = trim.replace('.', '/');
+                addHyperlink(new TypeHyperlinkData(startIndex, endIndex, internalTypeName));
+            }
+        }
+    }
+
     @Override
     public String getSyntaxStyle() { return SyntaxConstants.SYNTAX_STYLE_XML; }
 
@@ -187,46 +208,4 @@ public class WebXmlFilePage extends TypeReferencePage implements UriGettable, In
             this.path = path;
         }
     }
-
-    private static final List<String> typeHyperlinkPaths = Arrays.asList(
-        "web-app/filter/filter-class",
-        "web-app/listener/listener-class",
-        "web-app/servlet/servlet-class");
-
-    private static final List<String> pathHyperlinkPaths = Arrays.asList(
-        "web-app/jsp-config/taglib/taglib-location",
-        "web-app/welcome-file-list/welcome-file",
-        "web-app/login-config/form-login-config/form-login-page",
-        "web-app/login-config/form-login-config/form-error-page",
-        "web-app/jsp-config/jsp-property-group/include-prelude",
-        "web-app/jsp-config/jsp-property-group/include-coda");
-
-    private static final List<String> hyperlinkPaths = new ArrayList<>(typeHyperlinkPaths.size() + pathHyperlinkPaths.size());
-
-    static {
-        hyperlinkPaths.addAll(typeHyperlinkPaths);
-        hyperlinkPaths.addAll(pathHyperlinkPaths);
-    }
-
-    public class PathFinder extends AbstractXmlPathFinder {
-        public PathFinder() {
-            super(hyperlinkPaths);
-        }
-
-        @Override
-        public void handle(String path, String text, int position) {
-            String trim = text.trim();
-            if (trim != null) {
-                int startIndex = position + text.indexOf(trim);
-                int endIndex = startIndex + trim.length();
-
-                if (pathHyperlinkPaths.contains(path)) {
-                    addHyperlink(new PathHyperlinkData(startIndex, endIndex, trim));
-                } else {
-                    String internalTypeName = trim.replace('.', '/');
-                    addHyperlink(new TypeHyperlinkData(startIndex, endIndex, internalTypeName));
-                }
-            }
-        }
-    }
 }
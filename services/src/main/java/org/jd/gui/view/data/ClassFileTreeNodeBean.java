@@ -13,15 +13,17 @@ import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
 import org.jd.gui.api.API;
 import org.jd.gui.api.model.Container.Entry;
+import org.jd.gui.util.container.ClassBytesCache;
 import org.jd.gui.util.decompiler.ContainerLoader;
+import org.jd.gui.util.decompiler.DecompilationSupervisor;
 import org.jd.gui.util.loader.LoaderUtils;
 import org.jd.gui.util.parser.jdt.ASTParserFactory;
 
-import com.heliosdecompiler.transformerapi.StandardTransformers;
 import com.heliosdecompiler.transformerapi.common.Loader;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.Icon;
@@ -42,6 +44,7 @@ public class ClassFileTreeNodeBean extends TreeNodeBean {
     private final API api;
     private final Entry entry;
     private final Map<PreferenceKey, ClassFileTreeNodeState> decompilerToState = new ConcurrentHashMap<>();
+    private final Set<PreferenceKey> pendingKeys = ConcurrentHashMap.newKeySet();
 
     public ClassFileTreeNodeBean(API api, String label, Entry entry) {
         super(label, CLASS_FILE_ICON);
@@ -60,7 +63,8 @@ public class ClassFileTreeNodeBean extends TreeNodeBean {
             if ("true".equals(api.getPreferences().get(SHOW_COMPILER_WARNINGS)) && state.hasWarnings()) {
                 return CLASS_FILE_ICON_WARNING;
             }
-        } else {
+        } else if (pendingKeys.add(makeKey(preferences))) {
+            // One worker per row and preferences, however often the row is painted
             getWorker().execute();
         }
         return CLASS_FILE_ICON;
@@ -71,16 +75,18 @@ public class ClassFileTreeNodeBean extends TreeNodeBean {
     }
 
     public SwingWorker<Void, Void> getWorker() {
+        PreferenceKey key = makeKey(api.getPreferences());
         return new SwingWorker<Void, Void>() {
             @Override
             protected Void doInBackground() throws Exception {
-                Map<String, String> preferences = api.getPreferences();
-                decompilerToState.computeIfAbsent(makeKey(preferences), k -> getStateForEntry(entry, api, k.engineName()));
+                // Decompiled outside of the map: the other keys are not blocked
+                decompilerToState.putIfAbsent(key, getStateForEntry(entry, api, key.engineName()));
                 return null;
             }
             
             @Override
             protected void done() {
+                pendingKeys.remove(key);
                 api.repaint();
             }
         };
@@ -91,7 +97,11 @@ public class ClassFileTreeNodeBean extends TreeNodeBean {
         return getIcon();
     }
 
-    public static synchronized ClassFileTreeNodeState getStateForEntry(Entry entry, API api, String engineName) {
+    /**
+     * Decompiles under the budgets of the {@link DecompilationSupervisor}, the known slow classes being skipped: the
+     * workers of the other rows are never blocked by a class making the decompiler spin.
+     */
+    public static ClassFileTreeNodeState getStateForEntry(Entry entry, API api, String engineName) {
         String unitName = entry.getPath();
         URI jarURI = entry.getContainer().getRoot().getParent().getUri();
         String entryInternalName = ClassUtil.getInternalName(entry.getPath());
@@ -100,7 +110,8 @@ public class ClassFileTreeNodeBean extends TreeNodeBean {
         Loader apiLoader = LoaderUtils.createLoader(preferences, loader, entry);
         DecompilationResult decompilationResult;
         try {
-            decompilationResult = StandardTransformers.decompile(apiLoader, entryInternalName, preferences, engineName);
+            byte[] classFile = ClassBytesCache.getInstance().get(entry);
+            decompilationResult = DecompilationSupervisor.decompile(apiLoader, entryInternalName, preferences, engineName, classFile, true);
         } catch (Exception e) {
             assert ExceptionUtil.printStackTrace(e);
             return new ClassFileTreeNodeState(true, false);
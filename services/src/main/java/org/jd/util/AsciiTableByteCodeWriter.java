@@ -0,0 +1,93 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.util;
+
+import org.apache.bcel.Const;
+import org.apache.bcel.classfile.Code;
+import org.apache.bcel.classfile.CodeException;
+import org.apache.bcel.classfile.ConstantPool;
+import org.apache.bcel.classfile.LineNumber;
+import org.apache.bcel.classfile.LineNumberTable;
+import org.apache.bcel.classfile.LocalVariable;
+import org.apache.bcel.classfile.LocalVariableTable;
+import org.apache.bcel.classfile.LocalVariableTypeTable;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ByteCodeWriter;
+
+import com.github.freva.asciitable.AsciiTable;
+import com.github.freva.asciitable.Column;
+import com.github.freva.asciitable.ColumnData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Byte code writer rendering the line number, exception and local variable tables as ASCII tables.
+ */
+public class AsciiTableByteCodeWriter extends ByteCodeWriter {
+    
+    @Override
+    protected void writeLineNumberTable(String linePrefix, StringBuilder sb, Code attributeCode) {
+        LineNumberTable lineNumberTable = attributeCode.getLineNumberTable();
+        if (lineNumberTable != null) {
+            sb.append("\n\n").append(linePrefix).append("Line number table:\n\n").append(linePrefix);
+            List<LineNumber> lineNumbers = Arrays.asList(lineNumberTable.getLineNumberTable());
+            List<ColumnData<LineNumber>> columns = new ArrayList<>();
+            columns.add(new Column().header("Java source line number").with(lineNumber -> String.valueOf(lineNumber.getLineNumber())));
+            columns.add(new Column().header("Byte code offset").with(lineNumber -> String.valueOf(lineNumber.getStartPC())));
+            sb.append(AsciiTable.builder().lineSeparator("\n" + linePrefix).data(lineNumbers, columns).asString());
+        }
+    }
+
+    @Override
+    protected void writeExceptionTable(String linePrefix, StringBuilder sb, ConstantPool constants, Code attributeCode) {
+        CodeException[] codeExceptions = attributeCode.getExceptionTable();
+        if (codeExceptions != null) {
+            sb.append("\n\n").append(linePrefix).append("Exception table:\n\n").append(linePrefix);
+            List<CodeException> codeExceptionList = Arrays.asList(codeExceptions);
+            List<ColumnData<CodeException>> columns = new ArrayList<>();
+            columns.add(new Column().header("From").with(ce -> String.valueOf(ce.getStartPC())));
+            columns.add(new Column().header("To").with(ce -> String.valueOf(ce.getEndPC())));
+            columns.add(new Column().header("Target").with(ce -> String.valueOf(ce.getHandlerPC())));
+            columns.add(new Column().header("Type").with(ce -> ce.getCatchType() == 0 ? "finally" : constants.getConstantString(ce.getCatchType(), Const.CONSTANT_Class)));
+            sb.append(AsciiTable.builder().lineSeparator("\n" + linePrefix).data(codeExceptionList, columns).asString());
+        }
+    }
+
+    @Override
+    protected void writeLocalVariableTable(String linePrefix, StringBuilder sb, Code attributeCode) {
+        LocalVariableTable localVariableTable = attributeCode.getLocalVariableTable();
+        if (localVariableTable != null) {
+            sb.append("\n\n").append(linePrefix).append("Local variable table:\n\n").append(linePrefix);
+            List<LocalVariable> localVariableList = Arrays.asList(localVariableTable.getLocalVariableTable());
+            List<ColumnData<LocalVariable>> columns = new ArrayList<>();
+            columns.add(new Column().header("Start").with(lv -> String.valueOf(lv.getStartPC())));
+            columns.add(new Column().header("Length").with(lv -> String.valueOf(lv.getLength())));
+            columns.add(new Column().header("Slot").with(lv -> String.valueOf(lv.getIndex())));
+            columns.add(new Column().header("Name").with(LocalVariable::getName));
+            columns.add(new Column().header("Descriptor").with(LocalVariable::getSignature));
+            sb.append(AsciiTable.builder().lineSeparator("\n" + linePrefix).data(localVariableList, columns).asString());
+        }
+
+        LocalVariableTypeTable localVariableTypeTable = (LocalVariableTypeTable) Optional.ofNullable(attributeCode.getAttributes())
+                .map(Stream::of).orElseGet(Stream::empty).filter(LocalVariableTypeTable.class::isInstance).findAny().orElse(null);
+
+        if (localVariableTypeTable != null) {
+            sb.append("\n\n").append(linePrefix).append("Local variable type table:\n\n").append(linePrefix);
+            List<LocalVariable> localVariableList = Arrays.asList(localVariableTypeTable.getLocalVariableTypeTable());
+            List<ColumnData<LocalVariable>> columns = new ArrayList<>();
+            columns.add(new Column().header("Start").with(lv -> String.valueOf(lv.getStartPC())));
+            columns.add(new Column().header("Length").with(lv -> String.valueOf(lv.getLength())));
+            columns.add(new Column().header("Slot").with(lv -> String.valueOf(lv.getIndex())));
+            columns.add(new Column().header("Name").with(LocalVariable::getName));
+            columns.add(new Column().header("Descriptor").with(LocalVariable::getSignature));
+            sb.append(AsciiTable.builder().lineSeparator("\n" + linePrefix).data(localVariableList, columns).asString());
+        }
+    }
+}
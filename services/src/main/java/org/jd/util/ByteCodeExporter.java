@@ -0,0 +1,193 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.util;
+
+import org.apache.bcel.classfile.ClassFormatException;
+import org.apache.bcel.classfile.ClassParser;
+import org.apache.bcel.classfile.JavaClass;
+import org.apache.bcel.classfile.Method;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ExceptionUtil;
+import org.jd.core.v1.util.StringConstants;
+import org.jd.gui.api.model.Container;
+import org.jd.gui.service.actions.ShowControlFlowGraphContextualActionsFactory;
+import org.jd.gui.util.FutureUtil;
+import org.jd.gui.util.container.ClassBytesCache;
+import org.jd.gui.util.container.JarContainerEntryUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Exports the byte code listings and the control flow graphs of all the methods of the classes of a container.<br>
+ * <br>
+ * Classes are parsed once, on 'parallelism' threads, and the results are streamed to a ZIP file or a directory:
+ * <ul>
+ * <li>bytecode/[entry path without '.class'].txt</li>
+ * <li>cfg/[entry path without '.class']/[method name and descriptor]-[hash].svg</li>
+ * </ul>
+ * The paths of the entries are used rather than the type names, which are not unique in a container: versioned
+ * classes of multi-release JARs, 'module-info' classes of several modules.
+ */
+public class ByteCodeExporter {
+    public static final String BYTE_CODE_DIRECTORY = "bytecode/";
+    public static final String CONTROL_FLOW_GRAPH_DIRECTORY = "cfg/";
+
+    private static final int MAX_FILE_NAME_LENGTH = 160;
+
+    private final boolean byteCode;
+    private final boolean controlFlowGraphs;
+    private final int mode;
+    private final int parallelism;
+
+    // SVG documents are rendered into a buffer reused by each thread
+    private final ThreadLocal<ByteArrayOutputStream> svgBuffers = ThreadLocal.withInitial(() -> new ByteArrayOutputStream(64 * 1024));
+
+    /**
+     * @param mode see ShowControlFlowGraphContextualActionsFactory.MODE_*
+     */
+    public ByteCodeExporter(boolean byteCode, boolean controlFlowGraphs, int mode, int parallelism) {
+        this.byteCode = byteCode;
+        this.controlFlowGraphs = controlFlowGraphs;
+        this.mode = mode;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * @param target ZIP file when its name ends with '.zip', directory otherwise
+     * @return the number of exported classes
+     */
+    public int export(Container.Entry root, Path target, DoubleConsumer progressFunction, BooleanSupplier isCancelledFunction) throws IOException, InterruptedException {
+        List<Container.Entry> entries = new ArrayList<>();
+        JarContainerEntryUtil.collectClassEntries(root, true, entries);
+
+        int total = entries.size();
+        AtomicInteger exportedCount = new AtomicInteger();
+        AtomicInteger doneCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "ByteCodeExporter");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        // Up to 4 pending files per thread
+        try (StreamingArchiveWriter writer = new StreamingArchiveWriter(target, 4 * parallelism)) {
+            List<Future<?>> futures = new ArrayList<>(total);
+
+            for (Container.Entry entry : entries) {
+                futures.add(executor.submit(() -> {
+                    if (!isCancelledFunction.getAsBoolean()) {
+                        if (export(entry, writer)) {
+                            exportedCount.incrementAndGet();
+                        }
+                        progressFunction.accept(100.0 * doneCount.incrementAndGet() / total);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                FutureUtil.get(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return exportedCount.get();
+    }
+
+    protected boolean export(Container.Entry entry, StreamingArchiveWriter writer) throws IOException, InterruptedException {
+        JavaClass javaClass;
+
+        try {
+            byte[] bytes = ClassBytesCache.getInstance().get(entry);
+            javaClass = new ClassParser(new ByteArrayInputStream(bytes), entry.getPath()).parse();
+        } catch (ClassFormatException | IOException e) {
+            assert ExceptionUtil.printStackTrace(e);
+            return false;
+        }
+
+        String path = entry.getPath();
+        String basePath = path.substring(0, path.length() - StringConstants.CLASS_FILE_SUFFIX.length());
+        Set<String> fileNames = new HashSet<>();
+        StringBuilder sb = new StringBuilder(4096);
+        AsciiTableByteCodeWriter byteCodeWriter = new AsciiTableByteCodeWriter();
+
+        for (Method method : javaClass.getMethods()) {
+            if (byteCode) {
+                sb.append(method).append('\n');
+                if (method.getCode() != null) {
+                    sb.append(byteCodeWriter.write("    ", method)).append('\n');
+                }
+                sb.append('\n');
+            }
+            if (controlFlowGraphs && method.getCode() != null) {
+                byte[] svg = renderControlFlowGraph(method);
+
+                if (svg != null) {
+                    String fileName = getFileName(method);
+
+                    // Case-insensitive file systems
+                    while (!fileNames.add(fileName.toLowerCase(Locale.ROOT))) {
+                        fileName += '_';
+                    }
+
+                    writer.write(CONTROL_FLOW_GRAPH_DIRECTORY + basePath + '/' + fileName + ".svg", svg);
+                }
+            }
+        }
+
+        if (byteCode) {
+            writer.write(BYTE_CODE_DIRECTORY + basePath + ".txt", sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return true;
+    }
+
+    protected byte[] renderControlFlowGraph(Method method) {
+        ByteArrayOutputStream os = svgBuffers.get();
+
+        try {
+            os.reset();
+            CFGViewer.writeSvg(ShowControlFlowGraphContextualActionsFactory.makeControlFlowGraph(method, mode), os);
+            return os.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            // Unsupported byte code: skip the graph, keep the export going
+            assert ExceptionUtil.printStackTrace(e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the sanitized name and descriptor, truncated, followed by a hash of the name and descriptor telling apart
+     *         the methods sanitized to the same name
+     */
+    protected static String getFileName(Method method) {
+        String nameAndDescriptor = method.getName() + method.getSignature();
+        String fileName = nameAndDescriptor.replaceAll("[^a-zA-Z0-9.$\\-]", "_");
+
+        if (fileName.length() > MAX_FILE_NAME_LENGTH) {
+            fileName = fileName.substring(0, MAX_FILE_NAME_LENGTH);
+        }
+
+        return fileName + '-' + String.format("%08x", nameAndDescriptor.hashCode());
+    }
+}
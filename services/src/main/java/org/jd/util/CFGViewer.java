@@ -17,7 +17,7 @@ import java.awt.Desktop;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.nio.file.Files;
 
 import net.sourceforge.plantuml.FileFormat;
@@ -32,23 +32,21 @@ import net.sourceforge.plantuml.SourceStringReader;
  */
 public final class CFGViewer {
 
+    private static final FileFormatOption SVG = new FileFormatOption(FileFormat.SVG);
+
     private CFGViewer() {
     }
     
     public static void showGraph(ControlFlowGraph cfg, String className) {
         try {
-            SourceStringReader reader = new SourceStringReader(ControlFlowGraphPlantUMLWriter.write(cfg));
             final ByteArrayOutputStream os = new ByteArrayOutputStream();
-            // Write the first image to "os"
-            reader.outputImage(os, new FileFormatOption(FileFormat.SVG));
+            writeSvg(cfg, os);
 
-            // The XML is stored into svg
-            final String svg = new String(os.toByteArray(), StandardCharsets.UTF_8);
             Method method = cfg.getMethod();
             String svgFileName = Utility.pathToPackage(className) + '.' + method.getName().replaceAll("[^a-zA-Z0-9\\.\\-]", "_");
             File svgFile = File.createTempFile(svgFileName, ".svg");
             svgFile.deleteOnExit();
-            Files.write(svgFile.toPath(), svg.getBytes(StandardCharsets.UTF_8));
+            Files.write(svgFile.toPath(), os.toByteArray());
             if (Desktop.isDesktopSupported()) {
                 Desktop desktop = Desktop.getDesktop();
                 if (desktop.isSupported(Desktop.Action.BROWSE)) {
@@ -59,4 +57,11 @@ public final class CFGViewer {
             assert ExceptionUtil.printStackTrace(e);
         }
     }
+
+    /**
+     * Renders 'cfg' as a SVG document into 'os', without intermediate file.
+     */
+    public static void writeSvg(ControlFlowGraph cfg, OutputStream os) throws IOException {
+        new SourceStringReader(ControlFlowGraphPlantUMLWriter.write(cfg)).outputImage(os, SVG);
+    }
 }
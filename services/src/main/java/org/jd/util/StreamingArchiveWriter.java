@@ -0,0 +1,154 @@
+/*
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes the files produced by several threads into a ZIP file or a directory, from a single writer thread.<br>
+ * <br>
+ * Pending files are held in a bounded queue: producers block when the writer falls behind, so the memory used by an
+ * export does not depend on the size of the archive.
+ */
+public final class StreamingArchiveWriter implements Closeable {
+    private static final Item END = new Item(null, null);
+
+    private final BlockingQueue<Item> queue;
+    private final Sink sink;
+    private final Thread thread;
+    private volatile IOException failure;
+
+    /**
+     * @param target   ZIP file when its name ends with '.zip', directory otherwise
+     * @param capacity maximum number of pending files
+     */
+    public StreamingArchiveWriter(Path target, int capacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.sink = target.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip") ? new ZipSink(target) : new DirectorySink(target);
+        this.thread = new Thread(this::drain, "StreamingArchiveWriter");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private record Item(String path, byte[] content) {
+    }
+
+    private interface Sink extends Closeable {
+        void write(String path, byte[] content) throws IOException;
+    }
+
+    /**
+     * Queues 'content', blocking while the queue is full.
+     *
+     * @param path relative path, using '/' as separator
+     */
+    public void write(String path, byte[] content) throws IOException, InterruptedException {
+        Item item = new Item(path, content);
+
+        checkFailure();
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            // Do not wait forever for a writer that stopped on error
+            checkFailure();
+        }
+    }
+
+    /**
+     * Waits for the pending files, then closes the target.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            queue.put(END);
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+        } finally {
+            sink.close();
+        }
+        checkFailure();
+    }
+
+    private void drain() {
+        try {
+            Item item;
+
+            while ((item = queue.take()) != END) {
+                if (failure == null) {
+                    try {
+                        sink.write(item.path(), item.content());
+                    } catch (IOException e) {
+                        // Keep draining to release the producers
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static class ZipSink implements Sink {
+        private final ZipOutputStream zos;
+
+        public ZipSink(Path file) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.zos = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        }
+
+        @Override
+        public void write(String path, byte[] content) throws IOException {
+            zos.putNextEntry(new ZipEntry(path));
+            zos.write(content);
+            zos.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            zos.close();
+        }
+    }
+
+    private static class DirectorySink implements Sink {
+        private final Path directory;
+
+        public DirectorySink(Path directory) throws IOException {
+            this.directory = Files.createDirectories(directory);
+        }
+
+        @Override
+        public void write(String path, byte[] content) throws IOException {
+            Path file = directory.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.write(file, content);
+        }
+
+        @Override
+        public void close() {
+            // Files are closed once written
+        }
+    }
+}
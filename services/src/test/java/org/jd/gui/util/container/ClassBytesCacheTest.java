@@ -0,0 +1,181 @@
+package org.jd.gui.util.container;
+
+import org.jd.gui.api.model.Container;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class ClassBytesCacheTest extends TestCase {
+
+    public void testHitsAndMisses() throws IOException {
+        ClassBytesCache cache = new ClassBytesCache(1024);
+        TestContainer container = new TestContainer();
+        TestEntry a = new TestEntry(container, "a/A.class", 100);
+        TestEntry b = new TestEntry(container, "b/B.class", 100);
+
+        byte[] bytes = cache.get(a);
+        assertEquals(100, bytes.length);
+        assertSame(bytes, cache.get(a));
+        cache.get(b);
+        cache.get(a);
+
+        ClassBytesCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(2, stats.size());
+        assertEquals(1, a.readCount.get());
+        assertEquals(1, b.readCount.get());
+    }
+
+    public void testWeigherEviction() throws IOException {
+        ClassBytesCache cache = new ClassBytesCache(250, bytes -> bytes.length);
+        TestContainer container = new TestContainer();
+        TestEntry a = new TestEntry(container, "A.class", 100);
+        TestEntry b = new TestEntry(container, "B.class", 100);
+        TestEntry c = new TestEntry(container, "C.class", 100);
+
+        cache.get(a);
+        cache.get(b);
+        // 'a' becomes the most recently used entry
+        cache.get(a);
+        cache.get(c);
+
+        ClassBytesCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.evictionCount());
+        assertEquals(2, stats.size());
+        assertEquals(200, stats.weight());
+
+        // 'b' was evicted
+        cache.get(b);
+        assertEquals(2, b.readCount.get());
+        cache.get(c);
+        assertEquals(1, c.readCount.get());
+    }
+
+    public void testSingleFlight() throws Exception {
+        ClassBytesCache cache = new ClassBytesCache(1024 * 1024);
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+        TestEntry entry = new TestEntry(new TestContainer(), "Slow.class", 1000) {
+            @Override
+            public InputStream getInputStream() {
+                readStarted.countDown();
+                try {
+                    releaseRead.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getInputStream();
+            }
+        };
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+
+            futures.add(executor.submit(() -> cache.get(entry)));
+            assertTrue(readStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < threadCount; i++) {
+                futures.add(executor.submit(() -> cache.get(entry)));
+            }
+            // Let the other requests wait for the running read
+            Thread.sleep(100);
+            releaseRead.countDown();
+
+            byte[] first = futures.get(0).get(10, TimeUnit.SECONDS);
+
+            for (Future<byte[]> future : futures) {
+                assertSame(first, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ClassBytesCache.Stats stats = cache.getStats();
+        assertEquals(1, entry.readCount.get());
+        assertEquals(1, stats.missCount());
+        assertEquals(threadCount - 1, stats.hitCount());
+    }
+
+    public void testInvalidate() throws IOException {
+        ClassBytesCache cache = new ClassBytesCache(1024);
+        TestContainer container1 = new TestContainer();
+        TestContainer container2 = new TestContainer();
+        TestEntry a1 = new TestEntry(container1, "A.class", 10);
+        TestEntry b1 = new TestEntry(container1, "B.class", 10);
+        TestEntry a2 = new TestEntry(container2, "A.class", 10);
+
+        cache.get(a1);
+        cache.get(b1);
+        cache.get(a2);
+        assertEquals(3, cache.getStats().size());
+
+        cache.invalidate(b1);
+        assertEquals(2, cache.getStats().size());
+
+        cache.invalidate(container1);
+        assertEquals(1, cache.getStats().size());
+        cache.get(a2);
+        assertEquals(1, a2.readCount.get());
+        cache.get(a1);
+        assertEquals(2, a1.readCount.get());
+    }
+
+    protected static class TestContainer implements Container {
+        @Override
+        public String getType() { return "test"; }
+        @Override
+        public Container.Entry getRoot() { return null; }
+    }
+
+    protected static class TestEntry implements Container.Entry {
+        private final Container container;
+        private final String path;
+        private final byte[] content;
+        protected final AtomicInteger readCount = new AtomicInteger();
+
+        public TestEntry(Container container, String path, int length) {
+            this.container = container;
+            this.path = path;
+            this.content = new byte[length];
+        }
+
+        @Override
+        public Container getContainer() { return container; }
+        @Override
+        public Container.Entry getParent() { return null; }
+        @Override
+        public URI getUri() { return URI.create("test:///" + path); }
+        @Override
+        public long length() { return content.length; }
+        @Override
+        public long compressedLength() { return content.length; }
+        @Override
+        public Map<Container.EntryPath, Container.Entry> getChildren() { return Collections.emptyMap(); }
+        @Override
+        public boolean isDirectory() { return false; }
+        @Override
+        public String getPath() { return path; }
+
+        @Override
+        public InputStream getInputStream() {
+            readCount.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.jd.gui.util.index;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.TypePath;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureVisitor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import static org.objectweb.asm.ClassReader.SKIP_CODE;
+import static org.objectweb.asm.ClassReader.SKIP_DEBUG;
+import static org.objectweb.asm.ClassReader.SKIP_FRAMES;
+
+public class ClassFileScannerTest extends TestCase {
+    protected static final String[] SET_NAMES = {
+        "typeDeclarations", "constructorDeclarations", "methodDeclarations", "fieldDeclarations",
+        "typeReferences", "constructorReferences", "methodReferences", "fieldReferences",
+        "strings", "superTypeNames" };
+
+    public void testTypeAnnotations() throws IOException {
+        assertSameAsAsm(readClass(Bounded.class));
+        assertSameAsAsm(readClass(Annotated.class));
+        assertSameAsAsm(readClass(InvisiblyAnnotated.class));
+    }
+
+    public void testTypeParameterBound() throws IOException {
+        ClassFileScanner scanner = new ClassFileScanner();
+        byte[] classFile = readClass(Bounded.class);
+
+        scanner.scan(classFile, 0, classFile.length);
+
+        // Declared after the annotated type parameter bounds
+        assertTrue(scanner.getMethodDeclarations().contains("convert"));
+        assertTrue(scanner.getTypeReferences().contains("org/jd/gui/util/index/ClassFileScannerTest$Tagged"));
+    }
+
+    public void testJdkClasses() throws IOException {
+        for (Class<?> type : List.of(Object.class, String.class, java.util.HashMap.class, java.util.concurrent.ConcurrentHashMap.class, Thread.class)) {
+            assertSameAsAsm(readClass(type));
+        }
+    }
+
+    protected static void assertSameAsAsm(byte[] classFile) {
+        ClassFileScanner scanner = new ClassFileScanner();
+        List<Set<String>> expected = new AsmIndexer().index(classFile);
+
+        scanner.scan(classFile, 0, classFile.length);
+
+        List<Set<String>> actual = List.of(
+            scanner.getTypeDeclarations(), scanner.getConstructorDeclarations(), scanner.getMethodDeclarations(), scanner.getFieldDeclarations(),
+            scanner.getTypeReferences(), scanner.getConstructorReferences(), scanner.getMethodReferences(), scanner.getFieldReferences(),
+            scanner.getStrings(), scanner.getSuperTypeNames());
+
+        for (int i = 0; i < SET_NAMES.length; i++) {
+            assertEquals(scanner.getTypeName() + ": " + SET_NAMES[i], expected.get(i), actual.get(i));
+        }
+    }
+
+    protected static byte[] readClass(Class<?> type) throws IOException {
+        try (InputStream inputStream = type.getResourceAsStream('/' + type.getName().replace('.', '/') + ".class")) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    /**
+     * Reference collection by an ASM ClassVisitor, as done before ClassFileScanner.
+     */
+    protected static class AsmIndexer {
+        protected final List<Set<String>> sets = new ArrayList<>();
+        protected final Set<String> descriptors = new HashSet<>();
+
+        public List<Set<String>> index(byte[] classFile) {
+            for (int i = 0; i < SET_NAMES.length; i++) {
+                sets.add(new HashSet<>());
+            }
+
+            Set<String> typeReferences = sets.get(4);
+            ClassReader classReader = new ClassReader(classFile);
+            AnnotationVisitor annotationVisitor = new AnnotationVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitEnum(String name, String descriptor, String value) { descriptors.add(descriptor); }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+                    descriptors.add(descriptor);
+                    return this;
+                }
+            };
+
+            classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+                private String name;
+
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    this.name = name;
+                    sets.get(0).add(name);
+                    if (superName != null) {
+                        sets.get(9).add(superName);
+                    }
+                    if (interfaces != null) {
+                        Collections.addAll(sets.get(9), interfaces);
+                    }
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) { return add(descriptor); }
+
+                @Override
+                public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) { return add(descriptor); }
+
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                    sets.get(3).add(name);
+                    descriptors.add(signature == null ? descriptor : signature);
+                    return new FieldVisitor(Opcodes.ASM9) {
+                        @Override
+                        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) { return add(descriptor); }
+
+                        @Override
+                        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) { return add(descriptor); }
+                    };
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    if ("<init>".equals(name)) {
+                        sets.get(1).add(this.name);
+                    } else if (!"<clinit>".equals(name)) {
+                        sets.get(2).add(name);
+                    }
+                    descriptors.add(signature == null ? descriptor : signature);
+                    if (exceptions != null) {
+                        Collections.addAll(typeReferences, exceptions);
+                    }
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) { return add(descriptor); }
+
+                        @Override
+                        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) { return add(descriptor); }
+
+                        @Override
+                        public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) { return add(descriptor); }
+                    };
+                }
+
+                private AnnotationVisitor add(String descriptor) {
+                    descriptors.add(descriptor);
+                    return annotationVisitor;
+                }
+            }, SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+
+            SignatureVisitor signatureVisitor = new SignatureVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitClassType(String name) { typeReferences.add(name); }
+            };
+
+            for (String descriptor : descriptors) {
+                new SignatureReader(descriptor).accept(signatureVisitor);
+            }
+
+            // Constant pool references
+            char[] buffer = new char[classReader.getMaxStringLength()];
+
+            for (int i = classReader.getItemCount() - 1; i > 0; i--) {
+                int offset = classReader.getItem(i);
+
+                if (offset != 0) {
+                    switch (classReader.readByte(offset - 1)) {
+                        case 7: // Class
+                            String className = classReader.readUTF8(offset, buffer);
+                            if (className.startsWith("[")) {
+                                new SignatureReader(className).acceptType(signatureVisitor);
+                            } else {
+                                typeReferences.add(className);
+                            }
+                            break;
+                        case 8: // String
+                            sets.get(8).add(classReader.readUTF8(offset, buffer));
+                            break;
+                        case 9: // Fieldref
+                            sets.get(7).add(classReader.readUTF8(classReader.getItem(classReader.readUnsignedShort(offset + 2)), buffer));
+                            break;
+                        case 10, 11: // Methodref, InterfaceMethodref
+                            String methodName = classReader.readUTF8(classReader.getItem(classReader.readUnsignedShort(offset + 2)), buffer);
+                            if ("<init>".equals(methodName)) {
+                                sets.get(5).add(classReader.readClass(offset, buffer));
+                            } else {
+                                sets.get(6).add(methodName);
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+
+            return sets;
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ ElementType.TYPE_USE, ElementType.TYPE_PARAMETER })
+    protected @interface Tagged {
+        RetentionPolicy value() default RetentionPolicy.RUNTIME;
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    @Target(ElementType.TYPE_USE)
+    protected @interface Hidden {}
+
+    protected static class Bounded<@Tagged T extends @Tagged Comparable<@Tagged T>> implements @Tagged Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public <U extends @Tagged(RetentionPolicy.CLASS) Number & @Tagged Comparable<U>> List<@Tagged U> convert(@Tagged Map<@Tagged String, ? extends @Tagged U> map) throws @Tagged IOException {
+            return new ArrayList<>(map.values());
+        }
+    }
+
+    protected static class Annotated {
+        protected @Tagged String @Tagged [] names;
+        protected Map<@Tagged String, List<@Tagged ? super @Tagged Integer>> values;
+
+        public @Tagged Annotated(@Tagged int count) throws @Tagged IllegalStateException {
+            names = new String[count];
+        }
+
+        public Object cast(@Tagged Annotated this, Object value) {
+            @Tagged Object local = (@Tagged CharSequence) value;
+            return local;
+        }
+    }
+
+    protected static class InvisiblyAnnotated<T extends @Hidden Object> {
+        protected @Hidden List<@Hidden T> items;
+
+        public <E extends @Hidden Exception> void fail(E exception) throws @Hidden E {
+            throw exception;
+        }
+    }
+}
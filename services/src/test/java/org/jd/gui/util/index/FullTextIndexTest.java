@@ -0,0 +1,88 @@
+package org.jd.gui.util.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class FullTextIndexTest extends TestCase {
+
+    private static final String SOURCE_A =
+        "package org.example;\n" +
+        "\n" +
+        "public class Alpha {\n" +
+        "    // Looks up the default value\n" +
+        "    private String name = \"defaultValue\";\n" +
+        "\n" +
+        "    public String getDefaultValue() {\n" +
+        "        return name;\n" +
+        "    }\n" +
+        "}\n";
+
+    private static final String SOURCE_B =
+        "package org.example;\n" +
+        "\n" +
+        "public class Beta extends Alpha {\n" +
+        "    public int count = 42;\n" +
+        "}\n";
+
+    private FullTextIndex index;
+
+    @Override
+    protected void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("full-text-index-test");
+        // Small buffer: spill and merge several segments
+        FullTextIndexWriter writer = new FullTextIndexWriter(directory, Collections.singletonMap("key", "value"), 16);
+
+        for (int i = 0; i < 10; i++) {
+            writer.addDocument("file:/a" + i, "org/example/Alpha" + i + ".class", SOURCE_A);
+            writer.addDocument("file:/b" + i, "org/example/Beta" + i + ".class", SOURCE_B);
+        }
+
+        index = writer.finish();
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        index.close();
+    }
+
+    public void testPhrase() throws IOException {
+        List<FullTextIndex.Hit> hits = search("String getDefault", false, false, SourceTokenizer.ALL_KINDS);
+
+        assertEquals(20, index.getDocumentCount());
+        assertEquals("value", index.getPreferences().get("key"));
+        assertEquals(10, hits.size());
+
+        FullTextIndex.Hit hit = hits.get(0);
+        assertEquals("file:/a0", hit.uri());
+        assertEquals(7, hit.lineNumber());
+        assertEquals(SOURCE_A.indexOf("String getDefault"), hit.position());
+        assertEquals("public String getDefaultValue() {", hit.line());
+
+        assertTrue(search("Alpha count", false, false, SourceTokenizer.ALL_KINDS).isEmpty());
+        assertEquals(10, search("extends alpha", false, false, SourceTokenizer.ALL_KINDS).size());
+        assertTrue(search("extends alpha", false, true, SourceTokenizer.ALL_KINDS).isEmpty());
+    }
+
+    public void testKinds() throws IOException {
+        assertEquals(30, search("default", false, false, SourceTokenizer.ALL_KINDS).size());
+        assertEquals(10, search("default", false, false, 1 << SourceTokenizer.KIND_COMMENT).size());
+        assertEquals(10, search("default", false, false, 1 << SourceTokenizer.KIND_LITERAL).size());
+        assertEquals(10, search("default", false, false, 1 << SourceTokenizer.KIND_CODE).size());
+    }
+
+    public void testRegex() throws IOException {
+        assertEquals(10, search("count\\s*=\\s*\\d+", true, false, SourceTokenizer.ALL_KINDS).size());
+        assertEquals(20, search("class (Alpha|Beta)", true, false, SourceTokenizer.ALL_KINDS).size());
+        assertEquals(20, search("(?i)CLASS\\b", true, true, SourceTokenizer.ALL_KINDS).size());
+        assertEquals(10, search("get(Default)?Value", true, true, SourceTokenizer.ALL_KINDS).size());
+    }
+
+    private List<FullTextIndex.Hit> search(String text, boolean regex, boolean caseSensitive, int kinds) throws IOException {
+        return index.search(new FullTextIndex.Query(text, regex, caseSensitive, kinds), FullTextIndex.DEFAULT_MAX_HITS, () -> false);
+    }
+}
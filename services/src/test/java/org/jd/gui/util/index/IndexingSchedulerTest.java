@@ -0,0 +1,105 @@
+package org.jd.gui.util.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class IndexingSchedulerTest extends TestCase {
+
+    public void testSmallestFirst() {
+        Deque<Runnable> started = new ArrayDeque<>();
+        IndexingScheduler scheduler = new IndexingScheduler(1, started::add);
+        List<Long> order = new ArrayList<>();
+
+        for (long length : new long[] { 30, -1, 10, 20, 10 }) {
+            scheduler.execute(() -> order.add(length), length);
+        }
+
+        // The first task runs, the others are queued
+        assertEquals(1, started.size());
+        assertEquals(4, scheduler.getQueuedTaskCount());
+
+        while (!started.isEmpty()) {
+            started.poll().run();
+            assertTrue(started.size() <= 1);
+        }
+
+        assertEquals(List.of(30L, 10L, 10L, 20L, -1L), order);
+        assertEquals(0, scheduler.getQueuedTaskCount());
+    }
+
+    public void testParallelism() {
+        Deque<Runnable> started = new ArrayDeque<>();
+        IndexingScheduler scheduler = new IndexingScheduler(8, started::add);
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.execute(() -> {}, i);
+        }
+
+        assertEquals(IndexingScheduler.INITIAL_PARALLELISM, scheduler.getParallelism());
+        assertEquals(IndexingScheduler.INITIAL_PARALLELISM, started.size());
+
+        while (!started.isEmpty()) {
+            started.poll().run();
+            assertTrue(started.size() <= scheduler.getParallelism());
+        }
+
+        assertEquals(0, scheduler.getQueuedTaskCount());
+        assertTrue(scheduler.getParallelism() <= 8);
+    }
+
+    public void testAdaptation() {
+        Deque<Runnable> started = new ArrayDeque<>();
+        long[] clock = new long[1];
+        IndexingScheduler scheduler = new IndexingScheduler(8, started::add) {
+            @Override
+            protected long nanoTime() { return clock[0]; }
+        };
+
+        for (int i = 0; i < 30; i++) {
+            scheduler.execute(() -> {}, 1000);
+        }
+
+        assertEquals(IndexingScheduler.INITIAL_PARALLELISM, scheduler.getParallelism());
+
+        // Throughput growing by 50% & 33%: one more thread after each measure
+        complete(started, clock, 2, 1);
+        assertEquals(3, scheduler.getParallelism());
+        complete(started, clock, 3, 1);
+        assertEquals(4, scheduler.getParallelism());
+        complete(started, clock, 4, 1);
+        assertEquals(5, scheduler.getParallelism());
+        // 5000 bytes in 2 seconds: slower than 4 threads, back to 4 threads
+        complete(started, clock, 5, 2);
+        assertEquals(4, scheduler.getParallelism());
+        // Settled
+        complete(started, clock, 4, 1);
+        assertEquals(4, scheduler.getParallelism());
+
+        while (!started.isEmpty()) {
+            started.poll().run();
+            assertTrue(started.size() <= 4);
+        }
+
+        // Idle: the measure restarts with the next archives
+        assertEquals(IndexingScheduler.INITIAL_PARALLELISM, scheduler.getParallelism());
+
+        for (int i = 0; i < 4; i++) {
+            scheduler.execute(() -> {}, 1000);
+        }
+
+        complete(started, clock, 2, 1);
+        assertEquals(3, scheduler.getParallelism());
+    }
+
+    protected static void complete(Deque<Runnable> started, long[] clock, int taskCount, int seconds) {
+        clock[0] += seconds * 1_000_000_000L;
+
+        for (int i = 0; i < taskCount; i++) {
+            started.poll().run();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.jd.gui.util.index;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class SpilledIndexesTest extends TestCase {
+
+    public void testReadBack() throws IOException {
+        Object entry1 = new Object();
+        Object entry2 = new Object();
+        Map<String, Map<String, Collection>> indexes = new HashMap<>();
+        Map<String, Collection> typeDeclarations = new HashMap<>();
+        Map<String, Collection> subTypeNames = new HashMap<>();
+        Map<String, Collection> strings = new HashMap<>();
+
+        typeDeclarations.put("org/jd/gui/api/API", new ArrayList<>(List.of(entry1)));
+        typeDeclarations.put("org/jd/gui/api/model/Container", new ArrayList<>(List.of(entry1, entry2)));
+        typeDeclarations.put("org/jd/gui/api/model/Indexes", new ArrayList<>(List.of(entry2)));
+        subTypeNames.put("java/lang/Object", new ArrayList<>(List.of("org/jd/gui/api/API", "org/jd/gui/api/model/Indexes")));
+        strings.put("", new ArrayList<>(List.of(entry2)));
+        strings.put("été 😀 " + "x".repeat(70_000), new ArrayList<>(List.of(entry1)));
+        indexes.put("typeDeclarations", typeDeclarations);
+        indexes.put("subTypeNames", subTypeNames);
+        indexes.put("strings", strings);
+
+        SpilledIndexes spilled = SpilledIndexes.write(indexes);
+
+        try {
+            Map<String, Map<String, Collection>> read = spilled.read();
+
+            assertEquals(indexes, read);
+            // Same entries, not copies
+            assertSame(entry1, read.get("typeDeclarations").get("org/jd/gui/api/API").iterator().next());
+
+            assertTrue(spilled.hasIndex("subTypeNames"));
+            assertFalse(spilled.hasIndex("fieldDeclarations"));
+
+            for (Map.Entry<String, Map<String, Collection>> index : indexes.entrySet()) {
+                for (String key : index.getValue().keySet()) {
+                    assertTrue(spilled.mightContain(index.getKey(), key));
+                }
+            }
+        } finally {
+            spilled.delete();
+        }
+    }
+
+    public void testPartialReads() throws IOException {
+        Object entry = new Object();
+        Map<String, Map<String, Collection>> indexes = new HashMap<>();
+        Map<String, Collection> typeDeclarations = new HashMap<>();
+
+        for (int i = 0; i < 300; i++) {
+            typeDeclarations.put("org/example/package" + (i % 7) + "/Type" + i + "$Inner", new ArrayList<>(List.of(entry, "Type" + i)));
+        }
+        indexes.put("typeDeclarations", typeDeclarations);
+        indexes.put("strings", new HashMap<>());
+
+        SpilledIndexes spilled = SpilledIndexes.write(indexes);
+
+        try {
+            // Lookups reading a single block
+            for (Map.Entry<String, Collection> postings : typeDeclarations.entrySet()) {
+                assertEquals(postings.getValue(), spilled.get("typeDeclarations", postings.getKey()));
+            }
+            assertNull(spilled.get("typeDeclarations", "org/example/Missing"));
+            assertNull(spilled.get("typeDeclarations", "a"));
+            assertNull(spilled.get("typeDeclarations", "z"));
+            assertNull(spilled.get("strings", "org/example/package0/Type0$Inner"));
+
+            assertEquals(typeDeclarations, spilled.read("typeDeclarations"));
+            assertTrue(spilled.read("strings").isEmpty());
+            assertNull(spilled.read("fieldDeclarations"));
+            assertEquals(300, spilled.size("typeDeclarations"));
+            assertEquals(0, spilled.size("strings"));
+
+            // Summaries of the keys & of the simple names
+            assertTrue(spilled.mightHaveKeyStartingWith("typeDeclarations", "org"));
+            assertTrue(spilled.mightHaveKeyStartingWith("typeDeclarations", ""));
+            assertFalse(spilled.mightHaveKeyStartingWith("typeDeclarations", "Zq"));
+            assertFalse(spilled.mightHaveKeyStartingWith("strings", "o"));
+            assertTrue(spilled.mightHaveSimpleNameStartingWith("typeDeclarations", "In"));
+            assertFalse(spilled.mightHaveSimpleNameStartingWith("typeDeclarations", "Ty"));
+            assertFalse(spilled.mightHaveSimpleNameStartingWith("typeDeclarations", "Zq"));
+        } finally {
+            spilled.delete();
+        }
+    }
+
+    public void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        int falsePositives = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("typeDeclarations", "org/example/Type" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("typeDeclarations", "org/example/Type" + i));
+            if (filter.mightContain("typeDeclarations", "org/example/Missing" + i)) {
+                falsePositives++;
+            }
+            if (filter.mightContain("strings", "org/example/Type" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2 * 10_000 * 0.02);
+    }
+
+    public void testResidency() {
+        IndexResidency residency = new IndexResidency(1000);
+        List<String> spilled = new ArrayList<>();
+        long now = System.nanoTime();
+
+        residency.register(newResident("old", 600, now - 3 * IndexResidency.MIN_IDLE_NANOS, spilled));
+        residency.register(newResident("older", 600, now - 4 * IndexResidency.MIN_IDLE_NANOS, spilled));
+        residency.register(newResident("recent", 600, now, spilled));
+
+        // Least recently queried first, down to the low water mark, never the recent ones
+        assertEquals(600, residency.check(now));
+        assertEquals(List.of("older", "old"), spilled);
+    }
+
+    protected static IndexResidency.Resident newResident(String name, long weight, long lastAccess, List<String> spilled) {
+        return new IndexResidency.Resident() {
+            private boolean resident = true;
+
+            @Override
+            public long weight() { return resident ? weight : 0; }
+
+            @Override
+            public long lastAccess() { return lastAccess; }
+
+            @Override
+            public synchronized boolean spill() {
+                resident = false;
+                spilled.add(name);
+                return true;
+            }
+        };
+    }
+
+    public void testStaleFiles() throws IOException {
+        Map<String, Map<String, Collection>> indexes = new HashMap<>();
+        indexes.put("strings", new HashMap<>(Map.of("s", new ArrayList<>(List.of("s")))));
+
+        SpilledIndexes spilled = SpilledIndexes.write(indexes);
+
+        try {
+            SpilledIndexes.deleteStaleFiles();
+            // Spilled by this process: kept
+            assertEquals(List.of("s"), spilled.get("strings", "s"));
+        } finally {
+            spilled.delete();
+        }
+
+        assertFalse(SpilledIndexes.isStale("jd-gui-indexes-" + ProcessHandle.current().pid() + "-123.bin"));
+        assertTrue(SpilledIndexes.isStale("jd-gui-indexes123.bin"));
+        assertTrue(SpilledIndexes.isStale("jd-gui-indexes-x-123.bin"));
+    }
+}
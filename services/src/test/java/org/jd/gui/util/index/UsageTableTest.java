@@ -0,0 +1,99 @@
+package org.jd.gui.util.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class UsageTableTest extends TestCase {
+
+    public void testMethodUsages() throws IOException {
+        UsageTable table = scan(Sample.class);
+        List<Integer> usages = new ArrayList<>();
+
+        assertEquals(2, table.forEachUsage(Set.of("java/lang/Integer"), "parseInt", "(Ljava/lang/String;)I", usages::add));
+        assertEquals("org/jd/gui/util/index/UsageTableTest$Sample", table.getTypeName());
+
+        for (int usage : usages) {
+            assertEquals("use", table.getMethodName(usage));
+            assertEquals("(ILjava/lang/Object;)I", table.getMethodDescriptor(usage));
+            assertTrue(table.getLineNumber(usage) > 0);
+        }
+
+        // Instructions following the switches
+        assertTrue(table.getOffset(usages.get(0)) < table.getOffset(usages.get(1)));
+        assertTrue(table.getLineNumber(usages.get(0)) < table.getLineNumber(usages.get(1)));
+    }
+
+    public void testFieldAndConstructorUsages() throws IOException {
+        UsageTable table = scan(Sample.class);
+        String owner = "org/jd/gui/util/index/UsageTableTest$Sample";
+
+        assertEquals(3, table.forEachUsage(Set.of(owner), "count", null, usage -> {}));
+        assertEquals(1, table.forEachUsage(Set.of("java/lang/StringBuilder"), "<init>", "()V", usage -> {}));
+        assertEquals(0, table.forEachUsage(Set.of("java/lang/StringBuilder"), "<init>", "(I)V", usage -> {}));
+    }
+
+    public void testTypeUsages() throws IOException {
+        UsageTable table = scan(Sample.class);
+
+        // checkcast, anewarray
+        assertEquals(2, table.forEachUsage(Set.of("java/lang/CharSequence"), null, null, usage -> {}));
+        // new, invokespecial, invokevirtual & toString
+        assertTrue(table.forEachUsage(Set.of("java/lang/StringBuilder"), null, null, usage -> {}) >= 3);
+    }
+
+    public void testNotRecorded() throws IOException {
+        ClassFileScanner scanner = new ClassFileScanner();
+
+        try (InputStream inputStream = Sample.class.getResourceAsStream("UsageTableTest$Sample.class")) {
+            scanner.scan(inputStream);
+        }
+
+        assertSame(UsageTable.EMPTY, scanner.getUsageTable());
+        assertTrue(scanner.getMethodReferences().contains("parseInt"));
+    }
+
+    protected static UsageTable scan(Class<?> type) throws IOException {
+        ClassFileScanner scanner = new ClassFileScanner();
+
+        scanner.setRecordingUsages(true);
+
+        try (InputStream inputStream = type.getResourceAsStream(type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class")) {
+            scanner.scan(inputStream);
+        }
+
+        return scanner.getUsageTable();
+    }
+
+    protected static class Sample {
+        protected int count;
+
+        public int use(int value, Object object) {
+            int result = Integer.parseInt("1");
+
+            switch (value) {
+                case 0: result++; break;
+                case 1: result--; break;
+                case 2: result += 2; break;
+                default: break;
+            }
+
+            switch (value) {
+                case 10: result++; break;
+                case 1000: result--; break;
+                default: break;
+            }
+
+            CharSequence[] sequences = new CharSequence[] { (CharSequence)object };
+            StringBuilder sb = new StringBuilder();
+
+            sb.append(sequences.length);
+            count += result;
+            return count + Integer.parseInt(sb.toString());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.jd.gui.util.xml;
+
+import java.io.StringReader;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import junit.framework.TestCase;
+
+public class XmlPathMatcherTest extends TestCase {
+
+    private static final String WEB_XML =
+        "<?xml version=\"1.0\"?>\n" +
+        "<!DOCTYPE web-app PUBLIC \"-//Sun Microsystems, Inc.//DTD Web Application 2.3//EN\" \"http://java.sun.com/dtd/web-app_2_3.dtd\">\n" +
+        "<web-app>\n" +
+        "  <servlet>\n" +
+        "    <servlet-name>café</servlet-name>\n" +
+        "    <servlet-class> org.example.Servlet </servlet-class>\n" +
+        "  </servlet>\n" +
+        "  <filter><servlet-class>org.example.Ignored</servlet-class></filter>\n" +
+        "  <welcome-file-list><welcome-file>index.jsp</welcome-file></welcome-file-list>\n" +
+        "</web-app>\n";
+
+    public void testMatches() {
+        List<XmlPathMatcher.Match> matches = find(WEB_XML);
+
+        assertEquals(2, matches.size());
+
+        XmlPathMatcher.Match servletClass = matches.get(0);
+        assertEquals("web-app/servlet/servlet-class", servletClass.path());
+        assertEquals(" org.example.Servlet ", servletClass.text());
+        assertEquals(WEB_XML.indexOf(" org.example.Servlet"), servletClass.position());
+
+        XmlPathMatcher.Match welcomeFile = matches.get(1);
+        assertEquals("web-app/welcome-file-list/welcome-file", welcomeFile.path());
+        assertEquals(WEB_XML.indexOf("index.jsp"), welcomeFile.position());
+    }
+
+    public void testTextAfterChildElement() {
+        // The text following a child element does not belong to a path
+        List<XmlPathMatcher.Match> matches = find("<web-app><servlet><servlet-class><b/>X</servlet-class></servlet></web-app>");
+
+        assertTrue(matches.isEmpty());
+    }
+
+    public void testMalformedDocument() {
+        List<XmlPathMatcher.Match> matches = find("<web-app><servlet><servlet-class>A</servlet-class><servlet>");
+
+        assertEquals(1, matches.size());
+        assertEquals("A", matches.get(0).text());
+    }
+
+    public void testPositionsInDecodedText() {
+        // Characters encoded on several bytes and on two chars, line separators, '>' in an attribute value
+        String xml =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n" +
+            "<web-app>\r\n" +
+            "  <!-- \u00e9t\u00e9 \ud83d\ude00 -->\r\n" +
+            "  <servlet><servlet-name>\u00e9\u00e9</servlet-name><servlet-class id=\"a>b\">org.example.\u00c9t\u00e9</servlet-class></servlet>\r\n" +
+            "</web-app>\r\n";
+        List<XmlPathMatcher.Match> matches = find(xml);
+
+        assertEquals(1, matches.size());
+        assertEquals(xml.indexOf("org.example."), matches.get(0).position());
+    }
+
+    public void testScannerFedByAnotherPass() throws XMLStreamException {
+        XmlPathMatcher matcher = newMatcher();
+        XmlPathMatcher.Scanner scanner = matcher.newScanner(WEB_XML);
+        XMLStreamReader reader = XmlFactories.getInputFactory().createXMLStreamReader(new StringReader(WEB_XML));
+
+        while (reader.hasNext()) {
+            reader.next();
+            scanner.accept(reader);
+        }
+        reader.close();
+
+        assertEquals(matcher.find(WEB_XML), scanner.getMatches());
+    }
+
+    private static List<XmlPathMatcher.Match> find(String xml) {
+        return newMatcher().find(xml);
+    }
+
+    private static XmlPathMatcher newMatcher() {
+        return new XmlPathMatcher(List.of("web-app/servlet/servlet-class", "web-app/welcome-file-list/welcome-file"));
+    }
+}